@@ -0,0 +1,42 @@
+package com.demo.account.benchmark;
+
+import com.demo.account.dto.QueryTransactionResponse;
+import com.demo.account.dto.TransactionDto;
+import com.demo.account.dto.UseBalance;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+
+import static com.demo.account.type.TransactionResultType.S;
+import static com.demo.account.type.TransactionType.USE;
+
+/**
+ * 응답 DTO 변환 비용 (할당량 위주로 본다)
+ */
+@State(Scope.Thread)
+public class DtoMappingBenchmark {
+  private TransactionDto transactionDto;
+
+  @Setup
+  public void setUp() {
+    transactionDto = TransactionDto.builder()
+            .accountNumber("1000000000")
+            .transactionType(USE)
+            .transactionResultType(S)
+            .amount(1000L)
+            .balanceSnapshot(9000L)
+            .transactionId("0123456789abcdef0123456789abcdef")
+            .transactedAt(LocalDateTime.now())
+            .build();
+  }
+
+  @Benchmark
+  public UseBalance.Response useBalanceResponse() {
+    return UseBalance.Response.from(transactionDto);
+  }
+
+  @Benchmark
+  public QueryTransactionResponse queryTransactionResponse() {
+    return QueryTransactionResponse.from(transactionDto);
+  }
+}
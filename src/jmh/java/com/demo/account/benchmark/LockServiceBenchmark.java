@@ -0,0 +1,75 @@
+package com.demo.account.benchmark;
+
+import com.demo.account.lock.LocalLockBackend;
+import com.demo.account.lock.LockBackend;
+import com.demo.account.lock.RedisLockBackend;
+import com.demo.account.service.LockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import redis.embedded.RedisServer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 계좌 lock 한 번 잡고 푸는 비용 (embedded redis / 로컬 lock)
+ * 스레드마다 다른 계좌를 써서 경합 없는 경로를 잰다
+ */
+@State(Scope.Benchmark)
+public class LockServiceBenchmark {
+  //앱 기본 포트(6379) 와 겹치지 않게 한다
+  private static final int REDIS_PORT = 6390;
+
+  @Param({"redis", "local"})
+  private String backend;
+
+  private RedisServer redisServer;
+  private RedissonClient redissonClient;
+  private LockService lockService;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    LockBackend lockBackend;
+    if ("redis".equals(backend)) {
+      redisServer = new RedisServer(REDIS_PORT);
+      redisServer.start();
+      Config config = new Config();
+      config.useSingleServer().setAddress("redis://127.0.0.1:" + REDIS_PORT);
+      redissonClient = Redisson.create(config);
+      lockBackend = new RedisLockBackend(redissonClient);
+    } else {
+      lockBackend = new LocalLockBackend(1024);
+    }
+    lockService = new LockService(lockBackend, new SimpleMeterRegistry());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    if (redissonClient != null) {
+      redissonClient.shutdown();
+    }
+    if (redisServer != null) {
+      redisServer.stop();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Account {
+    private static final AtomicLong SEQUENCE = new AtomicLong(1_000_000_000L);
+
+    private String accountNumber;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      accountNumber = String.valueOf(SEQUENCE.getAndIncrement());
+    }
+  }
+
+  @Benchmark
+  public void lockAndUnlock(Account account) {
+    lockService.lock(account.accountNumber);
+    lockService.unlock(account.accountNumber);
+  }
+}
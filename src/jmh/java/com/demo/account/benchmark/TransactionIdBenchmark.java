@@ -0,0 +1,39 @@
+package com.demo.account.benchmark;
+
+import com.demo.account.id.SnowflakeTransactionIdGenerator;
+import com.demo.account.id.UlidTransactionIdGenerator;
+import com.demo.account.id.UuidTransactionIdGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+
+/**
+ * 거래 id 발급 비용 (여러 스레드에서 같은 발급기를 쓴다, -t 로 스레드 수 지정)
+ */
+@State(Scope.Benchmark)
+public class TransactionIdBenchmark {
+  private final UuidTransactionIdGenerator uuid = new UuidTransactionIdGenerator();
+  private final UlidTransactionIdGenerator ulid = new UlidTransactionIdGenerator();
+  private final SnowflakeTransactionIdGenerator snowflake = new SnowflakeTransactionIdGenerator(0);
+
+  //이전 방식
+  @Benchmark
+  public String uuidReplace() {
+    return UUID.randomUUID().toString().replace("-", "");
+  }
+
+  @Benchmark
+  public String uuid() {
+    return uuid.nextId();
+  }
+
+  @Benchmark
+  public String ulid() {
+    return ulid.nextId();
+  }
+
+  @Benchmark
+  public String snowflake() {
+    return snowflake.nextId();
+  }
+}
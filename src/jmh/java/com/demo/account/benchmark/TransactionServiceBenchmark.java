@@ -0,0 +1,53 @@
+package com.demo.account.benchmark;
+
+import com.demo.account.AccountApplication;
+import com.demo.account.dto.TransactionDto;
+import com.demo.account.service.AccountService;
+import com.demo.account.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * H2 + JPA 를 포함한 사용/취소 처리량
+ * 컨트롤러와 계좌 lock 은 빼고 서비스 트랜잭션만 잰다
+ */
+@State(Scope.Benchmark)
+public class TransactionServiceBenchmark {
+  private static final long USER_ID = 1L;
+  private static final long AMOUNT = 10L;
+
+  private ConfigurableApplicationContext context;
+  private TransactionService transactionService;
+  private String accountNumber;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = new SpringApplicationBuilder(AccountApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(
+                    "--spring.jpa.properties.hibernate.show_sql=false",
+                    "--logging.level.root=WARN");
+    transactionService = context.getBean(TransactionService.class);
+    accountNumber = context.getBean(AccountService.class)
+            .createAccount(USER_ID, Long.MAX_VALUE / 2)
+            .getAccountNumber();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public TransactionDto useBalance() {
+    return transactionService.useBalance(USER_ID, accountNumber, AMOUNT);
+  }
+
+  @Benchmark
+  public TransactionDto useAndCancelBalance() {
+    TransactionDto used = transactionService.useBalance(USER_ID, accountNumber, AMOUNT);
+    return transactionService.cancelBalance(used.getTransactionId(), accountNumber, AMOUNT);
+  }
+}
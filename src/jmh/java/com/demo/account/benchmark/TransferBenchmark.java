@@ -0,0 +1,105 @@
+package com.demo.account.benchmark;
+
+import com.demo.account.AccountApplication;
+import com.demo.account.dto.TransferDto;
+import com.demo.account.service.AccountService;
+import com.demo.account.service.LockService;
+import com.demo.account.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 적은 수의 hot 계좌 사이에서 여러 스레드가 양방향으로 이체할 때의 처리량
+ * - lock: 두 계좌를 계좌번호 순서로 한 번에 lock 한 뒤 이체 (LockAopAspect 와 같은 순서), lock backend 별로 잰다
+ * - atomic: lock 없이 두 계좌 row 를 계좌번호 순서로 SELECT ... FOR UPDATE (lock backend 와 상관없다)
+ * 계좌 수가 적을수록 같은 계좌 쌍을 반대 방향으로 이체하는 경우가 많아진다
+ */
+@Threads(8)
+public class TransferBenchmark {
+  private static final long USER_ID = 1L;
+  private static final long AMOUNT = 10L;
+  private static final long LOCK_WAIT_TIME = 5000L;
+  private static final long LOCK_LEASE_TIME = 15000L;
+
+  @State(Scope.Benchmark)
+  public abstract static class HotAccounts {
+    @Param({"2", "8"})
+    public int hotAccounts;
+
+    ConfigurableApplicationContext context;
+    TransactionService transactionService;
+    LockService lockService;
+    String[] accountNumbers;
+
+    void start(String lockBackend) {
+      context = new SpringApplicationBuilder(AccountApplication.class)
+              .web(WebApplicationType.NONE)
+              .run(
+                      "--account.lock.backend=" + lockBackend,
+                      "--spring.jpa.properties.hibernate.show_sql=false",
+                      "--logging.level.root=WARN");
+      transactionService = context.getBean(TransactionService.class);
+      lockService = context.getBean(LockService.class);
+      AccountService accountService = context.getBean(AccountService.class);
+      accountNumbers = new String[hotAccounts];
+      for (int i = 0; i < hotAccounts; i++) {
+        accountNumbers[i] = accountService.createAccount(USER_ID, Long.MAX_VALUE / 2)
+                .getAccountNumber();
+      }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      context.close();
+    }
+
+    //출금/입금 계좌를 무작위로 고른다 (방향도 무작위)
+    List<String> randomPair() {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      int from = random.nextInt(accountNumbers.length);
+      int to = (from + 1 + random.nextInt(accountNumbers.length - 1)) % accountNumbers.length;
+      return List.of(accountNumbers[from], accountNumbers[to]);
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class LockState extends HotAccounts {
+    @Param({"redis", "local"})
+    public String lockBackend;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      start(lockBackend);
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class AtomicState extends HotAccounts {
+    @Setup(Level.Trial)
+    public void setUp() {
+      start("local");
+    }
+  }
+
+  @Benchmark
+  public TransferDto lock(LockState state) {
+    List<String> pair = state.randomPair();
+    state.lockService.lockAll(pair, "transfer", LOCK_WAIT_TIME, LOCK_LEASE_TIME);
+    try {
+      return state.transactionService.transfer(USER_ID, pair.get(0), pair.get(1), AMOUNT);
+    } finally {
+      state.lockService.unlockAll(pair, "transfer");
+    }
+  }
+
+  @Benchmark
+  public TransferDto atomic(AtomicState state) {
+    List<String> pair = state.randomPair();
+    return state.transactionService.transferForUpdate(USER_ID, pair.get(0), pair.get(1), AMOUNT);
+  }
+}
@@ -0,0 +1,45 @@
+package com.demo.account.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 부하를 줄 계좌 고르기
+ * uniform 은 모든 계좌가 같은 확률, zipf 는 앞쪽 계좌일수록 많이 뽑힌다 (hot account)
+ */
+interface AccountSelector {
+  int next();
+
+  static AccountSelector uniform(int size) {
+    return () -> ThreadLocalRandom.current().nextInt(size);
+  }
+
+  /**
+   * k 번째 계좌를 1/k^exponent 에 비례하는 확률로 고른다
+   */
+  static AccountSelector zipf(int size, double exponent) {
+    double[] cdf = new double[size];
+    double sum = 0;
+    for (int k = 1; k <= size; k++) {
+      sum += 1.0 / Math.pow(k, exponent);
+      cdf[k - 1] = sum;
+    }
+    for (int i = 0; i < size; i++) {
+      cdf[i] /= sum;
+    }
+
+    return () -> {
+      double value = ThreadLocalRandom.current().nextDouble();
+      int low = 0;
+      int high = size - 1;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (cdf[mid] < value) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    };
+  }
+}
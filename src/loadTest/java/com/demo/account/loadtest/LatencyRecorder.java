@@ -0,0 +1,46 @@
+package com.demo.account.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * 워커 하나가 쓰는 지연 시간 기록 (나노초)
+ * 워커마다 따로 쓰고 끝난 뒤에 합쳐서 정렬하기 때문에 백분위가 근사값이 아니다
+ */
+class LatencyRecorder {
+  private long[] values = new long[1024];
+  private int size;
+
+  void record(long nanos) {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, size * 2);
+    }
+    values[size++] = nanos;
+  }
+
+  int count() {
+    return size;
+  }
+
+  static long[] merge(Iterable<LatencyRecorder> recorders) {
+    int total = 0;
+    for (LatencyRecorder recorder : recorders) {
+      total += recorder.size;
+    }
+    long[] merged = new long[total];
+    int offset = 0;
+    for (LatencyRecorder recorder : recorders) {
+      System.arraycopy(recorder.values, 0, merged, offset, recorder.size);
+      offset += recorder.size;
+    }
+    Arrays.sort(merged);
+    return merged;
+  }
+
+  static long percentile(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+    return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+  }
+}
@@ -0,0 +1,166 @@
+package com.demo.account.loadtest;
+
+import com.demo.account.AccountApplication;
+import com.demo.account.domain.Account;
+import com.demo.account.repository.AccountRepository;
+import com.demo.account.service.AccountService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * AccountApplication 을 H2 + embedded redis 로 띄우고 HTTP 로 부하를 준다
+ * ./gradlew loadTest [-PloadTest.scenarios=uniform,zipf] [-PloadTest.duration=20]
+ * [-PloadTest.concurrency=64] [-PloadTest.accounts=100] [-PloadTest.zipfExponent=1.2]
+ * [-PloadTest.threadModes=platform,virtual]
+ * account.*, spring.* 속성(-Paccount.transaction.mode=QUEUE 등) 은 그대로 앱 설정으로 넘어간다
+ * threadModes 를 여러 개 주면 모드마다 앱을 다시 띄워서 같은 시나리오를 돌린다
+ *
+ * 시나리오마다 새 계좌를 만들고, 끝나면 계좌별로
+ * DB 잔액 = 초기 잔액 - 성공한 사용 + 성공한 취소 (거래 테이블 기준, 클라이언트 기준 모두)
+ * 인지 확인한다. 하나라도 어긋나면 종료 코드 1
+ */
+public class LoadTest {
+  private static final long INITIAL_BALANCE = 1_000_000_000L;
+  //data.sql 사용자(1~3) 와 겹치지 않는 부하 테스트용 사용자 id
+  private static final long FIRST_USER_ID = 10_000L;
+  private static final int ACCOUNTS_PER_USER = 10;
+
+  public static void main(String[] args) throws Exception {
+    List<String> scenarios = List.of(System.getProperty("loadTest.scenarios", "uniform,zipf")
+            .split(","));
+    Duration duration = Duration.ofSeconds(Long.getLong("loadTest.duration", 20L));
+    int concurrency = Integer.getInteger("loadTest.concurrency", 64);
+    int accountCount = Integer.getInteger("loadTest.accounts", 100);
+    double zipfExponent = Double.parseDouble(System.getProperty("loadTest.zipfExponent", "1.2"));
+
+    List<String> threadModes = List.of(System.getProperty("loadTest.threadModes",
+            Boolean.getBoolean("spring.threads.virtual.enabled") ? "virtual" : "platform")
+            .split(","));
+
+    boolean invariantHolds = true;
+    for (String threadMode : threadModes) {
+      ConfigurableApplicationContext context = new SpringApplicationBuilder(AccountApplication.class)
+              .run(
+                      "--server.port=0",
+                      "--spring.threads.virtual.enabled=" + threadMode.trim().equals("virtual"),
+                      "--spring.jpa.properties.hibernate.show_sql=false",
+                      "--logging.level.root=WARN");
+      try {
+        invariantHolds &= runScenarios(context, threadMode.trim(), scenarios, duration,
+                concurrency, accountCount, zipfExponent);
+      } finally {
+        context.close();
+      }
+    }
+    System.exit(invariantHolds ? 0 : 1);
+  }
+
+  private static boolean runScenarios(
+          ConfigurableApplicationContext context,
+          String threadMode,
+          List<String> scenarios,
+          Duration duration,
+          int concurrency,
+          int accountCount,
+          double zipfExponent
+  ) {
+    String baseUrl = "http://localhost:"
+            + context.getEnvironment().getProperty("local.server.port");
+    HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+    ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+
+    boolean invariantHolds = true;
+    long nextUserId = FIRST_USER_ID;
+    for (String scenario : scenarios) {
+      List<ScenarioRunner.LoadAccount> accounts =
+              createAccounts(context, nextUserId, accountCount);
+      nextUserId += (accountCount + ACCOUNTS_PER_USER - 1) / ACCOUNTS_PER_USER;
+
+      AccountSelector accountSelector = switch (scenario.trim()) {
+        case "uniform" -> AccountSelector.uniform(accountCount);
+        case "zipf" -> AccountSelector.zipf(accountCount, zipfExponent);
+        default -> throw new IllegalArgumentException("unknown scenario : " + scenario);
+      };
+
+      System.out.printf("%n=== %s (%d accounts%s, %d concurrent, %ds, %s request threads, mode %s) ===%n",
+              scenario.trim(), accountCount,
+              scenario.trim().equals("zipf") ? ", exponent " + zipfExponent : "",
+              concurrency, duration.toSeconds(), threadMode,
+              context.getEnvironment().getProperty("account.transaction.mode", "LOCK"));
+      new ScenarioRunner(httpClient, objectMapper, baseUrl, accounts, accountSelector,
+              concurrency, duration)
+              .run()
+              .print(System.out);
+      invariantHolds &= checkBalances(context, accounts);
+    }
+    return invariantHolds;
+  }
+
+  private static List<ScenarioRunner.LoadAccount> createAccounts(
+          ConfigurableApplicationContext context,
+          long firstUserId,
+          int accountCount
+  ) {
+    JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+    AccountService accountService = context.getBean(AccountService.class);
+
+    List<ScenarioRunner.LoadAccount> accounts = new ArrayList<>(accountCount);
+    for (int i = 0; i < accountCount; i++) {
+      long userId = firstUserId + i / ACCOUNTS_PER_USER;
+      if (i % ACCOUNTS_PER_USER == 0) {
+        jdbcTemplate.update("insert into account_user(id, name, created_at, updated_at)"
+                + " values (?, ?, now(), now())", userId, "load-" + userId);
+      }
+      String accountNumber = accountService.createAccount(userId, INITIAL_BALANCE)
+              .getAccountNumber();
+      accounts.add(new ScenarioRunner.LoadAccount(accountNumber, userId, INITIAL_BALANCE));
+    }
+    return accounts;
+  }
+
+  private static boolean checkBalances(
+          ConfigurableApplicationContext context,
+          List<ScenarioRunner.LoadAccount> accounts
+  ) {
+    AccountRepository accountRepository = context.getBean(AccountRepository.class);
+    JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+    List<String> violations = new ArrayList<>();
+    for (ScenarioRunner.LoadAccount loadAccount : accounts) {
+      Account account = accountRepository.findByAccountNumber(loadAccount.accountNumber)
+              .orElseThrow();
+      Long ledger = jdbcTemplate.queryForObject(
+              "select coalesce(sum(case when t.transaction_type = 'USE'"
+                      + " then -t.amount else t.amount end), 0)"
+                      + " from transaction t where t.account_id = ?"
+                      + " and t.transaction_result_type = 'S'",
+              Long.class, account.getId());
+      long balance = account.getBalance();
+      if (balance < 0
+              || balance != loadAccount.initialBalance + ledger
+              || balance != loadAccount.expectedBalance.get()) {
+        violations.add(String.format("%s balance=%d ledger=%d client=%d",
+                loadAccount.accountNumber, balance, loadAccount.initialBalance + ledger,
+                loadAccount.expectedBalance.get()));
+      }
+    }
+
+    if (violations.isEmpty()) {
+      System.out.printf("balance invariant: OK (%d accounts)%n", accounts.size());
+      return true;
+    }
+    System.out.printf("balance invariant: FAILED (%d of %d accounts)%n",
+            violations.size(), accounts.size());
+    violations.stream().limit(10).forEach(violation -> System.out.println("  " + violation));
+    return false;
+  }
+}
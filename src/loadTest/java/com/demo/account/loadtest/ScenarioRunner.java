@@ -0,0 +1,248 @@
+package com.demo.account.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 시나리오 하나를 정해진 시간 동안 실행한다
+ * 워커마다 계좌를 골라 사용(60%) / 직전 사용 거래 취소(20%) / 거래 조회(20%) 를 보낸다
+ * 취소하거나 조회할 거래가 아직 없으면 사용을 보낸다
+ */
+class ScenarioRunner {
+  static final String LOCK_FAILURE = "ACCOUNT_TRANSACTION_LOCK";
+
+  enum Operation {USE, CANCEL, QUERY}
+
+  private final HttpClient httpClient;
+  private final ObjectMapper objectMapper;
+  private final String baseUrl;
+  private final List<LoadAccount> accounts;
+  private final AccountSelector accountSelector;
+  private final int concurrency;
+  private final Duration duration;
+
+  ScenarioRunner(
+          HttpClient httpClient,
+          ObjectMapper objectMapper,
+          String baseUrl,
+          List<LoadAccount> accounts,
+          AccountSelector accountSelector,
+          int concurrency,
+          Duration duration
+  ) {
+    this.httpClient = httpClient;
+    this.objectMapper = objectMapper;
+    this.baseUrl = baseUrl;
+    this.accounts = accounts;
+    this.accountSelector = accountSelector;
+    this.concurrency = concurrency;
+    this.duration = duration;
+  }
+
+  Result run() {
+    List<Worker> workers = new ArrayList<>(concurrency);
+    for (int i = 0; i < concurrency; i++) {
+      workers.add(new Worker());
+    }
+
+    //클라이언트는 동시 요청 수만큼 virtual thread 를 쓴다
+    long startedAt = System.nanoTime();
+    long deadline = startedAt + duration.toNanos();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      workers.forEach(worker -> executor.execute(() -> worker.run(deadline)));
+    }
+    return new Result(workers, System.nanoTime() - startedAt);
+  }
+
+  /**
+   * 부하를 주는 계좌와 클라이언트가 기대하는 잔액
+   */
+  static class LoadAccount {
+    final String accountNumber;
+    final Long userId;
+    final long initialBalance;
+    final AtomicLong expectedBalance;
+    final Queue<Cancellable> cancellables = new ConcurrentLinkedQueue<>();
+    volatile String lastTransactionId;
+
+    LoadAccount(String accountNumber, Long userId, long initialBalance) {
+      this.accountNumber = accountNumber;
+      this.userId = userId;
+      this.initialBalance = initialBalance;
+      this.expectedBalance = new AtomicLong(initialBalance);
+    }
+  }
+
+  record Cancellable(String transactionId, long amount) {
+  }
+
+  private class Worker {
+    private final Map<Operation, LatencyRecorder> latencies = new EnumMap<>(Operation.class);
+    private final Map<String, LongAdder> errors = new HashMap<>();
+    private final Map<Operation, LongAdder> successes = new EnumMap<>(Operation.class);
+
+    Worker() {
+      for (Operation operation : Operation.values()) {
+        latencies.put(operation, new LatencyRecorder());
+        successes.put(operation, new LongAdder());
+      }
+    }
+
+    void run(long deadline) {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      while (System.nanoTime() < deadline) {
+        LoadAccount account = accounts.get(accountSelector.next());
+        int dice = random.nextInt(100);
+        if (dice < 20 && account.lastTransactionId != null) {
+          query(account.lastTransactionId);
+          continue;
+        }
+        Cancellable cancellable = dice < 40 ? account.cancellables.poll() : null;
+        if (cancellable != null) {
+          cancel(account, cancellable);
+        } else {
+          use(account, 10 + random.nextInt(991));
+        }
+      }
+    }
+
+    private void use(LoadAccount account, long amount) {
+      JsonNode response = send(Operation.USE, post("/transaction/use", Map.of(
+              "userId", account.userId,
+              "accountNumber", account.accountNumber,
+              "amount", amount)));
+      if (response != null) {
+        String transactionId = response.get("transactionId").asText();
+        account.expectedBalance.addAndGet(-amount);
+        account.cancellables.add(new Cancellable(transactionId, amount));
+        account.lastTransactionId = transactionId;
+      }
+    }
+
+    private void cancel(LoadAccount account, Cancellable cancellable) {
+      JsonNode response = send(Operation.CANCEL, post("/transaction/cancel", Map.of(
+              "transactionId", cancellable.transactionId(),
+              "accountNumber", account.accountNumber,
+              "amount", cancellable.amount())));
+      if (response != null) {
+        account.expectedBalance.addAndGet(cancellable.amount());
+      } else {
+        //실패한 취소는 잔액이 바뀌지 않았으므로 다시 취소할 수 있다
+        account.cancellables.add(cancellable);
+      }
+    }
+
+    private void query(String transactionId) {
+      send(Operation.QUERY, HttpRequest.newBuilder(URI.create(baseUrl + "/transaction/" + transactionId))
+              .GET()
+              .build());
+    }
+
+    private HttpRequest post(String path, Map<String, Object> body) {
+      try {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    /**
+     * 성공하면 응답 본문, 실패하면 에러 코드를 세고 null
+     */
+    private JsonNode send(Operation operation, HttpRequest request) {
+      long startedAt = System.nanoTime();
+      String error;
+      try {
+        HttpResponse<byte[]> response = httpClient.send(request,
+                HttpResponse.BodyHandlers.ofByteArray());
+        latencies.get(operation).record(System.nanoTime() - startedAt);
+        if (response.statusCode() != 200) {
+          error = "HTTP_" + response.statusCode();
+        } else {
+          JsonNode body = objectMapper.readTree(response.body());
+          if (!body.hasNonNull("errorCode")) {
+            successes.get(operation).increment();
+            return body;
+          }
+          error = body.get("errorCode").asText();
+        }
+      } catch (IOException e) {
+        latencies.get(operation).record(System.nanoTime() - startedAt);
+        error = "IO_ERROR";
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        error = "INTERRUPTED";
+      }
+      errors.computeIfAbsent(operation + ":" + error, k -> new LongAdder()).increment();
+      return null;
+    }
+  }
+
+  static class Result {
+    private final List<Worker> workers;
+    private final long elapsedNanos;
+
+    private Result(List<Worker> workers, long elapsedNanos) {
+      this.workers = workers;
+      this.elapsedNanos = elapsedNanos;
+    }
+
+    void print(PrintStream out) {
+      double seconds = elapsedNanos / 1_000_000_000.0;
+      out.printf("%-8s %10s %10s %12s %10s %10s %10s%n",
+              "op", "requests", "ok", "ops/s", "p50(ms)", "p99(ms)", "p999(ms)");
+      long total = 0;
+      for (Operation operation : Operation.values()) {
+        List<LatencyRecorder> recorders = workers.stream()
+                .map(worker -> worker.latencies.get(operation))
+                .toList();
+        long[] sorted = LatencyRecorder.merge(recorders);
+        long ok = workers.stream().mapToLong(worker -> worker.successes.get(operation).sum()).sum();
+        total += sorted.length;
+        out.printf("%-8s %10d %10d %12.1f %10.2f %10.2f %10.2f%n",
+                operation.name().toLowerCase(), sorted.length, ok, sorted.length / seconds,
+                millis(LatencyRecorder.percentile(sorted, 50)),
+                millis(LatencyRecorder.percentile(sorted, 99)),
+                millis(LatencyRecorder.percentile(sorted, 99.9)));
+      }
+      out.printf("throughput: %.1f req/s over %.1fs%n", total / seconds, seconds);
+
+      Map<String, Long> errors = new TreeMap<>();
+      workers.forEach(worker -> worker.errors.forEach(
+              (key, count) -> errors.merge(key, count.sum(), Long::sum)));
+      long lockFailures = errors.entrySet().stream()
+              .filter(entry -> entry.getKey().endsWith(":" + LOCK_FAILURE))
+              .mapToLong(Map.Entry::getValue)
+              .sum();
+      long writes = workers.stream()
+              .mapToLong(worker -> worker.latencies.get(Operation.USE).count()
+                      + worker.latencies.get(Operation.CANCEL).count())
+              .sum();
+      out.printf("lock failures: %d (%.2f%% of use/cancel)%n",
+              lockFailures, writes == 0 ? 0.0 : lockFailures * 100.0 / writes);
+      out.println("errors: " + errors);
+    }
+
+    private static double millis(long nanos) {
+      return nanos / 1_000_000.0;
+    }
+  }
+}
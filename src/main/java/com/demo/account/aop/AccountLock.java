@@ -7,5 +7,9 @@ import java.lang.annotation.*;
 @Documented
 @Inherited
 public @interface AccountLock {
-  long tryLockTime() default 5000L;
+  //lock 취득 대기 시간 (ms)
+  long tryLockTime() default 1000L;
+
+  //lock 자동 해제 시간 (ms)
+  long leaseTime() default 15000L;
 }
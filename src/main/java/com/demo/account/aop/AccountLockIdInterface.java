@@ -1,5 +1,16 @@
 package com.demo.account.aop;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+
 public interface AccountLockIdInterface {
   String getAccountNumber();
+
+  //여러 계좌를 함께 lock 하는 요청 (이체) 은 override 한다
+  //요청 본문의 필드가 아니다
+  @JsonIgnore
+  default List<String> getAccountNumbers() {
+    return List.of(getAccountNumber());
+  }
 }
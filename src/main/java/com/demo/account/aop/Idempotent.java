@@ -0,0 +1,15 @@
+package com.demo.account.aop;
+
+import java.lang.annotation.*;
+
+/**
+ * Idempotency-Key 헤더가 있으면 처음 요청의 응답을 저장해두고
+ * 같은 key 로 다시 온 요청에는 lock/DB 를 거치지 않고 저장된 응답을 돌려준다
+ * 보관 기간은 account.idempotency.* 로 설정한다
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+public @interface Idempotent {
+}
@@ -0,0 +1,14 @@
+package com.demo.account.aop;
+
+import java.lang.annotation.*;
+
+/**
+ * @Version 충돌(OptimisticLockException) 이 나면 새 트랜잭션으로 다시 실행한다
+ * 횟수와 대기 시간은 account.optimistic.* 로 설정한다
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+public @interface RetryOnConflict {
+}
@@ -0,0 +1,35 @@
+package com.demo.account.cache;
+
+import com.demo.account.domain.Account;
+import com.demo.account.type.AccountStatus;
+import lombok.*;
+
+/**
+ * 계좌번호로 찾는 계좌의 바뀌지 않는 정보 (상태는 해지될 때만 바뀌고 그때 캐시를 지운다)
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class AccountLookup {
+  private final Long accountId;
+  private final Long userId;
+  private final AccountStatus accountStatus;
+
+  public static AccountLookup fromEntity(Account account) {
+    return AccountLookup.builder()
+            .accountId(account.getId())
+            .userId(account.getAccountUser().getId())
+            .accountStatus(account.getAccountStatus())
+            .build();
+  }
+
+  String serialize() {
+    return accountId + ":" + userId + ":" + accountStatus;
+  }
+
+  static AccountLookup deserialize(String value) {
+    String[] values = value.split(":");
+    return new AccountLookup(Long.valueOf(values[0]), Long.valueOf(values[1]),
+            AccountStatus.valueOf(values[2]));
+  }
+}
@@ -0,0 +1,89 @@
+package com.demo.account.cache;
+
+import com.demo.account.repository.AccountRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 계좌번호 -> 계좌 id, 소유주 id, 상태 read-through 캐시
+ * L1 은 Caffeine (크기 제한 + TTL), L2 는 선택적으로 Redis (RMapCache, TTL)
+ * 없는 계좌는 캐시하지 않는다
+ */
+@Component
+public class AccountLookupCache {
+  private static final String REDIS_MAP = "ACLOOKUP";
+
+  private final AccountRepository accountRepository;
+  private final Cache<String, AccountLookup> localCache;
+  private final RMapCache<String, String> redisCache;
+  private final Duration redisTtl;
+
+  public AccountLookupCache(
+          AccountRepository accountRepository,
+          RedissonClient redissonClient,
+          MeterRegistry meterRegistry,
+          @Value("${account.cache.account.maximum-size:100000}") long maximumSize,
+          @Value("${account.cache.account.expire-after-write:10m}") Duration expireAfterWrite,
+          @Value("${account.cache.account.redis-enabled:false}") boolean redisEnabled,
+          @Value("${account.cache.account.redis-ttl:30m}") Duration redisTtl
+  ) {
+    this.accountRepository = accountRepository;
+    this.localCache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+    this.redisCache = redisEnabled
+            ? redissonClient.getMapCache(REDIS_MAP, StringCodec.INSTANCE)
+            : null;
+    this.redisTtl = redisTtl;
+    CaffeineCacheMetrics.monitor(meterRegistry, localCache, "accountLookup");
+  }
+
+  public Optional<AccountLookup> get(String accountNumber) {
+    AccountLookup accountLookup = localCache.getIfPresent(accountNumber);
+    if (accountLookup != null) {
+      return Optional.of(accountLookup);
+    }
+
+    if (redisCache != null) {
+      String value = redisCache.get(accountNumber);
+      if (value != null) {
+        accountLookup = AccountLookup.deserialize(value);
+        localCache.put(accountNumber, accountLookup);
+        return Optional.of(accountLookup);
+      }
+    }
+
+    Optional<AccountLookup> loaded = accountRepository.findByAccountNumber(accountNumber)
+            .map(AccountLookup::fromEntity);
+    loaded.ifPresent(value -> put(accountNumber, value));
+    return loaded;
+  }
+
+  public void evict(String accountNumber) {
+    localCache.invalidate(accountNumber);
+    if (redisCache != null) {
+      redisCache.fastRemove(accountNumber);
+    }
+  }
+
+  private void put(String accountNumber, AccountLookup accountLookup) {
+    localCache.put(accountNumber, accountLookup);
+    if (redisCache != null) {
+      redisCache.fastPut(accountNumber, accountLookup.serialize(),
+              redisTtl.toMillis(), TimeUnit.MILLISECONDS);
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package com.demo.account.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Idempotency-Key -> 처리 중 표시 또는 저장된 응답
+ * local: Caffeine (단일 노드), redis: RMapCache (여러 노드가 같이 쓴다)
+ * 처리 중 표시는 in-flight-ttl, 응답은 ttl 만큼 보관한다
+ */
+@Component
+public class IdempotencyCache {
+  private static final String REDIS_MAP = "IDEMPOTENCY";
+
+  private final Cache<String, Entry> localCache;
+  private final RMapCache<String, String> redisCache;
+  private final Duration ttl;
+  private final Duration inFlightTtl;
+
+  public IdempotencyCache(
+          RedissonClient redissonClient,
+          @Value("${account.idempotency.backend:local}") String backend,
+          @Value("${account.idempotency.maximum-size:100000}") long maximumSize,
+          @Value("${account.idempotency.ttl:24h}") Duration ttl,
+          @Value("${account.idempotency.in-flight-ttl:30s}") Duration inFlightTtl
+  ) {
+    this.ttl = ttl;
+    this.inFlightTtl = inFlightTtl;
+    if ("redis".equals(backend)) {
+      this.redisCache = redissonClient.getMapCache(REDIS_MAP, StringCodec.INSTANCE);
+      this.localCache = null;
+    } else {
+      this.redisCache = null;
+      this.localCache = Caffeine.newBuilder()
+              .maximumSize(maximumSize)
+              .expireAfter(new EntryExpiry())
+              .build();
+    }
+  }
+
+  /**
+   * 비어 있으면 처리 중으로 표시하고 empty, 이미 있으면 그 값을 돌려준다
+   */
+  public Optional<Entry> markInFlight(String key, String fingerprint) {
+    Entry inFlight = new Entry(fingerprint, null);
+    if (redisCache != null) {
+      return Optional.ofNullable(redisCache.putIfAbsent(key, inFlight.serialize(),
+                      inFlightTtl.toMillis(), TimeUnit.MILLISECONDS))
+              .map(Entry::deserialize);
+    }
+    return Optional.ofNullable(localCache.asMap().putIfAbsent(key, inFlight));
+  }
+
+  public void complete(String key, String fingerprint, String response) {
+    Entry entry = new Entry(fingerprint, response);
+    if (redisCache != null) {
+      redisCache.fastPut(key, entry.serialize(), ttl.toMillis(), TimeUnit.MILLISECONDS);
+    } else {
+      localCache.put(key, entry);
+    }
+  }
+
+  //실패한 요청은 다시 시도할 수 있게 지운다
+  public void remove(String key) {
+    if (redisCache != null) {
+      redisCache.fastRemove(key);
+    } else {
+      localCache.invalidate(key);
+    }
+  }
+
+  /**
+   * response 가 null 이면 처리 중
+   */
+  public record Entry(String fingerprint, String response) {
+    public boolean isInFlight() {
+      return response == null;
+    }
+
+    private String serialize() {
+      return response == null ? fingerprint : fingerprint + "\n" + response;
+    }
+
+    private static Entry deserialize(String value) {
+      int index = value.indexOf('\n');
+      return index < 0
+              ? new Entry(value, null)
+              : new Entry(value.substring(0, index), value.substring(index + 1));
+    }
+  }
+
+  private class EntryExpiry implements Expiry<String, Entry> {
+    @Override
+    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+      return (entry.isInFlight() ? inFlightTtl : ttl).toNanos();
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, entry, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
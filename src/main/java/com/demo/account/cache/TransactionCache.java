@@ -0,0 +1,40 @@
+package com.demo.account.cache;
+
+import com.demo.account.dto.TransactionDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * 거래 id -> 거래 write-through 캐시
+ * 거래는 저장된 뒤 바뀌지 않기 때문에 만료 없이 크기 제한으로만 밀어낸다
+ * 저장하는 쪽에서 커밋 후에 put 하고 조회는 캐시를 먼저 본다
+ */
+@Component
+public class TransactionCache {
+  private final Cache<String, TransactionDto> cache;
+
+  public TransactionCache(
+          MeterRegistry meterRegistry,
+          @Value("${account.cache.transaction.maximum-size:100000}") long maximumSize
+  ) {
+    this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "transaction");
+  }
+
+  public Optional<TransactionDto> get(String transactionId) {
+    return Optional.ofNullable(cache.getIfPresent(transactionId));
+  }
+
+  public void put(TransactionDto transactionDto) {
+    cache.put(transactionDto.getTransactionId(), transactionDto);
+  }
+}
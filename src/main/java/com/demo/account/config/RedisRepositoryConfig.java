@@ -1,14 +1,28 @@
 package com.demo.account.config;
 
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.codec.JsonJacksonCodec;
+import org.redisson.codec.SerializationCodec;
+import org.redisson.config.BaseConfig;
+import org.redisson.config.BaseMasterSlaveServersConfig;
 import org.redisson.config.Config;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+
+import java.util.function.ToDoubleFunction;
 
 @Configuration
+@EnableConfigurationProperties(RedissonProperties.class)
 public class RedisRepositoryConfig {
   @Value("${spring.data.redis.host}")
   private String redisHost;
@@ -16,11 +30,91 @@ public class RedisRepositoryConfig {
   @Value("${spring.data.redis.port}")
   private int redisPort;
 
+  //embedded redis 가 먼저 떠 있어야 연결할 수 있다
+  @Bean
+  @DependsOn("localRedisConfig")
+  public RedissonClient redissonClient(RedissonProperties properties) {
+    return Redisson.create(buildConfig(properties, "redis://" + redisHost + ":" + redisPort));
+  }
+
+  /**
+   * 설정한 pool/스레드 크기를 metric 으로 남긴다 (account.redis.*, tag: mode)
+   */
   @Bean
-  public RedissonClient redissonClient() {
+  public MeterBinder redissonMetrics(RedissonProperties properties) {
+    return registry -> {
+      Tags tags = Tags.of("mode", properties.getMode().name().toLowerCase());
+      gauge(registry, "account.redis.pool.min-idle", tags, properties, p -> p.getPool().getMinIdle());
+      gauge(registry, "account.redis.pool.max-size", tags, properties, p -> p.getPool().getMaxSize());
+      gauge(registry, "account.redis.threads", tags, properties, RedissonProperties::getThreads);
+      gauge(registry, "account.redis.netty-threads", tags, properties, RedissonProperties::getNettyThreads);
+      gauge(registry, "account.redis.timeout", tags, properties, p -> p.getTimeout().toMillis());
+    };
+  }
+
+  static Config buildConfig(RedissonProperties properties, String singleAddress) {
     Config config = new Config();
-    config.useSingleServer().setAddress("redis://" + redisHost + ":" + redisPort);
+    config.setThreads(properties.getThreads());
+    config.setNettyThreads(properties.getNettyThreads());
+    switch (properties.getCodec()) {
+      case STRING -> config.setCodec(StringCodec.INSTANCE);
+      case JSON -> config.setCodec(new JsonJacksonCodec());
+      case SERIALIZATION -> config.setCodec(new SerializationCodec());
+      case DEFAULT -> {
+      }
+    }
+
+    RedissonProperties.Pool pool = properties.getPool();
+    switch (properties.getMode()) {
+      case SINGLE -> applyCommon(config.useSingleServer(), properties)
+              .setAddress(singleAddress)
+              .setDatabase(properties.getDatabase())
+              .setConnectionMinimumIdleSize(pool.getMinIdle())
+              .setConnectionPoolSize(pool.getMaxSize())
+              .setSubscriptionConnectionMinimumIdleSize(pool.getSubscriptionMinIdle())
+              .setSubscriptionConnectionPoolSize(pool.getSubscriptionMaxSize());
+      case SENTINEL -> applyPool(applyCommon(config.useSentinelServers(), properties), pool)
+              .setMasterName(properties.getSentinel().getMasterName())
+              .addSentinelAddress(properties.getSentinel().getNodes().toArray(String[]::new))
+              .setDatabase(properties.getDatabase());
+      case CLUSTER -> applyPool(applyCommon(config.useClusterServers(), properties), pool)
+              .addNodeAddress(properties.getCluster().getNodes().toArray(String[]::new))
+              .setScanInterval((int) properties.getCluster().getScanInterval().toMillis());
+    }
+    return config;
+  }
+
+  private static <T extends BaseConfig<T>> T applyCommon(T config, RedissonProperties properties) {
+    return config
+            .setPassword(properties.getPassword())
+            .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+            .setTimeout((int) properties.getTimeout().toMillis())
+            .setIdleConnectionTimeout((int) properties.getIdleConnectionTimeout().toMillis())
+            .setPingConnectionInterval((int) properties.getPingInterval().toMillis())
+            .setRetryAttempts(properties.getRetryAttempts())
+            .setRetryInterval((int) properties.getRetryInterval().toMillis());
+  }
+
+  private static <T extends BaseMasterSlaveServersConfig<T>> T applyPool(
+          T config,
+          RedissonProperties.Pool pool
+  ) {
+    return config
+            .setMasterConnectionMinimumIdleSize(pool.getMinIdle())
+            .setMasterConnectionPoolSize(pool.getMaxSize())
+            .setSlaveConnectionMinimumIdleSize(pool.getMinIdle())
+            .setSlaveConnectionPoolSize(pool.getMaxSize())
+            .setSubscriptionConnectionMinimumIdleSize(pool.getSubscriptionMinIdle())
+            .setSubscriptionConnectionPoolSize(pool.getSubscriptionMaxSize());
+  }
 
-    return Redisson.create();
+  private static void gauge(
+          MeterRegistry registry,
+          String name,
+          Tags tags,
+          RedissonProperties properties,
+          ToDoubleFunction<RedissonProperties> value
+  ) {
+    Gauge.builder(name, properties, value).tags(tags).register(registry);
   }
 }
@@ -0,0 +1,132 @@
+package com.demo.account.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Redisson 클라이언트 설정 (account.redis.*)
+ * single 모드는 spring.data.redis.host/port 로 연결하고, sentinel/cluster 는 nodes 를 쓴다
+ * 기동 때 검증하고 잘못되면 뜨지 않는다
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "account.redis")
+public class RedissonProperties {
+  public enum Mode {
+    SINGLE, SENTINEL, CLUSTER
+  }
+
+  public enum Codec {
+    //Redisson 기본 codec
+    DEFAULT, STRING, JSON, SERIALIZATION
+  }
+
+  @NotNull
+  private Mode mode = Mode.SINGLE;
+
+  @Valid
+  private Sentinel sentinel = new Sentinel();
+
+  @Valid
+  private Cluster cluster = new Cluster();
+
+  private String password;
+
+  @Min(0)
+  private int database = 0;
+
+  @NotNull
+  private Codec codec = Codec.DEFAULT;
+
+  //Redisson 이 listener/RTopic 콜백 등에 쓰는 스레드 수 (0 이면 코어 수 * 2)
+  @Min(0)
+  private int threads = 16;
+
+  //Netty event loop 스레드 수 (0 이면 코어 수 * 2)
+  @Min(0)
+  private int nettyThreads = 32;
+
+  @Valid
+  private Pool pool = new Pool();
+
+  @NotNull
+  private Duration connectTimeout = Duration.ofSeconds(10);
+
+  //명령 응답 대기 시간
+  @NotNull
+  private Duration timeout = Duration.ofSeconds(3);
+
+  @NotNull
+  private Duration idleConnectionTimeout = Duration.ofSeconds(10);
+
+  //0 이면 ping 하지 않는다
+  @NotNull
+  private Duration pingInterval = Duration.ofSeconds(30);
+
+  @Min(0)
+  private int retryAttempts = 3;
+
+  @NotNull
+  private Duration retryInterval = Duration.ofMillis(1500);
+
+  @AssertTrue(message = "account.redis.sentinel.master-name and nodes are required in sentinel mode")
+  public boolean isSentinelConfigured() {
+    return mode != Mode.SENTINEL
+            || (sentinel.masterName != null && !sentinel.masterName.isBlank()
+            && !sentinel.nodes.isEmpty());
+  }
+
+  @AssertTrue(message = "account.redis.cluster.nodes is required in cluster mode")
+  public boolean isClusterConfigured() {
+    return mode != Mode.CLUSTER || !cluster.nodes.isEmpty();
+  }
+
+  @Getter
+  @Setter
+  public static class Sentinel {
+    private String masterName;
+    //redis://host:port
+    private List<String> nodes = new ArrayList<>();
+  }
+
+  @Getter
+  @Setter
+  public static class Cluster {
+    //redis://host:port
+    private List<String> nodes = new ArrayList<>();
+    @NotNull
+    private Duration scanInterval = Duration.ofSeconds(1);
+  }
+
+  /**
+   * 노드(sentinel/cluster 에서는 master, replica 각각) 당 connection pool
+   */
+  @Getter
+  @Setter
+  public static class Pool {
+    @Min(0)
+    private int minIdle = 24;
+    @Min(1)
+    private int maxSize = 64;
+    @Min(0)
+    private int subscriptionMinIdle = 1;
+    @Min(1)
+    private int subscriptionMaxSize = 50;
+
+    @AssertTrue(message = "account.redis.pool min-idle must not exceed max-size")
+    public boolean isMinIdleWithinMaxSize() {
+      return minIdle <= maxSize && subscriptionMinIdle <= subscriptionMaxSize;
+    }
+  }
+}
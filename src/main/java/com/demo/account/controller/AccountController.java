@@ -3,19 +3,31 @@ package com.demo.account.controller;
 import com.demo.account.domain.Account;
 import com.demo.account.dto.AccountInfo;
 import com.demo.account.dto.CreateAccount;
+import com.demo.account.dto.DailySummary;
 import com.demo.account.dto.DeleteAccount;
+import com.demo.account.dto.TransactionHistory;
 import com.demo.account.service.AccountService;
+import com.demo.account.service.DailySummaryRecorder;
+import com.demo.account.service.DailySummaryService;
+import com.demo.account.service.TransactionHistoryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequiredArgsConstructor
 public class AccountController {
   private final AccountService accountService;
+  private final TransactionHistoryService transactionHistoryService;
+  private final DailySummaryService dailySummaryService;
+  private final DailySummaryRecorder dailySummaryRecorder;
 
   @PostMapping("/account")
   public CreateAccount.Response createAccount(
@@ -45,17 +57,66 @@ public class AccountController {
   public List<AccountInfo> getAccountByUserId(
           @RequestParam("user_id") Long userId
   ){
-    return accountService.getAccountsByUserId(userId)
-            .stream().map(accountDto ->
-                    AccountInfo.builder()
-                    .accountNumber(accountDto.getAccountNumber())
-                    .balance(accountDto.getBalance())
-                    .build())
-            .collect(Collectors.toList());
+    return accountService.getAccountsByUserId(userId);
   }
 
   @GetMapping("/account/{id}")
   public Account getAccount(@PathVariable Long id) {
     return accountService.getAccount(id);
   }
+
+  @GetMapping("/account/{accountNumber}/transactions")
+  public TransactionHistory.Response getTransactions(
+          @PathVariable String accountNumber,
+          @RequestParam(value = "cursor", required = false) String cursor,
+          @RequestParam(value = "size", defaultValue = "20") int size
+  ) {
+    return transactionHistoryService.getTransactions(accountNumber, cursor, size);
+  }
+
+  /**
+   * 거래 내역 전체 내보내기 (NDJSON)
+   * 계좌 확인은 응답을 쓰기 전에 해서 없는 계좌는 일반 에러 응답으로 내려간다
+   */
+  @GetMapping("/account/{accountNumber}/transactions/export")
+  public ResponseEntity<StreamingResponseBody> exportTransactions(
+          @PathVariable String accountNumber
+  ) {
+    Long accountId = transactionHistoryService.getAccountId(accountNumber);
+    return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(outputStream ->
+                    transactionHistoryService.exportTransactions(accountId, outputStream));
+  }
+
+  /**
+   * 일별 거래 집계 (yyyy-MM-dd, 기간을 주지 않으면 오늘)
+   */
+  @GetMapping("/account/{accountNumber}/summary")
+  public DailySummary.Response getSummary(
+          @PathVariable String accountNumber,
+          @RequestParam(value = "from", required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+          @RequestParam(value = "to", required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+  ) {
+    return dailySummaryService.getSummary(accountNumber, from, to);
+  }
+
+  /**
+   * 일별 거래 집계를 거래 테이블에서 다시 계산 (모든 계좌, 오늘 이전 날짜만)
+   */
+  @PostMapping("/account/summary/rebuild")
+  public DailySummary.RebuildResponse rebuildSummary(
+          @RequestParam("from")
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+          @RequestParam("to")
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+  ) {
+    return DailySummary.RebuildResponse.builder()
+            .from(from)
+            .to(to)
+            .rows(dailySummaryRecorder.rebuild(from, to))
+            .build();
+  }
 }
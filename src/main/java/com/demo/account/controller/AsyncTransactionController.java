@@ -0,0 +1,45 @@
+package com.demo.account.controller;
+
+import com.demo.account.aop.Idempotent;
+import com.demo.account.dto.CancelBalance;
+import com.demo.account.dto.UseBalance;
+import com.demo.account.service.AsyncTransactionService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 요청 스레드를 붙잡지 않는 잔액 컨트롤러
+ * 요청/응답, 에러 코드는 TransactionController 와 같다
+ * 1. 잔액 사용
+ * 2. 잔액 사용 취소
+ */
+@RestController
+@RequiredArgsConstructor
+public class AsyncTransactionController {
+  private final AsyncTransactionService asyncTransactionService;
+
+  @PostMapping("/async/transaction/use")
+  @Idempotent
+  public CompletableFuture<UseBalance.Response> useBalance(
+          @Valid @RequestBody UseBalance.Request request
+  ) {
+    return asyncTransactionService.useBalance(request.getUserId(),
+                    request.getAccountNumber(), request.getAmount())
+            .thenApply(UseBalance.Response::from);
+  }
+
+  @PostMapping("/async/transaction/cancel")
+  @Idempotent
+  public CompletableFuture<CancelBalance.Response> cancelBalance(
+          @Valid @RequestBody CancelBalance.Request request
+  ) {
+    return asyncTransactionService.cancelBalance(request.getTransactionId(),
+                    request.getAccountNumber(), request.getAmount())
+            .thenApply(CancelBalance.Response::from);
+  }
+}
@@ -0,0 +1,33 @@
+package com.demo.account.controller;
+
+import com.demo.account.exception.AccountException;
+import com.demo.account.reconcile.LedgerReconciler;
+import com.demo.account.reconcile.ReconciliationReport;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static com.demo.account.type.ErrorCode.RECONCILIATION_NOT_FOUND;
+
+/**
+ * 원장 대사
+ * 1. 대사 시작 (백그라운드로 실행하고 바로 응답)
+ * 2. 진행 상황/결과 조회
+ */
+@RestController
+@RequiredArgsConstructor
+public class ReconciliationController {
+  private final LedgerReconciler ledgerReconciler;
+
+  @PostMapping("/reconciliation")
+  public ReconciliationReport startReconciliation() {
+    return ledgerReconciler.start();
+  }
+
+  @GetMapping("/reconciliation")
+  public ReconciliationReport getReconciliation() {
+    return ledgerReconciler.getLastReport()
+            .orElseThrow(() -> new AccountException(RECONCILIATION_NOT_FOUND));
+  }
+}
@@ -1,11 +1,20 @@
 package com.demo.account.controller;
 
 import com.demo.account.aop.AccountLock;
+import com.demo.account.aop.Idempotent;
 import com.demo.account.dto.CancelBalance;
 import com.demo.account.dto.QueryTransactionResponse;
+import com.demo.account.dto.TransactionCommand;
+import com.demo.account.dto.Transfer;
 import com.demo.account.dto.UseBalance;
+import com.demo.account.dto.UseBalanceBatch;
 import com.demo.account.exception.AccountException;
+import com.demo.account.service.AccountCommandQueue;
+import com.demo.account.service.FailedTransactionRecorder;
+import com.demo.account.service.TransactionBatchService;
+import com.demo.account.service.TransactionModeResolver;
 import com.demo.account.service.TransactionService;
+import com.demo.account.type.TransactionMode;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,26 +25,47 @@ import org.springframework.web.bind.annotation.*;
  * 1. 잔액 사용
  * 2. 잔핵 사용 취소
  * 3. 거래 확인
+ * 4. 잔액 사용 일괄 처리
+ * 5. 계좌 이체
  */
 @Slf4j
 @RestController
 @RequiredArgsConstructor
 public class TransactionController {
   private final TransactionService transactionService;
+  private final AccountCommandQueue accountCommandQueue;
+  private final TransactionBatchService transactionBatchService;
+  private final TransactionModeResolver transactionModeResolver;
+  private final FailedTransactionRecorder failedTransactionRecorder;
 
   @PostMapping("/transaction/use")
+  @Idempotent
   @AccountLock
   public UseBalance.Response useBalance(
           @Valid @RequestBody UseBalance.Request request
   ) {
-    try {
+    TransactionMode transactionMode =
+            transactionModeResolver.resolve(TransactionModeResolver.USE_BALANCE);
+    if (transactionMode == TransactionMode.QUEUE) {
+      //실패 거래는 큐에서 함께 저장된다
       return UseBalance.Response.from(
-              transactionService.useBalance(request.getUserId(),
+              accountCommandQueue.submit(request.getAccountNumber(),
+                      TransactionCommand.use(request.getUserId(), request.getAmount()))
+                      .orElseThrow()
+      );
+    }
+
+    try {
+      return UseBalance.Response.from(transactionMode == TransactionMode.ATOMIC
+              ? transactionService.useBalanceAtomic(request.getUserId(),
+                      request.getAccountNumber(), request.getAmount())
+              : transactionService.useBalance(request.getUserId(),
                       request.getAccountNumber(), request.getAmount())
       );
     }catch (AccountException e){
       log.error("failed to use balance.");
-      transactionService.saveFailedUseTransaction(
+      //실패 거래는 백그라운드에서 저장하고 바로 응답한다
+      failedTransactionRecorder.recordUse(
               request.getAccountNumber(),
               request.getAmount()
       );
@@ -44,23 +74,75 @@ public class TransactionController {
     }
   }
 
+  @PostMapping("/transaction/use/batch")
+  public UseBalanceBatch.Response useBalanceBatch(
+          @Valid @RequestBody UseBalanceBatch.Request request
+  ) {
+    return UseBalanceBatch.Response.from(
+            request.getItems(),
+            transactionBatchService.useBalances(request.getItems())
+    );
+  }
+
   @PostMapping("/transaction/cancel")
+  @Idempotent
   @AccountLock
   public CancelBalance.Response cancelBalance(
           @Valid @RequestBody CancelBalance.Request request
   ){
-    try {
+    TransactionMode transactionMode =
+            transactionModeResolver.resolve(TransactionModeResolver.CANCEL_BALANCE);
+    if (transactionMode == TransactionMode.QUEUE) {
       return CancelBalance.Response.from(
-              transactionService.cancelBalance(request.getTransactionId(),
+              accountCommandQueue.submit(request.getAccountNumber(),
+                      TransactionCommand.cancel(request.getTransactionId(), request.getAmount()))
+                      .orElseThrow()
+      );
+    }
+
+    try {
+      return CancelBalance.Response.from(transactionMode == TransactionMode.ATOMIC
+              ? transactionService.cancelBalanceAtomic(request.getTransactionId(),
+                      request.getAccountNumber(), request.getAmount())
+              : transactionService.cancelBalance(request.getTransactionId(),
                       request.getAccountNumber(), request.getAmount())
       );
     }catch (AccountException e){
       log.error("failed to cancel balance.");
 
-      transactionService.saveFailedCancelTransaction(
+      failedTransactionRecorder.recordCancel(
               request.getAccountNumber(),
               request.getAmount()
+      );
+
+      throw e;
+    }
+  }
 
+  /**
+   * QUEUE 모드의 큐는 계좌 하나만 다루므로 이체는 @Version 충돌 재시도로 처리한다
+   */
+  @PostMapping("/transaction/transfer")
+  @Idempotent
+  @AccountLock
+  public Transfer.Response transfer(
+          @Valid @RequestBody Transfer.Request request
+  ) {
+    TransactionMode transactionMode =
+            transactionModeResolver.resolve(TransactionModeResolver.TRANSFER);
+    try {
+      return Transfer.Response.from(transactionMode == TransactionMode.ATOMIC
+              ? transactionService.transferForUpdate(request.getUserId(),
+                      request.getFromAccountNumber(), request.getToAccountNumber(), request.getAmount())
+              : transactionService.transfer(request.getUserId(),
+                      request.getFromAccountNumber(), request.getToAccountNumber(), request.getAmount())
+      );
+    }catch (AccountException e){
+      log.error("failed to transfer.");
+
+      failedTransactionRecorder.recordTransfer(
+              request.getFromAccountNumber(),
+              request.getAmount()
       );
 
       throw e;
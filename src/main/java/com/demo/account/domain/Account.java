@@ -2,10 +2,7 @@ package com.demo.account.domain;
 
 import com.demo.account.exception.AccountException;
 import com.demo.account.type.AccountStatus;
-import jakarta.persistence.Entity;
-import jakarta.persistence.EnumType;
-import jakarta.persistence.Enumerated;
-import jakarta.persistence.ManyToOne;
+import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDateTime;
@@ -19,19 +16,28 @@ import static com.demo.account.type.ErrorCode.INVALID_REQUEST;
 @AllArgsConstructor
 @Builder
 @Entity  //자동 테이블 생성
+@Table(indexes = {
+        @Index(name = "ux_account_account_number", columnList = "account_number", unique = true)
+})
 public class Account extends BaseEntity{
 
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   private AccountUser accountUser;
   private String accountNumber;
 
   @Enumerated(EnumType.STRING)
   private AccountStatus accountStatus;
   private Long balance;
+  //개설할 때의 잔액 (대사 기준: 잔액 = 개설 잔액 + 성공 거래 합)
+  private Long initialBalance;
 
   private LocalDateTime registeredAt;
   private LocalDateTime unRegisteredAt;
 
+  //OPTIMISTIC 모드의 충돌 확인용
+  @Version
+  private Long version;
+
   public void useBalance(Long amount) {
     if (amount > this.balance) {
       throw new AccountException(AMOUNT_EXCEED_BALANCE);
@@ -0,0 +1,62 @@
+package com.demo.account.domain;
+
+import com.demo.account.type.TransactionResultType;
+import com.demo.account.type.TransactionType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * 계좌별 일별 거래 집계 (거래 종류, 결과별 건수와 금액)
+ * 거래 테이블을 훑지 않고 기간 합계를 index 로 읽기 위해 DailySummaryRecorder 가 증분으로 갱신한다
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(indexes = {
+        @Index(name = "ux_daily_summary_key", unique = true,
+                columnList = "account_id, summary_date, transaction_type, transaction_result_type"),
+        //재계산 때 그날의 집계를 지운다
+        @Index(name = "ix_daily_summary_date", columnList = "summary_date")
+})
+public class DailyTransactionSummary extends BaseEntity {
+  private Long accountId;
+  private LocalDate summaryDate;
+  @Enumerated(EnumType.STRING)
+  private TransactionType transactionType;
+  @Enumerated(EnumType.STRING)
+  private TransactionResultType transactionResultType;
+
+  private Long transactionCount;
+  private Long totalAmount;
+
+  public record Key(
+          Long accountId,
+          LocalDate summaryDate,
+          TransactionType transactionType,
+          TransactionResultType transactionResultType
+  ) {
+    //거래 시각의 날짜로 집계한다
+    public static Key of(Transaction transaction) {
+      return new Key(transaction.getAccount().getId(),
+              transaction.getTransactedAt().toLocalDate(),
+              transaction.getTransactionType(),
+              transaction.getTransactionResultType());
+    }
+  }
+
+  public static DailyTransactionSummary of(Key key, long transactionCount, long totalAmount) {
+    return DailyTransactionSummary.builder()
+            .accountId(key.accountId())
+            .summaryDate(key.summaryDate())
+            .transactionType(key.transactionType())
+            .transactionResultType(key.transactionResultType())
+            .transactionCount(transactionCount)
+            .totalAmount(totalAmount)
+            .build();
+  }
+}
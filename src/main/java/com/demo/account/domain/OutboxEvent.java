@@ -0,0 +1,51 @@
+package com.demo.account.domain;
+
+import com.demo.account.type.TransactionType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 잔액 변경 이벤트 outbox
+ * 거래와 같은 트랜잭션에서 저장하고, relay 가 발행한 뒤에 지운다
+ * accountVersion 은 이 거래를 반영한 뒤의 계좌 version (계좌별 발행 순서, 한 트랜잭션의 여러 건은 id 순서)
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(indexes = @Index(name = "ix_outbox_event_account_version", columnList = "account_id, account_version"))
+public class OutboxEvent extends BaseEntity {
+  private Long accountId;
+  private Long accountVersion;
+  private String accountNumber;
+
+  @Column(length = 32)
+  private String transactionId;
+  @Enumerated(EnumType.STRING)
+  private TransactionType transactionType;
+  private Long amount;
+  private Long balanceSnapshot;
+  private LocalDateTime transactedAt;
+
+  public static OutboxEvent fromTransaction(Transaction transaction) {
+    return OutboxEvent.builder()
+            .accountId(transaction.getAccount().getId())
+            .accountVersion(transaction.getAccount().getVersion())
+            .accountNumber(transaction.getAccount().getAccountNumber())
+            .transactionId(transaction.getTransactionId())
+            .transactionType(transaction.getTransactionType())
+            .amount(transaction.getAmount())
+            .balanceSnapshot(transaction.getBalanceSnapshot())
+            .transactedAt(transaction.getTransactedAt())
+            .build();
+  }
+}
@@ -2,10 +2,7 @@ package com.demo.account.domain;
 
 import com.demo.account.type.TransactionResultType;
 import com.demo.account.type.TransactionType;
-import jakarta.persistence.Entity;
-import jakarta.persistence.EnumType;
-import jakarta.persistence.Enumerated;
-import jakarta.persistence.ManyToOne;
+import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDateTime;
@@ -16,17 +13,23 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Builder
 @Entity
+@Table(indexes = {
+        @Index(name = "ux_transaction_transaction_id", columnList = "transaction_id", unique = true),
+        @Index(name = "ix_transaction_account_transacted_at", columnList = "account_id, transacted_at")
+})
 public class Transaction extends BaseEntity {
   @Enumerated(EnumType.STRING)
   private TransactionType transactionType;
   @Enumerated(EnumType.STRING)
   private TransactionResultType transactionResultType;
 
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   private Account account;
   private Long amount;
   private Long balanceSnapshot;
 
+  //uuid 32, ulid 26, snowflake 13 자리
+  @Column(length = 32)
   private String transactionId;
   private LocalDateTime transactedAt;
 }
@@ -0,0 +1,59 @@
+package com.demo.account.dto;
+
+import com.demo.account.domain.DailyTransactionSummary;
+import com.demo.account.type.TransactionResultType;
+import com.demo.account.type.TransactionType;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class DailySummary {
+  @Getter
+  @Setter
+  @NoArgsConstructor
+  @AllArgsConstructor
+  @Builder
+  public static class Response {
+    private String accountNumber;
+    private LocalDate from;
+    private LocalDate to;
+    //날짜, 거래 종류, 결과 순서 (거래가 없는 날은 빠진다)
+    private List<Item> items;
+  }
+
+  @Getter
+  @Setter
+  @NoArgsConstructor
+  @AllArgsConstructor
+  @Builder
+  public static class Item {
+    private LocalDate date;
+    private TransactionType transactionType;
+    private TransactionResultType transactionResult;
+    private Long count;
+    private Long amount;
+
+    public static Item fromEntity(DailyTransactionSummary summary) {
+      return Item.builder()
+              .date(summary.getSummaryDate())
+              .transactionType(summary.getTransactionType())
+              .transactionResult(summary.getTransactionResultType())
+              .count(summary.getTransactionCount())
+              .amount(summary.getTotalAmount())
+              .build();
+    }
+  }
+
+  @Getter
+  @Setter
+  @NoArgsConstructor
+  @AllArgsConstructor
+  @Builder
+  public static class RebuildResponse {
+    private LocalDate from;
+    private LocalDate to;
+    //다시 계산해 넣은 집계 row 수
+    private Integer rows;
+  }
+}
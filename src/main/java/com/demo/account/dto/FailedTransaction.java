@@ -0,0 +1,34 @@
+package com.demo.account.dto;
+
+import com.demo.account.type.TransactionType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 저장을 기다리는 실패 거래
+ * fallback 파일에는 한 줄에 하나씩 "거래종류,계좌번호,금액,거래시각" 으로 남긴다
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class FailedTransaction {
+  private TransactionType transactionType;
+  private String accountNumber;
+  private Long amount;
+  private LocalDateTime transactedAt;
+
+  public String toLine() {
+    return transactionType + "," + accountNumber + "," + amount + "," + transactedAt;
+  }
+
+  public static FailedTransaction fromLine(String line) {
+    String[] values = line.split(",");
+    return FailedTransaction.builder()
+            .transactionType(TransactionType.valueOf(values[0]))
+            .accountNumber(values[1])
+            .amount(Long.parseLong(values[2]))
+            .transactedAt(LocalDateTime.parse(values[3]))
+            .build();
+  }
+}
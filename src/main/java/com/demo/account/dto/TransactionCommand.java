@@ -0,0 +1,35 @@
+package com.demo.account.dto;
+
+import com.demo.account.type.TransactionType;
+import lombok.*;
+
+import static com.demo.account.type.TransactionType.CANCEL;
+import static com.demo.account.type.TransactionType.USE;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionCommand {
+  private TransactionType transactionType;
+  private Long userId;
+  private String transactionId;
+  private Long amount;
+
+  public static TransactionCommand use(Long userId, Long amount) {
+    return TransactionCommand.builder()
+            .transactionType(USE)
+            .userId(userId)
+            .amount(amount)
+            .build();
+  }
+
+  public static TransactionCommand cancel(String transactionId, Long amount) {
+    return TransactionCommand.builder()
+            .transactionType(CANCEL)
+            .transactionId(transactionId)
+            .amount(amount)
+            .build();
+  }
+}
@@ -0,0 +1,36 @@
+package com.demo.account.dto;
+
+import com.demo.account.exception.AccountException;
+import com.demo.account.type.ErrorCode;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionCommandResult {
+  //성공, 실패 모두 저장된 거래 (계좌가 없으면 null)
+  private TransactionDto transaction;
+  //실패한 경우의 에러 코드
+  private ErrorCode errorCode;
+
+  public static TransactionCommandResult success(TransactionDto transaction) {
+    return new TransactionCommandResult(transaction, null);
+  }
+
+  public static TransactionCommandResult fail(TransactionDto transaction, ErrorCode errorCode) {
+    return new TransactionCommandResult(transaction, errorCode);
+  }
+
+  public boolean isSuccess() {
+    return errorCode == null;
+  }
+
+  public TransactionDto orElseThrow() {
+    if (!isSuccess()) {
+      throw new AccountException(errorCode);
+    }
+    return transaction;
+  }
+}
@@ -23,6 +23,20 @@ public class TransactionDto {
   private String transactionId;
   private LocalDateTime transactedAt;
 
+  //거래 조회 projection 용 생성자
+  public TransactionDto(
+          String accountNumber,
+          TransactionType transactionType,
+          TransactionResultType transactionResultType,
+          Long amount,
+          Long balanceSnapshot,
+          String transactionId,
+          LocalDateTime transactedAt
+  ) {
+    this(accountNumber, transactionType, transactionResultType, null,
+            amount, balanceSnapshot, transactionId, transactedAt);
+  }
+
   public static TransactionDto fromEntity(Transaction transaction) {
     return TransactionDto.builder()
             .accountNumber(transaction.getAccount().getAccountNumber())
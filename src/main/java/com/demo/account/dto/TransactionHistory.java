@@ -0,0 +1,47 @@
+package com.demo.account.dto;
+
+import com.demo.account.domain.Transaction;
+import com.demo.account.type.TransactionResultType;
+import com.demo.account.type.TransactionType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class TransactionHistory {
+  @Getter
+  @Setter
+  @NoArgsConstructor
+  @AllArgsConstructor
+  @Builder
+  public static class Response {
+    private List<Item> transactions;
+    //다음 페이지를 조회할 때 그대로 넘기는 값, 마지막 페이지면 null
+    private String nextCursor;
+  }
+
+  @Getter
+  @Setter
+  @NoArgsConstructor
+  @AllArgsConstructor
+  @Builder
+  public static class Item {
+    private String transactionId;
+    private TransactionType transactionType;
+    private TransactionResultType transactionResult;
+    private Long amount;
+    private Long balanceSnapshot;
+    private LocalDateTime transactedAt;
+
+    public static Item fromEntity(Transaction transaction) {
+      return Item.builder()
+              .transactionId(transaction.getTransactionId())
+              .transactionType(transaction.getTransactionType())
+              .transactionResult(transaction.getTransactionResultType())
+              .amount(transaction.getAmount())
+              .balanceSnapshot(transaction.getBalanceSnapshot())
+              .transactedAt(transaction.getTransactedAt())
+              .build();
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package com.demo.account.dto;
+
+import com.demo.account.aop.AccountLockIdInterface;
+import com.demo.account.type.TransactionResultType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class Transfer {
+  @Getter
+  @Setter
+  @AllArgsConstructor
+  public static class Request implements AccountLockIdInterface {
+    @NotNull
+    @Min(1)
+    private Long userId;
+
+    @NotBlank
+    @Size(min = 10, max = 10)
+    private String fromAccountNumber;
+
+    @NotBlank
+    @Size(min = 10, max = 10)
+    private String toAccountNumber;
+
+    @NotNull
+    @Min(10)
+    @Max(1000_000_000)
+    private Long amount;
+
+    //출금 계좌
+    @Override
+    @JsonIgnore
+    public String getAccountNumber() {
+      return fromAccountNumber;
+    }
+
+    @Override
+    @JsonIgnore
+    public List<String> getAccountNumbers() {
+      return List.of(fromAccountNumber, toAccountNumber);
+    }
+  }
+
+  @Getter
+  @Setter
+  @NoArgsConstructor
+  @AllArgsConstructor
+  @Builder
+  public static class Response {
+    private String fromAccountNumber;
+    private String toAccountNumber;
+    private TransactionResultType transactionResult;
+    private String withdrawalTransactionId;
+    private String depositTransactionId;
+    private Long amount;
+    private LocalDateTime transactedAt;
+
+    public static Response from(TransferDto transferDto) {
+      TransactionDto withdrawal = transferDto.getWithdrawal();
+      TransactionDto deposit = transferDto.getDeposit();
+      return Response.builder()
+              .fromAccountNumber(withdrawal.getAccountNumber())
+              .toAccountNumber(deposit.getAccountNumber())
+              .transactionResult(withdrawal.getTransactionResultType())
+              .withdrawalTransactionId(withdrawal.getTransactionId())
+              .depositTransactionId(deposit.getTransactionId())
+              .amount(withdrawal.getAmount())
+              .transactedAt(withdrawal.getTransactedAt())
+              .build();
+    }
+  }
+}
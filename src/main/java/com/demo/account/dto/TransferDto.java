@@ -0,0 +1,16 @@
+package com.demo.account.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 이체 결과 - 출금 계좌와 입금 계좌의 거래
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class TransferDto {
+  private TransactionDto withdrawal;
+  private TransactionDto deposit;
+}
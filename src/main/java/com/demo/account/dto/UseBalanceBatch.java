@@ -0,0 +1,82 @@
+package com.demo.account.dto;
+
+import com.demo.account.type.ErrorCode;
+import com.demo.account.type.TransactionResultType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.demo.account.type.TransactionResultType.F;
+
+public class UseBalanceBatch {
+  @Getter
+  @Setter
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Request {
+    @Valid
+    @NotEmpty
+    @Size(max = 1000)
+    private List<UseBalance.Request> items;
+  }
+
+  @Getter
+  @Setter
+  @NoArgsConstructor
+  @AllArgsConstructor
+  @Builder
+  public static class Response {
+    private List<Item> results;
+
+    public static Response from(
+            List<UseBalance.Request> requests,
+            List<TransactionCommandResult> commandResults
+    ) {
+      List<Item> items = new ArrayList<>(requests.size());
+      for (int i = 0; i < requests.size(); i++) {
+        items.add(Item.from(requests.get(i), commandResults.get(i)));
+      }
+      return new Response(items);
+    }
+  }
+
+  @Getter
+  @Setter
+  @NoArgsConstructor
+  @AllArgsConstructor
+  @Builder
+  public static class Item {
+    private String accountNumber;
+    private TransactionResultType transactionResult;
+    private String transactionId;
+    private Long amount;
+    private LocalDateTime transactedAt;
+    private ErrorCode errorCode;
+
+    public static Item from(UseBalance.Request request, TransactionCommandResult result) {
+      TransactionDto transactionDto = result.getTransaction();
+      if (transactionDto == null) {
+        //lock 실패, 계좌 없음 등 거래가 저장되지 않은 경우
+        return Item.builder()
+                .accountNumber(request.getAccountNumber())
+                .transactionResult(F)
+                .amount(request.getAmount())
+                .errorCode(result.getErrorCode())
+                .build();
+      }
+      return Item.builder()
+              .accountNumber(transactionDto.getAccountNumber())
+              .transactionResult(transactionDto.getTransactionResultType())
+              .transactionId(transactionDto.getTransactionId())
+              .amount(transactionDto.getAmount())
+              .transactedAt(transactionDto.getTransactedAt())
+              .errorCode(result.getErrorCode())
+              .build();
+    }
+  }
+}
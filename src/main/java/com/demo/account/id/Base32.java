@@ -0,0 +1,20 @@
+package com.demo.account.id;
+
+/**
+ * Crockford base32 (0-9, A-Z 에서 I, L, O, U 제외)
+ * 자릿수를 고정해서 쓰므로 문자열 순서가 값의 순서와 같다
+ */
+final class Base32 {
+  private static final char[] DIGITS = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+  private Base32() {
+  }
+
+  //value 의 하위 length * 5 bit 를 out[offset] 부터 length 자리로 쓴다
+  static void encode(long value, int length, char[] out, int offset) {
+    for (int i = offset + length - 1; i >= offset; i--) {
+      out[i] = DIGITS[(int) (value & 31)];
+      value >>>= 5;
+    }
+  }
+}
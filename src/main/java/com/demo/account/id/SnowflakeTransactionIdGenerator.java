@@ -0,0 +1,69 @@
+package com.demo.account.id;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake 방식 64 bit id (41 bit ms 시각 + 10 bit node id + 12 bit 순번, Crockford base32 13 자리)
+ * 시각 순으로 정렬되고 ULID 보다 짧지만, 노드마다 다른 node-id 를 설정해야 한다
+ * 한 ms 에 4096 개를 넘기거나 시계가 뒤로 가면 마지막 시각을 이어서 쓴다
+ */
+@Component
+@ConditionalOnProperty(name = "account.transaction-id.generator", havingValue = "snowflake")
+public class SnowflakeTransactionIdGenerator implements TransactionIdGenerator {
+  //2024-01-01T00:00:00Z
+  static final long EPOCH = 1_704_067_200_000L;
+  static final int NODE_ID_BITS = 10;
+  static final int SEQUENCE_BITS = 12;
+  static final long MAX_NODE_ID = (1L << NODE_ID_BITS) - 1;
+  private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+  private final long nodeId;
+  private final LongSupplier clock;
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private long lastTime = -1;
+  private long sequence;
+
+  public SnowflakeTransactionIdGenerator(@Value("${account.transaction-id.node-id:0}") long nodeId) {
+    this(nodeId, System::currentTimeMillis);
+  }
+
+  SnowflakeTransactionIdGenerator(long nodeId, LongSupplier clock) {
+    if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+      throw new IllegalArgumentException(
+              "account.transaction-id.node-id must be between 0 and " + MAX_NODE_ID + " : " + nodeId);
+    }
+    this.nodeId = nodeId;
+    this.clock = clock;
+  }
+
+  @Override
+  public String nextId() {
+    long id;
+    lock.lock();
+    try {
+      long now = clock.getAsLong() - EPOCH;
+      if (now > lastTime) {
+        lastTime = now;
+        sequence = 0;
+      } else {
+        sequence = (sequence + 1) & SEQUENCE_MASK;
+        if (sequence == 0) {
+          lastTime++;
+        }
+      }
+      id = (lastTime << (NODE_ID_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    } finally {
+      lock.unlock();
+    }
+
+    char[] chars = new char[13];
+    Base32.encode(id, 13, chars, 0);
+    return new String(chars);
+  }
+}
@@ -0,0 +1,9 @@
+package com.demo.account.id;
+
+/**
+ * 거래 id 발급기 (account.transaction-id.generator)
+ * 노드와 스레드에 상관없이 중복 없는 값을 돌려줘야 한다
+ */
+public interface TransactionIdGenerator {
+  String nextId();
+}
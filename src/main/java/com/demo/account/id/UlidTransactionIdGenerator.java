@@ -0,0 +1,71 @@
+package com.demo.account.id;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * ULID (48 bit ms 시각 + 80 bit random, Crockford base32 26 자리)
+ * 시각 순으로 정렬되어 index 끝쪽에 삽입되고, 노드 설정 없이 여러 노드에서 쓸 수 있다
+ * 같은 ms 안에서는 random 값을 1 씩 올려서 노드 안에서는 항상 증가한다
+ * (random 이 넘치거나 시계가 뒤로 가면 마지막 시각을 이어서 쓴다)
+ * random 은 ThreadLocalRandom 으로 만든다 (추측 불가능해야 하는 값이 아니다)
+ */
+@Component
+@ConditionalOnProperty(name = "account.transaction-id.generator", havingValue = "ulid", matchIfMissing = true)
+public class UlidTransactionIdGenerator implements TransactionIdGenerator {
+  private static final long RANDOM_HI_MASK = 0xFFFFL;
+  private static final long LOW_40_BITS = (1L << 40) - 1;
+
+  private final LongSupplier clock;
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private long lastTime = -1;
+  //80 bit random 의 상위 16 bit, 하위 64 bit
+  private long randomHi;
+  private long randomLo;
+
+  public UlidTransactionIdGenerator() {
+    this(System::currentTimeMillis);
+  }
+
+  UlidTransactionIdGenerator(LongSupplier clock) {
+    this.clock = clock;
+  }
+
+  @Override
+  public String nextId() {
+    long time;
+    long hi;
+    long lo;
+    lock.lock();
+    try {
+      long now = clock.getAsLong();
+      if (now > lastTime) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        lastTime = now;
+        randomHi = random.nextLong() & RANDOM_HI_MASK;
+        randomLo = random.nextLong();
+      } else if (++randomLo == 0) {
+        randomHi = (randomHi + 1) & RANDOM_HI_MASK;
+        if (randomHi == 0) {
+          lastTime++;
+        }
+      }
+      time = lastTime;
+      hi = randomHi;
+      lo = randomLo;
+    } finally {
+      lock.unlock();
+    }
+
+    char[] chars = new char[26];
+    Base32.encode(time, 10, chars, 0);
+    Base32.encode((hi << 24) | (lo >>> 40), 8, chars, 10);
+    Base32.encode(lo & LOW_40_BITS, 8, chars, 18);
+    return new String(chars);
+  }
+}
@@ -0,0 +1,32 @@
+package com.demo.account.id;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * 기존 형식 (random UUID, '-' 없는 32 자리 hex)
+ * 값이 무작위라 index 삽입 위치가 흩어지고, SecureRandom 을 쓴다
+ */
+@Component
+@ConditionalOnProperty(name = "account.transaction-id.generator", havingValue = "uuid")
+public class UuidTransactionIdGenerator implements TransactionIdGenerator {
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  @Override
+  public String nextId() {
+    UUID uuid = UUID.randomUUID();
+    char[] chars = new char[32];
+    hex(uuid.getMostSignificantBits(), chars, 0);
+    hex(uuid.getLeastSignificantBits(), chars, 16);
+    return new String(chars);
+  }
+
+  private static void hex(long value, char[] out, int offset) {
+    for (int i = offset + 15; i >= offset; i--) {
+      out[i] = HEX[(int) (value & 15)];
+      value >>>= 4;
+    }
+  }
+}
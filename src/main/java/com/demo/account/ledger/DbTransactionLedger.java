@@ -0,0 +1,29 @@
+package com.demo.account.ledger;
+
+import com.demo.account.domain.Transaction;
+import com.demo.account.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 요청 트랜잭션에서 바로 INSERT
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "account.ledger.mode", havingValue = "db", matchIfMissing = true)
+public class DbTransactionLedger implements TransactionLedger {
+  private final TransactionRepository transactionRepository;
+
+  @Override
+  public Transaction append(Transaction transaction) {
+    return transactionRepository.save(transaction);
+  }
+
+  @Override
+  public List<Transaction> appendAll(List<Transaction> transactions) {
+    return transactionRepository.saveAll(transactions);
+  }
+}
@@ -0,0 +1,68 @@
+package com.demo.account.ledger;
+
+import com.demo.account.domain.Account;
+import com.demo.account.domain.Transaction;
+import com.demo.account.type.TransactionResultType;
+import com.demo.account.type.TransactionType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 저널에 남기는 거래 한 건
+ * accountVersion 은 이 거래를 반영한 뒤의 계좌 version (저널을 직접 볼 때 참고용)
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class JournalEntry {
+  private String transactionId;
+  private Long accountId;
+  private Long accountVersion;
+  private TransactionType transactionType;
+  private TransactionResultType transactionResultType;
+  private Long amount;
+  private Long balanceSnapshot;
+  private LocalDateTime transactedAt;
+
+  public static JournalEntry fromTransaction(Transaction transaction) {
+    return JournalEntry.builder()
+            .transactionId(transaction.getTransactionId())
+            .accountId(transaction.getAccount().getId())
+            .accountVersion(transaction.getAccount().getVersion())
+            .transactionType(transaction.getTransactionType())
+            .transactionResultType(transaction.getTransactionResultType())
+            .amount(transaction.getAmount())
+            .balanceSnapshot(transaction.getBalanceSnapshot())
+            .transactedAt(transaction.getTransactedAt())
+            .build();
+  }
+
+  //이 거래가 잔액을 바꾼 양 (실패 거래는 0)
+  public long delta() {
+    if (transactionResultType != TransactionResultType.S) {
+      return 0;
+    }
+    return switch (transactionType) {
+      case USE, TRANSFER_OUT -> -amount;
+      case CANCEL, TRANSFER_IN -> amount;
+    };
+  }
+
+  public String toLine() {
+    return transactionId + "," + accountId + "," + accountVersion + "," + transactionType + ","
+            + transactionResultType + "," + amount + "," + balanceSnapshot + "," + transactedAt;
+  }
+
+  public Transaction toTransaction(Account account) {
+    return Transaction.builder()
+            .transactionType(transactionType)
+            .transactionResultType(transactionResultType)
+            .account(account)
+            .amount(amount)
+            .balanceSnapshot(balanceSnapshot)
+            .transactionId(transactionId)
+            .transactedAt(transactedAt)
+            .build();
+  }
+}
@@ -0,0 +1,106 @@
+package com.demo.account.ledger;
+
+import com.demo.account.domain.Account;
+import com.demo.account.repository.AccountRepository;
+import com.demo.account.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 저널 기록을 transaction 테이블에 한 트랜잭션으로 적재한다
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "account.ledger.mode", havingValue = "journal")
+public class JournalLoader {
+  private final TransactionRepository transactionRepository;
+  private final AccountRepository accountRepository;
+  private final EntityManager entityManager;
+
+  //요청 트랜잭션이 커밋된 기록만 넘어온다
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public void load(List<JournalEntry> entries) {
+    transactionRepository.saveAll(entries.stream()
+            .map(entry -> entry.toTransaction(
+                    entityManager.getReference(Account.class, entry.getAccountId())))
+            .toList());
+  }
+
+  /**
+   * 재기동 때 남아 있던 기록 중 커밋된 것을 적재한다 (요청을 받기 전에 호출한다)
+   * COMMIT 이 없는 in-doubt 기록은 계좌의 지금 잔액에서 저널 역순으로 거래를 되돌려 가며 가린다
+   * - 커밋된 성공 거래의 스냅샷은 그 시점까지 되돌린 잔액과 같고, 커밋되지 않은 거래는 자기 금액만큼 다르다
+   * - 실패 거래는 잔액을 바꾸지 않아 가릴 수 없으므로 커밋된 것으로 본다
+   * 이미 적재된 거래와 없는 계좌의 거래는 건너뛴다
+   */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public Replayed replay(TransactionJournal.Recovered recovered) {
+    List<JournalEntry> entries = recovered.entries();
+    if (entries.isEmpty()) {
+      return new Replayed(0, List.of());
+    }
+    Set<String> loaded = new HashSet<>(transactionRepository.findTransactionIdsIn(
+            entries.stream().map(JournalEntry::getTransactionId).toList()));
+    Map<Long, Account> accounts = accountRepository.findAllById(
+                    entries.stream().map(JournalEntry::getAccountId).collect(Collectors.toSet()))
+            .stream()
+            .collect(Collectors.toMap(Account::getId, Function.identity()));
+
+    Set<String> rolledBack = new HashSet<>();
+    entries.stream()
+            .filter(entry -> accounts.containsKey(entry.getAccountId()))
+            .collect(Collectors.groupingBy(JournalEntry::getAccountId))
+            .forEach((accountId, ofAccount) -> rolledBack.addAll(findRolledBack(
+                    accounts.get(accountId).getBalance(), ofAccount, recovered, loaded)));
+
+    List<JournalEntry> committed = entries.stream()
+            .filter(entry -> !loaded.contains(entry.getTransactionId()))
+            .filter(entry -> accounts.containsKey(entry.getAccountId()))
+            .filter(entry -> !rolledBack.contains(entry.getTransactionId()))
+            .toList();
+    transactionRepository.saveAll(committed.stream()
+            .map(entry -> entry.toTransaction(accounts.get(entry.getAccountId())))
+            .toList());
+    log.info("replayed transaction journal. loaded : {}, rolled back : {}, unknown account : {}",
+            committed.size(), rolledBack.size(),
+            entries.stream().filter(entry -> !accounts.containsKey(entry.getAccountId())).count());
+    return new Replayed(committed.size(),
+            entries.stream().filter(entry -> rolledBack.contains(entry.getTransactionId())).toList());
+  }
+
+  //한 계좌의 기록 (저널 순서) 중 커밋되지 않은 in-doubt 기록의 거래 id
+  private static List<String> findRolledBack(
+          long balance, List<JournalEntry> entries, TransactionJournal.Recovered recovered, Set<String> loaded) {
+    List<String> rolledBack = new ArrayList<>();
+    long current = balance;
+    for (int i = entries.size() - 1; i >= 0; i--) {
+      JournalEntry entry = entries.get(i);
+      boolean committed = recovered.isCommitted(entry) || loaded.contains(entry.getTransactionId())
+              || Objects.equals(entry.getBalanceSnapshot(), current);
+      if (!committed) {
+        rolledBack.add(entry.getTransactionId());
+        continue;
+      }
+      current = entry.getBalanceSnapshot() - entry.delta();
+    }
+    return rolledBack;
+  }
+
+  //loaded - 적재한 건수, rolledBack - 커밋되지 않은 것으로 가린 in-doubt 기록
+  public record Replayed(int loaded, List<JournalEntry> rolledBack) {
+  }
+}
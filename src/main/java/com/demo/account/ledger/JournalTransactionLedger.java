@@ -0,0 +1,194 @@
+package com.demo.account.ledger;
+
+import com.demo.account.domain.Transaction;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 요청 트랜잭션에서는 거래를 로컬 저널에만 남기고 (group commit fsync)
+ * 커밋된 거래는 loader 스레드가 flush-interval 마다 모아서 transaction 테이블에 적재한다
+ * 거래 내역/내보내기 조회는 적재 전까지 최대 flush-interval 만큼 늦을 수 있다
+ * 요청 트랜잭션이 끝나면 COMMIT/ABORT 를 저널에 남긴다 (같은 group commit 으로 fsync 된다)
+ * 단일 노드 배포 기준이며, 재기동 때 요청을 받기 전에 남은 저널을 먼저 적재한다
+ * (COMMIT 이 없는 기록은 JournalLoader.replay 가 계좌 잔액으로 커밋 여부를 가린다)
+ * - account.journal.pending (gauge) / account.journal.append (timer)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "account.ledger.mode", havingValue = "journal")
+public class JournalTransactionLedger implements TransactionLedger, SmartInitializingSingleton {
+  private final TransactionJournal journal;
+  private final JournalLoader journalLoader;
+  private final EntityManager entityManager;
+  private final int flushBatchSize;
+  private final long flushIntervalMillis;
+  private final Timer appendTimer;
+
+  //커밋된 뒤 적재를 기다리는 기록
+  private final BlockingDeque<Committed> committed = new LinkedBlockingDeque<>();
+  //적재 중 DB I/O 로 virtual thread 를 붙잡지 않도록 synchronized 대신 lock
+  private final ReentrantLock loadLock = new ReentrantLock();
+  private final Thread loader = new Thread(this::loadLoop, "transaction-journal-loader");
+
+  public JournalTransactionLedger(
+          JournalLoader journalLoader,
+          EntityManager entityManager,
+          MeterRegistry meterRegistry,
+          @Value("${account.ledger.journal.directory:data/journal}") Path directory,
+          @Value("${account.ledger.journal.segment-size:67108864}") int segmentSize,
+          @Value("${account.ledger.journal.sync-every-records:64}") int syncEveryRecords,
+          @Value("${account.ledger.journal.sync-interval:2}") long syncIntervalMillis,
+          @Value("${account.ledger.journal.flush-interval:200}") long flushIntervalMillis,
+          @Value("${account.ledger.journal.flush-batch-size:1000}") int flushBatchSize
+  ) throws IOException {
+    this.journal = new TransactionJournal(directory, segmentSize, syncEveryRecords, syncIntervalMillis);
+    this.journalLoader = journalLoader;
+    this.entityManager = entityManager;
+    this.flushIntervalMillis = flushIntervalMillis;
+    this.flushBatchSize = flushBatchSize;
+    this.appendTimer = meterRegistry.timer("account.journal.append");
+    meterRegistry.gauge("account.journal.pending", committed, BlockingDeque::size);
+    loader.setDaemon(true);
+  }
+
+  @Override
+  public Transaction append(Transaction transaction) {
+    appendAll(List.of(transaction));
+    return transaction;
+  }
+
+  /**
+   * 계좌 변경을 먼저 flush 해서 확정된 version 을 기록에 남긴다
+   * 저널 fsync 가 끝난 뒤에 돌아오므로 요청 트랜잭션이 커밋되면 거래는 유실되지 않는다
+   */
+  @Override
+  public List<Transaction> appendAll(List<Transaction> transactions) {
+    entityManager.flush();
+    List<JournalEntry> entries = transactions.stream().map(JournalEntry::fromTransaction).toList();
+    long[] segmentIds = new long[entries.size()];
+    try {
+      appendTimer.record(() -> {
+        List<CompletableFuture<Long>> futures = entries.stream().map(journal::append).toList();
+        for (int i = 0; i < segmentIds.length; i++) {
+          segmentIds[i] = futures.get(i).join();
+        }
+      });
+    } catch (CompletionException e) {
+      throw new IllegalStateException("failed to append transaction journal", e.getCause());
+    }
+
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        for (int i = 0; i < segmentIds.length; i++) {
+          JournalEntry entry = entries.get(i);
+          if (status == STATUS_COMMITTED) {
+            journal.commit(entry.getTransactionId());
+            committed.offer(new Committed(entry, segmentIds[i]));
+          } else {
+            journal.abort(entry.getTransactionId());
+            journal.release(segmentIds[i]);
+          }
+        }
+      }
+    });
+    return transactions;
+  }
+
+  /**
+   * 쌓여 있는 기록을 바로 적재한다 (loader 스레드와 같은 lock 을 쓴다)
+   */
+  @Override
+  public boolean flush() {
+    boolean loaded = false;
+    loadLock.lock();
+    try {
+      List<Committed> batch = new ArrayList<>(flushBatchSize);
+      while (committed.drainTo(batch, flushBatchSize) > 0) {
+        try {
+          journalLoader.load(batch.stream().map(Committed::entry).toList());
+        } catch (RuntimeException e) {
+          //다음 flush 때 다시 시도한다
+          for (int i = batch.size() - 1; i >= 0; i--) {
+            committed.offerFirst(batch.get(i));
+          }
+          throw e;
+        }
+        batch.forEach(c -> journal.release(c.segmentId()));
+        batch.clear();
+        loaded = true;
+      }
+    } finally {
+      loadLock.unlock();
+    }
+    return loaded;
+  }
+
+  /**
+   * 웹 서버가 요청을 받기 전에 남은 저널을 적재한다 (in-doubt 판정 중 잔액이 바뀌지 않도록)
+   */
+  @Override
+  public void afterSingletonsInstantiated() {
+    try {
+      TransactionJournal.Recovered recovered = journal.recover();
+      JournalLoader.Replayed replayed = journalLoader.replay(recovered);
+      journal.saveInDoubt(replayed.rolledBack());
+      journal.deleteRecovered();
+    } catch (IOException e) {
+      throw new UncheckedIOException("failed to recover transaction journal", e);
+    }
+    loader.start();
+  }
+
+  @PreDestroy
+  public void stop() throws IOException {
+    loader.interrupt();
+    try {
+      loader.join(TimeUnit.SECONDS.toMillis(5));
+      flush();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (RuntimeException e) {
+      //남은 기록은 저널에 있으므로 다음 기동 때 적재된다
+      log.error("failed to flush transaction journal on shutdown", e);
+    }
+    journal.close();
+  }
+
+  private void loadLoop() {
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        Thread.sleep(flushIntervalMillis);
+        flush();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (RuntimeException e) {
+        log.error("failed to load transaction journal", e);
+      }
+    }
+  }
+
+  private record Committed(JournalEntry entry, long segmentId) {
+  }
+}
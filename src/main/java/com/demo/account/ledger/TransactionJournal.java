@@ -0,0 +1,413 @@
+package com.demo.account.ledger;
+
+import com.demo.account.type.TransactionResultType;
+import com.demo.account.type.TransactionType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 거래 기록용 append-only 저널 (memory-mapped 세그먼트 파일)
+ * 여러 요청의 기록을 모아 한 번에 fsync 한다 (group commit: sync-every-records 건 또는 sync-interval 마다)
+ * 레코드는 [길이 int][crc32 int][payload], 길이가 0 이거나 crc 가 맞지 않으면 세그먼트가 거기서 끝난 것으로 본다
+ * 요청 트랜잭션이 끝나면 COMMIT 또는 ABORT 를 남긴다 (기록과 같은 group commit 으로 sync-interval 안에 fsync 한다)
+ * 재기동 때는 COMMIT 이 있는 기록을 커밋된 것으로 보고, 둘 다 없는 기록은 in-doubt 로 구분해 돌려준다
+ * (in-doubt 기록의 커밋 여부는 JournalLoader.replay 가 계좌 잔액으로 가린다)
+ * 세그먼트는 기록이 모두 DB 에 적재(release) 되고 다음 세그먼트로 넘어가면 지운다
+ * COMMIT 이 뒤 세그먼트에 남을 수 있으므로 세그먼트는 앞에서부터 순서대로만 지운다
+ */
+@Slf4j
+public class TransactionJournal implements Closeable {
+  private static final byte APPEND = 1;
+  private static final byte ABORT = 2;
+  private static final byte COMMIT = 3;
+  private static final String IN_DOUBT_FILE = "in-doubt.log";
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".log";
+
+  private final Path directory;
+  private final int segmentSize;
+  private final int syncEveryRecords;
+  private final long syncIntervalNanos;
+
+  //기동 전에 남아 있던 세그먼트 (recover 대상)
+  private final List<Path> recoverable;
+  private final ConcurrentNavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+  private final Thread syncer;
+
+  //아래 필드는 this 로 보호한다
+  private Segment current;
+  private List<Waiting> waiting = new ArrayList<>();
+  //fsync 되지 않은 COMMIT/ABORT 가 있음
+  private boolean marked;
+  private boolean running = true;
+
+  public TransactionJournal(
+          Path directory,
+          int segmentSize,
+          int syncEveryRecords,
+          long syncIntervalMillis
+  ) throws IOException {
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.syncEveryRecords = syncEveryRecords;
+    this.syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(syncIntervalMillis);
+
+    Files.createDirectories(directory);
+    try (Stream<Path> files = Files.list(directory)) {
+      this.recoverable = files
+              .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+              .sorted(Comparator.comparingLong(TransactionJournal::segmentId))
+              .toList();
+    }
+    long nextId = recoverable.isEmpty() ? 0 : segmentId(recoverable.getLast()) + 1;
+    this.current = openSegment(nextId);
+
+    this.syncer = new Thread(this::syncLoop, "transaction-journal-sync");
+    this.syncer.setDaemon(true);
+    this.syncer.start();
+  }
+
+  /**
+   * 이전 실행에서 남은 기록을 저널 순서대로 돌려준다 (ABORT 된 기록은 버린다)
+   * COMMIT 이 있는 기록은 committed, COMMIT/ABORT 가 모두 없는 기록은 inDoubt
+   */
+  public Recovered recover() throws IOException {
+    Map<String, JournalEntry> entries = new LinkedHashMap<>();
+    Set<String> committed = new HashSet<>();
+    for (Path path : recoverable) {
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        byte[] payload;
+        while ((payload = readRecord(buffer)) != null) {
+          ByteBuffer record = ByteBuffer.wrap(payload);
+          byte kind = record.get();
+          String transactionId = getString(record);
+          if (kind == ABORT) {
+            entries.remove(transactionId);
+          } else if (kind == COMMIT) {
+            committed.add(transactionId);
+          } else {
+            entries.put(transactionId, decode(transactionId, record));
+          }
+        }
+      }
+    }
+    //앞 세그먼트가 적재되어 지워졌으면 COMMIT 만 남아 있을 수 있다
+    committed.retainAll(entries.keySet());
+    return new Recovered(List.copyOf(entries.values()), committed);
+  }
+
+  /**
+   * 커밋되지 않은 것으로 가린 in-doubt 기록을 저널 디렉터리의 in-doubt.log 에 남긴다 (확인용)
+   */
+  public void saveInDoubt(List<JournalEntry> entries) throws IOException {
+    if (entries.isEmpty()) {
+      return;
+    }
+    Files.write(directory.resolve(IN_DOUBT_FILE),
+            entries.stream().map(JournalEntry::toLine).toList(),
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    log.warn("{} rolled back in-doubt journal entries saved to {}", entries.size(), directory.resolve(IN_DOUBT_FILE));
+  }
+
+  //recover 한 기록을 모두 적재한 뒤에 호출한다
+  public void deleteRecovered() throws IOException {
+    for (Path path : recoverable) {
+      Files.deleteIfExists(path);
+    }
+  }
+
+  /**
+   * 기록을 남기고 fsync 가 끝나면 세그먼트 id 로 완료되는 future 를 돌려준다
+   * 적재가 끝나면 같은 id 로 release 를 호출해야 한다
+   */
+  public CompletableFuture<Long> append(JournalEntry entry) {
+    byte[] payload = encode(entry);
+    CompletableFuture<Long> future = new CompletableFuture<>();
+    synchronized (this) {
+      if (!running) {
+        throw new IllegalStateException("transaction journal is closed");
+      }
+      Segment segment = write(payload);
+      segment.outstanding.incrementAndGet();
+      waiting.add(new Waiting(future, segment.id));
+      if (waiting.size() == 1 || waiting.size() >= syncEveryRecords) {
+        notifyAll();
+      }
+    }
+    return future;
+  }
+
+  //커밋된 기록을 표시한다 (기다리지 않고 sync-interval 안에 fsync 된다)
+  public void commit(String transactionId) {
+    mark(COMMIT, transactionId);
+  }
+
+  //커밋되지 않은 기록을 표시한다 (기다리지 않고 sync-interval 안에 fsync 된다)
+  public void abort(String transactionId) {
+    mark(ABORT, transactionId);
+  }
+
+  private void mark(byte kind, String transactionId) {
+    ByteBuffer payload = ByteBuffer.allocate(1 + 2 + transactionId.length() * 3);
+    payload.put(kind);
+    putString(payload, transactionId);
+    synchronized (this) {
+      if (running) {
+        write(Arrays.copyOf(payload.array(), payload.position()));
+        if (!marked) {
+          marked = true;
+          notifyAll();
+        }
+      }
+    }
+  }
+
+  public void release(long segmentId) {
+    Segment segment = segments.get(segmentId);
+    if (segment != null && segment.outstanding.decrementAndGet() == 0 && segment.closed) {
+      deleteReleasedSegments();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    synchronized (this) {
+      running = false;
+      notifyAll();
+    }
+    try {
+      syncer.join(5000);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    //syncer 가 끝나지 못했어도 마지막 COMMIT/ABORT 까지 fsync 한다
+    synchronized (this) {
+      current.buffer.force();
+    }
+    //모두 적재된 세그먼트는 다음 기동 때 다시 읽지 않도록 앞에서부터 지운다
+    boolean deletable = true;
+    for (Segment segment : segments.values()) {
+      deletable &= segment.outstanding.get() == 0;
+      if (deletable) {
+        deleteSegment(segment);
+      } else {
+        segment.channel.close();
+      }
+    }
+  }
+
+  private Segment write(byte[] payload) {
+    int recordSize = 8 + payload.length;
+    //끝 표시(길이 0) 를 쓸 자리까지 남긴다
+    if (current.buffer.remaining() < recordSize + 4) {
+      roll();
+    }
+    CRC32 crc = new CRC32();
+    crc.update(payload);
+    current.buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+    return current;
+  }
+
+  //가득 찬 세그먼트는 바로 fsync 하고 새 세그먼트로 넘어간다
+  private void roll() {
+    Segment previous = current;
+    previous.buffer.force();
+    current = openSegment(previous.id + 1);
+    previous.closed = true;
+    deleteReleasedSegments();
+  }
+
+  //앞에서부터 닫혔고 적재가 끝난 세그먼트를 지운다
+  private void deleteReleasedSegments() {
+    synchronized (segments) {
+      for (Segment segment : segments.values()) {
+        if (!segment.closed || segment.outstanding.get() > 0) {
+          return;
+        }
+        deleteSegment(segment);
+      }
+    }
+  }
+
+  private void syncLoop() {
+    while (true) {
+      List<Waiting> batch;
+      MappedByteBuffer buffer;
+      synchronized (this) {
+        try {
+          while (running && waiting.isEmpty() && !marked) {
+            wait();
+          }
+          long deadline = System.nanoTime() + syncIntervalNanos;
+          long remaining;
+          while (running && waiting.size() < syncEveryRecords
+                  && (remaining = deadline - System.nanoTime()) > 0) {
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+          }
+        } catch (InterruptedException e) {
+          running = false;
+        }
+        if (!running && waiting.isEmpty()) {
+          current.buffer.force();
+          return;
+        }
+        batch = waiting;
+        waiting = new ArrayList<>();
+        //이전 세그먼트에 쓴 표시는 roll 할 때 fsync 됐다
+        marked = false;
+        buffer = current.buffer;
+      }
+
+      try {
+        buffer.force();
+        batch.forEach(w -> w.future.complete(w.segmentId));
+      } catch (Exception e) {
+        log.error("failed to sync transaction journal", e);
+        batch.forEach(w -> w.future.completeExceptionally(e));
+      }
+    }
+  }
+
+  private Segment openSegment(long id) {
+    Path path = directory.resolve(SEGMENT_PREFIX + id + SEGMENT_SUFFIX);
+    try {
+      FileChannel channel = FileChannel.open(path,
+              StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      Segment segment = new Segment(id, path, channel,
+              channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+      segments.put(id, segment);
+      return segment;
+    } catch (IOException e) {
+      throw new IllegalStateException("failed to open journal segment " + path, e);
+    }
+  }
+
+  private void deleteSegment(Segment segment) {
+    if (segments.remove(segment.id) == null) {
+      return;
+    }
+    try {
+      segment.channel.close();
+      Files.deleteIfExists(segment.path);
+    } catch (IOException e) {
+      log.error("failed to delete journal segment {}", segment.path, e);
+    }
+  }
+
+  private static byte[] readRecord(ByteBuffer buffer) {
+    if (buffer.remaining() < 8) {
+      return null;
+    }
+    int length = buffer.getInt();
+    int crc = buffer.getInt();
+    if (length <= 0 || length > buffer.remaining()) {
+      return null;
+    }
+    byte[] payload = new byte[length];
+    buffer.get(payload);
+    CRC32 actual = new CRC32();
+    actual.update(payload);
+    //쓰다 만 레코드
+    return (int) actual.getValue() == crc ? payload : null;
+  }
+
+  private static byte[] encode(JournalEntry entry) {
+    ByteBuffer buffer = ByteBuffer.allocate(256);
+    buffer.put(APPEND);
+    putString(buffer, entry.getTransactionId());
+    buffer.putLong(entry.getAccountId());
+    buffer.putLong(entry.getAccountVersion() == null ? -1 : entry.getAccountVersion());
+    putString(buffer, entry.getTransactionType().name());
+    putString(buffer, entry.getTransactionResultType().name());
+    buffer.putLong(entry.getAmount());
+    buffer.putLong(entry.getBalanceSnapshot());
+    buffer.putLong(entry.getTransactedAt().toEpochSecond(ZoneOffset.UTC));
+    buffer.putInt(entry.getTransactedAt().getNano());
+    return Arrays.copyOf(buffer.array(), buffer.position());
+  }
+
+  private static JournalEntry decode(String transactionId, ByteBuffer record) {
+    long accountId = record.getLong();
+    long accountVersion = record.getLong();
+    return JournalEntry.builder()
+            .transactionId(transactionId)
+            .accountId(accountId)
+            .accountVersion(accountVersion < 0 ? null : accountVersion)
+            .transactionType(TransactionType.valueOf(getString(record)))
+            .transactionResultType(TransactionResultType.valueOf(getString(record)))
+            .amount(record.getLong())
+            .balanceSnapshot(record.getLong())
+            .transactedAt(LocalDateTime.ofEpochSecond(record.getLong(), record.getInt(), ZoneOffset.UTC))
+            .build();
+  }
+
+  private static void putString(ByteBuffer buffer, String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    buffer.putShort((short) bytes.length).put(bytes);
+  }
+
+  private static String getString(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.getShort()];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static long segmentId(Path path) {
+    String name = path.getFileName().toString();
+    return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+  }
+
+  //entries 는 저널 순서, committedIds 는 COMMIT 이 있는 기록
+  public record Recovered(List<JournalEntry> entries, Set<String> committedIds) {
+    public boolean isCommitted(JournalEntry entry) {
+      return committedIds.contains(entry.getTransactionId());
+    }
+
+    public List<JournalEntry> committed() {
+      return entries.stream().filter(this::isCommitted).toList();
+    }
+
+    public List<JournalEntry> inDoubt() {
+      return entries.stream().filter(entry -> !isCommitted(entry)).toList();
+    }
+  }
+
+  private record Waiting(CompletableFuture<Long> future, long segmentId) {
+  }
+
+  private static class Segment {
+    private final long id;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private volatile boolean closed;
+
+    Segment(long id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+      this.id = id;
+      this.path = path;
+      this.channel = channel;
+      this.buffer = buffer;
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package com.demo.account.ledger;
+
+import com.demo.account.domain.Transaction;
+
+import java.util.List;
+
+/**
+ * 거래 한 건을 남기는 곳
+ * db(기본) 또는 journal(로컬 저널에 group commit 후 백그라운드로 DB 적재) 중 설정으로 선택한다
+ */
+public interface TransactionLedger {
+  //호출한 트랜잭션이 커밋되면 거래가 남는다
+  Transaction append(Transaction transaction);
+
+  //같은 트랜잭션에서 여러 건을 남긴다 (한 번에 INSERT 하거나 한 번의 fsync 를 기다린다)
+  List<Transaction> appendAll(List<Transaction> transactions);
+
+  //아직 DB 에 적재되지 않은 거래를 바로 적재한다, 적재한 것이 있으면 true
+  default boolean flush() {
+    return false;
+  }
+}
@@ -0,0 +1,15 @@
+package com.demo.account.lock;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 스레드를 붙잡지 않고 lock 을 기다릴 수 있는 구현체 (redis)
+ * lock 의 주인은 스레드 대신 호출한 쪽이 정한 ownerId 로 구분한다
+ */
+public interface AsyncLockBackend extends LockBackend {
+  CompletableFuture<Boolean> tryLockAsync(
+          String lockKey, long waitTime, long leaseTime, TimeUnit unit, long ownerId);
+
+  CompletableFuture<Void> unlockAsync(String lockKey, long ownerId);
+}
@@ -0,0 +1,97 @@
+package com.demo.account.lock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 단일 노드 배포용 lock
+ * 계좌번호 hash 로 고정 크기의 ReentrantLock 배열 중 하나를 고른다 (striped lock)
+ * 같은 stripe 에 걸린 다른 계좌끼리는 서로 기다릴 수 있다
+ * lease time 은 쓰지 않는다 - lock 은 항상 finally 에서 같은 스레드가 해제한다
+ * 여러 계좌를 잡을 때는 계좌번호가 아니라 stripe 번호 순서로 잡는다
+ * (계좌번호 순서로 잡으면 stripe 를 공유하는 계좌 쌍이 서로 반대 순서로 기다릴 수 있다)
+ */
+@Component
+@ConditionalOnProperty(name = "account.lock.backend", havingValue = "local")
+public class LocalLockBackend implements LockBackend {
+  private final ReentrantLock[] stripes;
+  private final int mask;
+
+  public LocalLockBackend(@Value("${account.lock.local.stripes:1024}") int stripeCount) {
+    int size = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+    this.stripes = new ReentrantLock[size];
+    for (int i = 0; i < size; i++) {
+      stripes[i] = new ReentrantLock();
+    }
+    this.mask = size - 1;
+  }
+
+  @Override
+  public boolean tryLock(String lockKey, long waitTime, long leaseTime, TimeUnit unit)
+          throws InterruptedException {
+    return stripeOf(lockKey).tryLock(waitTime, unit);
+  }
+
+  @Override
+  public void unlock(String lockKey) {
+    stripeOf(lockKey).unlock();
+  }
+
+  @Override
+  public boolean tryLockAll(List<String> lockKeys, long waitTime, long leaseTime, TimeUnit unit)
+          throws InterruptedException {
+    int[] indexes = stripeIndexes(lockKeys);
+    long deadline = System.nanoTime() + unit.toNanos(waitTime);
+    for (int i = 0; i < indexes.length; i++) {
+      boolean isLock;
+      try {
+        isLock = stripes[indexes[i]].tryLock(
+                Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+      } catch (InterruptedException e) {
+        unlockStripes(indexes, i);
+        throw e;
+      }
+      if (!isLock) {
+        unlockStripes(indexes, i);
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void unlockAll(List<String> lockKeys) {
+    int[] indexes = stripeIndexes(lockKeys);
+    unlockStripes(indexes, indexes.length);
+  }
+
+  int stripeCount() {
+    return stripes.length;
+  }
+
+  private ReentrantLock stripeOf(String lockKey) {
+    return stripes[stripeIndex(lockKey)];
+  }
+
+  private int stripeIndex(String lockKey) {
+    int h = lockKey.hashCode();
+    return (h ^ (h >>> 16)) & mask;
+  }
+
+  //같은 stripe 는 한 번만 잡는다
+  private int[] stripeIndexes(List<String> lockKeys) {
+    return lockKeys.stream().mapToInt(this::stripeIndex).distinct().sorted().toArray();
+  }
+
+  //앞에서부터 count 개를 역순으로 해제한다
+  private void unlockStripes(int[] indexes, int count) {
+    for (int i = count - 1; i >= 0; i--) {
+      stripes[indexes[i]].unlock();
+    }
+  }
+}
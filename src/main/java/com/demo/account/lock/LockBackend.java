@@ -0,0 +1,49 @@
+package com.demo.account.lock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 계좌 lock 구현체
+ * redis(분산 lock) 또는 local(단일 노드 lock) 중 설정으로 선택한다
+ * 비동기 lock 은 AsyncLockBackend 를 구현한 backend 만 지원한다
+ */
+public interface LockBackend {
+  boolean tryLock(String lockKey, long waitTime, long leaseTime, TimeUnit unit)
+          throws InterruptedException;
+
+  void unlock(String lockKey);
+
+  /**
+   * 여러 lock 을 모두 잡거나 하나도 잡지 않는다
+   * 주어진 순서대로 잡으므로 호출하는 쪽이 항상 같은 순서로 넘겨야 교착이 생기지 않는다
+   * waitTime 은 전체 lock 을 잡는 데 걸리는 시간의 상한이다
+   */
+  default boolean tryLockAll(List<String> lockKeys, long waitTime, long leaseTime, TimeUnit unit)
+          throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(waitTime);
+    List<String> acquired = new ArrayList<>(lockKeys.size());
+    try {
+      for (String lockKey : lockKeys) {
+        long remaining = Math.max(0, deadline - System.nanoTime());
+        if (!tryLock(lockKey, remaining, unit.toNanos(leaseTime), TimeUnit.NANOSECONDS)) {
+          unlockAll(acquired);
+          return false;
+        }
+        acquired.add(lockKey);
+      }
+      return true;
+    } catch (InterruptedException | RuntimeException e) {
+      unlockAll(acquired);
+      throw e;
+    }
+  }
+
+  //잡은 순서의 역순으로 해제한다
+  default void unlockAll(List<String> lockKeys) {
+    for (int i = lockKeys.size() - 1; i >= 0; i--) {
+      unlock(lockKeys.get(i));
+    }
+  }
+}
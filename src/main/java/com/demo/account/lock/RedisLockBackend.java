@@ -0,0 +1,92 @@
+package com.demo.account.lock;
+
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redisson 분산 lock
+ * 비동기 API 에 요청 스레드 id 를 넘기고 future 로 기다린다
+ * virtual thread 로 요청을 처리할 때도 기다리는 동안 carrier thread 를 붙잡지 않는다
+ * 비동기 API 에서는 스레드 id 대신 호출한 쪽이 정한 ownerId 를 lock 주인으로 쓴다
+ * 여러 계좌는 RedissonMultiLock 하나로 잡는다
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "account.lock.backend", havingValue = "redis", matchIfMissing = true)
+public class RedisLockBackend implements AsyncLockBackend {
+  private final RedissonClient redissonClient;
+
+  @Override
+  public boolean tryLock(String lockKey, long waitTime, long leaseTime, TimeUnit unit)
+          throws InterruptedException {
+    return await(tryLockAsync(lockKey, waitTime, leaseTime, unit,
+            Thread.currentThread().threadId()));
+  }
+
+  @Override
+  public void unlock(String lockKey) {
+    try {
+      await(unlockAsync(lockKey, Thread.currentThread().threadId()));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("interrupted while unlocking " + lockKey, e);
+    }
+  }
+
+  @Override
+  public boolean tryLockAll(List<String> lockKeys, long waitTime, long leaseTime, TimeUnit unit)
+          throws InterruptedException {
+    return await(multiLock(lockKeys)
+            .tryLockAsync(waitTime, leaseTime, unit, Thread.currentThread().threadId())
+            .toCompletableFuture());
+  }
+
+  @Override
+  public void unlockAll(List<String> lockKeys) {
+    try {
+      await(multiLock(lockKeys)
+              .unlockAsync(Thread.currentThread().threadId())
+              .toCompletableFuture());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("interrupted while unlocking " + lockKeys, e);
+    }
+  }
+
+  @Override
+  public CompletableFuture<Boolean> tryLockAsync(
+          String lockKey, long waitTime, long leaseTime, TimeUnit unit, long ownerId) {
+    return redissonClient.getLock(lockKey)
+            .tryLockAsync(waitTime, leaseTime, unit, ownerId)
+            .toCompletableFuture();
+  }
+
+  @Override
+  public CompletableFuture<Void> unlockAsync(String lockKey, long ownerId) {
+    return redissonClient.getLock(lockKey).unlockAsync(ownerId).toCompletableFuture();
+  }
+
+  private RLock multiLock(List<String> lockKeys) {
+    return redissonClient.getMultiLock(
+            lockKeys.stream().map(redissonClient::getLock).toArray(RLock[]::new));
+  }
+
+  private static <T> T await(CompletableFuture<T> future) throws InterruptedException {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+}
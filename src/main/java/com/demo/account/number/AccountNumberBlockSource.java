@@ -0,0 +1,16 @@
+package com.demo.account.number;
+
+/**
+ * 계좌번호 block(hi 값) 발급처
+ * 노드와 스레드에 상관없이 호출할 때마다 중복 없이 증가하는 값을 돌려줘야 한다
+ */
+public interface AccountNumberBlockSource {
+  long nextBlock();
+
+  /**
+   * 이후 nextBlock() 이 block 이상을 돌려주도록 앞당긴다 (이미 앞서 있으면 그대로 둔다)
+   * 기존 계좌번호가 있는 DB 에서 처음 발급할 때 쓴다
+   */
+  default void advanceTo(long block) {
+  }
+}
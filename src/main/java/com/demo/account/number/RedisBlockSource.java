@@ -0,0 +1,37 @@
+package com.demo.account.number;
+
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RedissonClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis INCR 로 block 을 발급한다
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "account.number.source", havingValue = "redis")
+public class RedisBlockSource implements AccountNumberBlockSource {
+  private static final String BLOCK_KEY = "ACNO:block";
+
+  private final RedissonClient redissonClient;
+
+  @Override
+  public long nextBlock() {
+    return redissonClient.getAtomicLong(BLOCK_KEY).incrementAndGet();
+  }
+
+  //값을 줄이지는 않으므로 여러 노드가 동시에 불러도 안전하다
+  @Override
+  public void advanceTo(long block) {
+    RAtomicLong counter = redissonClient.getAtomicLong(BLOCK_KEY);
+    long current;
+    do {
+      current = counter.get();
+      if (current >= block - 1) {
+        return;
+      }
+    } while (!counter.compareAndSet(current, block - 1));
+  }
+}
@@ -0,0 +1,47 @@
+package com.demo.account.number;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * DB sequence 로 block 을 발급한다 (sequence 는 data.sql 에서 생성)
+ */
+@Component
+@ConditionalOnProperty(name = "account.number.source", havingValue = "sequence", matchIfMissing = true)
+public class SequenceBlockSource implements AccountNumberBlockSource {
+  private final JdbcTemplate jdbcTemplate;
+  private final String sequenceName;
+  private final String nextValueSql;
+
+  public SequenceBlockSource(
+          JdbcTemplate jdbcTemplate,
+          EntityManagerFactory entityManagerFactory,
+          @Value("${account.number.sequence:account_number_block_seq}") String sequenceName
+  ) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.sequenceName = sequenceName;
+    this.nextValueSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getJdbcServices().getDialect()
+            .getSequenceSupport().getSequenceNextValString(sequenceName);
+  }
+
+  @Override
+  public long nextBlock() {
+    return jdbcTemplate.queryForObject(nextValueSql, Long.class);
+  }
+
+  /**
+   * sequence 가 뒤처져 있을 때만 restart 한다 (확인에 block 하나를 쓴다)
+   * 뒤처진 경우는 기존 DB 에서 처음 기동할 때뿐이므로, 그때는 노드 하나를 먼저 띄운다
+   */
+  @Override
+  public void advanceTo(long block) {
+    if (nextBlock() < block) {
+      jdbcTemplate.execute("alter sequence " + sequenceName + " restart with " + block);
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package com.demo.account.outbox;
+
+import com.demo.account.domain.OutboxEvent;
+import com.demo.account.type.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 외부로 발행하는 잔액 변경 이벤트
+ * 최소 한 번 전달이므로 소비하는 쪽은 eventId (또는 transactionId) 로 중복을 거른다
+ * 같은 계좌의 이벤트는 accountVersion 순서로 발행된다
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class BalanceChangeEvent {
+  private Long eventId;
+  private String accountNumber;
+  private Long accountVersion;
+  private String transactionId;
+  private TransactionType transactionType;
+  private Long amount;
+  private Long balanceSnapshot;
+  private LocalDateTime transactedAt;
+
+  public static BalanceChangeEvent fromOutbox(OutboxEvent outboxEvent) {
+    return BalanceChangeEvent.builder()
+            .eventId(outboxEvent.getId())
+            .accountNumber(outboxEvent.getAccountNumber())
+            .accountVersion(outboxEvent.getAccountVersion())
+            .transactionId(outboxEvent.getTransactionId())
+            .transactionType(outboxEvent.getTransactionType())
+            .amount(outboxEvent.getAmount())
+            .balanceSnapshot(outboxEvent.getBalanceSnapshot())
+            .transactedAt(outboxEvent.getTransactedAt())
+            .build();
+  }
+
+  public Map<String, String> toMap() {
+    Map<String, String> map = new LinkedHashMap<>();
+    map.put("eventId", String.valueOf(eventId));
+    map.put("accountNumber", accountNumber);
+    map.put("accountVersion", String.valueOf(accountVersion));
+    map.put("transactionId", transactionId);
+    map.put("transactionType", transactionType.name());
+    map.put("amount", String.valueOf(amount));
+    map.put("balanceSnapshot", String.valueOf(balanceSnapshot));
+    map.put("transactedAt", transactedAt.toString());
+    return map;
+  }
+}
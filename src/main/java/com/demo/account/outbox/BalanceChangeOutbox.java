@@ -0,0 +1,53 @@
+package com.demo.account.outbox;
+
+import com.demo.account.domain.OutboxEvent;
+import com.demo.account.domain.Transaction;
+import com.demo.account.repository.OutboxEventRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import static com.demo.account.type.TransactionResultType.S;
+
+/**
+ * 잔액이 바뀐 거래(S) 를 호출한 트랜잭션 안에서 outbox 에 남긴다
+ * 계좌 변경을 먼저 flush 해서 반영된 뒤의 계좌 version 을 함께 남긴다 (relay 의 계좌별 발행 순서)
+ */
+@Component
+public class BalanceChangeOutbox {
+  private final OutboxEventRepository outboxEventRepository;
+  private final EntityManager entityManager;
+  private final boolean enabled;
+
+  public BalanceChangeOutbox(
+          OutboxEventRepository outboxEventRepository,
+          EntityManager entityManager,
+          @Value("${account.outbox.enabled:true}") boolean enabled
+  ) {
+    this.outboxEventRepository = outboxEventRepository;
+    this.entityManager = entityManager;
+    this.enabled = enabled;
+  }
+
+  public void record(Transaction transaction) {
+    if (enabled && transaction.getTransactionResultType() == S) {
+      entityManager.flush();
+      outboxEventRepository.save(OutboxEvent.fromTransaction(transaction));
+    }
+  }
+
+  public void recordAll(List<Transaction> transactions) {
+    if (!enabled) {
+      return;
+    }
+    List<Transaction> changed = transactions.stream()
+            .filter(transaction -> transaction.getTransactionResultType() == S)
+            .toList();
+    if (!changed.isEmpty()) {
+      entityManager.flush();
+      outboxEventRepository.saveAll(changed.stream().map(OutboxEvent::fromTransaction).toList());
+    }
+  }
+}
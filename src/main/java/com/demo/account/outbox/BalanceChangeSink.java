@@ -0,0 +1,12 @@
+package com.demo.account.outbox;
+
+import java.util.List;
+
+/**
+ * 잔액 변경 이벤트를 내보내는 곳
+ * redis(Redis Stream) 또는 memory(테스트/로컬용) 중 설정으로 선택한다
+ */
+public interface BalanceChangeSink {
+  //주어진 순서대로 모두 발행하거나 예외를 던진다 (일부만 발행된 경우에는 다시 발행된다)
+  void publish(List<BalanceChangeEvent> events);
+}
@@ -0,0 +1,40 @@
+package com.demo.account.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * 최근 이벤트를 메모리에만 남긴다 (테스트, Redis 5 미만인 로컬 embedded redis 용)
+ */
+@Component
+@ConditionalOnProperty(name = "account.outbox.sink", havingValue = "memory")
+public class InMemoryBalanceChangeSink implements BalanceChangeSink {
+  private final Deque<BalanceChangeEvent> events = new ArrayDeque<>();
+  private final int capacity;
+
+  public InMemoryBalanceChangeSink(
+          @Value("${account.outbox.memory.capacity:10000}") int capacity
+  ) {
+    this.capacity = capacity;
+  }
+
+  @Override
+  public synchronized void publish(List<BalanceChangeEvent> events) {
+    for (BalanceChangeEvent event : events) {
+      if (this.events.size() == capacity) {
+        this.events.removeFirst();
+      }
+      this.events.addLast(event);
+    }
+  }
+
+  //발행된 순서대로
+  public synchronized List<BalanceChangeEvent> events() {
+    return List.copyOf(events);
+  }
+}
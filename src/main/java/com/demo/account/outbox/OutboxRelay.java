@@ -0,0 +1,148 @@
+package com.demo.account.outbox;
+
+import com.demo.account.domain.OutboxEvent;
+import com.demo.account.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * outbox 를 id 순서대로 batch-size 만큼 읽어 계좌별 accountVersion 순서로 sink 에 발행하고, 발행이 끝난 row 를 지운다
+ * 여러 노드가 쓰면 id 순서와 계좌별 변경 순서가 다를 수 있으므로,
+ * 같은 계좌의 더 낮은 version 이 batch 밖에 남아 있는 이벤트는 다음 batch 로 미룬다
+ * (batch 전체가 밀리면 가장 앞 이벤트의 계좌를 version 순서로 발행한다)
+ * 발행에 실패하면 같은 batch 를 backoff 후 다시 보내기 때문에 뒤의 이벤트가 앞지르지 않는다 (계좌별 순서 유지)
+ * 발행 후 삭제 전에 내려가면 다시 발행된다 (최소 한 번)
+ * 여러 노드로 띄울 때는 한 노드에서만 relay-enabled 로 둔다
+ * - account.outbox.published / account.outbox.failure (counter)
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+  private final OutboxEventRepository outboxEventRepository;
+  private final BalanceChangeSink balanceChangeSink;
+  private final boolean enabled;
+  private final int batchSize;
+  private final long pollIntervalMillis;
+  private final long maxBackoffMillis;
+  private final Counter published;
+  private final Counter failure;
+  private final Thread relay = new Thread(this::relayLoop, "outbox-relay");
+
+  public OutboxRelay(
+          OutboxEventRepository outboxEventRepository,
+          BalanceChangeSink balanceChangeSink,
+          MeterRegistry meterRegistry,
+          @Value("${account.outbox.enabled:true}") boolean outboxEnabled,
+          @Value("${account.outbox.relay-enabled:true}") boolean relayEnabled,
+          @Value("${account.outbox.batch-size:500}") int batchSize,
+          @Value("${account.outbox.poll-interval:100}") long pollIntervalMillis,
+          @Value("${account.outbox.max-backoff:5000}") long maxBackoffMillis
+  ) {
+    this.outboxEventRepository = outboxEventRepository;
+    this.balanceChangeSink = balanceChangeSink;
+    this.enabled = outboxEnabled && relayEnabled;
+    this.batchSize = batchSize;
+    this.pollIntervalMillis = pollIntervalMillis;
+    this.maxBackoffMillis = maxBackoffMillis;
+    this.published = meterRegistry.counter("account.outbox.published");
+    this.failure = meterRegistry.counter("account.outbox.failure");
+    relay.setDaemon(true);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (enabled) {
+      relay.start();
+    }
+  }
+
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    relay.interrupt();
+    if (relay.isAlive()) {
+      relay.join(5000);
+    }
+  }
+
+  /**
+   * 한 batch 를 발행하고 발행한 건수를 돌려준다
+   */
+  public int relayOnce() {
+    List<OutboxEvent> batch = outboxEventRepository.findNext(PageRequest.of(0, batchSize));
+    if (batch.isEmpty()) {
+      return 0;
+    }
+    List<OutboxEvent> outboxEvents = inAccountOrder(batch);
+    if (outboxEvents.isEmpty()) {
+      outboxEvents = outboxEventRepository.findNextOfAccount(
+              batch.get(0).getAccountId(), PageRequest.of(0, batchSize));
+    }
+    balanceChangeSink.publish(outboxEvents.stream()
+            .map(BalanceChangeEvent::fromOutbox)
+            .toList());
+    outboxEventRepository.deleteAllByIdInBatch(outboxEvents.stream()
+            .map(OutboxEvent::getId)
+            .toList());
+    published.increment(outboxEvents.size());
+    return outboxEvents.size();
+  }
+
+  //batch 밖에 같은 계좌의 더 낮은 version 이 없는 이벤트만 남기고 계좌별 version 순서로 정렬한다
+  private List<OutboxEvent> inAccountOrder(List<OutboxEvent> batch) {
+    Set<Long> accountIds = batch.stream().map(OutboxEvent::getAccountId).collect(Collectors.toSet());
+    Map<Long, Long> pending = outboxEventRepository.findPendingVersions(
+                    accountIds, batch.stream().map(OutboxEvent::getId).toList())
+            .stream()
+            .filter(p -> p.getAccountVersion() != null)
+            .collect(Collectors.toMap(
+                    OutboxEventRepository.PendingVersion::getAccountId,
+                    OutboxEventRepository.PendingVersion::getAccountVersion));
+    return batch.stream()
+            .filter(e -> {
+              Long lowest = pending.get(e.getAccountId());
+              return lowest == null || e.getAccountVersion() == null || e.getAccountVersion() <= lowest;
+            })
+            .sorted(Comparator.comparing(OutboxEvent::getAccountId)
+                    .thenComparing(OutboxEvent::getAccountVersion,
+                            Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(OutboxEvent::getId))
+            .toList();
+  }
+
+  private void relayLoop() {
+    long backoff = pollIntervalMillis;
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        //가득 찬 batch 였다면 쉬지 않고 이어서 보낸다
+        if (relayOnce() < batchSize) {
+          Thread.sleep(pollIntervalMillis);
+        }
+        backoff = pollIntervalMillis;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (RuntimeException e) {
+        failure.increment();
+        log.error("failed to relay outbox events. retry after {} ms", backoff, e);
+        try {
+          Thread.sleep(backoff);
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+        }
+        backoff = Math.min(backoff * 2, maxBackoffMillis);
+      }
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package com.demo.account.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBatch;
+import org.redisson.api.RStreamAsync;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.stream.StreamAddArgs;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Redis Stream 에 XADD (Redis 5 이상)
+ * 한 batch 의 이벤트는 pipeline 한 번으로 순서대로 보낸다
+ * 스트림은 max-length 근처에서 잘라낸다 (MAXLEN ~)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "account.outbox.sink", havingValue = "redis", matchIfMissing = true)
+public class RedisStreamBalanceChangeSink implements BalanceChangeSink {
+  private final RedissonClient redissonClient;
+  private final String streamName;
+  private final int maxLength;
+
+  public RedisStreamBalanceChangeSink(
+          RedissonClient redissonClient,
+          @Value("${account.outbox.redis.stream:account:balance-changes}") String streamName,
+          @Value("${account.outbox.redis.max-length:1000000}") int maxLength
+  ) {
+    this.redissonClient = redissonClient;
+    this.streamName = streamName;
+    this.maxLength = maxLength;
+  }
+
+  @Override
+  public void publish(List<BalanceChangeEvent> events) {
+    RBatch batch = redissonClient.createBatch();
+    RStreamAsync<String, String> stream = batch.getStream(streamName, StringCodec.INSTANCE);
+    for (BalanceChangeEvent event : events) {
+      stream.addAsync(StreamAddArgs.entries(event.toMap())
+              .trimNonStrict().maxLen(maxLength).noLimit());
+    }
+    batch.execute();
+  }
+}
@@ -0,0 +1,13 @@
+package com.demo.account.reconcile;
+
+/**
+ * 대사 대상 계좌 (version 은 대사 중에 잔액이 바뀌었는지 확인하는 용도)
+ */
+public record AccountBalance(
+        Long id,
+        String accountNumber,
+        Long initialBalance,
+        Long balance,
+        Long version
+) {
+}
@@ -0,0 +1,65 @@
+package com.demo.account.reconcile;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 계좌 하나의 대사
+ * 거래는 오래된 순서로 한 건씩만 보므로 거래 수와 상관없이 메모리 사용량이 일정하다
+ * 개설 잔액이 없는 계좌 (initialBalance 컬럼이 생기기 전에 만든 계좌) 는 첫 거래 스냅샷 - 그 거래 금액을 개설 잔액으로 본다
+ * 그래서 첫 거래의 스냅샷은 확인하지 못하지만 잔액 = 거래 합과 나머지 스냅샷은 확인한다
+ */
+final class AccountReconciler {
+  private AccountReconciler() {
+  }
+
+  //initialBalanceDerived - 개설 잔액이 없어서 거래에서 구했음
+  record Result(long scannedTransactions, List<Discrepancy> discrepancies, boolean initialBalanceDerived) {
+  }
+
+  static Result reconcile(AccountBalance account, Iterator<LedgerEntry> ledger) {
+    List<Discrepancy> discrepancies = new ArrayList<>();
+    LedgerEntry entry = ledger.hasNext() ? ledger.next() : null;
+    long initialBalance = initialBalance(account, entry);
+
+    long sum = initialBalance;
+    //스냅샷이 어긋나면 그 거래의 스냅샷부터 다시 따라가서 뒤의 거래가 모두 어긋난 것으로 나오지 않게 한다
+    long chain = initialBalance;
+    boolean chainBroken = false;
+    long scanned = 0;
+    for (; entry != null; entry = ledger.hasNext() ? ledger.next() : null) {
+      scanned++;
+      sum += entry.delta();
+      chain += entry.delta();
+      if (!Objects.equals(entry.balanceSnapshot(), chain)) {
+        if (!chainBroken) {
+          discrepancies.add(new Discrepancy(Discrepancy.Type.SNAPSHOT_MISMATCH,
+                  account.accountNumber(), entry.transactionId(), chain, entry.balanceSnapshot()));
+          chainBroken = true;
+        }
+        if (entry.balanceSnapshot() != null) {
+          chain = entry.balanceSnapshot();
+        }
+      }
+    }
+
+    if (!Objects.equals(account.balance(), sum)) {
+      discrepancies.add(new Discrepancy(Discrepancy.Type.BALANCE_MISMATCH,
+              account.accountNumber(), null, sum, account.balance()));
+    }
+    return new Result(scanned, discrepancies, account.initialBalance() == null);
+  }
+
+  //거래가 없거나 첫 거래의 스냅샷이 없으면 (스냅샷 불일치로 보고된다) 지금 잔액으로 둔다
+  private static long initialBalance(AccountBalance account, LedgerEntry first) {
+    if (account.initialBalance() != null) {
+      return account.initialBalance();
+    }
+    if (first == null || first.balanceSnapshot() == null) {
+      return account.balance();
+    }
+    return first.balanceSnapshot() - first.delta();
+  }
+}
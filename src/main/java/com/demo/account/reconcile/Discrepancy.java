@@ -0,0 +1,18 @@
+package com.demo.account.reconcile;
+
+/**
+ * 대사 불일치
+ * - BALANCE_MISMATCH: 잔액 != 개설 잔액 + 성공 거래 합 (expected 가 계산한 잔액)
+ * - SNAPSHOT_MISMATCH: 거래의 balanceSnapshot 이 직전 거래 스냅샷 + 이 거래 금액과 다름 (계좌당 첫 번째만)
+ */
+public record Discrepancy(
+        Type type,
+        String accountNumber,
+        String transactionId,
+        Long expected,
+        Long actual
+) {
+  public enum Type {
+    BALANCE_MISMATCH, SNAPSHOT_MISMATCH
+  }
+}
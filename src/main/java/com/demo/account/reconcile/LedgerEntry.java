@@ -0,0 +1,22 @@
+package com.demo.account.reconcile;
+
+import com.demo.account.type.TransactionType;
+
+/**
+ * 대사에 쓰는 성공 거래 한 건
+ */
+public record LedgerEntry(
+        Long accountId,
+        String transactionId,
+        TransactionType transactionType,
+        Long amount,
+        Long balanceSnapshot
+) {
+  //이 거래가 잔액을 바꾼 양
+  public long delta() {
+    return switch (transactionType) {
+      case USE, TRANSFER_OUT -> -amount;
+      case CANCEL, TRANSFER_IN -> amount;
+    };
+  }
+}
@@ -0,0 +1,258 @@
+package com.demo.account.reconcile;
+
+import com.demo.account.exception.AccountException;
+import com.demo.account.ledger.TransactionLedger;
+import com.demo.account.repository.AccountRepository;
+import com.demo.account.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.demo.account.type.ErrorCode.RECONCILIATION_IN_PROGRESS;
+
+/**
+ * 원장 대사 - 계좌마다 잔액 = 개설 잔액 + 성공 거래 합 인지, 거래 스냅샷이 이어지는지 확인한다
+ * 계좌 id 범위를 partition-size 이하가 될 때까지 반으로 나눠 ForkJoinPool(parallelism) 에서 처리하고
+ * partition 마다 읽기 전용 트랜잭션에서 거래를 (계좌, 오래된 순서) 로 한 번에 스트리밍한다 (계좌 잠금 없음)
+ * 운영 중인 DB 에서 돌릴 수 있도록
+ * - parallelism 으로 동시에 쓰는 커넥션 수를 제한하고
+ * - 대사 전후로 partition 의 계좌 version 을 비교해서 그 사이 잔액이 바뀐 계좌만 계좌 단위로 다시 확인한다 (불일치로 보지 않는다)
+ * journal 모드는 계좌를 읽은 뒤 커밋됐지만 적재 전인 거래를 먼저 적재한다
+ * - 그래도 불일치가 나왔는데 그 사이 새로 적재된 거래가 있으면 다시 확인한다 (적재 전 거래를 불일치로 보지 않는다)
+ * - account.reconcile.accounts / account.reconcile.transactions / account.reconcile.discrepancies (counter)
+ */
+@Slf4j
+@Service
+public class LedgerReconciler {
+  private static final int MAX_ATTEMPTS = 3;
+
+  private final AccountRepository accountRepository;
+  private final TransactionRepository transactionRepository;
+  private final TransactionLedger transactionLedger;
+  private final TransactionTemplate readOnlyTransaction;
+  private final MeterRegistry meterRegistry;
+  private final int parallelism;
+  private final int partitionSize;
+  private final int maxDiscrepancies;
+  private final AtomicReference<ReconciliationReport> lastReport = new AtomicReference<>();
+
+  public LedgerReconciler(
+          AccountRepository accountRepository,
+          TransactionRepository transactionRepository,
+          TransactionLedger transactionLedger,
+          PlatformTransactionManager transactionManager,
+          MeterRegistry meterRegistry,
+          @Value("${account.reconcile.parallelism:2}") int parallelism,
+          @Value("${account.reconcile.partition-size:1000}") int partitionSize,
+          @Value("${account.reconcile.max-discrepancies:1000}") int maxDiscrepancies
+  ) {
+    this.accountRepository = accountRepository;
+    this.transactionRepository = transactionRepository;
+    this.transactionLedger = transactionLedger;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.meterRegistry = meterRegistry;
+    this.parallelism = parallelism;
+    this.partitionSize = partitionSize;
+    this.maxDiscrepancies = maxDiscrepancies;
+  }
+
+  /**
+   * 백그라운드에서 대사를 시작하고 진행 상황을 돌려준다 (한 번에 하나만)
+   */
+  public ReconciliationReport start() {
+    ReconciliationReport previous = lastReport.get();
+    if (previous != null && previous.isRunning()) {
+      throw new AccountException(RECONCILIATION_IN_PROGRESS);
+    }
+    ReconciliationReport report = new ReconciliationReport(accountRepository.count(), maxDiscrepancies);
+    if (!lastReport.compareAndSet(previous, report)) {
+      throw new AccountException(RECONCILIATION_IN_PROGRESS);
+    }
+
+    Thread runner = new Thread(() -> run(report), "ledger-reconciler");
+    runner.setDaemon(true);
+    runner.start();
+    return report;
+  }
+
+  public Optional<ReconciliationReport> getLastReport() {
+    return Optional.ofNullable(lastReport.get());
+  }
+
+  void run(ReconciliationReport report) {
+    log.info("reconciliation started. accounts : {}", report.getTotalAccounts());
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      Long minId = accountRepository.findMinId();
+      Long maxId = accountRepository.findMaxId();
+      if (minId != null) {
+        pool.invoke(new PartitionTask(report, minId, maxId));
+      }
+      report.complete();
+      log.info("reconciliation completed. checked : {}, skipped : {}, derived initial balance : {},"
+                      + " transactions : {}, discrepancies : {}",
+              report.getCheckedAccounts(), report.getSkippedAccounts(),
+              report.getDerivedInitialBalanceAccounts(),
+              report.getScannedTransactions(), report.getDiscrepancyCount());
+    } catch (RuntimeException e) {
+      report.fail(e.getMessage());
+      log.error("reconciliation failed", e);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private void reconcilePartition(ReconciliationReport report, long fromId, long toId) {
+    List<AccountBalance> accounts = accountRepository.findBalancesInRange(fromId, toId);
+    if (accounts.isEmpty()) {
+      report.partitionCompleted();
+      return;
+    }
+    //계좌를 읽은 뒤에 적재해야 읽은 잔액에 반영된 거래가 모두 DB 에 있다
+    transactionLedger.flush();
+    List<AccountReconciler.Result> results = readOnlyTransaction.execute(status -> {
+      try (Stream<LedgerEntry> stream = transactionRepository.streamLedgerInRange(fromId, toId)) {
+        PartitionLedger ledger = new PartitionLedger(stream.iterator());
+        return accounts.stream()
+                .map(account -> AccountReconciler.reconcile(account, ledger.of(account.id())))
+                .toList();
+      }
+    });
+
+    Map<Long, AccountBalance> after = accountRepository.findBalancesInRange(fromId, toId).stream()
+            .collect(Collectors.toMap(AccountBalance::id, Function.identity()));
+    //커밋과 저널 적재 대기 사이에 있던 거래가 방금 적재됐을 수 있다
+    boolean loaded = results.stream().anyMatch(result -> !result.discrepancies().isEmpty())
+            && transactionLedger.flush();
+    for (int i = 0; i < accounts.size(); i++) {
+      AccountBalance before = accounts.get(i);
+      AccountReconciler.Result result = results.get(i);
+      AccountBalance current = after.getOrDefault(before.id(), before);
+      if (Objects.equals(current.version(), before.version())
+              && !(loaded && !result.discrepancies().isEmpty())) {
+        record(report, result);
+      } else {
+        //읽는 동안 거래가 반영되거나 적재된 계좌만 바뀐 잔액으로 다시 확인한다
+        reconcileAccount(report, current);
+      }
+    }
+    report.partitionCompleted();
+  }
+
+  private void reconcileAccount(ReconciliationReport report, AccountBalance account) {
+    AccountBalance before = account;
+    for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+      AccountBalance target = before;
+      //target 을 읽은 뒤에 적재해야 target 에 반영된 거래가 모두 DB 에 있다
+      transactionLedger.flush();
+      AccountReconciler.Result result = readOnlyTransaction.execute(status -> {
+        try (Stream<LedgerEntry> ledger = transactionRepository.streamLedgerByAccountId(target.id())) {
+          return AccountReconciler.reconcile(target, ledger.iterator());
+        }
+      });
+
+      AccountBalance after = accountRepository.findBalanceById(target.id()).orElse(target);
+      //커밋과 저널 적재 대기 사이에 있던 거래가 방금 적재됐을 수 있다
+      boolean loaded = !result.discrepancies().isEmpty() && transactionLedger.flush();
+      if (Objects.equals(after.version(), target.version()) && !loaded) {
+        record(report, result);
+        return;
+      }
+      //읽는 동안 거래가 반영되거나 적재됐다면 바뀐 잔액으로 다시 확인한다
+      before = after;
+    }
+    log.warn("skip reconciliation of busy account. accountNumber : {}", account.accountNumber());
+    report.skip();
+  }
+
+  private void record(ReconciliationReport report, AccountReconciler.Result result) {
+    report.record(result.scannedTransactions(), result.discrepancies(), result.initialBalanceDerived());
+    meterRegistry.counter("account.reconcile.accounts").increment();
+    meterRegistry.counter("account.reconcile.transactions").increment(result.scannedTransactions());
+    result.discrepancies().forEach(discrepancy -> {
+      log.warn("reconciliation discrepancy : {}", discrepancy);
+      meterRegistry.counter("account.reconcile.discrepancies",
+              "type", discrepancy.type().name()).increment();
+    });
+  }
+
+  /**
+   * partition 의 거래 스트림 (계좌 id 순) 을 계좌별로 나눠 읽는다
+   * of 는 계좌 id 오름차순으로 호출하고, 읽은 계좌 목록에 없는 계좌 (그 사이 개설) 의 거래는 건너뛴다
+   */
+  private static class PartitionLedger {
+    private final Iterator<LedgerEntry> source;
+    private LedgerEntry next;
+
+    PartitionLedger(Iterator<LedgerEntry> source) {
+      this.source = source;
+      this.next = source.hasNext() ? source.next() : null;
+    }
+
+    Iterator<LedgerEntry> of(long accountId) {
+      while (next != null && next.accountId() < accountId) {
+        advance();
+      }
+      return new Iterator<>() {
+        @Override
+        public boolean hasNext() {
+          return next != null && next.accountId() == accountId;
+        }
+
+        @Override
+        public LedgerEntry next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          LedgerEntry entry = next;
+          advance();
+          return entry;
+        }
+      };
+    }
+
+    private void advance() {
+      next = source.hasNext() ? source.next() : null;
+    }
+  }
+
+  private class PartitionTask extends RecursiveAction {
+    private final ReconciliationReport report;
+    private final long fromId;
+    private final long toId;
+
+    PartitionTask(ReconciliationReport report, long fromId, long toId) {
+      this.report = report;
+      this.fromId = fromId;
+      this.toId = toId;
+    }
+
+    @Override
+    protected void compute() {
+      if (toId - fromId < partitionSize) {
+        reconcilePartition(report, fromId, toId);
+        return;
+      }
+      long middle = fromId + (toId - fromId) / 2;
+      invokeAll(new PartitionTask(report, fromId, middle),
+              new PartitionTask(report, middle + 1, toId));
+    }
+  }
+}
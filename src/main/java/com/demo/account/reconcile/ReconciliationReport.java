@@ -0,0 +1,134 @@
+package com.demo.account.reconcile;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 대사 진행 상황과 결과
+ * 작업 스레드들이 갱신하는 동안에도 조회할 수 있다
+ * 불일치 목록은 maxDiscrepancies 건까지만 남기고 건수는 모두 센다
+ */
+public class ReconciliationReport {
+  public enum Status {
+    RUNNING, COMPLETED, FAILED
+  }
+
+  private final LocalDateTime startedAt = LocalDateTime.now();
+  private final long totalAccounts;
+  private final int maxDiscrepancies;
+  private final AtomicLong checkedAccounts = new AtomicLong();
+  //대사 중에 계속 잔액이 바뀌어서 확인하지 못한 계좌
+  private final AtomicLong skippedAccounts = new AtomicLong();
+  //개설 잔액이 없어서 첫 거래 스냅샷에서 구한 계좌 (불일치가 아니다)
+  private final AtomicLong derivedInitialBalanceAccounts = new AtomicLong();
+  private final AtomicLong scannedTransactions = new AtomicLong();
+  private final AtomicLong completedPartitions = new AtomicLong();
+  private final AtomicLong discrepancyCount = new AtomicLong();
+  private final List<Discrepancy> discrepancies = new ArrayList<>();
+  private volatile Status status = Status.RUNNING;
+  private volatile LocalDateTime finishedAt;
+  private volatile String failureReason;
+
+  public ReconciliationReport(long totalAccounts, int maxDiscrepancies) {
+    this.totalAccounts = totalAccounts;
+    this.maxDiscrepancies = maxDiscrepancies;
+  }
+
+  void record(long scanned, List<Discrepancy> found, boolean initialBalanceDerived) {
+    checkedAccounts.incrementAndGet();
+    scannedTransactions.addAndGet(scanned);
+    if (initialBalanceDerived) {
+      derivedInitialBalanceAccounts.incrementAndGet();
+    }
+    if (found.isEmpty()) {
+      return;
+    }
+    discrepancyCount.addAndGet(found.size());
+    synchronized (discrepancies) {
+      for (Discrepancy discrepancy : found) {
+        if (discrepancies.size() >= maxDiscrepancies) {
+          break;
+        }
+        discrepancies.add(discrepancy);
+      }
+    }
+  }
+
+  void skip() {
+    skippedAccounts.incrementAndGet();
+  }
+
+  void partitionCompleted() {
+    completedPartitions.incrementAndGet();
+  }
+
+  void complete() {
+    finishedAt = LocalDateTime.now();
+    status = Status.COMPLETED;
+  }
+
+  void fail(String reason) {
+    failureReason = reason;
+    finishedAt = LocalDateTime.now();
+    status = Status.FAILED;
+  }
+
+  @JsonIgnore
+  public boolean isRunning() {
+    return status == Status.RUNNING;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public LocalDateTime getStartedAt() {
+    return startedAt;
+  }
+
+  public LocalDateTime getFinishedAt() {
+    return finishedAt;
+  }
+
+  public String getFailureReason() {
+    return failureReason;
+  }
+
+  public long getTotalAccounts() {
+    return totalAccounts;
+  }
+
+  public long getCheckedAccounts() {
+    return checkedAccounts.get();
+  }
+
+  public long getSkippedAccounts() {
+    return skippedAccounts.get();
+  }
+
+  public long getDerivedInitialBalanceAccounts() {
+    return derivedInitialBalanceAccounts.get();
+  }
+
+  public long getScannedTransactions() {
+    return scannedTransactions.get();
+  }
+
+  public long getCompletedPartitions() {
+    return completedPartitions.get();
+  }
+
+  public long getDiscrepancyCount() {
+    return discrepancyCount.get();
+  }
+
+  public List<Discrepancy> getDiscrepancies() {
+    synchronized (discrepancies) {
+      return List.copyOf(discrepancies);
+    }
+  }
+}
@@ -2,19 +2,76 @@ package com.demo.account.repository;
 
 import com.demo.account.domain.Account;
 import com.demo.account.domain.AccountUser;
+import com.demo.account.dto.AccountInfo;
+import com.demo.account.reconcile.AccountBalance;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
-  Optional<Account> findFirstByOrderByIdDesc();
-
   Integer countByAccountUser(AccountUser accountUser);
 
   Optional<Account> findByAccountNumber(String accountNumber);
 
-  List<Account> findByAccountUser(AccountUser accountUser);
+  List<Account> findByAccountNumberIn(Collection<String> accountNumbers);
+
+  //계좌번호는 모두 10 자리라 문자열 최댓값이 숫자 최댓값이다
+  @Query("select max(a.accountNumber) from Account a")
+  Optional<String> findMaxAccountNumber();
+
+  //ATOMIC 모드에서 여러 건을 한 번에 반영할 때는 DB row lock 으로 직렬화한다
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select a from Account a where a.accountNumber = :accountNumber")
+  Optional<Account> findForUpdateByAccountNumber(@Param("accountNumber") String accountNumber);
+
+  /**
+   * 잔액이 충분하고 사용 중인 계좌일 때만 잔액을 차감한다
+   * 반영된 row 수가 0 이면 실패, 영속성 컨텍스트는 비워서 이후 조회가 바뀐 잔액을 읽게 한다
+   * 다른 모드와 섞어 쓸 수 있도록 version 도 올린다
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update Account a set a.balance = a.balance - :amount, a.version = a.version + 1"
+          + " where a.id = :id and a.balance >= :amount"
+          + " and a.accountStatus = com.demo.account.type.AccountStatus.IN_USE")
+  int decreaseBalance(@Param("id") Long id, @Param("amount") Long amount);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update Account a set a.balance = a.balance + :amount, a.version = a.version + 1"
+          + " where a.id = :id")
+  int increaseBalance(@Param("id") Long id, @Param("amount") Long amount);
+
+  //대사 작업의 id 범위
+  @Query("select min(a.id) from Account a")
+  Long findMinId();
+
+  @Query("select max(a.id) from Account a")
+  Long findMaxId();
+
+  @Query("select new com.demo.account.reconcile.AccountBalance("
+          + "a.id, a.accountNumber, a.initialBalance, a.balance, a.version)"
+          + " from Account a where a.id between :fromId and :toId order by a.id")
+  List<AccountBalance> findBalancesInRange(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+  @Query("select new com.demo.account.reconcile.AccountBalance("
+          + "a.id, a.accountNumber, a.initialBalance, a.balance, a.version)"
+          + " from Account a where a.id = :id")
+  Optional<AccountBalance> findBalanceById(@Param("id") Long id);
+
+  //계좌 엔티티를 그대로 응답할 때는 소유주까지 한 번에 읽는다
+  @EntityGraph(attributePaths = "accountUser")
+  Optional<Account> findWithAccountUserById(Long id);
+
+  @Query("select new com.demo.account.dto.AccountInfo(a.accountNumber, a.balance)"
+          + " from Account a where a.accountUser = :accountUser")
+  List<AccountInfo> findAccountInfoByAccountUser(@Param("accountUser") AccountUser accountUser);
 }
@@ -0,0 +1,49 @@
+package com.demo.account.repository;
+
+import com.demo.account.domain.DailyTransactionSummary;
+import com.demo.account.type.TransactionResultType;
+import com.demo.account.type.TransactionType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyTransactionSummaryRepository extends JpaRepository<DailyTransactionSummary, Long> {
+  //(account_id, summary_date, ...) unique index 의 앞부분으로 범위를 읽는다
+  @Query("select s from DailyTransactionSummary s"
+          + " where s.accountId = :accountId and s.summaryDate between :from and :to"
+          + " order by s.summaryDate, s.transactionType, s.transactionResultType")
+  List<DailyTransactionSummary> findByAccountIdAndDateRange(
+          @Param("accountId") Long accountId,
+          @Param("from") LocalDate from,
+          @Param("to") LocalDate to);
+
+  /**
+   * 읽지 않고 DB 에서 더한다 (여러 노드가 같은 row 를 갱신해도 잃지 않는다)
+   * 반영된 row 수가 0 이면 아직 그날의 집계가 없는 것
+   */
+  @Modifying
+  @Query("update DailyTransactionSummary s"
+          + " set s.transactionCount = s.transactionCount + :count,"
+          + " s.totalAmount = s.totalAmount + :amount"
+          + " where s.accountId = :accountId and s.summaryDate = :summaryDate"
+          + " and s.transactionType = :transactionType"
+          + " and s.transactionResultType = :transactionResultType")
+  int increment(
+          @Param("accountId") Long accountId,
+          @Param("summaryDate") LocalDate summaryDate,
+          @Param("transactionType") TransactionType transactionType,
+          @Param("transactionResultType") TransactionResultType transactionResultType,
+          @Param("count") long count,
+          @Param("amount") long amount);
+
+  //재계산 전에 그날의 집계를 지운다
+  @Modifying
+  @Query("delete from DailyTransactionSummary s where s.summaryDate = :summaryDate")
+  int deleteBySummaryDate(@Param("summaryDate") LocalDate summaryDate);
+}
@@ -0,0 +1,35 @@
+package com.demo.account.repository;
+
+import com.demo.account.domain.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+  //노드마다 id 를 block 단위로 미리 받아 가므로 id 순서는 계좌별 잔액 변경 순서와 다를 수 있다
+  //relay 는 id 순서로 batch 를 고른 뒤 계좌별로 accountVersion 순서를 맞춘다
+  @Query("select e from OutboxEvent e order by e.id")
+  List<OutboxEvent> findNext(Pageable pageable);
+
+  //batch 밖에 남아 있는 이벤트의 계좌별 가장 낮은 version
+  @Query("select e.accountId as accountId, min(e.accountVersion) as accountVersion from OutboxEvent e"
+          + " where e.accountId in :accountIds and e.id not in :ids group by e.accountId")
+  List<PendingVersion> findPendingVersions(
+          @Param("accountIds") Collection<Long> accountIds,
+          @Param("ids") Collection<Long> ids);
+
+  @Query("select e from OutboxEvent e where e.accountId = :accountId order by e.accountVersion, e.id")
+  List<OutboxEvent> findNextOfAccount(@Param("accountId") Long accountId, Pageable pageable);
+
+  interface PendingVersion {
+    Long getAccountId();
+
+    Long getAccountVersion();
+  }
+}
@@ -1,12 +1,98 @@
 package com.demo.account.repository;
 
+import com.demo.account.domain.DailyTransactionSummary;
 import com.demo.account.domain.Transaction;
+import com.demo.account.dto.TransactionDto;
+import com.demo.account.reconcile.LedgerEntry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
   Optional<Transaction> findByTransactionId(String transactionId);
+
+  //저널 재적재 때 이미 들어간 거래를 거르는 용도
+  @Query("select t.transactionId from Transaction t where t.transactionId in :transactionIds")
+  List<String> findTransactionIdsIn(@Param("transactionIds") Collection<String> transactionIds);
+
+  //거래 조회 응답에 필요한 값만 계좌와 join 해서 한 번에 읽는다
+  @Query("select new com.demo.account.dto.TransactionDto(a.accountNumber,"
+          + " t.transactionType, t.transactionResultType, t.amount, t.balanceSnapshot,"
+          + " t.transactionId, t.transactedAt)"
+          + " from Transaction t join t.account a where t.transactionId = :transactionId")
+  Optional<TransactionDto> findTransactionDtoByTransactionId(
+          @Param("transactionId") String transactionId);
+
+  //거래 내역은 (transacted_at, id) 최신순, (account_id, transacted_at) index 를 탄다
+  @Query("select t from Transaction t where t.account.id = :accountId"
+          + " order by t.transactedAt desc, t.id desc")
+  List<Transaction> findLatestByAccountId(
+          @Param("accountId") Long accountId, Pageable pageable);
+
+  //keyset 페이지네이션 - 이전 페이지 마지막 거래 다음부터 조회 (offset 을 쓰지 않는다)
+  @Query("select t from Transaction t where t.account.id = :accountId"
+          + " and (t.transactedAt < :transactedAt"
+          + " or (t.transactedAt = :transactedAt and t.id < :id))"
+          + " order by t.transactedAt desc, t.id desc")
+  List<Transaction> findNextByAccountId(
+          @Param("accountId") Long accountId,
+          @Param("transactedAt") LocalDateTime transactedAt,
+          @Param("id") Long id,
+          Pageable pageable);
+
+  //내보내기용, 트랜잭션 안에서 fetch size 만큼씩 읽는다
+  @QueryHints({
+          @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+          @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("select t from Transaction t where t.account.id = :accountId"
+          + " order by t.transactedAt desc, t.id desc")
+  Stream<Transaction> streamByAccountId(@Param("accountId") Long accountId);
+
+  //대사용, 성공 거래만 오래된 순서로 필요한 값만 읽는다 (영속성 컨텍스트에 쌓이지 않는다)
+  @QueryHints({
+          @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+          @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("select new com.demo.account.reconcile.LedgerEntry("
+          + "t.account.id, t.transactionId, t.transactionType, t.amount, t.balanceSnapshot)"
+          + " from Transaction t where t.account.id = :accountId"
+          + " and t.transactionResultType = com.demo.account.type.TransactionResultType.S"
+          + " order by t.transactedAt, t.id")
+  Stream<LedgerEntry> streamLedgerByAccountId(@Param("accountId") Long accountId);
+
+  //대사용, 계좌 id 범위의 성공 거래를 계좌별로 오래된 순서로 한 번에 읽는다 (account_id, transacted_at 인덱스)
+  @QueryHints({
+          @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+          @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("select new com.demo.account.reconcile.LedgerEntry("
+          + "t.account.id, t.transactionId, t.transactionType, t.amount, t.balanceSnapshot)"
+          + " from Transaction t where t.account.id between :fromId and :toId"
+          + " and t.transactionResultType = com.demo.account.type.TransactionResultType.S"
+          + " order by t.account.id, t.transactedAt, t.id")
+  Stream<LedgerEntry> streamLedgerInRange(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+  //일별 집계 재계산용, [from, to) 거래를 (계좌, 날짜, 종류, 결과) 별로 센다
+  @Query("select new com.demo.account.domain.DailyTransactionSummary("
+          + "t.account.id, cast(t.transactedAt as LocalDate), t.transactionType,"
+          + " t.transactionResultType, count(t), sum(t.amount))"
+          + " from Transaction t where t.transactedAt >= :from and t.transactedAt < :to"
+          + " group by t.account.id, cast(t.transactedAt as LocalDate),"
+          + " t.transactionType, t.transactionResultType")
+  List<DailyTransactionSummary> sumDaily(
+          @Param("from") LocalDateTime from,
+          @Param("to") LocalDateTime to);
 }
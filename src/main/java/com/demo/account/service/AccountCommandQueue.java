@@ -0,0 +1,191 @@
+package com.demo.account.service;
+
+import com.demo.account.dto.TransactionCommand;
+import com.demo.account.dto.TransactionCommandResult;
+import com.demo.account.exception.AccountException;
+import com.demo.account.type.TransactionMode;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static com.demo.account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+
+/**
+ * QUEUE 모드에서 사용하는 계좌별 단일 writer 큐
+ * 계좌번호 hash 로 lane(전용 스레드 하나) 을 고르기 때문에 같은 계좌의 요청은
+ * 항상 같은 스레드에서 들어온 순서대로 처리된다
+ * lane 은 쌓여 있는 요청을 계좌별로 묶어 하나의 트랜잭션으로 반영한다
+ * 노드 간 직렬화는 하지 않으므로 단일 노드 배포에서만 사용한다
+ * 같은 계좌를 다른 모드의 endpoint 가 함께 바꾸면 직렬화가 깨지므로 잔액을 바꾸는 endpoint 모두 QUEUE 로 둔다
+ */
+@Slf4j
+@Service
+public class AccountCommandQueue {
+  private final TransactionService transactionService;
+  private final Lane[] lanes;
+
+  public AccountCommandQueue(
+          TransactionService transactionService,
+          TransactionModeResolver transactionModeResolver,
+          @Value("${account.queue.lanes:8}") int laneCount,
+          @Value("${account.queue.capacity:10000}") int capacity,
+          @Value("${account.queue.max-batch-size:100}") int maxBatchSize
+  ) {
+    this.transactionService = transactionService;
+    this.lanes = new Lane[transactionModeResolver.isUsed(TransactionMode.QUEUE) ? laneCount : 0];
+    for (int i = 0; i < lanes.length; i++) {
+      lanes[i] = new Lane(i, capacity, maxBatchSize);
+      lanes[i].start();
+    }
+  }
+
+  /**
+   * 요청을 큐에 넣고 처리 결과를 기다린다
+   * 큐가 가득 찬 경우에는 lock 경합과 같은 ACCOUNT_TRANSACTION_LOCK 으로 실패한다
+   */
+  public TransactionCommandResult submit(String accountNumber, TransactionCommand command) {
+    try {
+      return submitAsync(accountNumber, command).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * 요청을 큐에 넣고 기다리지 않고 결과 future 를 돌려준다
+   */
+  public CompletableFuture<TransactionCommandResult> submitAsync(
+          String accountNumber,
+          TransactionCommand command
+  ) {
+    if (lanes.length == 0) {
+      throw new IllegalStateException("account command queue is not enabled");
+    }
+    Pending pending = new Pending(accountNumber, command, new CompletableFuture<>());
+    if (!laneOf(accountNumber).queue.offer(pending)) {
+      log.error("account command queue is full. accountNumber : {}", accountNumber);
+      return CompletableFuture.failedFuture(new AccountException(ACCOUNT_TRANSACTION_LOCK));
+    }
+    return pending.result();
+  }
+
+  /**
+   * 같은 계좌의 요청 여러 건을 한 번에 넣고 요청 순서대로 결과를 돌려준다
+   * 실패는 예외 대신 결과의 에러 코드로 돌려준다
+   */
+  public List<TransactionCommandResult> submitAll(
+          String accountNumber,
+          List<TransactionCommand> commands
+  ) {
+    if (lanes.length == 0) {
+      throw new IllegalStateException("account command queue is not enabled");
+    }
+    Lane lane = laneOf(accountNumber);
+    List<CompletableFuture<TransactionCommandResult>> futures = new ArrayList<>(commands.size());
+    for (TransactionCommand command : commands) {
+      Pending pending = new Pending(accountNumber, command, new CompletableFuture<>());
+      if (!lane.queue.offer(pending)) {
+        pending.result().completeExceptionally(new AccountException(ACCOUNT_TRANSACTION_LOCK));
+      }
+      futures.add(pending.result());
+    }
+
+    List<TransactionCommandResult> results = new ArrayList<>(futures.size());
+    for (CompletableFuture<TransactionCommandResult> future : futures) {
+      try {
+        results.add(future.join());
+      } catch (CompletionException e) {
+        if (!(e.getCause() instanceof AccountException cause)) {
+          throw e;
+        }
+        results.add(TransactionCommandResult.fail(null, cause.getErrorCode()));
+      }
+    }
+    return results;
+  }
+
+  @PreDestroy
+  public void stop() {
+    for (Lane lane : lanes) {
+      lane.interrupt();
+    }
+  }
+
+  private Lane laneOf(String accountNumber) {
+    int h = accountNumber.hashCode();
+    return lanes[Math.floorMod(h ^ (h >>> 16), lanes.length)];
+  }
+
+  private record Pending(
+          String accountNumber,
+          TransactionCommand command,
+          CompletableFuture<TransactionCommandResult> result) {
+  }
+
+  private class Lane extends Thread {
+    private final BlockingQueue<Pending> queue;
+    private final int maxBatchSize;
+
+    Lane(int index, int capacity, int maxBatchSize) {
+      super("account-queue-" + index);
+      setDaemon(true);
+      this.queue = new ArrayBlockingQueue<>(capacity);
+      this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public void run() {
+      List<Pending> batch = new ArrayList<>(maxBatchSize);
+      while (!isInterrupted()) {
+        try {
+          batch.add(queue.take());
+          queue.drainTo(batch, maxBatchSize - 1);
+          flush(batch);
+        } catch (InterruptedException e) {
+          interrupt();
+        } finally {
+          batch.clear();
+        }
+      }
+
+      queue.drainTo(batch);
+      batch.forEach(pending -> pending.result().completeExceptionally(
+              new AccountException(ACCOUNT_TRANSACTION_LOCK)));
+    }
+
+    private void flush(List<Pending> batch) {
+      Map<String, List<Pending>> byAccount = new LinkedHashMap<>();
+      for (Pending pending : batch) {
+        byAccount.computeIfAbsent(pending.accountNumber(), k -> new ArrayList<>())
+                .add(pending);
+      }
+
+      byAccount.forEach((accountNumber, pendings) -> {
+        try {
+          List<TransactionCommandResult> results = transactionService.applyCommands(
+                  accountNumber,
+                  pendings.stream().map(Pending::command).toList());
+          for (int i = 0; i < pendings.size(); i++) {
+            pendings.get(i).result().complete(results.get(i));
+          }
+        } catch (Exception e) {
+          log.error("failed to apply queued commands. accountNumber : {}", accountNumber, e);
+          pendings.forEach(pending -> pending.result().completeExceptionally(e));
+        }
+      });
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package com.demo.account.service;
+
+import com.demo.account.exception.AccountException;
+import com.demo.account.number.AccountNumberBlockSource;
+import com.demo.account.repository.AccountRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import static com.demo.account.type.ErrorCode.ACCOUNT_NUMBER_EXHAUSTED;
+
+/**
+ * hi/lo 방식 계좌번호 발급
+ * block source 에서 hi 값을 받아 blockSize 개의 번호를 메모리에서 순서대로 나눠준다
+ * hi 값은 노드 간에도 중복되지 않으므로 번호도 중복되지 않는다 (재시작 시 남은 번호는 버려진다)
+ * 이미 번호를 발급한 뒤에는 blockSize 를 바꾸면 안 된다
+ * 처음 block 을 받기 전에 기존 계좌번호의 최댓값을 읽어서 block source 를 그 뒤로 앞당긴다
+ * (이전 방식으로 1000000000 부터 발급한 번호와 겹치지 않게)
+ */
+@Service
+public class AccountNumberAllocator {
+  static final long FIRST_ACCOUNT_NUMBER = 1_000_000_000L;
+  static final long LAST_ACCOUNT_NUMBER = 9_999_999_999L;
+
+  private final AccountNumberBlockSource blockSource;
+  //기존 계좌번호의 최댓값 (없으면 0)
+  private final LongSupplier lastAccountNumber;
+  private final int blockSize;
+  private final ReentrantLock lock = new ReentrantLock();
+
+  //현재 block 에서 다음에 줄 번호와 block 의 끝 (미포함)
+  private long next;
+  private long limit;
+  private boolean advanced;
+
+  @Autowired
+  public AccountNumberAllocator(
+          AccountNumberBlockSource blockSource,
+          AccountRepository accountRepository,
+          @Value("${account.number.block-size:100}") int blockSize
+  ) {
+    this(blockSource,
+            () -> accountRepository.findMaxAccountNumber().map(Long::parseLong).orElse(0L),
+            blockSize);
+  }
+
+  AccountNumberAllocator(AccountNumberBlockSource blockSource, int blockSize) {
+    this(blockSource, () -> 0L, blockSize);
+  }
+
+  AccountNumberAllocator(
+          AccountNumberBlockSource blockSource,
+          LongSupplier lastAccountNumber,
+          int blockSize
+  ) {
+    this.blockSource = blockSource;
+    this.lastAccountNumber = lastAccountNumber;
+    this.blockSize = blockSize;
+  }
+
+  public String nextAccountNumber() {
+    lock.lock();
+    try {
+      if (!advanced) {
+        advancePastExisting();
+        advanced = true;
+      }
+      if (next >= limit) {
+        long hi = blockSource.nextBlock();
+        next = FIRST_ACCOUNT_NUMBER + (hi - 1) * blockSize;
+        limit = next + blockSize;
+      }
+      if (next > LAST_ACCOUNT_NUMBER) {
+        throw new AccountException(ACCOUNT_NUMBER_EXHAUSTED);
+      }
+      return Long.toString(next++);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void advancePastExisting() {
+    long last = lastAccountNumber.getAsLong();
+    if (last >= FIRST_ACCOUNT_NUMBER) {
+      //last 가 들어 있는 block 의 다음 block
+      blockSource.advanceTo((last - FIRST_ACCOUNT_NUMBER) / blockSize + 2);
+    }
+  }
+}
@@ -1,8 +1,11 @@
 package com.demo.account.service;
 
+import com.demo.account.aop.RetryOnConflict;
+import com.demo.account.cache.AccountLookupCache;
 import com.demo.account.domain.Account;
 import com.demo.account.domain.AccountUser;
 import com.demo.account.dto.AccountDto;
+import com.demo.account.dto.AccountInfo;
 import com.demo.account.exception.AccountException;
 import com.demo.account.repository.AccountRepository;
 import com.demo.account.repository.AccountUserRepository;
@@ -14,7 +17,6 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 import static com.demo.account.type.ErrorCode.*;
 
@@ -23,6 +25,8 @@ import static com.demo.account.type.ErrorCode.*;
 public class AccountService {
   private final AccountRepository accountRepository;
   private final AccountUserRepository accountUserRepository;
+  private final AccountNumberAllocator accountNumberAllocator;
+  private final AccountLookupCache accountLookupCache;
 
   /**
    *사용자가 있는지 조회
@@ -35,9 +39,7 @@ public class AccountService {
 
     validateCreateAccount(accountUser);
 
-    String newAccountNumber = accountRepository.findFirstByOrderByIdDesc()
-            .map(account ->(Integer.parseInt(account.getAccountNumber())) + 1 + "")
-            .orElse("1000000000");
+    String newAccountNumber = accountNumberAllocator.nextAccountNumber();
 
     return AccountDto.fromEntity(accountRepository.save(
             Account.builder()
@@ -45,6 +47,7 @@ public class AccountService {
                     .accountStatus(AccountStatus.IN_USE)
                     .accountNumber(newAccountNumber)
                     .balance(initialBalance)
+                    .initialBalance(initialBalance)
                     .registeredAt(LocalDateTime.now())
                     .build())
     );
@@ -58,10 +61,11 @@ public class AccountService {
 
   @Transactional
   public Account getAccount(Long id) {
-    return accountRepository.findById(id).get();
+    return accountRepository.findWithAccountUserById(id).get();
   }
 
   @Transactional
+  @RetryOnConflict
   public AccountDto deleteAccount(Long userId, String accountNumber) {
     AccountUser accountUser = getAccountUser(userId);
     Account account = accountRepository.findByAccountNumber(accountNumber)
@@ -73,6 +77,7 @@ public class AccountService {
     account.setUnRegisteredAt(LocalDateTime.now());
 
     accountRepository.save(account);
+    AfterCommit.run(() -> accountLookupCache.evict(accountNumber));
 
     return AccountDto.fromEntity(account);
   }
@@ -90,13 +95,10 @@ public class AccountService {
   }
 
   @Transactional
-  public List<AccountDto> getAccountsByUserId(Long userId) {
+  public List<AccountInfo> getAccountsByUserId(Long userId) {
     AccountUser accountUser = getAccountUser(userId);
-    List<Account> accounts = accountRepository.findByAccountUser(accountUser);
 
-    return accounts.stream()
-            .map(AccountDto::fromEntity)
-            .collect(Collectors.toList());
+    return accountRepository.findAccountInfoByAccountUser(accountUser);
   }
 
   private AccountUser getAccountUser(Long userId) {
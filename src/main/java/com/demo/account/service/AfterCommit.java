@@ -0,0 +1,26 @@
+package com.demo.account.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 트랜잭션이 커밋된 뒤에 실행 (캐시 갱신/삭제 등)
+ * 트랜잭션 밖에서 호출하면 바로 실행한다
+ */
+final class AfterCommit {
+  private AfterCommit() {
+  }
+
+  static void run(Runnable runnable) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      runnable.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        runnable.run();
+      }
+    });
+  }
+}
@@ -0,0 +1,167 @@
+package com.demo.account.service;
+
+import com.demo.account.dto.TransactionCommand;
+import com.demo.account.dto.TransactionCommandResult;
+import com.demo.account.dto.TransactionDto;
+import com.demo.account.exception.AccountException;
+import com.demo.account.type.TransactionMode;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.demo.account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+
+/**
+ * 요청 스레드를 붙잡지 않는 잔액 사용/취소
+ * - LOCK 모드: lock 은 비동기로 기다리고 JPA 작업만 전용 executor 에서 실행한다
+ *   비동기 lock 을 지원하지 않는 backend(local) 는 lock 부터 해제까지 executor 에서 처리한다
+ * - QUEUE 모드: 계좌 큐의 결과 future 를 그대로 이어 붙인다
+ * - ATOMIC / OPTIMISTIC 모드: lock 없이 executor 에서 실행한다
+ * 검증 규칙, 에러 코드, 실패 거래 저장은 TransactionController 와 같다
+ */
+@Slf4j
+@Service
+public class AsyncTransactionService {
+  private final TransactionService transactionService;
+  private final AccountCommandQueue accountCommandQueue;
+  private final LockService lockService;
+  private final FailedTransactionRecorder failedTransactionRecorder;
+  private final TransactionModeResolver transactionModeResolver;
+  private final long lockWaitTime;
+  private final long lockLeaseTime;
+  private final ThreadPoolExecutor executor;
+
+  public AsyncTransactionService(
+          TransactionService transactionService,
+          AccountCommandQueue accountCommandQueue,
+          LockService lockService,
+          FailedTransactionRecorder failedTransactionRecorder,
+          TransactionModeResolver transactionModeResolver,
+          @Value("${account.async.pool-size:20}") int poolSize,
+          @Value("${account.async.queue-capacity:10000}") int queueCapacity,
+          @Value("${account.async.lock-wait-time:1000}") long lockWaitTime,
+          @Value("${account.async.lock-lease-time:15000}") long lockLeaseTime
+  ) {
+    this.transactionService = transactionService;
+    this.accountCommandQueue = accountCommandQueue;
+    this.lockService = lockService;
+    this.failedTransactionRecorder = failedTransactionRecorder;
+    this.transactionModeResolver = transactionModeResolver;
+    this.lockWaitTime = lockWaitTime;
+    this.lockLeaseTime = lockLeaseTime;
+
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+              Thread thread = new Thread(runnable, "account-async-" + threadNumber.getAndIncrement());
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  public CompletableFuture<TransactionDto> useBalance(
+          Long userId, String accountNumber, Long amount) {
+    TransactionMode transactionMode =
+            transactionModeResolver.resolve(TransactionModeResolver.USE_BALANCE_ASYNC);
+    if (transactionMode == TransactionMode.QUEUE) {
+      //실패 거래는 큐에서 함께 저장된다
+      return accountCommandQueue.submitAsync(accountNumber, TransactionCommand.use(userId, amount))
+              .thenApply(TransactionCommandResult::orElseThrow);
+    }
+
+    return withLock(transactionMode, accountNumber, TransactionModeResolver.USE_BALANCE_ASYNC, () -> {
+      try {
+        return transactionMode == TransactionMode.ATOMIC
+                ? transactionService.useBalanceAtomic(userId, accountNumber, amount)
+                : transactionService.useBalance(userId, accountNumber, amount);
+      } catch (AccountException e) {
+        log.error("failed to use balance.");
+        failedTransactionRecorder.recordUse(accountNumber, amount);
+        throw e;
+      }
+    });
+  }
+
+  public CompletableFuture<TransactionDto> cancelBalance(
+          String transactionId, String accountNumber, Long amount) {
+    TransactionMode transactionMode =
+            transactionModeResolver.resolve(TransactionModeResolver.CANCEL_BALANCE_ASYNC);
+    if (transactionMode == TransactionMode.QUEUE) {
+      return accountCommandQueue.submitAsync(accountNumber, TransactionCommand.cancel(transactionId, amount))
+              .thenApply(TransactionCommandResult::orElseThrow);
+    }
+
+    return withLock(transactionMode, accountNumber, TransactionModeResolver.CANCEL_BALANCE_ASYNC, () -> {
+      try {
+        return transactionMode == TransactionMode.ATOMIC
+                ? transactionService.cancelBalanceAtomic(transactionId, accountNumber, amount)
+                : transactionService.cancelBalance(transactionId, accountNumber, amount);
+      } catch (AccountException e) {
+        log.error("failed to cancel balance.");
+        failedTransactionRecorder.recordCancel(accountNumber, amount);
+        throw e;
+      }
+    });
+  }
+
+  @PreDestroy
+  public void stop() {
+    executor.shutdown();
+  }
+
+  //lock 을 잡지 못한 경우는 @AccountLock 과 같이 실패 거래를 남기지 않는다
+  private <T> CompletableFuture<T> withLock(TransactionMode transactionMode,
+          String accountNumber, String endpoint, Supplier<T> work) {
+    if (transactionMode != TransactionMode.LOCK) {
+      //ATOMIC 모드는 DB row lock, OPTIMISTIC 모드는 @Version 만 쓴다
+      return supplyAsync(work);
+    }
+    if (!lockService.supportsAsync()) {
+      return supplyAsync(() -> {
+        lockService.lock(accountNumber, endpoint, lockWaitTime, lockLeaseTime);
+        try {
+          return work.get();
+        } finally {
+          lockService.unlock(accountNumber, endpoint);
+        }
+      });
+    }
+
+    return lockService.lockAsync(accountNumber, endpoint, lockWaitTime, lockLeaseTime)
+            .thenCompose(ownerId -> supplyAsync(work)
+                    .handle(Outcome::new)
+                    .thenCompose(outcome -> lockService
+                            .unlockAsync(accountNumber, endpoint, ownerId)
+                            .thenApply(v -> outcome.get())));
+  }
+
+  private <T> CompletableFuture<T> supplyAsync(Supplier<T> work) {
+    try {
+      return CompletableFuture.supplyAsync(work, executor);
+    } catch (RejectedExecutionException e) {
+      log.error("async transaction executor is full.");
+      return CompletableFuture.failedFuture(new AccountException(ACCOUNT_TRANSACTION_LOCK));
+    }
+  }
+
+  //작업 결과를 lock 해제 뒤까지 들고 가기 위한 값
+  private record Outcome<T>(T result, Throwable error) {
+    T get() {
+      if (error == null) {
+        return result;
+      }
+      throw error instanceof CompletionException e ? e : new CompletionException(error);
+    }
+  }
+}
@@ -0,0 +1,228 @@
+package com.demo.account.service;
+
+import com.demo.account.domain.DailyTransactionSummary;
+import com.demo.account.domain.Transaction;
+import com.demo.account.exception.AccountException;
+import com.demo.account.ledger.TransactionLedger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.demo.account.type.ErrorCode.INVALID_REQUEST;
+
+/**
+ * 일별 거래 집계 증분 기록
+ * 요청 스레드는 커밋된 거래를 (계좌, 날짜, 종류, 결과) 별 합계에 더하기만 하고
+ * writer 스레드가 flush-interval 마다 모인 합계를 한 트랜잭션으로 반영한다
+ * 같은 계좌에 거래가 몰려도 주기마다 key 당 UPDATE 한 번이다
+ * 반영 전에 프로세스가 죽으면 그 사이 증분은 잃는다 (정상 종료 때는 남은 증분을 반영한다)
+ * 그래서 집계는 거래 테이블을 원본으로 하는 결과적 일관성만 보장하고, 지난 날짜는 거래 테이블에서 다시 계산한다
+ * - rebuild-enabled 면 writer 가 시작할 때와 날이 바뀔 때 지난 rebuild-days 일을 다시 계산한다
+ *   (죽어서 잃은 오늘 증분은 다음 날 맞춰진다, 여러 노드로 띄울 때는 한 노드에서만 켠다)
+ * - POST /account/summary/rebuild 로 기간을 지정해 다시 계산한다
+ * 재계산은 거래 테이블을 transacted_at 범위로 훑으므로 (transacted_at 로 시작하는 index 가 없다) 부하가 적은 때 돌린다
+ * - account.summary.pending (gauge) / account.summary.failure (counter)
+ */
+@Slf4j
+@Service
+public class DailySummaryRecorder {
+  private final DailySummaryService dailySummaryService;
+  private final TransactionLedger transactionLedger;
+  private final boolean enabled;
+  private final boolean writerEnabled;
+  private final int batchSize;
+  private final long flushIntervalMillis;
+  private final boolean rebuildEnabled;
+  private final int rebuildDays;
+  private final Counter failure;
+  private final Map<DailyTransactionSummary.Key, DailySummaryService.Totals> pending =
+          new ConcurrentHashMap<>();
+  //반영과 재계산이 겹치지 않게 한다 (DB 를 기다리는 동안 virtual thread 를 붙잡지 않도록 synchronized 대신 lock)
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Thread writer = new Thread(this::writeLoop, "daily-summary-writer");
+  //writer 가 마지막으로 지난 날짜를 다시 계산한 날
+  private LocalDate rebuiltOn;
+
+  public DailySummaryRecorder(
+          DailySummaryService dailySummaryService,
+          TransactionLedger transactionLedger,
+          MeterRegistry meterRegistry,
+          @Value("${account.summary.enabled:true}") boolean enabled,
+          @Value("${account.summary.writer-enabled:true}") boolean writerEnabled,
+          @Value("${account.summary.batch-size:1000}") int batchSize,
+          @Value("${account.summary.flush-interval:500}") long flushIntervalMillis,
+          @Value("${account.summary.rebuild-enabled:false}") boolean rebuildEnabled,
+          @Value("${account.summary.rebuild-days:1}") int rebuildDays
+  ) {
+    this.dailySummaryService = dailySummaryService;
+    this.transactionLedger = transactionLedger;
+    this.enabled = enabled;
+    this.writerEnabled = writerEnabled;
+    this.batchSize = batchSize;
+    this.flushIntervalMillis = flushIntervalMillis;
+    this.rebuildEnabled = rebuildEnabled;
+    this.rebuildDays = rebuildDays;
+    this.failure = meterRegistry.counter("account.summary.failure");
+    meterRegistry.gauge("account.summary.pending", pending, Map::size);
+    writer.setDaemon(true);
+  }
+
+  //롤백된 거래는 집계하지 않는다
+  public void record(Transaction transaction) {
+    if (!enabled) {
+      return;
+    }
+    DailyTransactionSummary.Key key = DailyTransactionSummary.Key.of(transaction);
+    DailySummaryService.Totals totals = new DailySummaryService.Totals(1, transaction.getAmount());
+    AfterCommit.run(() -> pending.merge(key, totals, DailySummaryService.Totals::plus));
+  }
+
+  /**
+   * 모인 합계를 batch-size 개의 key 까지 반영하고 반영한 key 수를 돌려준다
+   * 실패하면 꺼낸 합계를 다시 더해 두고 예외를 던진다
+   */
+  public int flush() {
+    lock.lock();
+    try {
+      return flushBatch();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * from ~ to (포함, 오늘 이전) 의 집계를 거래 테이블에서 다시 계산하고 넣은 row 수를 돌려준다
+   * 1. 저널에만 있는 거래를 DB 에 적재하고, 모인 증분을 반영한다 (재계산한 뒤에 다시 더해지지 않게)
+   * 2. 날짜마다 지우고 다시 계산한다 (하루 한 트랜잭션)
+   * 재계산하는 동안 writer 는 반영하지 않고 증분만 모은다
+   * 재계산과 겹쳐 커밋된 그 날짜 거래(실패 기록 등 늦게 남는 거래) 는 두 번 더해질 수 있다, 다시 실행하면 맞춰진다
+   * 오늘은 거래가 계속 들어오므로 다시 계산하지 않는다
+   */
+  public int rebuild(LocalDate from, LocalDate to) {
+    if (from.isAfter(to) || !to.isBefore(LocalDate.now())
+            || ChronoUnit.DAYS.between(from, to) >= DailySummaryService.MAX_RANGE_DAYS) {
+      throw new AccountException(INVALID_REQUEST);
+    }
+
+    lock.lock();
+    try {
+      transactionLedger.flush();
+      int applied;
+      do {
+        applied = flushBatch();
+      } while (applied >= batchSize);
+
+      int rows = 0;
+      for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+        rows += dailySummaryService.rebuild(day);
+      }
+      return rows;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private int flushBatch() {
+    Map<DailyTransactionSummary.Key, DailySummaryService.Totals> batch = new HashMap<>();
+    for (DailyTransactionSummary.Key key : pending.keySet()) {
+      if (batch.size() >= batchSize) {
+        break;
+      }
+      //꺼내는 순간 이후의 증분은 새 합계로 쌓인다
+      DailySummaryService.Totals totals = pending.remove(key);
+      if (totals != null) {
+        batch.put(key, totals);
+      }
+    }
+    if (batch.isEmpty()) {
+      return 0;
+    }
+
+    try {
+      dailySummaryService.apply(batch);
+    } catch (RuntimeException e) {
+      batch.forEach((key, totals) -> pending.merge(key, totals, DailySummaryService.Totals::plus));
+      throw e;
+    }
+    return batch.size();
+  }
+
+  int pendingSize() {
+    return pending.size();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (enabled && writerEnabled) {
+      writer.start();
+    }
+  }
+
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    writer.interrupt();
+    if (writer.isAlive()) {
+      writer.join(5000);
+    }
+  }
+
+  private void writeLoop() {
+    while (!Thread.currentThread().isInterrupted()) {
+      rebuildClosedDays();
+      try {
+        //가득 찬 batch 였다면 쉬지 않고 이어서 반영한다
+        if (flush() < batchSize) {
+          Thread.sleep(flushIntervalMillis);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (RuntimeException e) {
+        failure.increment();
+        log.error("failed to apply daily summary. retry after {} ms", flushIntervalMillis, e);
+        try {
+          Thread.sleep(flushIntervalMillis);
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+
+    //종료 전에 남은 증분을 반영한다
+    try {
+      int applied;
+      do {
+        applied = flush();
+      } while (applied >= batchSize);
+    } catch (RuntimeException e) {
+      log.error("failed to apply daily summary on shutdown. lost keys : {}", pending.size(), e);
+    }
+  }
+
+  //시작할 때와 날이 바뀔 때 한 번, 실패하면 다음 날 다시 시도한다
+  private void rebuildClosedDays() {
+    LocalDate today = LocalDate.now();
+    if (!rebuildEnabled || rebuildDays <= 0 || today.equals(rebuiltOn)) {
+      return;
+    }
+    rebuiltOn = today;
+    try {
+      int rows = rebuild(today.minusDays(rebuildDays), today.minusDays(1));
+      log.info("rebuilt daily summary of last {} days. rows : {}", rebuildDays, rows);
+    } catch (RuntimeException e) {
+      failure.increment();
+      log.error("failed to rebuild daily summary of last {} days", rebuildDays, e);
+    }
+  }
+}
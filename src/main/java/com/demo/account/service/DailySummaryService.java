@@ -0,0 +1,100 @@
+package com.demo.account.service;
+
+import com.demo.account.cache.AccountLookup;
+import com.demo.account.cache.AccountLookupCache;
+import com.demo.account.domain.DailyTransactionSummary;
+import com.demo.account.dto.DailySummary;
+import com.demo.account.exception.AccountException;
+import com.demo.account.repository.DailyTransactionSummaryRepository;
+import com.demo.account.repository.TransactionRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.demo.account.type.ErrorCode.ACCOUNT_NOT_FOUND;
+import static com.demo.account.type.ErrorCode.INVALID_REQUEST;
+
+/**
+ * 계좌별 일별 거래 집계 반영/조회
+ * 조회는 집계 테이블만 읽으므로 거래 테이블(쓰기 경로) 과 경합하지 않는다
+ * 아직 반영되지 않은 최근 거래(account.summary.flush-interval 이내) 는 빠질 수 있다
+ * 지난 날짜는 거래 테이블에서 다시 계산할 수 있다 (DailySummaryRecorder.rebuild)
+ */
+@Service
+@RequiredArgsConstructor
+public class DailySummaryService {
+  static final int MAX_RANGE_DAYS = 366;
+
+  private final DailyTransactionSummaryRepository dailyTransactionSummaryRepository;
+  private final TransactionRepository transactionRepository;
+  private final AccountLookupCache accountLookupCache;
+
+  public record Totals(long count, long amount) {
+    public Totals plus(Totals other) {
+      return new Totals(count + other.count, amount + other.amount);
+    }
+  }
+
+  /**
+   * 모아 둔 증분을 한 트랜잭션으로 반영한다
+   * 있는 row 는 UPDATE 로 더하고 없는 row 만 INSERT 한다
+   * 다른 노드가 먼저 INSERT 해서 unique index 에 걸리면 전체가 롤백되고, 다시 반영할 때는 UPDATE 로 더해진다
+   */
+  @Transactional
+  public void apply(Map<DailyTransactionSummary.Key, Totals> increments) {
+    List<DailyTransactionSummary> inserts = new ArrayList<>();
+    increments.forEach((key, totals) -> {
+      int updated = dailyTransactionSummaryRepository.increment(
+              key.accountId(), key.summaryDate(), key.transactionType(),
+              key.transactionResultType(), totals.count(), totals.amount());
+      if (updated == 0) {
+        inserts.add(DailyTransactionSummary.of(key, totals.count(), totals.amount()));
+      }
+    });
+    dailyTransactionSummaryRepository.saveAll(inserts);
+  }
+
+  /**
+   * 그날의 집계를 지우고 거래 테이블에서 다시 계산해 넣는다 (한 트랜잭션), 넣은 row 수를 돌려준다
+   * 거래 테이블을 날짜 범위로 훑으므로 요청 경로가 아니라 DailySummaryRecorder.rebuild 에서만 쓴다
+   */
+  @Transactional
+  public int rebuild(LocalDate summaryDate) {
+    dailyTransactionSummaryRepository.deleteBySummaryDate(summaryDate);
+    List<DailyTransactionSummary> summaries = transactionRepository.sumDaily(
+            summaryDate.atStartOfDay(), summaryDate.plusDays(1).atStartOfDay());
+    dailyTransactionSummaryRepository.saveAll(summaries);
+    return summaries.size();
+  }
+
+  /**
+   * from ~ to (포함) 의 일별 집계
+   * 기간을 주지 않으면 오늘 하루, 최대 MAX_RANGE_DAYS 일
+   */
+  public DailySummary.Response getSummary(String accountNumber, LocalDate from, LocalDate to) {
+    Long accountId = accountLookupCache.get(accountNumber)
+            .map(AccountLookup::getAccountId)
+            .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+    LocalDate end = to == null ? LocalDate.now() : to;
+    LocalDate start = from == null ? end : from;
+    if (start.isAfter(end) || ChronoUnit.DAYS.between(start, end) >= MAX_RANGE_DAYS) {
+      throw new AccountException(INVALID_REQUEST);
+    }
+
+    return DailySummary.Response.builder()
+            .accountNumber(accountNumber)
+            .from(start)
+            .to(end)
+            .items(dailyTransactionSummaryRepository.findByAccountIdAndDateRange(accountId, start, end)
+                    .stream()
+                    .map(DailySummary.Item::fromEntity)
+                    .toList())
+            .build();
+  }
+}
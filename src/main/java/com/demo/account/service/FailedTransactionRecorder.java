@@ -0,0 +1,188 @@
+package com.demo.account.service;
+
+import com.demo.account.dto.FailedTransaction;
+import com.demo.account.type.TransactionType;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import static com.demo.account.type.TransactionType.CANCEL;
+import static com.demo.account.type.TransactionType.TRANSFER_OUT;
+import static com.demo.account.type.TransactionType.USE;
+
+/**
+ * 실패 거래 기록
+ * 요청 스레드는 bounded 큐에 넣기만 하고 writer 스레드가 모아서 한 트랜잭션으로 저장한다
+ * 큐가 가득 찼거나 저장에 실패하면 로컬 append-only 파일에 남기고, 다음 기동 때 다시 저장한다 (최소 한 번)
+ * - account.failed.queue.size (gauge) / account.failed.fallback (counter)
+ */
+@Slf4j
+@Service
+public class FailedTransactionRecorder {
+  private final TransactionService transactionService;
+  private final MeterRegistry meterRegistry;
+  private final BlockingQueue<FailedTransaction> queue;
+  private final int maxBatchSize;
+  private final Path fallbackFile;
+  private final Path replayFile;
+  private final Writer writer = new Writer();
+
+  public FailedTransactionRecorder(
+          TransactionService transactionService,
+          MeterRegistry meterRegistry,
+          @Value("${account.failed-transaction.queue-capacity:10000}") int capacity,
+          @Value("${account.failed-transaction.max-batch-size:500}") int maxBatchSize,
+          @Value("${account.failed-transaction.fallback-file:data/failed-transactions.log}") Path fallbackFile
+  ) {
+    this.transactionService = transactionService;
+    this.meterRegistry = meterRegistry;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.maxBatchSize = maxBatchSize;
+    this.fallbackFile = fallbackFile;
+    this.replayFile = fallbackFile.resolveSibling(fallbackFile.getFileName() + ".replay");
+    meterRegistry.gauge("account.failed.queue.size", queue, BlockingQueue::size);
+  }
+
+  public void recordUse(String accountNumber, Long amount) {
+    record(USE, accountNumber, amount);
+  }
+
+  public void recordCancel(String accountNumber, Long amount) {
+    record(CANCEL, accountNumber, amount);
+  }
+
+  //이체 실패는 출금 계좌에 남긴다
+  public void recordTransfer(String fromAccountNumber, Long amount) {
+    record(TRANSFER_OUT, fromAccountNumber, amount);
+  }
+
+  //거래 시각은 실패한 시각으로 남긴다
+  private void record(TransactionType transactionType, String accountNumber, Long amount) {
+    FailedTransaction failedTransaction = new FailedTransaction(
+            transactionType, accountNumber, amount, LocalDateTime.now());
+    if (!queue.offer(failedTransaction)) {
+      log.warn("failed transaction queue is full. accountNumber : {}", accountNumber);
+      appendFallback(List.of(failedTransaction));
+    }
+  }
+
+  //DB 초기화가 끝난 뒤에 fallback 파일부터 다시 저장하고 큐를 비우기 시작한다
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    writer.start();
+  }
+
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    if (!writer.isAlive()) {
+      //writer 가 시작되기 전에 내려가는 경우 남은 기록은 파일로 넘긴다
+      List<FailedTransaction> remaining = new ArrayList<>();
+      queue.drainTo(remaining);
+      if (!remaining.isEmpty()) {
+        appendFallback(remaining);
+      }
+      return;
+    }
+    writer.interrupt();
+    writer.join(5000);
+  }
+
+  private synchronized void appendFallback(List<FailedTransaction> failedTransactions) {
+    meterRegistry.counter("account.failed.fallback").increment(failedTransactions.size());
+    try {
+      Path parent = fallbackFile.toAbsolutePath().getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      Files.write(fallbackFile,
+              failedTransactions.stream().map(FailedTransaction::toLine).toList(),
+              StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    } catch (IOException e) {
+      log.error("failed to append failed transactions. lost : {}",
+              failedTransactions.stream().map(FailedTransaction::toLine).toList(), e);
+    }
+  }
+
+  private void replayFallback() {
+    try {
+      synchronized (this) {
+        //이전 replay 가 남아 있으면 덮어쓰지 않고 그것부터 처리한다
+        if (Files.exists(fallbackFile) && !Files.exists(replayFile)) {
+          Files.move(fallbackFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+        }
+      }
+      if (!Files.exists(replayFile)) {
+        return;
+      }
+
+      List<FailedTransaction> failedTransactions = Files.readAllLines(replayFile).stream()
+              .filter(line -> !line.isBlank())
+              .map(FailedTransaction::fromLine)
+              .toList();
+      for (int i = 0; i < failedTransactions.size(); i += maxBatchSize) {
+        transactionService.saveFailedTransactions(failedTransactions.subList(
+                i, Math.min(i + maxBatchSize, failedTransactions.size())));
+      }
+      Files.delete(replayFile);
+      log.info("replayed {} failed transactions from {}", failedTransactions.size(), replayFile);
+    } catch (Exception e) {
+      log.error("failed to replay failed transactions. file : {}", replayFile, e);
+    }
+  }
+
+  private void write(List<FailedTransaction> batch) {
+    try {
+      transactionService.saveFailedTransactions(batch);
+    } catch (Exception e) {
+      log.error("failed to save failed transactions. size : {}", batch.size(), e);
+      appendFallback(batch);
+    }
+  }
+
+  private class Writer extends Thread {
+    Writer() {
+      super("failed-transaction-writer");
+      setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+      replayFallback();
+
+      List<FailedTransaction> batch = new ArrayList<>(maxBatchSize);
+      while (!isInterrupted()) {
+        try {
+          batch.add(queue.take());
+          queue.drainTo(batch, maxBatchSize - 1);
+          write(List.copyOf(batch));
+        } catch (InterruptedException e) {
+          interrupt();
+        } finally {
+          batch.clear();
+        }
+      }
+
+      //종료 전에 남은 기록을 저장한다
+      Thread.interrupted();
+      queue.drainTo(batch);
+      if (!batch.isEmpty()) {
+        write(batch);
+      }
+    }
+  }
+}
@@ -0,0 +1,155 @@
+package com.demo.account.service;
+
+import com.demo.account.aop.Idempotent;
+import com.demo.account.cache.IdempotencyCache;
+import com.demo.account.exception.AccountException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static com.demo.account.type.ErrorCode.*;
+
+/**
+ * @Idempotent 엔드포인트의 Idempotency-Key 처리
+ * LockAopAspect(기본 순서) 보다 먼저 실행되어서 중복 요청은 lock/DB 에 닿지 않는다
+ * - 같은 key, 같은 요청: 저장된 응답을 그대로 돌려준다
+ * - 같은 key, 다른 요청: IDEMPOTENCY_KEY_REUSED
+ * - 처음 요청이 아직 처리 중: REQUEST_IN_PROGRESS (잠시 후 다시 시도)
+ * 실패한 요청은 잔액을 바꾸지 않았으므로 저장하지 않고 같은 key 로 다시 시도할 수 있다
+ * - account.idempotency.request (counter, result: replayed/reused/in_progress)
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@RequiredArgsConstructor
+public class IdempotencyAspect {
+  public static final String HEADER = "Idempotency-Key";
+  private static final int MAX_KEY_LENGTH = 100;
+
+  private final IdempotencyCache idempotencyCache;
+  private final ObjectMapper objectMapper;
+  private final MeterRegistry meterRegistry;
+
+  @Around("@annotation(idempotent)")
+  public Object aroundMethod(ProceedingJoinPoint pjp, Idempotent idempotent) throws Throwable {
+    String idempotencyKey = currentKey();
+    if (idempotencyKey == null) {
+      return pjp.proceed();
+    }
+    if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+      throw new AccountException(INVALID_REQUEST);
+    }
+
+    String endpoint = pjp.getSignature().getName();
+    String key = endpoint + ":" + idempotencyKey;
+    String fingerprint = fingerprint(pjp.getArgs());
+    Optional<IdempotencyCache.Entry> existing = idempotencyCache.markInFlight(key, fingerprint);
+    if (existing.isPresent()) {
+      return replay(pjp, endpoint, fingerprint, existing.get());
+    }
+
+    Object result;
+    try {
+      result = pjp.proceed();
+    } catch (Throwable e) {
+      idempotencyCache.remove(key);
+      throw e;
+    }
+
+    if (result instanceof CompletableFuture<?> future) {
+      return future.whenComplete((response, e) -> {
+        if (e == null) {
+          complete(key, fingerprint, response);
+        } else {
+          idempotencyCache.remove(key);
+        }
+      });
+    }
+    complete(key, fingerprint, result);
+    return result;
+  }
+
+  private Object replay(
+          ProceedingJoinPoint pjp,
+          String endpoint,
+          String fingerprint,
+          IdempotencyCache.Entry entry
+  ) throws Exception {
+    if (!entry.fingerprint().equals(fingerprint)) {
+      count(endpoint, "reused");
+      throw new AccountException(IDEMPOTENCY_KEY_REUSED);
+    }
+    if (entry.isInFlight()) {
+      count(endpoint, "in_progress");
+      throw new AccountException(REQUEST_IN_PROGRESS);
+    }
+
+    count(endpoint, "replayed");
+    Type returnType = ((MethodSignature) pjp.getSignature()).getMethod().getGenericReturnType();
+    if (returnType instanceof ParameterizedType parameterizedType
+            && parameterizedType.getRawType() == CompletableFuture.class) {
+      return CompletableFuture.completedFuture(
+              read(entry.response(), parameterizedType.getActualTypeArguments()[0]));
+    }
+    return read(entry.response(), returnType);
+  }
+
+  private void complete(String key, String fingerprint, Object response) {
+    try {
+      idempotencyCache.complete(key, fingerprint, objectMapper.writeValueAsString(response));
+    } catch (Exception e) {
+      //응답은 이미 만들어졌으므로 저장 실패는 실패로 돌리지 않는다 (처리 중 표시는 in-flight-ttl 후 사라진다)
+      log.error("failed to store idempotent response. key : {}", key, e);
+    }
+  }
+
+  private Object read(String response, Type type) throws Exception {
+    JavaType javaType = objectMapper.getTypeFactory().constructType(type);
+    return objectMapper.readValue(response, javaType);
+  }
+
+  //같은 key 로 다른 요청을 보냈는지 확인하기 위한 요청 본문 hash
+  private String fingerprint(Object[] args) throws Exception {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+              .digest(objectMapper.writeValueAsString(args).getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private String currentKey() {
+    if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+      return null;
+    }
+    HttpServletRequest request = attributes.getRequest();
+    return request.getHeader(HEADER);
+  }
+
+  private void count(String endpoint, String result) {
+    meterRegistry.counter("account.idempotency.request",
+            "endpoint", endpoint, "result", result).increment();
+  }
+}
@@ -1,6 +1,8 @@
 package com.demo.account.service;
 
+import com.demo.account.aop.AccountLock;
 import com.demo.account.aop.AccountLockIdInterface;
+import com.demo.account.type.TransactionMode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -8,22 +10,49 @@ import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Aspect
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class LockAopAspect {
   private final LockService lockService;
+  private final TransactionModeResolver transactionModeResolver;
+
+  @Around("@annotation(accountLock) && args(request)")
+  public Object aroundMethod(
+          ProceedingJoinPoint pjp,
+          AccountLock accountLock,
+          AccountLockIdInterface request
+  ) throws Throwable {
+    String endpoint = pjp.getSignature().getName();
+    if (transactionModeResolver.resolve(endpoint) != TransactionMode.LOCK) {
+      //QUEUE 모드는 계좌별 단일 writer, ATOMIC 모드는 DB row lock,
+      //OPTIMISTIC 모드는 @Version 이 직렬화를 맡는다
+      return pjp.proceed();
+    }
+
+    List<String> accountNumbers = request.getAccountNumbers();
+    if (accountNumbers.size() > 1) {
+      //여러 계좌는 계좌번호 순서로 한 번에 잡는다
+      lockService.lockAll(accountNumbers, endpoint,
+              accountLock.tryLockTime(), accountLock.leaseTime());
+      try {
+        return pjp.proceed();
+      } finally {
+        lockService.unlockAll(accountNumbers, endpoint);
+      }
+    }
 
-  @Around("@annotation(com.demo.account.aop.AccountLock) && args(request)")
-  public Object aroundMethod(ProceedingJoinPoint pjp, AccountLockIdInterface request) throws Throwable {
     //lock 취득 시도
-    lockService.lock(request.getAccountNumber());
+    lockService.lock(request.getAccountNumber(), endpoint,
+            accountLock.tryLockTime(), accountLock.leaseTime());
     try {
       return pjp.proceed();
     }finally {
       //lock 해제
-      lockService.unlock(request.getAccountNumber());
+      lockService.unlock(request.getAccountNumber(), endpoint);
     }
 
   }
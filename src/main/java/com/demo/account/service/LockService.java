@@ -1,41 +1,220 @@
 package com.demo.account.service;
 
 import com.demo.account.exception.AccountException;
+import com.demo.account.lock.AsyncLockBackend;
+import com.demo.account.lock.LockBackend;
 import com.demo.account.type.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * 계좌 lock 취득/해제
+ * endpoint 별로 lock 대기 시간, 점유 시간, timeout, 경합 횟수를 기록한다
+ * - account.lock.wait / account.lock.held (timer)
+ * - account.lock.timeout / account.lock.contention (counter)
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class LockService {
-  public final RedissonClient redissonClient;
+  private static final long DEFAULT_WAIT_TIME = 1000L;
+  private static final long DEFAULT_LEASE_TIME = 15000L;
+  private static final String DEFAULT_ENDPOINT = "default";
 
-  public void lock(String accountNumber){
-    RLock lock = redissonClient.getLock(getLockKey(accountNumber));
+  //비동기 lock 의 주인 id, 스레드 id 와 겹치지 않도록 음수를 쓴다
+  private static final AtomicLong ASYNC_OWNER_ID = new AtomicLong();
+
+  private final LockBackend lockBackend;
+  private final MeterRegistry meterRegistry;
+
+  //lock 을 잡은 시각 (점유 시간 측정용), 계좌당 holder 는 하나뿐이다
+  private final Map<String, Long> acquiredAt = new ConcurrentHashMap<>();
+
+  public void lock(String accountNumber) {
+    lock(accountNumber, DEFAULT_ENDPOINT, DEFAULT_WAIT_TIME, DEFAULT_LEASE_TIME);
+  }
+
+  /**
+   * 잡지 못하거나 backend 오류면 ACCOUNT_TRANSACTION_LOCK (lock 없이 거래를 진행하지 않는다)
+   */
+  public void lock(String accountNumber, String endpoint, long waitTime, long leaseTime){
+    String lockKey = getLockKey(accountNumber);
     log.debug("Trying lock for accountNumber : {}", accountNumber);
 
+    long start = System.nanoTime();
     try {
-      boolean isLock = lock.tryLock(1,15, TimeUnit.SECONDS);
+      boolean isLock = lockBackend.tryLock(lockKey, 0, leaseTime, TimeUnit.MILLISECONDS);
+      if (!isLock) {
+        meterRegistry.counter("account.lock.contention", "endpoint", endpoint).increment();
+        isLock = lockBackend.tryLock(lockKey, waitTime, leaseTime, TimeUnit.MILLISECONDS);
+      }
       if (!isLock) {
+        recordWait(endpoint, "timeout", start);
+        meterRegistry.counter("account.lock.timeout", "endpoint", endpoint).increment();
         log.error("===============Lock acquisition failed============");
         throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
       }
+      recordWait(endpoint, "acquired", start);
+      acquiredAt.put(accountNumber, System.nanoTime());
     }catch (AccountException e){
       throw e;
     }catch (Exception e){
+      if (e instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      recordWait(endpoint, "error", start);
       log.error("Redis lock failed", e);
+      throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
     }
   }
 
-  public void unlock(String accountNumber){
+  public void unlock(String accountNumber) {
+    unlock(accountNumber, DEFAULT_ENDPOINT);
+  }
+
+  public void unlock(String accountNumber, String endpoint){
     log.debug("Unlock for accountNumber : {}", accountNumber);
-    redissonClient.getLock(getLockKey(accountNumber)).unlock();
+    recordHeld(accountNumber, endpoint);
+    lockBackend.unlock(getLockKey(accountNumber));
+  }
+
+  /**
+   * 여러 계좌를 한 번에 lock 한다 (이체)
+   * 모든 호출자가 같은 순서로 잡도록 계좌번호 순서로 정렬해서 backend 에 넘긴다
+   * 하나라도 잡지 못하면 잡은 lock 을 모두 풀고 ACCOUNT_TRANSACTION_LOCK
+   * backend 오류도 ACCOUNT_TRANSACTION_LOCK 으로 실패시킨다 (lock 없이 이체를 진행하지 않는다)
+   */
+  public void lockAll(Collection<String> accountNumbers, String endpoint, long waitTime, long leaseTime) {
+    List<String> ordered = canonicalOrder(accountNumbers);
+    List<String> lockKeys = ordered.stream().map(this::getLockKey).toList();
+    log.debug("Trying lock for accountNumbers : {}", ordered);
+
+    long start = System.nanoTime();
+    try {
+      boolean isLock = lockBackend.tryLockAll(lockKeys, 0, leaseTime, TimeUnit.MILLISECONDS);
+      if (!isLock) {
+        meterRegistry.counter("account.lock.contention", "endpoint", endpoint).increment();
+        isLock = lockBackend.tryLockAll(lockKeys, waitTime, leaseTime, TimeUnit.MILLISECONDS);
+      }
+      if (!isLock) {
+        recordWait(endpoint, "timeout", start);
+        meterRegistry.counter("account.lock.timeout", "endpoint", endpoint).increment();
+        log.error("===============Lock acquisition failed============");
+        throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+      }
+      recordWait(endpoint, "acquired", start);
+      acquiredAt.put(String.join(",", ordered), System.nanoTime());
+    }catch (AccountException e){
+      throw e;
+    }catch (Exception e){
+      if (e instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      recordWait(endpoint, "error", start);
+      log.error("Redis lock failed", e);
+      throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+    }
+  }
+
+  public void unlockAll(Collection<String> accountNumbers, String endpoint) {
+    List<String> ordered = canonicalOrder(accountNumbers);
+    log.debug("Unlock for accountNumbers : {}", ordered);
+    recordHeld(String.join(",", ordered), endpoint);
+    lockBackend.unlockAll(ordered.stream().map(this::getLockKey).toList());
+  }
+
+  public boolean supportsAsync() {
+    return lockBackend instanceof AsyncLockBackend;
+  }
+
+  /**
+   * 스레드를 붙잡지 않고 lock 을 기다린다
+   * 결과로 받은 owner id 로 unlockAsync 를 호출해야 한다
+   * lock 을 잡지 못하면 ACCOUNT_TRANSACTION_LOCK, backend 오류는 그대로 future 를 실패시킨다
+   * supportsAsync 가 false 면 IllegalStateException
+   */
+  public CompletableFuture<Long> lockAsync(
+          String accountNumber, String endpoint, long waitTime, long leaseTime) {
+    String lockKey = getLockKey(accountNumber);
+    long ownerId = -ASYNC_OWNER_ID.incrementAndGet();
+    log.debug("Trying async lock for accountNumber : {}", accountNumber);
+
+    AsyncLockBackend asyncLockBackend = asyncLockBackend();
+    long start = System.nanoTime();
+    return asyncLockBackend.tryLockAsync(lockKey, 0, leaseTime, TimeUnit.MILLISECONDS, ownerId)
+            .thenCompose(isLock -> {
+              if (isLock) {
+                return CompletableFuture.completedFuture(true);
+              }
+              meterRegistry.counter("account.lock.contention", "endpoint", endpoint).increment();
+              return asyncLockBackend.tryLockAsync(
+                      lockKey, waitTime, leaseTime, TimeUnit.MILLISECONDS, ownerId);
+            })
+            .handle((isLock, e) -> {
+              if (e != null) {
+                recordWait(endpoint, "error", start);
+                log.error("Redis lock failed", e);
+                throw e instanceof CompletionException ce ? ce : new CompletionException(e);
+              }
+              if (!isLock) {
+                recordWait(endpoint, "timeout", start);
+                meterRegistry.counter("account.lock.timeout", "endpoint", endpoint).increment();
+                log.error("===============Lock acquisition failed============");
+                throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+              }
+              recordWait(endpoint, "acquired", start);
+              acquiredAt.put(accountNumber, System.nanoTime());
+              return ownerId;
+            });
+  }
+
+  /**
+   * 해제 실패는 로그만 남긴다 (lease time 이 지나면 풀린다)
+   */
+  public CompletableFuture<Void> unlockAsync(String accountNumber, String endpoint, long ownerId) {
+    log.debug("Async unlock for accountNumber : {}", accountNumber);
+    recordHeld(accountNumber, endpoint);
+    return asyncLockBackend().unlockAsync(getLockKey(accountNumber), ownerId)
+            .exceptionally(e -> {
+              log.error("Redis unlock failed", e);
+              return null;
+            });
+  }
+
+  private AsyncLockBackend asyncLockBackend() {
+    if (lockBackend instanceof AsyncLockBackend asyncLockBackend) {
+      return asyncLockBackend;
+    }
+    throw new IllegalStateException("async lock is not supported by " + lockBackend.getClass().getSimpleName());
+  }
+
+  private void recordHeld(String accountNumber, String endpoint) {
+    Long lockedAt = acquiredAt.remove(accountNumber);
+    if (lockedAt != null) {
+      meterRegistry.timer("account.lock.held", "endpoint", endpoint)
+              .record(System.nanoTime() - lockedAt, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private void recordWait(String endpoint, String result, long start) {
+    meterRegistry.timer("account.lock.wait", "endpoint", endpoint, "result", result)
+            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+  }
+
+  //계좌번호 순서, 같은 계좌는 한 번만
+  private static List<String> canonicalOrder(Collection<String> accountNumbers) {
+    return accountNumbers.stream().distinct().sorted().toList();
   }
 
   private String getLockKey(String accountNumber){
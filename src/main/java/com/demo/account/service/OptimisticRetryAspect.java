@@ -0,0 +1,71 @@
+package com.demo.account.service;
+
+import com.demo.account.exception.AccountException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.demo.account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+
+/**
+ * @RetryOnConflict 메서드를 @Version 충돌 시 다시 실행한다
+ * 트랜잭션 advice 보다 바깥에서 돌아야 매번 새 트랜잭션으로 계좌를 다시 읽는다
+ * 대기 시간은 exponential backoff + full jitter, 횟수를 다 쓰면 lock 경합과 같은 ACCOUNT_TRANSACTION_LOCK
+ * - account.optimistic.retry / account.optimistic.exhausted (counter)
+ */
+@Aspect
+@Component
+@Slf4j
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class OptimisticRetryAspect {
+  private final MeterRegistry meterRegistry;
+  private final int maxAttempts;
+  private final long initialBackoff;
+  private final long maxBackoff;
+
+  public OptimisticRetryAspect(
+          MeterRegistry meterRegistry,
+          @Value("${account.optimistic.max-attempts:5}") int maxAttempts,
+          @Value("${account.optimistic.initial-backoff:5}") long initialBackoff,
+          @Value("${account.optimistic.max-backoff:100}") long maxBackoff
+  ) {
+    this.meterRegistry = meterRegistry;
+    this.maxAttempts = maxAttempts;
+    this.initialBackoff = initialBackoff;
+    this.maxBackoff = maxBackoff;
+  }
+
+  @Around("@annotation(com.demo.account.aop.RetryOnConflict)")
+  public Object aroundMethod(ProceedingJoinPoint pjp) throws Throwable {
+    String endpoint = pjp.getSignature().getName();
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return pjp.proceed();
+      } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+        if (attempt >= maxAttempts) {
+          meterRegistry.counter("account.optimistic.exhausted", "endpoint", endpoint).increment();
+          log.error("optimistic lock retry exhausted. endpoint : {}", endpoint);
+          throw new AccountException(ACCOUNT_TRANSACTION_LOCK);
+        }
+        meterRegistry.counter("account.optimistic.retry", "endpoint", endpoint).increment();
+        log.debug("optimistic lock conflict. endpoint : {}, attempt : {}", endpoint, attempt);
+        Thread.sleep(backoff(attempt));
+      }
+    }
+  }
+
+  long backoff(int attempt) {
+    long limit = Math.min(maxBackoff, initialBackoff << Math.min(attempt - 1, 20));
+    return ThreadLocalRandom.current().nextLong(limit + 1);
+  }
+}
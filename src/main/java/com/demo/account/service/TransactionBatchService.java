@@ -0,0 +1,92 @@
+package com.demo.account.service;
+
+import com.demo.account.dto.TransactionCommand;
+import com.demo.account.dto.TransactionCommandResult;
+import com.demo.account.dto.UseBalance;
+import com.demo.account.exception.AccountException;
+import com.demo.account.type.TransactionMode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * 잔액 사용 일괄 처리
+ * 요청을 계좌별로 묶어 계좌 lock 은 한 번만 잡고, 계좌별로 하나의 트랜잭션에서 저장한다
+ * 결과는 요청 순서대로 돌려준다
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionBatchService {
+  private static final String ENDPOINT = "useBalanceBatch";
+
+  private final TransactionService transactionService;
+  private final LockService lockService;
+  private final AccountCommandQueue accountCommandQueue;
+  private final TransactionModeResolver transactionModeResolver;
+
+  @Value("${account.batch.lock-wait-time:1000}")
+  private long lockWaitTime = 1000L;
+
+  @Value("${account.batch.lock-lease-time:30000}")
+  private long lockLeaseTime = 30000L;
+
+  public List<TransactionCommandResult> useBalances(List<UseBalance.Request> requests) {
+    Map<String, List<Integer>> indexesByAccount = new LinkedHashMap<>();
+    for (int i = 0; i < requests.size(); i++) {
+      indexesByAccount.computeIfAbsent(requests.get(i).getAccountNumber(),
+              k -> new ArrayList<>()).add(i);
+    }
+
+    TransactionCommandResult[] results = new TransactionCommandResult[requests.size()];
+    indexesByAccount.forEach((accountNumber, indexes) -> {
+      List<TransactionCommand> commands = indexes.stream()
+              .map(requests::get)
+              .map(request -> TransactionCommand.use(request.getUserId(), request.getAmount()))
+              .toList();
+
+      List<TransactionCommandResult> accountResults = apply(accountNumber, commands);
+      for (int i = 0; i < indexes.size(); i++) {
+        results[indexes.get(i)] = accountResults.get(i);
+      }
+    });
+    return Arrays.asList(results);
+  }
+
+  private List<TransactionCommandResult> apply(
+          String accountNumber,
+          List<TransactionCommand> commands
+  ) {
+    TransactionMode transactionMode =
+            transactionModeResolver.resolve(TransactionModeResolver.USE_BALANCE_BATCH);
+    if (transactionMode == TransactionMode.QUEUE) {
+      return accountCommandQueue.submitAll(accountNumber, commands);
+    }
+
+    try {
+      if (transactionMode == TransactionMode.ATOMIC) {
+        //분산 lock 대신 계좌 row lock
+        return transactionService.applyCommandsForUpdate(accountNumber, commands);
+      }
+      if (transactionMode == TransactionMode.OPTIMISTIC) {
+        //충돌하면 applyCommands 가 다시 실행된다
+        return transactionService.applyCommands(accountNumber, commands);
+      }
+
+      lockService.lock(accountNumber, ENDPOINT, lockWaitTime, lockLeaseTime);
+      try {
+        return transactionService.applyCommands(accountNumber, commands);
+      } finally {
+        lockService.unlock(accountNumber, ENDPOINT);
+      }
+    } catch (AccountException e) {
+      log.error("failed to use balance in batch. accountNumber : {}", accountNumber);
+      return commands.stream()
+              .map(command -> TransactionCommandResult.fail(null, e.getErrorCode()))
+              .toList();
+    }
+  }
+}
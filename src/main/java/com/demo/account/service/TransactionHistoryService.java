@@ -0,0 +1,114 @@
+package com.demo.account.service;
+
+import com.demo.account.cache.AccountLookup;
+import com.demo.account.cache.AccountLookupCache;
+import com.demo.account.domain.Transaction;
+import com.demo.account.dto.TransactionHistory;
+import com.demo.account.exception.AccountException;
+import com.demo.account.repository.TransactionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.demo.account.type.ErrorCode.ACCOUNT_NOT_FOUND;
+import static com.demo.account.type.ErrorCode.INVALID_REQUEST;
+
+/**
+ * 계좌별 거래 내역 조회
+ * 페이지 조회는 (transacted_at, id) keyset 커서, 내보내기는 NDJSON 스트리밍
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionHistoryService {
+  static final int MAX_PAGE_SIZE = 100;
+
+  private final TransactionRepository transactionRepository;
+  private final AccountLookupCache accountLookupCache;
+  private final EntityManager entityManager;
+  private final ObjectMapper objectMapper;
+
+  public Long getAccountId(String accountNumber) {
+    return accountLookupCache.get(accountNumber)
+            .map(AccountLookup::getAccountId)
+            .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+  }
+
+  public TransactionHistory.Response getTransactions(
+          String accountNumber,
+          String cursor,
+          int size
+  ) {
+    Long accountId = getAccountId(accountNumber);
+    int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+    //다음 페이지가 있는지 보기 위해 한 건 더 가져온다
+    PageRequest pageRequest = PageRequest.ofSize(pageSize + 1);
+    List<Transaction> transactions;
+    if (cursor == null || cursor.isEmpty()) {
+      transactions = transactionRepository.findLatestByAccountId(accountId, pageRequest);
+    } else {
+      Cursor position = Cursor.decode(cursor);
+      transactions = transactionRepository.findNextByAccountId(
+              accountId, position.transactedAt(), position.id(), pageRequest);
+    }
+
+    boolean hasNext = transactions.size() > pageSize;
+    List<Transaction> page = hasNext ? transactions.subList(0, pageSize) : transactions;
+    return TransactionHistory.Response.builder()
+            .transactions(page.stream().map(TransactionHistory.Item::fromEntity).toList())
+            .nextCursor(hasNext ? Cursor.of(page.get(pageSize - 1)).encode() : null)
+            .build();
+  }
+
+  /**
+   * 거래 내역 전체를 한 줄에 하나씩 JSON 으로 쓴다
+   * 읽은 거래는 바로 영속성 컨텍스트에서 떼어내서 거래 수와 상관없이 메모리 사용량이 일정하다
+   */
+  @Transactional
+  public void exportTransactions(Long accountId, OutputStream outputStream) throws IOException {
+    try (Stream<Transaction> transactions = transactionRepository.streamByAccountId(accountId)) {
+      Iterator<Transaction> iterator = transactions.iterator();
+      while (iterator.hasNext()) {
+        Transaction transaction = iterator.next();
+        outputStream.write(objectMapper.writeValueAsBytes(
+                TransactionHistory.Item.fromEntity(transaction)));
+        outputStream.write('\n');
+        entityManager.detach(transaction);
+      }
+    }
+    outputStream.flush();
+  }
+
+  private record Cursor(LocalDateTime transactedAt, Long id) {
+    static Cursor of(Transaction transaction) {
+      return new Cursor(transaction.getTransactedAt(), transaction.getId());
+    }
+
+    static Cursor decode(String cursor) {
+      try {
+        String[] values = new String(Base64.getUrlDecoder().decode(cursor),
+                StandardCharsets.UTF_8).split(",");
+        return new Cursor(LocalDateTime.parse(values[0]), Long.valueOf(values[1]));
+      } catch (RuntimeException e) {
+        throw new AccountException(INVALID_REQUEST);
+      }
+    }
+
+    String encode() {
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(
+              (transactedAt + "," + id).getBytes(StandardCharsets.UTF_8));
+    }
+  }
+}
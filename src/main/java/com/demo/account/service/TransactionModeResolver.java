@@ -0,0 +1,63 @@
+package com.demo.account.service;
+
+import com.demo.account.type.TransactionMode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * endpoint 별 거래 처리 모드
+ * account.transaction.endpoints.<endpoint> 가 없으면 account.transaction.mode 를 따른다
+ * (LockAopAspect 는 컨트롤러 메서드 이름을 endpoint 로 쓴다)
+ */
+@Component
+public class TransactionModeResolver {
+  public static final String USE_BALANCE = "useBalance";
+  public static final String CANCEL_BALANCE = "cancelBalance";
+  public static final String USE_BALANCE_BATCH = "useBalanceBatch";
+  public static final String USE_BALANCE_ASYNC = "useBalanceAsync";
+  public static final String CANCEL_BALANCE_ASYNC = "cancelBalanceAsync";
+  public static final String TRANSFER = "transfer";
+
+  private static final List<String> ENDPOINTS = List.of(
+          USE_BALANCE, CANCEL_BALANCE, USE_BALANCE_BATCH, USE_BALANCE_ASYNC, CANCEL_BALANCE_ASYNC, TRANSFER);
+
+  private final TransactionMode defaultMode;
+  private final Map<String, TransactionMode> endpointModes;
+
+  @Autowired
+  public TransactionModeResolver(Environment environment) {
+    this(environment.getProperty("account.transaction.mode", TransactionMode.class, TransactionMode.LOCK),
+            endpointModes(environment));
+  }
+
+  public TransactionModeResolver(TransactionMode defaultMode, Map<String, TransactionMode> endpointModes) {
+    this.defaultMode = defaultMode;
+    this.endpointModes = Map.copyOf(endpointModes);
+  }
+
+  public TransactionMode resolve(String endpoint) {
+    return endpointModes.getOrDefault(endpoint, defaultMode);
+  }
+
+  //어느 endpoint 에서든 쓰는 모드인지
+  public boolean isUsed(TransactionMode mode) {
+    return defaultMode == mode || endpointModes.containsValue(mode);
+  }
+
+  private static Map<String, TransactionMode> endpointModes(Environment environment) {
+    Map<String, TransactionMode> modes = new HashMap<>();
+    for (String endpoint : ENDPOINTS) {
+      TransactionMode mode = environment.getProperty(
+              "account.transaction.endpoints." + endpoint, TransactionMode.class);
+      if (mode != null) {
+        modes.put(endpoint, mode);
+      }
+    }
+    return modes;
+  }
+}
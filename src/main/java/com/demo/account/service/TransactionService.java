@@ -1,14 +1,25 @@
 package com.demo.account.service;
 
+import com.demo.account.aop.RetryOnConflict;
+import com.demo.account.cache.AccountLookup;
+import com.demo.account.cache.AccountLookupCache;
+import com.demo.account.cache.TransactionCache;
 import com.demo.account.domain.Account;
-import com.demo.account.domain.AccountUser;
 import com.demo.account.domain.Transaction;
+import com.demo.account.dto.FailedTransaction;
+import com.demo.account.dto.TransactionCommand;
+import com.demo.account.dto.TransactionCommandResult;
 import com.demo.account.dto.TransactionDto;
+import com.demo.account.dto.TransferDto;
 import com.demo.account.exception.AccountException;
+import com.demo.account.id.TransactionIdGenerator;
+import com.demo.account.ledger.TransactionLedger;
+import com.demo.account.outbox.BalanceChangeOutbox;
 import com.demo.account.repository.AccountRepository;
 import com.demo.account.repository.AccountUserRepository;
 import com.demo.account.repository.TransactionRepository;
 import com.demo.account.type.AccountStatus;
+import com.demo.account.type.ErrorCode;
 import com.demo.account.type.TransactionResultType;
 import com.demo.account.type.TransactionType;
 import jakarta.transaction.Transactional;
@@ -17,13 +28,22 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.UUID;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.demo.account.type.ErrorCode.*;
 import static com.demo.account.type.TransactionResultType.F;
 import static com.demo.account.type.TransactionResultType.S;
 import static com.demo.account.type.TransactionType.CANCEL;
+import static com.demo.account.type.TransactionType.TRANSFER_IN;
+import static com.demo.account.type.TransactionType.TRANSFER_OUT;
 import static com.demo.account.type.TransactionType.USE;
 
 @Slf4j
@@ -33,25 +53,74 @@ public class TransactionService {
   private final TransactionRepository transactionRepository;
   private final AccountUserRepository accountUserRepository;
   private final AccountRepository accountRepository;
+  private final AccountLookupCache accountLookupCache;
+  private final TransactionCache transactionCache;
+  private final TransactionLedger transactionLedger;
+  private final BalanceChangeOutbox balanceChangeOutbox;
+  private final DailySummaryRecorder dailySummaryRecorder;
+  private final TransactionIdGenerator transactionIdGenerator;
 
   @Transactional
+  @RetryOnConflict
   public TransactionDto useBalance(Long userId, String accountNumber, Long amount){
-    AccountUser user = accountUserRepository.findById(userId)
-            .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
-    Account account = accountRepository.findByAccountNumber(accountNumber)
+    AccountLookup accountLookup = getAccountLookup(userId, accountNumber);
+    Account account = accountRepository.findById(accountLookup.getAccountId())
                     .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
 
-    validateUseBalance(user, account, amount);
+    validateUseBalance(account, amount);
 
     account.useBalance(amount);
 
     return TransactionDto.fromEntity(saveAndGetTransaction(USE, S, account, amount));
   }
 
-  private void validateUseBalance(AccountUser user, Account account, Long amount) {
-    if (!Objects.equals(user.getId(), account.getAccountUser().getId())) {
+  /**
+   * ATOMIC 모드 잔액 사용
+   * lock 없이 조건부 UPDATE 한 번으로 차감하고, 반영된 row 가 없을 때만 계좌를 읽어 실패 원인을 구분한다
+   */
+  @Transactional
+  public TransactionDto useBalanceAtomic(Long userId, String accountNumber, Long amount) {
+    AccountLookup accountLookup = getAccountLookup(userId, accountNumber);
+    if (accountRepository.decreaseBalance(accountLookup.getAccountId(), amount) == 0) {
+      Account account = accountRepository.findById(accountLookup.getAccountId())
+              .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+      validateUseBalance(account, amount);
+      //검증을 통과했다면 그 사이 잔액이 바뀐 경우
+      throw new AccountException(AMOUNT_EXCEED_BALANCE);
+    }
+
+    //UPDATE 뒤의 잔액을 거래 스냅샷으로 남긴다
+    Account account = accountRepository.findById(accountLookup.getAccountId())
+            .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+    return TransactionDto.fromEntity(saveAndGetTransaction(USE, S, account, amount));
+  }
+
+  /**
+   * 계좌 소유주와 상태는 캐시로 확인한다
+   * 캐시에 없거나 소유주가 다를 때만 사용자를 조회해서 에러를 구분한다
+   */
+  private AccountLookup getAccountLookup(Long userId, String accountNumber) {
+    AccountLookup accountLookup = accountLookupCache.get(accountNumber).orElse(null);
+    if (accountLookup == null || !Objects.equals(accountLookup.getUserId(), userId)) {
+      accountUserRepository.findById(userId)
+              .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
+      throw new AccountException(accountLookup == null ? ACCOUNT_NOT_FOUND : USER_ACCOUNT_UN_MATCH);
+    }
+    if (accountLookup.getAccountStatus() != AccountStatus.IN_USE) {
+      throw new AccountException(ACCOUNT_ALREADY_UNREGISTERED);
+    }
+    return accountLookup;
+  }
+
+  private void validateOwner(Long userId, Account account) {
+    if (!Objects.equals(userId, account.getAccountUser().getId())) {
+      accountUserRepository.findById(userId)
+              .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
       throw new AccountException(USER_ACCOUNT_UN_MATCH);
     }
+  }
+
+  private void validateUseBalance(Account account, Long amount) {
     if (account.getAccountStatus() != AccountStatus.IN_USE){
       throw new AccountException(ACCOUNT_ALREADY_UNREGISTERED);
     }
@@ -60,12 +129,37 @@ public class TransactionService {
     }
   }
 
+  /**
+   * 실패 거래를 모아서 저장한다 (FailedTransactionRecorder 의 writer 가 호출)
+   * 계좌가 없는 요청은 연결할 계좌가 없으므로 건너뛴다
+   */
   @Transactional
-  public void saveFailedUseTransaction(String accountNumber, Long amount) {
-    Account account = accountRepository.findByAccountNumber(accountNumber)
-            .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+  public void saveFailedTransactions(List<FailedTransaction> failedTransactions) {
+    Map<String, Account> accounts = accountRepository.findByAccountNumberIn(
+                    failedTransactions.stream()
+                            .map(FailedTransaction::getAccountNumber)
+                            .collect(Collectors.toSet()))
+            .stream()
+            .collect(Collectors.toMap(Account::getAccountNumber, Function.identity()));
 
-    saveAndGetTransaction(USE, F, account, amount);
+    List<Transaction> transactions = new ArrayList<>(failedTransactions.size());
+    for (FailedTransaction failedTransaction : failedTransactions) {
+      Account account = accounts.get(failedTransaction.getAccountNumber());
+      if (account == null) {
+        log.warn("skip failed transaction of unknown account. accountNumber : {}",
+                failedTransaction.getAccountNumber());
+        continue;
+      }
+      Transaction transaction = buildTransaction(failedTransaction.getTransactionType(), F,
+              account, failedTransaction.getAmount());
+      transaction.setTransactedAt(failedTransaction.getTransactedAt());
+      transactions.add(transaction);
+    }
+
+    transactionLedger.appendAll(transactions).forEach(transaction -> {
+      dailySummaryRecorder.record(transaction);
+      cacheAfterCommit(TransactionDto.fromEntity(transaction));
+    });
   }
 
   private Transaction saveAndGetTransaction(
@@ -73,27 +167,44 @@ public class TransactionService {
           TransactionResultType transactionResultType,
           Account account,
           Long amount) {
-    return transactionRepository.save(
-            Transaction.builder()
-                    .transactionType(transactionType)
-                    .transactionResultType(transactionResultType)
-                    .account(account)
-                    .amount(amount)
-                    .balanceSnapshot(account.getBalance())
-                    .transactionId(UUID.randomUUID().toString().replace("-", ""))
-                    .transactedAt(LocalDateTime.now())
-                    .build()
+    Transaction transaction = transactionLedger.append(
+            buildTransaction(transactionType, transactionResultType, account, amount)
     );
+    balanceChangeOutbox.record(transaction);
+    dailySummaryRecorder.record(transaction);
+    cacheAfterCommit(TransactionDto.fromEntity(transaction));
+    return transaction;
+  }
+
+  private void cacheAfterCommit(TransactionDto transactionDto) {
+    AfterCommit.run(() -> transactionCache.put(transactionDto));
+  }
+
+  private Transaction buildTransaction(
+          TransactionType transactionType,
+          TransactionResultType transactionResultType,
+          Account account,
+          Long amount) {
+    return Transaction.builder()
+            .transactionType(transactionType)
+            .transactionResultType(transactionResultType)
+            .account(account)
+            .amount(amount)
+            .balanceSnapshot(account.getBalance())
+            .transactionId(transactionIdGenerator.nextId())
+            .transactedAt(LocalDateTime.now())
+            .build();
   }
 
 
   @Transactional
+  @RetryOnConflict
   public TransactionDto cancelBalance(
           String transactionId,
           String accountNumber,
           Long amount
   ) {
-    Transaction transaction = transactionRepository.findByTransactionId(transactionId)
+    Transaction transaction = findTransaction(transactionId)
             .orElseThrow(() -> new AccountException(TRANSACTION_NOT_FOUND));
     Account account = accountRepository.findByAccountNumber(accountNumber)
             .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
@@ -108,8 +219,123 @@ public class TransactionService {
   }
 
 
+  /**
+   * ATOMIC 모드 잔액 사용 취소
+   * 검증 규칙은 cancelBalance 와 같고, 잔액은 UPDATE 한 번으로 되돌린다
+   */
+  @Transactional
+  public TransactionDto cancelBalanceAtomic(
+          String transactionId,
+          String accountNumber,
+          Long amount
+  ) {
+    Transaction transaction = findTransaction(transactionId)
+            .orElseThrow(() -> new AccountException(TRANSACTION_NOT_FOUND));
+    AccountLookup accountLookup = accountLookupCache.get(accountNumber)
+            .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+
+    validateCancelBalance(transaction, accountLookup.getAccountId(), amount);
+    if (amount < 0) {
+      throw new AccountException(INVALID_REQUEST);
+    }
+
+    accountRepository.increaseBalance(accountLookup.getAccountId(), amount);
+    Account account = accountRepository.findById(accountLookup.getAccountId())
+            .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+    return TransactionDto.fromEntity(
+            saveAndGetTransaction(CANCEL, S, account, amount)
+    );
+  }
+
+  /**
+   * 계좌 이체
+   * 출금/입금 잔액 변경과 두 거래(TRANSFER_OUT, TRANSFER_IN) 를 한 트랜잭션에서 저장한다
+   * 두 계좌의 lock 은 LockAopAspect 가 계좌번호 순서로 잡고, 그 외 모드는 @Version 충돌 시 재시도한다
+   */
+  @Transactional
+  @RetryOnConflict
+  public TransferDto transfer(
+          Long userId,
+          String fromAccountNumber,
+          String toAccountNumber,
+          Long amount
+  ) {
+    Map<String, Account> accounts = findTransferAccounts(
+            fromAccountNumber, toAccountNumber, accountRepository::findByAccountNumber);
+    return transfer(userId, accounts.get(fromAccountNumber), accounts.get(toAccountNumber), amount);
+  }
+
+  /**
+   * transfer 와 같지만 두 계좌 row 를 계좌번호 순서로 SELECT ... FOR UPDATE 한다 (ATOMIC 모드)
+   */
+  @Transactional
+  public TransferDto transferForUpdate(
+          Long userId,
+          String fromAccountNumber,
+          String toAccountNumber,
+          Long amount
+  ) {
+    Map<String, Account> accounts = findTransferAccounts(
+            fromAccountNumber, toAccountNumber, accountRepository::findForUpdateByAccountNumber);
+    return transfer(userId, accounts.get(fromAccountNumber), accounts.get(toAccountNumber), amount);
+  }
+
+  //모든 이체가 같은 순서로 계좌를 읽어야 row lock 끼리 교착이 생기지 않는다
+  private Map<String, Account> findTransferAccounts(
+          String fromAccountNumber,
+          String toAccountNumber,
+          Function<String, Optional<Account>> finder
+  ) {
+    if (Objects.equals(fromAccountNumber, toAccountNumber)) {
+      throw new AccountException(TRANSFER_TO_SAME_ACCOUNT);
+    }
+    Map<String, Account> accounts = new HashMap<>();
+    for (String accountNumber : Stream.of(fromAccountNumber, toAccountNumber).sorted().toList()) {
+      accounts.put(accountNumber, finder.apply(accountNumber)
+              .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND)));
+    }
+    return accounts;
+  }
+
+  private TransferDto transfer(Long userId, Account from, Account to, Long amount) {
+    validateOwner(userId, from);
+    validateUseBalance(from, amount);
+    if (to.getAccountStatus() != AccountStatus.IN_USE) {
+      throw new AccountException(ACCOUNT_ALREADY_UNREGISTERED);
+    }
+
+    from.useBalance(amount);
+    //입금
+    to.cancelBalance(amount);
+
+    return new TransferDto(
+            TransactionDto.fromEntity(saveAndGetTransaction(TRANSFER_OUT, S, from, amount)),
+            TransactionDto.fromEntity(saveAndGetTransaction(TRANSFER_IN, S, to, amount))
+    );
+  }
+
+  /**
+   * journal 모드에서는 방금 남긴 거래가 아직 적재 전일 수 있으므로
+   * 없으면 쌓인 기록을 적재하고 한 번 더 찾는다
+   */
+  private Optional<Transaction> findTransaction(String transactionId) {
+    Optional<Transaction> transaction = transactionRepository.findByTransactionId(transactionId);
+    if (transaction.isEmpty() && transactionLedger.flush()) {
+      return transactionRepository.findByTransactionId(transactionId);
+    }
+    return transaction;
+  }
+
   private void validateCancelBalance(Transaction transaction, Account account, Long amount) {
-    if (!Objects.equals(transaction.getAccount().getId(), account.getId())) {
+    validateCancelBalance(transaction, account.getId(), amount);
+  }
+
+  private void validateCancelBalance(Transaction transaction, Long accountId, Long amount) {
+    if (transaction.getTransactionType() == TRANSFER_OUT
+            || transaction.getTransactionType() == TRANSFER_IN) {
+      throw new AccountException(TRANSFER_CANNOT_BE_CANCELED);
+    }
+    if (!Objects.equals(transaction.getAccount().getId(), accountId)) {
       throw new AccountException(TRANSACTION_ACCOUNT_UN_MATCH);
     }
     if (!Objects.equals(transaction.getAmount(), amount)){
@@ -121,16 +347,89 @@ public class TransactionService {
   }
 
 
+  /**
+   * 한 계좌에 대한 사용/취소 요청들을 순서대로 적용하고 하나의 트랜잭션으로 저장한다
+   * 실패한 요청은 F 거래로 남기고 다음 요청은 계속 처리한다
+   */
   @Transactional
-  public void saveFailedCancelTransaction(String accountNumber, Long amount) {
+  @RetryOnConflict
+  public List<TransactionCommandResult> applyCommands(
+          String accountNumber,
+          List<TransactionCommand> commands
+  ) {
     Account account = accountRepository.findByAccountNumber(accountNumber)
             .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+    return applyCommands(account, commands);
+  }
+
+  /**
+   * applyCommands 와 같지만 분산 lock 대신 계좌 row 를 SELECT ... FOR UPDATE 로 잡는다 (ATOMIC 모드)
+   */
+  @Transactional
+  public List<TransactionCommandResult> applyCommandsForUpdate(
+          String accountNumber,
+          List<TransactionCommand> commands
+  ) {
+    Account account = accountRepository.findForUpdateByAccountNumber(accountNumber)
+            .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+    return applyCommands(account, commands);
+  }
+
+  private List<TransactionCommandResult> applyCommands(
+          Account account,
+          List<TransactionCommand> commands
+  ) {
+    List<Transaction> transactions = new ArrayList<>(commands.size());
+    List<ErrorCode> errorCodes = new ArrayList<>(commands.size());
+    for (TransactionCommand command : commands) {
+      ErrorCode errorCode = null;
+      try {
+        applyCommand(account, command);
+      } catch (AccountException e) {
+        errorCode = e.getErrorCode();
+      }
+      transactions.add(buildTransaction(command.getTransactionType(),
+              errorCode == null ? S : F, account, command.getAmount()));
+      errorCodes.add(errorCode);
+    }
 
-    saveAndGetTransaction(CANCEL, F, account, amount);
+    List<Transaction> saved = transactionLedger.appendAll(transactions);
+    balanceChangeOutbox.recordAll(saved);
+
+    List<TransactionCommandResult> results = new ArrayList<>(saved.size());
+    for (int i = 0; i < saved.size(); i++) {
+      dailySummaryRecorder.record(saved.get(i));
+      TransactionDto transactionDto = TransactionDto.fromEntity(saved.get(i));
+      cacheAfterCommit(transactionDto);
+      results.add(new TransactionCommandResult(transactionDto, errorCodes.get(i)));
+    }
+    return results;
+  }
+
+  private void applyCommand(Account account, TransactionCommand command) {
+    if (command.getTransactionType() == USE) {
+      validateOwner(command.getUserId(), account);
+      validateUseBalance(account, command.getAmount());
+      account.useBalance(command.getAmount());
+    } else {
+      Transaction transaction = findTransaction(command.getTransactionId())
+              .orElseThrow(() -> new AccountException(TRANSACTION_NOT_FOUND));
+      validateCancelBalance(transaction, account, command.getAmount());
+      account.cancelBalance(command.getAmount());
+    }
   }
 
   public TransactionDto queryTransaction(String transactionId) {
-    return TransactionDto.fromEntity(transactionRepository.findByTransactionId(transactionId)
-            .orElseThrow(() -> new AccountException(TRANSACTION_NOT_FOUND)));
+    return transactionCache.get(transactionId)
+            .orElseGet(() -> {
+              TransactionDto transactionDto =
+                      transactionRepository.findTransactionDtoByTransactionId(transactionId)
+                              .or(() -> transactionLedger.flush()
+                                      ? transactionRepository.findTransactionDtoByTransactionId(transactionId)
+                                      : Optional.empty())
+                              .orElseThrow(() -> new AccountException(TRANSACTION_NOT_FOUND));
+              transactionCache.put(transactionDto);
+              return transactionDto;
+            });
   }
 }
@@ -19,7 +19,14 @@ public enum ErrorCode {
     TRANSACTION_ACCOUNT_UN_MATCH("이 거래는 해당 계좌에서 발생한 거래가 아닙니다."),
     ACCOUNT_ALREADY_UNREGISTERED("계좌가 이미 해지되었습니다."),
     BALANCE_NOT_EMPTY("잔액이 있는 계좌는 해지할 수 없습니다."),
-    MAX_ACCOUNT_PER_USER_10("사용자 최대 계좌는 10개입니다.")
+    MAX_ACCOUNT_PER_USER_10("사용자 최대 계좌는 10개입니다."),
+    ACCOUNT_NUMBER_EXHAUSTED("더 이상 발급할 수 있는 계좌번호가 없습니다."),
+    IDEMPOTENCY_KEY_REUSED("같은 Idempotency-Key 로 다른 요청을 보냈습니다."),
+    REQUEST_IN_PROGRESS("같은 Idempotency-Key 의 요청을 처리 중입니다."),
+    TRANSFER_TO_SAME_ACCOUNT("같은 계좌로는 이체할 수 없습니다."),
+    TRANSFER_CANNOT_BE_CANCELED("이체 거래는 취소할 수 없습니다."),
+    RECONCILIATION_IN_PROGRESS("대사 작업이 이미 실행 중입니다."),
+    RECONCILIATION_NOT_FOUND("실행한 대사 작업이 없습니다.")
     ;
 
     private final String description;
@@ -0,0 +1,12 @@
+package com.demo.account.type;
+
+public enum TransactionMode {
+  //계좌 lock(@AccountLock) 을 잡고 요청마다 처리
+  LOCK,
+  //계좌별 단일 writer 큐에 쌓아 순서대로 모아서 처리 (단일 노드 전용)
+  QUEUE,
+  //lock 없이 조건부 UPDATE 한 번으로 잔액을 바꾼다 (DB row lock 으로 직렬화)
+  ATOMIC,
+  //lock 없이 @Version 으로 충돌을 확인하고 충돌하면 재시도 (경합이 적은 계좌용)
+  OPTIMISTIC
+}
@@ -1,5 +1,7 @@
 package com.demo.account.type;
 
 public enum TransactionType {
-  USE, CANCEL
+  USE, CANCEL,
+  //계좌 이체의 출금/입금 (취소할 수 없다)
+  TRANSFER_OUT, TRANSFER_IN
 }
@@ -6,3 +6,5 @@ values (2, 'Lupi', now(),now());
 
 insert into account_user(id, name , created_at, updated_at)
 values (3, 'Eddie', now(),now());
+
+create sequence if not exists account_number_block_seq start with 1 increment by 1;
@@ -3,7 +3,11 @@ package com.demo.account;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+//QueryCountTest 와 컨텍스트를 같이 쓰도록 같은 설정을 둔다
+@SpringBootTest(properties = {
+        "account.outbox.relay-enabled=false",
+        "account.summary.writer-enabled=false"
+})
 class AccountApplicationTests {
 
   @Test
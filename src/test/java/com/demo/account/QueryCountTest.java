@@ -0,0 +1,262 @@
+package com.demo.account;
+
+import com.demo.account.domain.Account;
+import com.demo.account.domain.OutboxEvent;
+import com.demo.account.domain.Transaction;
+import com.demo.account.dto.CancelBalance;
+import com.demo.account.dto.CreateAccount;
+import com.demo.account.dto.DeleteAccount;
+import com.demo.account.dto.UseBalance;
+import com.demo.account.repository.AccountRepository;
+import com.demo.account.repository.AccountUserRepository;
+import com.demo.account.repository.OutboxEventRepository;
+import com.demo.account.repository.TransactionRepository;
+import com.demo.account.service.AccountNumberAllocator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.demo.account.type.AccountStatus.IN_USE;
+import static com.demo.account.type.TransactionResultType.S;
+import static com.demo.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 엔드포인트별로 실행되는 SQL 수를 고정해서 N+1 이 다시 생기지 않게 한다
+ * 컨텍스트를 AccountApplicationTests 와 같이 쓰기 위해 같은 설정으로 @SpringBootTest 를 붙이고
+ * 통계는 테스트에서 켠다
+ * outbox relay, 일별 집계 writer 가 백그라운드에서 실행하는 SQL 이 섞이지 않도록 둘 다 끈다
+ */
+@SpringBootTest(properties = {
+        "account.outbox.relay-enabled=false",
+        "account.summary.writer-enabled=false"
+})
+class QueryCountTest {
+  //발급기 번호(1000000000~)와 겹치지 않는 테스트용 계좌번호
+  private static final AtomicLong ACCOUNT_NUMBER = new AtomicLong(9_000_000_000L);
+  private static boolean sequenceReady;
+
+  @Autowired
+  private WebApplicationContext webApplicationContext;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private AccountRepository accountRepository;
+
+  @Autowired
+  private AccountUserRepository accountUserRepository;
+
+  @Autowired
+  private TransactionRepository transactionRepository;
+
+  @Autowired
+  private OutboxEventRepository outboxEventRepository;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private AccountNumberAllocator accountNumberAllocator;
+
+  private MockMvc mockMvc;
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.setStatisticsEnabled(true);
+
+    //id 시퀀스는 처음 두 번 insert 할 때 조회하고 그 뒤로는 50개 단위로 조회하기 때문에
+    //측정하는 요청에 섞이지 않도록 미리 채워둔다
+    if (!sequenceReady) {
+      saveTransaction(saveAccount(0L));
+      saveTransaction(saveAccount(0L));
+      outboxEventRepository.save(new OutboxEvent());
+      outboxEventRepository.save(new OutboxEvent());
+      //계좌번호 발급기도 처음 한 번은 기존 계좌번호 최댓값을 조회한다
+      accountNumberAllocator.nextAccountNumber();
+      sequenceReady = true;
+    }
+  }
+
+  @Test
+  void createAccount() throws Exception {
+    //given
+    saveAccount(0L);
+
+    //when
+    long count = countStatements(post("/account")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(new CreateAccount.Request(3L, 100L))));
+
+    //then
+    //사용자, 계좌 수, 계좌 insert
+    assertEquals(3, count);
+  }
+
+  @Test
+  void deleteAccount() throws Exception {
+    //given
+    Account account = saveAccount(0L);
+
+    //when
+    long count = countStatements(delete("/account")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(
+                    new DeleteAccount.Request(1L, account.getAccountNumber()))));
+
+    //then
+    //사용자, 계좌, 계좌 update
+    assertEquals(3, count);
+  }
+
+  @Test
+  void getAccountsByUserId() throws Exception {
+    //given
+    saveAccount(1000L);
+    saveAccount(2000L);
+    saveAccount(3000L);
+
+    //when
+    long count = countStatements(get("/account?user_id=1"));
+
+    //then
+    //사용자, 계좌 projection - 계좌 수와 상관없다
+    assertEquals(2, count);
+  }
+
+  @Test
+  void getAccount() throws Exception {
+    //given
+    Account account = saveAccount(1000L);
+
+    //when
+    long count = countStatements(get("/account/" + account.getId()));
+
+    //then
+    //계좌 + 소유주 fetch join
+    assertEquals(1, count);
+  }
+
+  @Test
+  void useBalance() throws Exception {
+    //given
+    Account account = saveAccount(10000L);
+    countStatements(use(account, 100L));
+
+    //when
+    long count = countStatements(use(account, 100L));
+
+    //then
+    //계좌, 거래 insert, outbox insert, 계좌 update
+    assertEquals(4, count);
+  }
+
+  @Test
+  void cancelBalance() throws Exception {
+    //given
+    Account account = saveAccount(10000L);
+    String transactionId = objectMapper.readTree(mockMvc.perform(use(account, 100L))
+                    .andReturn().getResponse().getContentAsString())
+            .get("transactionId").asText();
+
+    //when
+    long count = countStatements(post("/transaction/cancel")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(
+                    new CancelBalance.Request(transactionId, account.getAccountNumber(), 100L))));
+
+    //then
+    //원 거래, 계좌, 거래 insert, outbox insert, 계좌 update
+    assertEquals(5, count);
+  }
+
+  @Test
+  void queryTransaction() throws Exception {
+    //given
+    Transaction transaction = saveTransaction(saveAccount(10000L));
+
+    //when
+    long first = countStatements(get("/transaction/" + transaction.getTransactionId()));
+    long second = countStatements(get("/transaction/" + transaction.getTransactionId()));
+
+    //then
+    //거래 + 계좌번호 projection, 두 번째부터는 캐시
+    assertEquals(1, first);
+    assertEquals(0, second);
+  }
+
+  @Test
+  void getTransactions() throws Exception {
+    //given
+    Account account = saveAccount(10000L);
+    saveTransaction(account);
+    saveTransaction(account);
+    saveTransaction(account);
+    countStatements(get("/account/" + account.getAccountNumber() + "/transactions"));
+
+    //when
+    long count = countStatements(get("/account/" + account.getAccountNumber() + "/transactions"));
+
+    //then
+    //거래 페이지 - 거래마다 계좌를 읽지 않는다
+    assertEquals(1, count);
+  }
+
+  private long countStatements(MockHttpServletRequestBuilder request) throws Exception {
+    statistics.clear();
+    mockMvc.perform(request)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.errorCode").doesNotExist());
+    return statistics.getPrepareStatementCount();
+  }
+
+  private MockHttpServletRequestBuilder use(Account account, Long amount) throws Exception {
+    return post("/transaction/use")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(
+                    new UseBalance.Request(1L, account.getAccountNumber(), amount)));
+  }
+
+  private Account saveAccount(Long balance) {
+    return accountRepository.save(Account.builder()
+            .accountUser(accountUserRepository.findById(1L).get())
+            .accountStatus(IN_USE)
+            .accountNumber(String.valueOf(ACCOUNT_NUMBER.incrementAndGet()))
+            .balance(balance)
+            .registeredAt(LocalDateTime.now())
+            .build());
+  }
+
+  private Transaction saveTransaction(Account account) {
+    return transactionRepository.save(Transaction.builder()
+            .account(account)
+            .transactionType(USE)
+            .transactionResultType(S)
+            .transactionId(UUID.randomUUID().toString().replace("-", ""))
+            .transactedAt(LocalDateTime.now())
+            .amount(100L)
+            .balanceSnapshot(account.getBalance())
+            .build());
+  }
+}
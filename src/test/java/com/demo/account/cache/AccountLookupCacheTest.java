@@ -0,0 +1,113 @@
+package com.demo.account.cache;
+
+import com.demo.account.domain.Account;
+import com.demo.account.domain.AccountUser;
+import com.demo.account.repository.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RedissonClient;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static com.demo.account.type.AccountStatus.IN_USE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountLookupCacheTest {
+  @Mock
+  private AccountRepository accountRepository;
+
+  @Mock
+  private RedissonClient redissonClient;
+
+  private AccountLookupCache accountLookupCache;
+
+  @BeforeEach
+  void setUp() {
+    accountLookupCache = new AccountLookupCache(accountRepository, redissonClient,
+            new SimpleMeterRegistry(), 100, Duration.ofMinutes(1), false, Duration.ofMinutes(1));
+  }
+
+  @Test
+  void loadOnceAndServeFromCache() {
+    //given
+    given(accountRepository.findByAccountNumber(anyString()))
+            .willReturn(Optional.of(account()));
+
+    //when
+    accountLookupCache.get("1000000012");
+    AccountLookup accountLookup = accountLookupCache.get("1000000012").get();
+
+    //then
+    verify(accountRepository, times(1)).findByAccountNumber("1000000012");
+    assertEquals(1L, accountLookup.getAccountId());
+    assertEquals(12L, accountLookup.getUserId());
+    assertEquals(IN_USE, accountLookup.getAccountStatus());
+  }
+
+  @Test
+  void notFoundIsNotCached() {
+    //given
+    given(accountRepository.findByAccountNumber(anyString()))
+            .willReturn(Optional.empty());
+
+    //when
+    accountLookupCache.get("1000000012");
+    Optional<AccountLookup> accountLookup = accountLookupCache.get("1000000012");
+
+    //then
+    verify(accountRepository, times(2)).findByAccountNumber("1000000012");
+    assertTrue(accountLookup.isEmpty());
+  }
+
+  @Test
+  void reloadAfterEvict() {
+    //given
+    given(accountRepository.findByAccountNumber(anyString()))
+            .willReturn(Optional.of(account()));
+
+    //when
+    accountLookupCache.get("1000000012");
+    accountLookupCache.evict("1000000012");
+    accountLookupCache.get("1000000012");
+
+    //then
+    verify(accountRepository, times(2)).findByAccountNumber("1000000012");
+  }
+
+  @Test
+  void serializeForRedis() {
+    //given
+    AccountLookup accountLookup = new AccountLookup(1L, 12L, IN_USE);
+
+    //when
+    AccountLookup deserialized = AccountLookup.deserialize(accountLookup.serialize());
+
+    //then
+    assertEquals(1L, deserialized.getAccountId());
+    assertEquals(12L, deserialized.getUserId());
+    assertEquals(IN_USE, deserialized.getAccountStatus());
+  }
+
+  private Account account() {
+    AccountUser user = AccountUser.builder()
+            .name("Pobi").build();
+    user.setId(12L);
+    Account account = Account.builder()
+            .accountUser(user)
+            .accountStatus(IN_USE)
+            .balance(10000L)
+            .accountNumber("1000000012").build();
+    account.setId(1L);
+    return account;
+  }
+}
@@ -0,0 +1,109 @@
+package com.demo.account.config;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.config.ClusterServersConfig;
+import org.redisson.config.Config;
+import org.redisson.config.SentinelServersConfig;
+import org.redisson.config.SingleServerConfig;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisRepositoryConfigTest {
+  private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+  @Test
+  void singleServer() {
+    //given
+    RedissonProperties properties = new RedissonProperties();
+    properties.setThreads(4);
+    properties.setNettyThreads(8);
+    properties.setCodec(RedissonProperties.Codec.STRING);
+    properties.setTimeout(Duration.ofMillis(500));
+    properties.getPool().setMinIdle(2);
+    properties.getPool().setMaxSize(10);
+
+    //when
+    Config config = RedisRepositoryConfig.buildConfig(properties, "redis://127.0.0.1:6379");
+
+    //then
+    SingleServerConfig single = config.useSingleServer();
+    assertEquals("redis://127.0.0.1:6379", single.getAddress());
+    assertEquals(2, single.getConnectionMinimumIdleSize());
+    assertEquals(10, single.getConnectionPoolSize());
+    assertEquals(500, single.getTimeout());
+    assertEquals(4, config.getThreads());
+    assertEquals(8, config.getNettyThreads());
+    assertSame(StringCodec.INSTANCE, config.getCodec());
+  }
+
+  @Test
+  void sentinelServers() {
+    //given
+    RedissonProperties properties = new RedissonProperties();
+    properties.setMode(RedissonProperties.Mode.SENTINEL);
+    properties.getSentinel().setMasterName("mymaster");
+    properties.getSentinel().setNodes(List.of("redis://10.0.0.1:26379", "redis://10.0.0.2:26379"));
+    properties.getPool().setMaxSize(32);
+
+    //when
+    SentinelServersConfig sentinel = RedisRepositoryConfig.buildConfig(properties, null)
+            .useSentinelServers();
+
+    //then
+    assertEquals("mymaster", sentinel.getMasterName());
+    assertEquals(2, sentinel.getSentinelAddresses().size());
+    assertEquals(32, sentinel.getMasterConnectionPoolSize());
+    assertEquals(32, sentinel.getSlaveConnectionPoolSize());
+  }
+
+  @Test
+  void clusterServers() {
+    //given
+    RedissonProperties properties = new RedissonProperties();
+    properties.setMode(RedissonProperties.Mode.CLUSTER);
+    properties.getCluster().setNodes(List.of("redis://10.0.0.1:6379"));
+    properties.getCluster().setScanInterval(Duration.ofSeconds(2));
+
+    //when
+    ClusterServersConfig cluster = RedisRepositoryConfig.buildConfig(properties, null)
+            .useClusterServers();
+
+    //then
+    assertEquals(List.of("redis://10.0.0.1:6379"), cluster.getNodeAddresses());
+    assertEquals(2000, cluster.getScanInterval());
+  }
+
+  @Test
+  void defaultsAreValid() {
+    assertTrue(validator.validate(new RedissonProperties()).isEmpty());
+  }
+
+  @Test
+  void sentinelModeRequiresMasterNameAndNodes() {
+    //given
+    RedissonProperties properties = new RedissonProperties();
+    properties.setMode(RedissonProperties.Mode.SENTINEL);
+
+    //when
+    //then
+    assertEquals(1, validator.validate(properties).size());
+  }
+
+  @Test
+  void minIdleMustNotExceedMaxSize() {
+    //given
+    RedissonProperties properties = new RedissonProperties();
+    properties.getPool().setMinIdle(100);
+    properties.getPool().setMaxSize(10);
+
+    //when
+    //then
+    assertFalse(validator.validate(properties).isEmpty());
+  }
+}
@@ -2,9 +2,16 @@ package com.demo.account.controller;
 
 import com.demo.account.domain.Account;
 import com.demo.account.dto.AccountDto;
+import com.demo.account.dto.AccountInfo;
 import com.demo.account.dto.CreateAccount;
+import com.demo.account.dto.DailySummary;
 import com.demo.account.dto.DeleteAccount;
+import com.demo.account.dto.TransactionHistory;
+import com.demo.account.exception.AccountException;
 import com.demo.account.service.AccountService;
+import com.demo.account.service.DailySummaryRecorder;
+import com.demo.account.service.DailySummaryService;
+import com.demo.account.service.TransactionHistoryService;
 import com.demo.account.type.AccountStatus;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -13,24 +20,39 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
-import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.ArgumentMatchers.anyString;
+import static com.demo.account.type.ErrorCode.ACCOUNT_NOT_FOUND;
+import static com.demo.account.type.TransactionResultType.S;
+import static com.demo.account.type.TransactionType.USE;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(AccountController.class)
 class AccountControllerTest {
   @MockitoBean
   private AccountService accountService;
 
+  @MockitoBean
+  private TransactionHistoryService transactionHistoryService;
+
+  @MockitoBean
+  private DailySummaryService dailySummaryService;
+
+  @MockitoBean
+  private DailySummaryRecorder dailySummaryRecorder;
+
   @Autowired
   private MockMvc mockMvc;
 
@@ -63,19 +85,19 @@ class AccountControllerTest {
   @Test
   void successGetAccountsByUserId() throws Exception {
     //given
-    List<AccountDto> accountDtos =
-            Arrays.asList(AccountDto.builder()
+    List<AccountInfo> accountInfos =
+            Arrays.asList(AccountInfo.builder()
                     .accountNumber("1234567890")
                     .balance(1000L).build(),
-            AccountDto.builder()
+            AccountInfo.builder()
                     .accountNumber("1111111111")
                     .balance(2000L).build(),
-            AccountDto.builder()
+            AccountInfo.builder()
                     .accountNumber("2222222222")
                     .balance(3000L).build()
                     );
     given(accountService.getAccountsByUserId(anyLong()))
-            .willReturn(accountDtos);
+            .willReturn(accountInfos);
     //when
     //then
     mockMvc.perform(get("/account?user_id=1"))
@@ -132,6 +154,108 @@ class AccountControllerTest {
             .andDo(print());
   }
 
+  @Test
+  void successGetTransactions() throws Exception {
+    //given
+    given(transactionHistoryService.getTransactions(anyString(), any(), anyInt()))
+            .willReturn(TransactionHistory.Response.builder()
+                    .transactions(List.of(TransactionHistory.Item.builder()
+                            .transactionId("transactionId")
+                            .transactionType(USE)
+                            .transactionResult(S)
+                            .amount(1000L)
+                            .balanceSnapshot(9000L)
+                            .transactedAt(LocalDateTime.now())
+                            .build()))
+                    .nextCursor("nextCursor")
+                    .build());
+    //when
+    //then
+    mockMvc.perform(get("/account/1234567890/transactions?size=1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.transactions[0].transactionId").value("transactionId"))
+            .andExpect(jsonPath("$.transactions[0].amount").value(1000))
+            .andExpect(jsonPath("$.nextCursor").value("nextCursor"))
+            .andDo(print());
+  }
+
+  @Test
+  void successExportTransactions() throws Exception {
+    //given
+    given(transactionHistoryService.getAccountId(anyString()))
+            .willReturn(1L);
+    willAnswer(invocation -> {
+      invocation.getArgument(1, OutputStream.class)
+              .write("{\"transactionId\":\"tx1\"}\n".getBytes(StandardCharsets.UTF_8));
+      return null;
+    }).given(transactionHistoryService).exportTransactions(anyLong(), any());
+
+    //when
+    MvcResult mvcResult = mockMvc.perform(get("/account/1234567890/transactions/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
 
+    //then
+    mockMvc.perform(asyncDispatch(mvcResult))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+            .andExpect(content().string("{\"transactionId\":\"tx1\"}\n"))
+            .andDo(print());
+  }
 
-}
\ No newline at end of file
+  @Test
+  void exportTransactions_accountNotFound() throws Exception {
+    //given
+    given(transactionHistoryService.getAccountId(anyString()))
+            .willThrow(new AccountException(ACCOUNT_NOT_FOUND));
+    //when
+    //then
+    mockMvc.perform(get("/account/1234567890/transactions/export"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.errorCode").value("ACCOUNT_NOT_FOUND"))
+            .andDo(print());
+  }
+
+  @Test
+  void successGetSummary() throws Exception {
+    //given
+    given(dailySummaryService.getSummary("1234567890",
+            LocalDate.of(2026, 10, 1), LocalDate.of(2026, 10, 2)))
+            .willReturn(DailySummary.Response.builder()
+                    .accountNumber("1234567890")
+                    .from(LocalDate.of(2026, 10, 1))
+                    .to(LocalDate.of(2026, 10, 2))
+                    .items(List.of(DailySummary.Item.builder()
+                            .date(LocalDate.of(2026, 10, 1))
+                            .transactionType(USE)
+                            .transactionResult(S)
+                            .count(3L)
+                            .amount(3000L)
+                            .build()))
+                    .build());
+    //when
+    //then
+    mockMvc.perform(get("/account/1234567890/summary?from=2026-10-01&to=2026-10-02"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.accountNumber").value("1234567890"))
+            .andExpect(jsonPath("$.items[0].date").value("2026-10-01"))
+            .andExpect(jsonPath("$.items[0].transactionType").value("USE"))
+            .andExpect(jsonPath("$.items[0].count").value(3))
+            .andExpect(jsonPath("$.items[0].amount").value(3000))
+            .andDo(print());
+  }
+
+  @Test
+  void successRebuildSummary() throws Exception {
+    //given
+    given(dailySummaryRecorder.rebuild(LocalDate.of(2026, 10, 1), LocalDate.of(2026, 10, 2)))
+            .willReturn(5);
+    //when
+    //then
+    mockMvc.perform(post("/account/summary/rebuild?from=2026-10-01&to=2026-10-02"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.from").value("2026-10-01"))
+            .andExpect(jsonPath("$.rows").value(5))
+            .andDo(print());
+  }
+}
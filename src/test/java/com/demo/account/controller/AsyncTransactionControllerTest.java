@@ -0,0 +1,93 @@
+package com.demo.account.controller;
+
+import com.demo.account.dto.CancelBalance;
+import com.demo.account.dto.TransactionDto;
+import com.demo.account.dto.UseBalance;
+import com.demo.account.exception.AccountException;
+import com.demo.account.service.AsyncTransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+import static com.demo.account.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
+import static com.demo.account.type.TransactionResultType.S;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = AsyncTransactionController.class)
+class AsyncTransactionControllerTest {
+  @MockitoBean
+  private AsyncTransactionService asyncTransactionService;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Test
+  void successUseBalance() throws Exception {
+    //given
+    given(asyncTransactionService.useBalance(anyLong(), anyString(), anyLong()))
+            .willReturn(CompletableFuture.completedFuture(TransactionDto.builder()
+                    .accountNumber("1000000000")
+                    .transactedAt(LocalDateTime.now())
+                    .amount(12345L)
+                    .transactionId("transactionId")
+                    .transactionResultType(S)
+                    .build()));
+
+    //when
+    MvcResult result = mockMvc.perform(post("/async/transaction/use")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(
+                            new UseBalance.Request(1L, "2000000000", 3000L))))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    //then
+    mockMvc.perform(asyncDispatch(result))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.accountNumber").value("1000000000"))
+            .andExpect(jsonPath("$.transactionResult").value("S"))
+            .andExpect(jsonPath("$.transactionId").value("transactionId"))
+            .andExpect(jsonPath("$.amount").value(12345L));
+  }
+
+  @Test
+  void failedCancelBalanceReturnsErrorCode() throws Exception {
+    //given
+    given(asyncTransactionService.cancelBalance(anyString(), anyString(), anyLong()))
+            .willReturn(CompletableFuture.failedFuture(
+                    new AccountException(AMOUNT_EXCEED_BALANCE)));
+
+    //when
+    MvcResult result = mockMvc.perform(post("/async/transaction/cancel")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(
+                            new CancelBalance.Request("transactionId", "2000000000", 3000L))))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    //then
+    mockMvc.perform(asyncDispatch(result))
+            .andDo(print())
+            .andExpect(jsonPath("$.errorCode").value("AMOUNT_EXCEED_BALANCE"));
+  }
+}
@@ -0,0 +1,54 @@
+package com.demo.account.controller;
+
+import com.demo.account.reconcile.LedgerReconciler;
+import com.demo.account.reconcile.ReconciliationReport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Optional;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ReconciliationController.class)
+class ReconciliationControllerTest {
+  @MockitoBean
+  private LedgerReconciler ledgerReconciler;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Test
+  void successStartReconciliation() throws Exception {
+    //given
+    given(ledgerReconciler.start())
+            .willReturn(new ReconciliationReport(10, 100));
+    //when
+    //then
+    mockMvc.perform(post("/reconciliation"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("RUNNING"))
+            .andExpect(jsonPath("$.totalAccounts").value(10))
+            .andExpect(jsonPath("$.checkedAccounts").value(0))
+            .andDo(print());
+  }
+
+  @Test
+  void getReconciliation_notStarted() throws Exception {
+    //given
+    given(ledgerReconciler.getLastReport())
+            .willReturn(Optional.empty());
+    //when
+    //then
+    mockMvc.perform(get("/reconciliation"))
+            .andExpect(jsonPath("$.errorCode").value("RECONCILIATION_NOT_FOUND"))
+            .andDo(print());
+  }
+}
@@ -1,24 +1,39 @@
 package com.demo.account.controller;
 
 import com.demo.account.dto.CancelBalance;
+import com.demo.account.dto.TransactionCommandResult;
 import com.demo.account.dto.TransactionDto;
+import com.demo.account.dto.Transfer;
+import com.demo.account.dto.TransferDto;
 import com.demo.account.dto.UseBalance;
+import com.demo.account.dto.UseBalanceBatch;
+import com.demo.account.exception.AccountException;
+import com.demo.account.service.AccountCommandQueue;
+import com.demo.account.service.FailedTransactionRecorder;
+import com.demo.account.service.TransactionBatchService;
+import com.demo.account.service.TransactionModeResolver;
 import com.demo.account.service.TransactionService;
 import com.demo.account.type.TransactionType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
+import static com.demo.account.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
+import static com.demo.account.type.TransactionResultType.F;
 import static com.demo.account.type.TransactionResultType.S;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -26,10 +41,20 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = TransactionController.class)
+@Import(TransactionModeResolver.class)
 class TransactionControllerTest {
   @MockitoBean
   private TransactionService transactionService;
 
+  @MockitoBean
+  private AccountCommandQueue accountCommandQueue;
+
+  @MockitoBean
+  private TransactionBatchService transactionBatchService;
+
+  @MockitoBean
+  private FailedTransactionRecorder failedTransactionRecorder;
+
   @Autowired
   private MockMvc mockMvc;
 
@@ -90,6 +115,83 @@ class TransactionControllerTest {
             .andExpect(jsonPath("$.amount").value(54321L));
   }
 
+  @Test
+  void failedUseBalanceIsRecorded() throws Exception {
+    //given
+    given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+            .willThrow(new AccountException(AMOUNT_EXCEED_BALANCE));
+
+    //when
+    mockMvc.perform(post("/transaction/use")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(
+                    new UseBalance.Request(1L,"2000000000", 3000L)
+            ))
+    ).andDo(print())
+            .andExpect(jsonPath("$.errorCode").value("AMOUNT_EXCEED_BALANCE"));
+
+    //then
+    verify(failedTransactionRecorder).recordUse("2000000000", 3000L);
+  }
+
+  @Test
+  void successTransfer() throws Exception {
+    //given
+    given(transactionService.transfer(anyLong(), anyString(), anyString(), anyLong()))
+            .willReturn(new TransferDto(
+                    TransactionDto.builder()
+                            .accountNumber("1000000000")
+                            .transactionType(TransactionType.TRANSFER_OUT)
+                            .transactedAt(LocalDateTime.now())
+                            .amount(3000L)
+                            .transactionId("withdrawalId")
+                            .transactionResultType(S)
+                            .build(),
+                    TransactionDto.builder()
+                            .accountNumber("2000000000")
+                            .transactionType(TransactionType.TRANSFER_IN)
+                            .transactedAt(LocalDateTime.now())
+                            .amount(3000L)
+                            .transactionId("depositId")
+                            .transactionResultType(S)
+                            .build()));
+
+    //when
+    //then
+    mockMvc.perform(post("/transaction/transfer")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(
+                            new Transfer.Request(1L, "1000000000", "2000000000", 3000L)
+                    ))
+            ).andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.fromAccountNumber").value("1000000000"))
+            .andExpect(jsonPath("$.toAccountNumber").value("2000000000"))
+            .andExpect(jsonPath("$.transactionResult").value("S"))
+            .andExpect(jsonPath("$.withdrawalTransactionId").value("withdrawalId"))
+            .andExpect(jsonPath("$.depositTransactionId").value("depositId"))
+            .andExpect(jsonPath("$.amount").value(3000L));
+  }
+
+  @Test
+  void failedTransferIsRecorded() throws Exception {
+    //given
+    given(transactionService.transfer(anyLong(), anyString(), anyString(), anyLong()))
+            .willThrow(new AccountException(AMOUNT_EXCEED_BALANCE));
+
+    //when
+    mockMvc.perform(post("/transaction/transfer")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(
+                    new Transfer.Request(1L, "1000000000", "2000000000", 3000L)
+            ))
+    ).andDo(print())
+            .andExpect(jsonPath("$.errorCode").value("AMOUNT_EXCEED_BALANCE"));
+
+    //then
+    verify(failedTransactionRecorder).recordTransfer("1000000000", 3000L);
+  }
+
   @Test
   void successQueryTransaction() throws Exception {
     //given
@@ -114,4 +216,42 @@ class TransactionControllerTest {
             .andExpect(jsonPath("$.amount").value(54321L));
   }
 
-}
\ No newline at end of file
+  @Test
+  void successUseBalanceBatch() throws Exception {
+    //given
+    given(transactionBatchService.useBalances(anyList()))
+            .willReturn(List.of(
+                    TransactionCommandResult.success(TransactionDto.builder()
+                            .accountNumber("1000000000")
+                            .transactedAt(LocalDateTime.now())
+                            .amount(1000L)
+                            .transactionId("transactionId1")
+                            .transactionResultType(S)
+                            .build()),
+                    TransactionCommandResult.fail(TransactionDto.builder()
+                            .accountNumber("1000000000")
+                            .transactedAt(LocalDateTime.now())
+                            .amount(2000L)
+                            .transactionId("transactionId2")
+                            .transactionResultType(F)
+                            .build(), AMOUNT_EXCEED_BALANCE)));
+
+    //when
+    //then
+    mockMvc.perform(post("/transaction/use/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(
+                            new UseBalanceBatch.Request(List.of(
+                                    new UseBalance.Request(1L, "1000000000", 1000L),
+                                    new UseBalance.Request(1L, "1000000000", 2000L)))
+                    ))
+            ).andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.results[0].transactionResult").value("S"))
+            .andExpect(jsonPath("$.results[0].transactionId").value("transactionId1"))
+            .andExpect(jsonPath("$.results[1].transactionResult").value("F"))
+            .andExpect(jsonPath("$.results[1].transactionId").value("transactionId2"))
+            .andExpect(jsonPath("$.results[1].errorCode").value("AMOUNT_EXCEED_BALANCE"));
+  }
+
+}
@@ -0,0 +1,147 @@
+package com.demo.account.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionIdGeneratorTest {
+
+  @Test
+  void uuidIsCompactHex() {
+    //given
+    UuidTransactionIdGenerator generator = new UuidTransactionIdGenerator();
+
+    //when
+    String id = generator.nextId();
+
+    //then
+    assertTrue(id.matches("[0-9a-f]{32}"));
+  }
+
+  @Test
+  void ulidEncodesTimeFirst() {
+    //given
+    //2024-01-01T00:00:00Z
+    UlidTransactionIdGenerator generator = new UlidTransactionIdGenerator(() -> 1_704_067_200_000L);
+
+    //when
+    String id = generator.nextId();
+
+    //then
+    assertEquals(26, id.length());
+    assertTrue(id.matches("[0-9A-HJKMNP-TV-Z]{26}"));
+    assertEquals("01HK153X00", id.substring(0, 10));
+  }
+
+  @Test
+  void ulidIncreasesWithinSameMillisecond() {
+    //given
+    UlidTransactionIdGenerator generator = new UlidTransactionIdGenerator(() -> 1_704_067_200_000L);
+
+    //when
+    List<String> ids = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      ids.add(generator.nextId());
+    }
+
+    //then
+    assertSorted(ids);
+  }
+
+  @Test
+  void ulidIncreasesWhenClockGoesBack() {
+    //given
+    AtomicLong now = new AtomicLong(1_704_067_200_000L);
+    UlidTransactionIdGenerator generator = new UlidTransactionIdGenerator(now::get);
+
+    //when
+    String first = generator.nextId();
+    now.addAndGet(-1000);
+    String second = generator.nextId();
+
+    //then
+    assertTrue(first.compareTo(second) < 0);
+  }
+
+  @Test
+  void snowflakeIncreasesAcrossSequenceOverflow() {
+    //given
+    SnowflakeTransactionIdGenerator generator =
+            new SnowflakeTransactionIdGenerator(1, () -> SnowflakeTransactionIdGenerator.EPOCH + 1000);
+
+    //when
+    //한 ms 의 순번(4096 개) 을 넘긴다
+    List<String> ids = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      ids.add(generator.nextId());
+    }
+
+    //then
+    assertEquals(13, ids.get(0).length());
+    assertSorted(ids);
+  }
+
+  @Test
+  void snowflakeDiffersByNode() {
+    //given
+    SnowflakeTransactionIdGenerator node1 =
+            new SnowflakeTransactionIdGenerator(1, () -> SnowflakeTransactionIdGenerator.EPOCH + 1000);
+    SnowflakeTransactionIdGenerator node2 =
+            new SnowflakeTransactionIdGenerator(2, () -> SnowflakeTransactionIdGenerator.EPOCH + 1000);
+
+    //when
+    //then
+    assertNotEquals(node1.nextId(), node2.nextId());
+  }
+
+  @Test
+  void snowflakeRejectsInvalidNodeId() {
+    //given
+    //when
+    //then
+    assertThrows(IllegalArgumentException.class,
+            () -> new SnowflakeTransactionIdGenerator(SnowflakeTransactionIdGenerator.MAX_NODE_ID + 1));
+  }
+
+  @Test
+  void noDuplicatesAcrossThreads() throws InterruptedException {
+    //given
+    List<TransactionIdGenerator> generators = List.of(
+            new UlidTransactionIdGenerator(),
+            new SnowflakeTransactionIdGenerator(0));
+
+    for (TransactionIdGenerator generator : generators) {
+      Set<String> ids = ConcurrentHashMap.newKeySet();
+      ExecutorService executor = Executors.newFixedThreadPool(8);
+
+      //when
+      for (int i = 0; i < 8; i++) {
+        executor.submit(() -> {
+          for (int j = 0; j < 10000; j++) {
+            ids.add(generator.nextId());
+          }
+        });
+      }
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+      //then
+      assertEquals(80000, ids.size());
+    }
+  }
+
+  private static void assertSorted(List<String> ids) {
+    for (int i = 1; i < ids.size(); i++) {
+      assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0, ids.get(i - 1) + " >= " + ids.get(i));
+    }
+  }
+}
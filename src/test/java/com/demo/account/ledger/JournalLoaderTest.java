@@ -0,0 +1,142 @@
+package com.demo.account.ledger;
+
+import com.demo.account.domain.Account;
+import com.demo.account.repository.AccountRepository;
+import com.demo.account.repository.AccountUserRepository;
+import com.demo.account.repository.TransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static com.demo.account.type.AccountStatus.IN_USE;
+import static com.demo.account.type.TransactionResultType.S;
+import static com.demo.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 재기동 때 저널 재적재 규칙 확인
+ * JournalLoader 가 새 트랜잭션으로 적재하므로 테스트 트랜잭션을 쓰지 않는다
+ */
+@DataJpaTest(properties = "account.ledger.mode=journal")
+@Import(JournalLoader.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JournalLoaderTest {
+  @Autowired
+  private JournalLoader journalLoader;
+
+  @Autowired
+  private AccountRepository accountRepository;
+
+  @Autowired
+  private AccountUserRepository accountUserRepository;
+
+  @Autowired
+  private TransactionRepository transactionRepository;
+
+  @AfterEach
+  void tearDown() {
+    transactionRepository.deleteAll();
+    accountRepository.deleteAll();
+  }
+
+  @Test
+  void replayCommittedEntries() {
+    //given
+    Account account = accountRepository.save(Account.builder()
+            .accountUser(accountUserRepository.findById(1L).orElseThrow())
+            .accountNumber("1000000000")
+            .accountStatus(IN_USE)
+            .balance(10000L)
+            .registeredAt(LocalDateTime.now())
+            .build());
+    long version = account.getVersion();
+
+    //when
+    JournalLoader.Replayed replayed = journalLoader.replay(new TransactionJournal.Recovered(
+            List.of(entry("committed", account.getId(), version),
+                    entry("unknownAccount", account.getId() + 100, version)),
+            Set.of("committed", "unknownAccount")));
+
+    //then
+    assertEquals(1, replayed.loaded());
+    assertTrue(replayed.rolledBack().isEmpty());
+    assertTrue(transactionRepository.findByTransactionId("committed").isPresent());
+    assertTrue(transactionRepository.findByTransactionId("unknownAccount").isEmpty());
+  }
+
+  @Test
+  void replaySkipsLoadedEntries() {
+    //given
+    Account account = accountRepository.save(Account.builder()
+            .accountUser(accountUserRepository.findById(1L).orElseThrow())
+            .accountNumber("1000000000")
+            .accountStatus(IN_USE)
+            .balance(10000L)
+            .registeredAt(LocalDateTime.now())
+            .build());
+    JournalEntry entry = entry("transactionId", account.getId(), account.getVersion());
+    journalLoader.load(List.of(entry));
+
+    //when
+    JournalLoader.Replayed replayed = journalLoader.replay(
+            new TransactionJournal.Recovered(List.of(entry), Set.of()));
+
+    //then
+    assertEquals(0, replayed.loaded());
+    assertTrue(replayed.rolledBack().isEmpty());
+    assertEquals(1, transactionRepository.count());
+  }
+
+  @Test
+  void replayResolvesInDoubtEntriesByBalance() {
+    //given
+    Account account = accountRepository.save(Account.builder()
+            .accountUser(accountUserRepository.findById(1L).orElseThrow())
+            .accountNumber("1000000000")
+            .accountStatus(IN_USE)
+            .balance(8000L)
+            .registeredAt(LocalDateTime.now())
+            .build());
+    long version = account.getVersion();
+
+    //when
+    JournalLoader.Replayed replayed = journalLoader.replay(new TransactionJournal.Recovered(
+            List.of(entry("first", account.getId(), version, 9000L),
+                    entry("second", account.getId(), version, 8000L),
+                    entry("rolledBack", account.getId(), version, 7000L)),
+            Set.of()));
+
+    //then
+    assertEquals(2, replayed.loaded());
+    assertEquals(List.of("rolledBack"),
+            replayed.rolledBack().stream().map(JournalEntry::getTransactionId).toList());
+    assertTrue(transactionRepository.findByTransactionId("first").isPresent());
+    assertTrue(transactionRepository.findByTransactionId("second").isPresent());
+    assertTrue(transactionRepository.findByTransactionId("rolledBack").isEmpty());
+  }
+
+  private JournalEntry entry(String transactionId, Long accountId, Long accountVersion) {
+    return entry(transactionId, accountId, accountVersion, 9000L);
+  }
+
+  private JournalEntry entry(String transactionId, Long accountId, Long accountVersion, Long balanceSnapshot) {
+    return JournalEntry.builder()
+            .transactionId(transactionId)
+            .accountId(accountId)
+            .accountVersion(accountVersion)
+            .transactionType(USE)
+            .transactionResultType(S)
+            .amount(1000L)
+            .balanceSnapshot(balanceSnapshot)
+            .transactedAt(LocalDateTime.now())
+            .build();
+  }
+}
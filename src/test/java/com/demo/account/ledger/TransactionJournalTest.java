@@ -0,0 +1,219 @@
+package com.demo.account.ledger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.demo.account.type.TransactionResultType.S;
+import static com.demo.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionJournalTest {
+  @TempDir
+  private Path tempDir;
+
+  @Test
+  void recoverCommittedEntries() throws Exception {
+    //given
+    TransactionJournal journal = create();
+    journal.append(entry("trx1", 1000L)).join();
+    journal.append(entry("trx2", 2000L)).join();
+    journal.commit("trx1");
+    journal.commit("trx2");
+    journal.close();
+
+    //when
+    TransactionJournal reopened = create();
+    List<JournalEntry> entries = reopened.recover().committed();
+    reopened.close();
+
+    //then
+    assertEquals(2, entries.size());
+    JournalEntry entry = entries.get(0);
+    assertEquals("trx1", entry.getTransactionId());
+    assertEquals(1L, entry.getAccountId());
+    assertEquals(3L, entry.getAccountVersion());
+    assertEquals(USE, entry.getTransactionType());
+    assertEquals(S, entry.getTransactionResultType());
+    assertEquals(1000L, entry.getAmount());
+    assertEquals(9000L, entry.getBalanceSnapshot());
+    assertEquals(LocalDateTime.of(2026, 1, 2, 3, 4, 5, 6000), entry.getTransactedAt());
+    assertEquals("trx2", entries.get(1).getTransactionId());
+  }
+
+  @Test
+  void abortedEntryIsNotRecovered() throws Exception {
+    //given
+    TransactionJournal journal = create();
+    journal.append(entry("trx1", 1000L)).join();
+    journal.append(entry("trx2", 2000L)).join();
+    journal.abort("trx1");
+    journal.commit("trx2");
+    journal.close();
+
+    //when
+    TransactionJournal reopened = create();
+    TransactionJournal.Recovered recovered = reopened.recover();
+    reopened.close();
+
+    //then
+    assertEquals(List.of("trx2"),
+            recovered.committed().stream().map(JournalEntry::getTransactionId).toList());
+    assertTrue(recovered.inDoubt().isEmpty());
+  }
+
+  @Test
+  void entryWithoutMarkerIsInDoubt() throws Exception {
+    //given
+    //COMMIT/ABORT 를 남기기 전에 죽은 경우 (계좌를 바꾸지 않는 F 기록도 커밋된 것으로 보지 않는다)
+    TransactionJournal journal = create();
+    journal.append(entry("trx1", 1000L)).join();
+    journal.append(entry("trx2", 2000L)).join();
+    journal.commit("trx2");
+    journal.close();
+
+    //when
+    TransactionJournal reopened = create();
+    TransactionJournal.Recovered recovered = reopened.recover();
+    reopened.saveInDoubt(recovered.inDoubt());
+    reopened.close();
+
+    //then
+    assertEquals(List.of("trx2"),
+            recovered.committed().stream().map(JournalEntry::getTransactionId).toList());
+    assertEquals(List.of("trx1"),
+            recovered.inDoubt().stream().map(JournalEntry::getTransactionId).toList());
+    List<String> lines = Files.readAllLines(tempDir.resolve("in-doubt.log"));
+    assertEquals(1, lines.size());
+    assertTrue(lines.get(0).startsWith("trx1,1,3,USE,S,1000,9000,"));
+  }
+
+  @Test
+  void tornRecordEndsSegment() throws Exception {
+    //given
+    TransactionJournal journal = create();
+    journal.append(entry("trx1", 1000L)).join();
+    journal.append(entry("trx2", 2000L)).join();
+    journal.close();
+    //두 번째 레코드의 payload 마지막 바이트를 깨뜨린다
+    try (RandomAccessFile file = new RandomAccessFile(segments().get(0).toFile(), "rw")) {
+      file.seek(0);
+      int firstLength = file.readInt();
+      file.seek(8 + firstLength);
+      int secondLength = file.readInt();
+      long last = 8 + firstLength + 8 + secondLength - 1;
+      file.seek(last);
+      int b = file.read();
+      file.seek(last);
+      file.write(b ^ 0xFF);
+    }
+
+    //when
+    TransactionJournal reopened = create();
+    List<JournalEntry> entries = reopened.recover().inDoubt();
+    reopened.close();
+
+    //then
+    assertEquals(List.of("trx1"),
+            entries.stream().map(JournalEntry::getTransactionId).toList());
+  }
+
+  @Test
+  void releasedSegmentIsDeletedAfterRoll() throws Exception {
+    //given
+    TransactionJournal journal = new TransactionJournal(tempDir, 128, 1, 1);
+    long first = journal.append(entry("trx1", 1000L)).join();
+
+    //when
+    long second = journal.append(entry("trx2", 2000L)).join();
+    journal.release(first);
+
+    //then
+    assertNotEquals(first, second);
+    assertEquals(1, segments().size());
+    journal.close();
+  }
+
+  @Test
+  void segmentsAreDeletedInOrder() throws Exception {
+    //given
+    //세그먼트마다 기록 한 건
+    TransactionJournal journal = new TransactionJournal(tempDir, 128, 1, 1);
+    long first = journal.append(entry("trx1", 1000L)).join();
+    long second = journal.append(entry("trx2", 2000L)).join();
+    journal.append(entry("trx3", 3000L)).join();
+
+    //when
+    //두 번째 세그먼트에 첫 번째 기록의 COMMIT 이 있을 수 있으므로 먼저 지우지 않는다
+    journal.release(second);
+    int beforeFirstReleased = segments().size();
+    journal.release(first);
+
+    //then
+    assertEquals(3, beforeFirstReleased);
+    assertEquals(1, segments().size());
+    journal.close();
+  }
+
+  @Test
+  void closeDeletesReleasedSegments() throws Exception {
+    //given
+    TransactionJournal journal = create();
+    long segmentId = journal.append(entry("trx1", 1000L)).join();
+    journal.release(segmentId);
+
+    //when
+    journal.close();
+
+    //then
+    assertTrue(segments().isEmpty());
+  }
+
+  @Test
+  void recoveredSegmentsAreDeleted() throws Exception {
+    //given
+    TransactionJournal journal = create();
+    journal.append(entry("trx1", 1000L)).join();
+    journal.close();
+    TransactionJournal reopened = create();
+    reopened.recover();
+
+    //when
+    reopened.deleteRecovered();
+
+    //then
+    List<Path> segments = segments();
+    assertEquals(1, segments.size());
+    assertEquals("segment-1.log", segments.get(0).getFileName().toString());
+    reopened.close();
+  }
+
+  private TransactionJournal create() throws Exception {
+    return new TransactionJournal(tempDir, 64 * 1024, 64, 1);
+  }
+
+  private List<Path> segments() throws Exception {
+    try (Stream<Path> files = Files.list(tempDir)) {
+      return files.sorted().toList();
+    }
+  }
+
+  private JournalEntry entry(String transactionId, Long amount) {
+    return JournalEntry.builder()
+            .transactionId(transactionId)
+            .accountId(1L)
+            .accountVersion(3L)
+            .transactionType(USE)
+            .transactionResultType(S)
+            .amount(amount)
+            .balanceSnapshot(10000L - amount)
+            .transactedAt(LocalDateTime.of(2026, 1, 2, 3, 4, 5, 6000))
+            .build();
+  }
+}
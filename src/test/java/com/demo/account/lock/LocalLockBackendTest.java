@@ -0,0 +1,149 @@
+package com.demo.account.lock;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalLockBackendTest {
+
+  @Test
+  void stripeCountIsRoundedUpToPowerOfTwo() {
+    assertEquals(1024, new LocalLockBackend(1000).stripeCount());
+    assertEquals(16, new LocalLockBackend(16).stripeCount());
+    assertEquals(1, new LocalLockBackend(0).stripeCount());
+  }
+
+  @Test
+  void successGetLock() throws InterruptedException {
+    //given
+    LocalLockBackend lockBackend = new LocalLockBackend(16);
+
+    //when
+    boolean isLock = lockBackend.tryLock("ACLK1000000000", 1, 15, TimeUnit.SECONDS);
+
+    //then
+    assertTrue(isLock);
+    lockBackend.unlock("ACLK1000000000");
+  }
+
+  @Test
+  void failGetLockHeldByOtherThread() throws Exception {
+    //given
+    LocalLockBackend lockBackend = new LocalLockBackend(16);
+    lockBackend.tryLock("ACLK1000000000", 1, 15, TimeUnit.SECONDS);
+
+    //when
+    boolean isLock = CompletableFuture.supplyAsync(() -> {
+      try {
+        return lockBackend.tryLock("ACLK1000000000", 10, 15, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+    }).get();
+
+    //then
+    assertFalse(isLock);
+    lockBackend.unlock("ACLK1000000000");
+  }
+
+  @Test
+  void unlockWithoutLockFails() {
+    //given
+    LocalLockBackend lockBackend = new LocalLockBackend(16);
+
+    //when
+    //then
+    assertThrows(IllegalMonitorStateException.class,
+            () -> lockBackend.unlock("ACLK1000000000"));
+  }
+
+  @Test
+  void lockAllAndUnlockAll() throws Exception {
+    //given
+    LocalLockBackend lockBackend = new LocalLockBackend(16);
+    List<String> lockKeys = List.of("ACLK1000000000", "ACLK1000000001");
+
+    //when
+    boolean isLock = lockBackend.tryLockAll(lockKeys, 1, 15, TimeUnit.SECONDS);
+
+    //then
+    assertTrue(isLock);
+    assertFalse(CompletableFuture.supplyAsync(() -> tryLock(lockBackend, "ACLK1000000001")).get());
+    lockBackend.unlockAll(lockKeys);
+    assertTrue(CompletableFuture.supplyAsync(() -> tryLockAndUnlock(lockBackend, "ACLK1000000000")).get());
+    assertTrue(CompletableFuture.supplyAsync(() -> tryLockAndUnlock(lockBackend, "ACLK1000000001")).get());
+  }
+
+  @Test
+  @DisplayName("stripe 가 하나뿐이어도 여러 계좌를 잡고 풀 수 있다")
+  void lockAllSharingStripe() throws InterruptedException {
+    //given
+    LocalLockBackend lockBackend = new LocalLockBackend(1);
+    List<String> lockKeys = List.of("ACLK1000000001", "ACLK1000000000");
+
+    //when
+    boolean isLock = lockBackend.tryLockAll(lockKeys, 1, 15, TimeUnit.SECONDS);
+    lockBackend.unlockAll(lockKeys);
+
+    //then
+    assertTrue(isLock);
+    assertThrows(IllegalMonitorStateException.class,
+            () -> lockBackend.unlock("ACLK1000000000"));
+  }
+
+  @Test
+  @DisplayName("반대 순서로 요청한 이체끼리 교착되지 않는다")
+  void lockAllInOppositeOrder() throws Exception {
+    //given
+    LocalLockBackend lockBackend = new LocalLockBackend(16);
+    List<String> forward = List.of("ACLK1000000000", "ACLK1000000001");
+    List<String> backward = List.of("ACLK1000000001", "ACLK1000000000");
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    //when
+    List<Future<Integer>> results = new ArrayList<>();
+    for (List<String> lockKeys : List.of(forward, backward)) {
+      results.add(executor.submit(() -> {
+        int acquired = 0;
+        for (int i = 0; i < 1000; i++) {
+          if (lockBackend.tryLockAll(lockKeys, 1, 15, TimeUnit.SECONDS)) {
+            acquired++;
+            lockBackend.unlockAll(lockKeys);
+          }
+        }
+        return acquired;
+      }));
+    }
+
+    //then
+    for (Future<Integer> result : results) {
+      assertEquals(1000, result.get(10, TimeUnit.SECONDS));
+    }
+    executor.shutdown();
+  }
+
+  private static boolean tryLock(LocalLockBackend lockBackend, String lockKey) {
+    try {
+      return lockBackend.tryLock(lockKey, 10, 15, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static boolean tryLockAndUnlock(LocalLockBackend lockBackend, String lockKey) {
+    boolean isLock = tryLock(lockBackend, lockKey);
+    if (isLock) {
+      lockBackend.unlock(lockKey);
+    }
+    return isLock;
+  }
+}
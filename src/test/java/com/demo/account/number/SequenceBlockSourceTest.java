@@ -0,0 +1,35 @@
+package com.demo.account.number;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 기존 계좌번호가 있는 DB 에서 sequence 를 앞당기는지 확인 (sequence 는 data.sql 에서 생성)
+ */
+@DataJpaTest
+@Import(SequenceBlockSource.class)
+class SequenceBlockSourceTest {
+  @Autowired
+  private SequenceBlockSource blockSource;
+
+  @Test
+  void advanceOnlyForward() {
+    //given
+    long current = blockSource.nextBlock();
+
+    //when
+    blockSource.advanceTo(current + 100);
+    long advanced = blockSource.nextBlock();
+    blockSource.advanceTo(current);
+    long notRewound = blockSource.nextBlock();
+
+    //then
+    assertEquals(current + 100, advanced);
+    assertTrue(notRewound > advanced);
+  }
+}
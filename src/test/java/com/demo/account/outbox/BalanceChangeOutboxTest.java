@@ -0,0 +1,78 @@
+package com.demo.account.outbox;
+
+import com.demo.account.domain.Account;
+import com.demo.account.domain.Transaction;
+import com.demo.account.repository.AccountRepository;
+import com.demo.account.repository.AccountUserRepository;
+import com.demo.account.type.TransactionResultType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.demo.account.type.AccountStatus.IN_USE;
+import static com.demo.account.type.TransactionResultType.F;
+import static com.demo.account.type.TransactionResultType.S;
+import static com.demo.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * outbox 에 계좌 변경이 반영된 뒤의 version 이 남는지 확인
+ */
+@DataJpaTest
+@Import(BalanceChangeOutbox.class)
+class BalanceChangeOutboxTest {
+  @Autowired
+  private BalanceChangeOutbox balanceChangeOutbox;
+
+  @Autowired
+  private AccountRepository accountRepository;
+
+  @Autowired
+  private AccountUserRepository accountUserRepository;
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Test
+  void recordVersionAfterBalanceChange() {
+    //given
+    Account account = accountRepository.saveAndFlush(Account.builder()
+            .accountUser(accountUserRepository.findById(1L).orElseThrow())
+            .accountNumber("1000000000")
+            .accountStatus(IN_USE)
+            .balance(10000L)
+            .registeredAt(LocalDateTime.now())
+            .build());
+    long before = account.getVersion();
+
+    //when
+    //LOCK 모드처럼 dirty checking 으로 바뀐 계좌
+    account.useBalance(1000L);
+    balanceChangeOutbox.record(transaction(account, S));
+    account.useBalance(1000L);
+    balanceChangeOutbox.recordAll(List.of(transaction(account, S), transaction(account, F)));
+
+    //then
+    List<Long> versions = entityManager.getEntityManager()
+            .createQuery("select e.accountVersion from OutboxEvent e order by e.id", Long.class)
+            .getResultList();
+    assertEquals(List.of(before + 1, before + 2), versions);
+  }
+
+  private Transaction transaction(Account account, TransactionResultType resultType) {
+    return Transaction.builder()
+            .transactionType(USE)
+            .transactionResultType(resultType)
+            .account(account)
+            .amount(1000L)
+            .balanceSnapshot(account.getBalance())
+            .transactionId("trx" + System.nanoTime())
+            .transactedAt(LocalDateTime.now())
+            .build();
+  }
+}
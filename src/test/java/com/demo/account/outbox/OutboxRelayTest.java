@@ -0,0 +1,187 @@
+package com.demo.account.outbox;
+
+import com.demo.account.domain.OutboxEvent;
+import com.demo.account.repository.OutboxEventRepository;
+import com.demo.account.type.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.demo.account.type.TransactionType.CANCEL;
+import static com.demo.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+  @Mock
+  private OutboxEventRepository outboxEventRepository;
+
+  private InMemoryBalanceChangeSink sink;
+
+  private OutboxRelay outboxRelay;
+
+  @BeforeEach
+  void setUp() {
+    sink = new InMemoryBalanceChangeSink(100);
+    outboxRelay = create(sink);
+  }
+
+  @Test
+  void publishInOrderAndDelete() {
+    //given
+    given(outboxEventRepository.findNext(any()))
+            .willReturn(List.of(outboxEvent(1L, USE), outboxEvent(2L, CANCEL)));
+
+    //when
+    int published = outboxRelay.relayOnce();
+
+    //then
+    assertEquals(2, published);
+    List<BalanceChangeEvent> events = sink.events();
+    assertEquals(List.of(1L, 2L), events.stream().map(BalanceChangeEvent::getEventId).toList());
+    assertEquals(USE, events.get(0).getTransactionType());
+    assertEquals("1000000012", events.get(0).getAccountNumber());
+    verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+  }
+
+  @Test
+  void publishInAccountVersionOrder() {
+    //given
+    //다른 노드가 먼저 받아 둔 작은 id 로 나중 변경(version 3) 이 저장된 경우
+    given(outboxEventRepository.findNext(any()))
+            .willReturn(List.of(outboxEvent(3L, 1L, 3L), outboxEvent(51L, 1L, 2L), outboxEvent(52L, 2L, 7L)));
+
+    //when
+    outboxRelay.relayOnce();
+
+    //then
+    assertEquals(List.of(51L, 3L, 52L),
+            sink.events().stream().map(BalanceChangeEvent::getEventId).toList());
+    assertEquals(2L, sink.events().get(0).getAccountVersion());
+  }
+
+  @Test
+  void deferEventsWhenLowerVersionIsOutsideBatch() {
+    //given
+    given(outboxEventRepository.findNext(any()))
+            .willReturn(List.of(outboxEvent(3L, 1L, 5L), outboxEvent(4L, 2L, 7L)));
+    //계좌 1 의 version 4 가 아직 batch 밖에 있다
+    given(outboxEventRepository.findPendingVersions(anyCollection(), anyCollection()))
+            .willReturn(List.of(pendingVersion(1L, 4L)));
+
+    //when
+    int published = outboxRelay.relayOnce();
+
+    //then
+    assertEquals(1, published);
+    assertEquals(List.of(4L), sink.events().stream().map(BalanceChangeEvent::getEventId).toList());
+    verify(outboxEventRepository).deleteAllByIdInBatch(List.of(4L));
+  }
+
+  @Test
+  void publishOneAccountWhenWholeBatchIsDeferred() {
+    //given
+    given(outboxEventRepository.findNext(any()))
+            .willReturn(List.of(outboxEvent(3L, 1L, 5L)));
+    given(outboxEventRepository.findPendingVersions(anyCollection(), anyCollection()))
+            .willReturn(List.of(pendingVersion(1L, 4L)));
+    given(outboxEventRepository.findNextOfAccount(eq(1L), any()))
+            .willReturn(List.of(outboxEvent(60L, 1L, 4L), outboxEvent(3L, 1L, 5L)));
+
+    //when
+    int published = outboxRelay.relayOnce();
+
+    //then
+    assertEquals(2, published);
+    assertEquals(List.of(60L, 3L), sink.events().stream().map(BalanceChangeEvent::getEventId).toList());
+  }
+
+  @Test
+  void keepEventsWhenPublishFails() {
+    //given
+    BalanceChangeSink failingSink = mock(BalanceChangeSink.class);
+    willThrow(new IllegalStateException("redis down"))
+            .given(failingSink).publish(anyList());
+    outboxRelay = create(failingSink);
+    given(outboxEventRepository.findNext(any()))
+            .willReturn(List.of(outboxEvent(1L, USE)));
+
+    //when
+    assertThrows(IllegalStateException.class, () -> outboxRelay.relayOnce());
+
+    //then
+    //지우지 않았으므로 다음 시도에 같은 이벤트부터 다시 발행된다
+    verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+  }
+
+  @Test
+  void nothingToPublish() {
+    //given
+    given(outboxEventRepository.findNext(any()))
+            .willReturn(List.of());
+
+    //when
+    int published = outboxRelay.relayOnce();
+
+    //then
+    assertEquals(0, published);
+    assertTrue(sink.events().isEmpty());
+    verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+  }
+
+  private OutboxRelay create(BalanceChangeSink balanceChangeSink) {
+    return new OutboxRelay(outboxEventRepository, balanceChangeSink, new SimpleMeterRegistry(),
+            true, true, 500, 100, 5000);
+  }
+
+  private OutboxEventRepository.PendingVersion pendingVersion(Long accountId, Long accountVersion) {
+    return new OutboxEventRepository.PendingVersion() {
+      @Override
+      public Long getAccountId() {
+        return accountId;
+      }
+
+      @Override
+      public Long getAccountVersion() {
+        return accountVersion;
+      }
+    };
+  }
+
+  private OutboxEvent outboxEvent(Long id, Long accountId, Long accountVersion) {
+    OutboxEvent outboxEvent = outboxEvent(id, USE);
+    outboxEvent.setAccountId(accountId);
+    outboxEvent.setAccountVersion(accountVersion);
+    return outboxEvent;
+  }
+
+  private OutboxEvent outboxEvent(Long id, TransactionType transactionType) {
+    OutboxEvent outboxEvent = OutboxEvent.builder()
+            .accountId(1L)
+            .accountVersion(id)
+            .accountNumber("1000000012")
+            .transactionId("transactionId" + id)
+            .transactionType(transactionType)
+            .amount(1000L)
+            .balanceSnapshot(9000L)
+            .transactedAt(LocalDateTime.now())
+            .build();
+    outboxEvent.setId(id);
+    return outboxEvent;
+  }
+}
@@ -0,0 +1,107 @@
+package com.demo.account.reconcile;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.demo.account.type.TransactionType.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountReconcilerTest {
+
+  private AccountBalance account(Long initialBalance, Long balance) {
+    return new AccountBalance(1L, "1000000000", initialBalance, balance, 0L);
+  }
+
+  @Test
+  void consistentLedger() {
+    //given
+    List<LedgerEntry> ledger = List.of(
+            new LedgerEntry(1L, "t1", USE, 1000L, 9000L),
+            new LedgerEntry(1L, "t2", CANCEL, 1000L, 10000L),
+            new LedgerEntry(1L, "t3", TRANSFER_OUT, 3000L, 7000L),
+            new LedgerEntry(1L, "t4", TRANSFER_IN, 500L, 7500L));
+
+    //when
+    AccountReconciler.Result result =
+            AccountReconciler.reconcile(account(10000L, 7500L), ledger.iterator());
+
+    //then
+    assertEquals(4, result.scannedTransactions());
+    assertTrue(result.discrepancies().isEmpty());
+  }
+
+  @Test
+  void balanceMismatch() {
+    //given
+    List<LedgerEntry> ledger = List.of(new LedgerEntry(1L, "t1", USE, 1000L, 9000L));
+
+    //when
+    AccountReconciler.Result result =
+            AccountReconciler.reconcile(account(10000L, 8000L), ledger.iterator());
+
+    //then
+    assertEquals(1, result.discrepancies().size());
+    Discrepancy discrepancy = result.discrepancies().get(0);
+    assertEquals(Discrepancy.Type.BALANCE_MISMATCH, discrepancy.type());
+    assertEquals(9000L, discrepancy.expected());
+    assertEquals(8000L, discrepancy.actual());
+  }
+
+  @Test
+  @DisplayName("스냅샷이 한 번 어긋나면 그 거래만 보고하고 이후는 그 스냅샷부터 다시 따라간다")
+  void snapshotMismatchReportedOnce() {
+    //given
+    List<LedgerEntry> ledger = List.of(
+            new LedgerEntry(1L, "t1", USE, 1000L, 9000L),
+            new LedgerEntry(1L, "t2", USE, 1000L, 7500L),
+            new LedgerEntry(1L, "t3", USE, 1000L, 6500L));
+
+    //when
+    AccountReconciler.Result result =
+            AccountReconciler.reconcile(account(10000L, 7000L), ledger.iterator());
+
+    //then
+    assertEquals(1, result.discrepancies().size());
+    Discrepancy discrepancy = result.discrepancies().get(0);
+    assertEquals(Discrepancy.Type.SNAPSHOT_MISMATCH, discrepancy.type());
+    assertEquals("t2", discrepancy.transactionId());
+    assertEquals(8000L, discrepancy.expected());
+    assertEquals(7500L, discrepancy.actual());
+  }
+
+  @Test
+  @DisplayName("개설 잔액이 없으면 첫 거래 스냅샷에서 구하고 잔액은 그대로 확인한다")
+  void deriveMissingInitialBalance() {
+    //given
+    List<LedgerEntry> ledger = List.of(
+            new LedgerEntry(1L, "t1", USE, 1000L, 9000L),
+            new LedgerEntry(1L, "t2", USE, 1000L, 8000L));
+
+    //when
+    AccountReconciler.Result consistent =
+            AccountReconciler.reconcile(account(null, 8000L), ledger.iterator());
+    AccountReconciler.Result mismatch =
+            AccountReconciler.reconcile(account(null, 7000L), ledger.iterator());
+
+    //then
+    assertTrue(consistent.initialBalanceDerived());
+    assertTrue(consistent.discrepancies().isEmpty());
+    assertEquals(1, mismatch.discrepancies().size());
+    assertEquals(Discrepancy.Type.BALANCE_MISMATCH, mismatch.discrepancies().get(0).type());
+    assertEquals(8000L, mismatch.discrepancies().get(0).expected());
+  }
+
+  @Test
+  void missingInitialBalanceWithoutTransactions() {
+    //given
+    //when
+    AccountReconciler.Result result =
+            AccountReconciler.reconcile(account(null, 7000L), List.<LedgerEntry>of().iterator());
+
+    //then
+    assertTrue(result.initialBalanceDerived());
+    assertTrue(result.discrepancies().isEmpty());
+  }
+}
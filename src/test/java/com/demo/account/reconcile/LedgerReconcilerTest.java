@@ -0,0 +1,221 @@
+package com.demo.account.reconcile;
+
+import com.demo.account.domain.Account;
+import com.demo.account.domain.Transaction;
+import com.demo.account.ledger.TransactionLedger;
+import com.demo.account.repository.AccountRepository;
+import com.demo.account.repository.AccountUserRepository;
+import com.demo.account.repository.TransactionRepository;
+import com.demo.account.type.TransactionType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.demo.account.type.AccountStatus.IN_USE;
+import static com.demo.account.type.TransactionResultType.F;
+import static com.demo.account.type.TransactionResultType.S;
+import static com.demo.account.type.TransactionType.CANCEL;
+import static com.demo.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+
+/**
+ * id 범위를 나눠 여러 계좌를 대사하는지 확인 (partition-size 를 작게 둔다)
+ * 대사는 자기 트랜잭션으로 읽으므로 테스트 트랜잭션을 쓰지 않는다
+ */
+@DataJpaTest(properties = {
+        "account.reconcile.parallelism=2",
+        "account.reconcile.partition-size=2"
+})
+@Import({LedgerReconciler.class, LedgerReconcilerTest.MeterRegistryConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LedgerReconcilerTest {
+  private static final LocalDateTime BASE = LocalDateTime.of(2026, 10, 1, 9, 0);
+
+  @TestConfiguration
+  static class MeterRegistryConfig {
+    @Bean
+    MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+  }
+
+  @Autowired
+  private LedgerReconciler ledgerReconciler;
+
+  @Autowired
+  private AccountRepository accountRepository;
+
+  @Autowired
+  private AccountUserRepository accountUserRepository;
+
+  @Autowired
+  private TransactionRepository transactionRepository;
+
+  @MockitoBean
+  private TransactionLedger transactionLedger;
+
+  @AfterEach
+  void tearDown() {
+    transactionRepository.deleteAll();
+    accountRepository.deleteAll();
+  }
+
+  private Account account(String accountNumber, Long initialBalance, long balance) {
+    return accountRepository.save(Account.builder()
+            .accountUser(accountUserRepository.findById(1L).orElseThrow())
+            .accountNumber(accountNumber)
+            .accountStatus(IN_USE)
+            .initialBalance(initialBalance)
+            .balance(balance)
+            .registeredAt(BASE)
+            .build());
+  }
+
+  private void transaction(Account account, int minute, TransactionType type,
+                           long amount, long balanceSnapshot, boolean success) {
+    transactionRepository.save(Transaction.builder()
+            .account(account)
+            .transactionType(type)
+            .transactionResultType(success ? S : F)
+            .amount(amount)
+            .balanceSnapshot(balanceSnapshot)
+            .transactionId(account.getAccountNumber() + "-" + minute)
+            .transactedAt(BASE.plusMinutes(minute))
+            .build());
+  }
+
+  @Test
+  void reportDiscrepanciesAcrossPartitions() {
+    //given
+    for (int i = 0; i < 5; i++) {
+      Account account = account("100000000" + i, 10000L, 8000L);
+      //저장 순서와 거래 시각 순서를 다르게 둔다
+      transaction(account, 2, USE, 1000L, 8000L, true);
+      transaction(account, 1, USE, 1000L, 9000L, true);
+      //실패 거래는 잔액에 반영하지 않는다
+      transaction(account, 3, USE, 50000L, 8000L, false);
+    }
+    //잔액이 거래 합과 다른 계좌
+    Account tampered = account("2000000000", 10000L, 9500L);
+    transaction(tampered, 1, USE, 1000L, 9000L, true);
+    //스냅샷이 끊긴 계좌 (잔액은 맞음)
+    Account broken = account("3000000000", 10000L, 10000L);
+    transaction(broken, 1, USE, 1000L, 9000L, true);
+    transaction(broken, 2, CANCEL, 1000L, 9900L, true);
+
+    ReconciliationReport report = new ReconciliationReport(accountRepository.count(), 100);
+
+    //when
+    ledgerReconciler.run(report);
+
+    //then
+    assertEquals(ReconciliationReport.Status.COMPLETED, report.getStatus());
+    assertEquals(7, report.getCheckedAccounts());
+    assertEquals(0, report.getSkippedAccounts());
+    assertEquals(13, report.getScannedTransactions());
+    assertTrue(report.getCompletedPartitions() > 1);
+    assertEquals(2, report.getDiscrepancyCount());
+    assertTrue(report.getDiscrepancies().contains(new Discrepancy(
+            Discrepancy.Type.BALANCE_MISMATCH, "2000000000", null, 9000L, 9500L)));
+    assertTrue(report.getDiscrepancies().contains(new Discrepancy(
+            Discrepancy.Type.SNAPSHOT_MISMATCH, "3000000000", "3000000000-2", 10000L, 9900L)));
+  }
+
+  @Test
+  void emptyLedger() {
+    //given
+    ReconciliationReport report = new ReconciliationReport(0, 100);
+
+    //when
+    ledgerReconciler.run(report);
+
+    //then
+    assertEquals(ReconciliationReport.Status.COMPLETED, report.getStatus());
+    assertEquals(0, report.getCheckedAccounts());
+  }
+
+  @Test
+  void reportDerivedInitialBalanceSeparately() {
+    //given
+    //initialBalance 컬럼이 생기기 전에 만든 계좌
+    Account legacy = account("4000000000", null, 8000L);
+    transaction(legacy, 1, USE, 1000L, 9000L, true);
+    transaction(legacy, 2, USE, 1000L, 8000L, true);
+    ReconciliationReport report = new ReconciliationReport(accountRepository.count(), 100);
+
+    //when
+    ledgerReconciler.run(report);
+
+    //then
+    assertEquals(1, report.getCheckedAccounts());
+    assertEquals(1, report.getDerivedInitialBalanceAccounts());
+    assertEquals(0, report.getDiscrepancyCount());
+  }
+
+  @Test
+  void recheckOnlyAccountsChangedDuringReconciliation() {
+    //given
+    Account busy = account("6000000000", 10000L, 10000L);
+    Account idle = account("6000000001", 10000L, 9000L);
+    transaction(idle, 1, USE, 1000L, 9000L, true);
+    //partition 의 잔액을 읽은 뒤 거래를 스트리밍하기 전에 busy 계좌에 거래가 반영된다
+    AtomicInteger flushes = new AtomicInteger();
+    given(transactionLedger.flush()).willAnswer(invocation -> {
+      if (flushes.incrementAndGet() == 1) {
+        Account changed = accountRepository.findById(busy.getId()).orElseThrow();
+        changed.useBalance(1000L);
+        accountRepository.save(changed);
+        transaction(busy, 1, USE, 1000L, 9000L, true);
+      }
+      return false;
+    });
+    ReconciliationReport report = new ReconciliationReport(accountRepository.count(), 100);
+
+    //when
+    ledgerReconciler.run(report);
+
+    //then
+    assertEquals(2, report.getCheckedAccounts());
+    assertEquals(0, report.getSkippedAccounts());
+    //busy 계좌는 바뀐 잔액으로 다시 확인해서 불일치로 보지 않는다
+    assertEquals(0, report.getDiscrepancyCount());
+    assertEquals(2, report.getScannedTransactions());
+  }
+
+  @Test
+  void recheckWhenLedgerLoadedDuringReconciliation() {
+    //given
+    Account account = account("5000000000", 10000L, 9000L);
+    //계좌를 읽은 뒤 확인하는 사이에 저널의 거래가 적재된다
+    AtomicInteger flushes = new AtomicInteger();
+    given(transactionLedger.flush()).willAnswer(invocation -> {
+      if (flushes.incrementAndGet() != 2) {
+        return false;
+      }
+      transaction(account, 1, USE, 1000L, 9000L, true);
+      return true;
+    });
+    ReconciliationReport report = new ReconciliationReport(accountRepository.count(), 100);
+
+    //when
+    ledgerReconciler.run(report);
+
+    //then
+    assertEquals(1, report.getCheckedAccounts());
+    assertEquals(1, report.getScannedTransactions());
+    assertEquals(0, report.getDiscrepancyCount());
+  }
+}
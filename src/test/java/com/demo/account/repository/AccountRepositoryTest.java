@@ -0,0 +1,96 @@
+package com.demo.account.repository;
+
+import com.demo.account.domain.Account;
+import com.demo.account.domain.AccountUser;
+import com.demo.account.type.AccountStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+
+import static com.demo.account.type.AccountStatus.IN_USE;
+import static com.demo.account.type.AccountStatus.UNREGISTERED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * ATOMIC 모드의 조건부 UPDATE 확인
+ */
+@DataJpaTest
+class AccountRepositoryTest {
+  @Autowired
+  private AccountRepository accountRepository;
+
+  @Autowired
+  private AccountUserRepository accountUserRepository;
+
+  private AccountUser accountUser;
+
+  @BeforeEach
+  void setUp() {
+    //data.sql 로 들어간 사용자
+    accountUser = accountUserRepository.findById(1L).orElseThrow();
+  }
+
+  @Test
+  void decreaseBalanceWhenEnough() {
+    //given
+    Account account = save(IN_USE, 1000L);
+
+    //when
+    int updated = accountRepository.decreaseBalance(account.getId(), 1000L);
+
+    //then
+    assertEquals(1, updated);
+    assertEquals(0L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+  }
+
+  @Test
+  void decreaseBalanceNotEnough() {
+    //given
+    Account account = save(IN_USE, 999L);
+
+    //when
+    int updated = accountRepository.decreaseBalance(account.getId(), 1000L);
+
+    //then
+    assertEquals(0, updated);
+    assertEquals(999L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+  }
+
+  @Test
+  void decreaseBalanceUnregistered() {
+    //given
+    Account account = save(UNREGISTERED, 10000L);
+
+    //when
+    int updated = accountRepository.decreaseBalance(account.getId(), 1000L);
+
+    //then
+    assertEquals(0, updated);
+  }
+
+  @Test
+  void increaseBalance() {
+    //given
+    Account account = save(IN_USE, 1000L);
+
+    //when
+    int updated = accountRepository.increaseBalance(account.getId(), 500L);
+
+    //then
+    assertEquals(1, updated);
+    assertEquals(1500L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+  }
+
+  private Account save(AccountStatus accountStatus, Long balance) {
+    return accountRepository.save(Account.builder()
+            .accountUser(accountUser)
+            .accountNumber("1000000000")
+            .accountStatus(accountStatus)
+            .balance(balance)
+            .registeredAt(LocalDateTime.now())
+            .build());
+  }
+}
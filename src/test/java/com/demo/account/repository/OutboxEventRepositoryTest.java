@@ -0,0 +1,66 @@
+package com.demo.account.repository;
+
+import com.demo.account.domain.OutboxEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * relay 가 계좌별 발행 순서를 맞출 때 쓰는 조회 확인
+ */
+@DataJpaTest
+class OutboxEventRepositoryTest {
+  @Autowired
+  private OutboxEventRepository outboxEventRepository;
+
+  @Test
+  void findPendingVersionsOutsideBatch() {
+    //given
+    OutboxEvent inBatch = save(1L, 5L);
+    save(1L, 4L);
+    save(1L, 6L);
+    save(2L, 1L);
+
+    //when
+    Map<Long, Long> pending = outboxEventRepository
+            .findPendingVersions(List.of(1L), List.of(inBatch.getId()))
+            .stream()
+            .collect(Collectors.toMap(
+                    OutboxEventRepository.PendingVersion::getAccountId,
+                    OutboxEventRepository.PendingVersion::getAccountVersion));
+
+    //then
+    assertEquals(Map.of(1L, 4L), pending);
+  }
+
+  @Test
+  void findNextOfAccountInVersionOrder() {
+    //given
+    OutboxEvent third = save(1L, 6L);
+    OutboxEvent first = save(1L, 4L);
+    save(2L, 1L);
+    OutboxEvent second = save(1L, 5L);
+
+    //when
+    List<OutboxEvent> next = outboxEventRepository.findNextOfAccount(1L, PageRequest.of(0, 10));
+
+    //then
+    assertEquals(List.of(first.getId(), second.getId(), third.getId()),
+            next.stream().map(OutboxEvent::getId).toList());
+  }
+
+  private OutboxEvent save(Long accountId, Long accountVersion) {
+    return outboxEventRepository.save(OutboxEvent.builder()
+            .accountId(accountId)
+            .accountVersion(accountVersion)
+            .accountNumber("1000000000")
+            .build());
+  }
+}
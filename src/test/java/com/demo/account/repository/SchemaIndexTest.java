@@ -0,0 +1,88 @@
+package com.demo.account.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 조회가 많은 컬럼의 index 가 스키마에서 빠지지 않았는지 확인
+ */
+@DataJpaTest
+class SchemaIndexTest {
+  @Autowired
+  private DataSource dataSource;
+
+  @Test
+  void accountNumberIsUniqueIndexed() throws Exception {
+    assertTrue(hasIndex("ACCOUNT", List.of("ACCOUNT_NUMBER"), true));
+  }
+
+  @Test
+  void transactionIdIsUniqueIndexed() throws Exception {
+    assertTrue(hasIndex("TRANSACTION", List.of("TRANSACTION_ID"), true));
+  }
+
+  @Test
+  void transactionAccountAndTransactedAtIsIndexed() throws Exception {
+    assertTrue(hasIndex("TRANSACTION", List.of("ACCOUNT_ID", "TRANSACTED_AT"), false));
+  }
+
+  @Test
+  void dailySummaryKeyIsUniqueIndexed() throws Exception {
+    assertTrue(hasIndex("DAILY_TRANSACTION_SUMMARY", List.of(
+            "ACCOUNT_ID", "SUMMARY_DATE", "TRANSACTION_TYPE", "TRANSACTION_RESULT_TYPE"), true));
+  }
+
+  @Test
+  void dailySummaryDateIsIndexed() throws Exception {
+    assertTrue(hasIndex("DAILY_TRANSACTION_SUMMARY", List.of("SUMMARY_DATE"), false));
+  }
+
+  @Test
+  void outboxAccountVersionIsIndexed() throws Exception {
+    assertTrue(hasIndex("OUTBOX_EVENT", List.of("ACCOUNT_ID", "ACCOUNT_VERSION"), false));
+  }
+
+  //unique index 는 DB 에 따라 unique 제약 조건의 index 로 만들어지기 때문에 이름 대신 컬럼으로 찾는다
+  private boolean hasIndex(String table, List<String> columns, boolean unique) throws Exception {
+    return indexesOf(table).values().stream()
+            .anyMatch(index -> index.columns.equals(columns) && (!unique || index.unique));
+  }
+
+  private Map<String, IndexInfo> indexesOf(String table) throws Exception {
+    Map<String, IndexInfo> indexes = new HashMap<>();
+    try (Connection connection = dataSource.getConnection()) {
+      DatabaseMetaData metaData = connection.getMetaData();
+      try (ResultSet rs = metaData.getIndexInfo(null, null, table, false, false)) {
+        while (rs.next()) {
+          String indexName = rs.getString("INDEX_NAME");
+          if (indexName == null) {
+            continue;
+          }
+          IndexInfo index = indexes.computeIfAbsent(indexName.toUpperCase(),
+                  k -> new IndexInfo());
+          index.unique = !rs.getBoolean("NON_UNIQUE");
+          int position = rs.getInt("ORDINAL_POSITION");
+          while (index.columns.size() < position) {
+            index.columns.add(null);
+          }
+          index.columns.set(position - 1, rs.getString("COLUMN_NAME").toUpperCase());
+        }
+      }
+    }
+    return indexes;
+  }
+
+  private static class IndexInfo {
+    private boolean unique;
+    private final List<String> columns = new ArrayList<>();
+  }
+}
@@ -0,0 +1,156 @@
+package com.demo.account.service;
+
+import com.demo.account.dto.TransactionCommand;
+import com.demo.account.dto.TransactionCommandResult;
+import com.demo.account.dto.TransactionDto;
+import com.demo.account.exception.AccountException;
+import com.demo.account.type.TransactionMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+
+import static com.demo.account.type.ErrorCode.ACCOUNT_NOT_FOUND;
+import static com.demo.account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static com.demo.account.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
+import static com.demo.account.type.TransactionResultType.F;
+import static com.demo.account.type.TransactionResultType.S;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class AccountCommandQueueTest {
+  @Mock
+  private TransactionService transactionService;
+
+  private AccountCommandQueue accountCommandQueue;
+
+  @AfterEach
+  void tearDown() {
+    if (accountCommandQueue != null) {
+      accountCommandQueue.stop();
+    }
+  }
+
+  @Test
+  void successSubmit() {
+    //given
+    accountCommandQueue = new AccountCommandQueue(
+            transactionService, new TransactionModeResolver(TransactionMode.QUEUE, Map.of()), 2, 10, 10);
+    given(transactionService.applyCommands(anyString(), anyList()))
+            .willAnswer(invocation -> {
+              List<TransactionCommand> commands = invocation.getArgument(1);
+              return commands.stream()
+                      .map(command -> TransactionCommandResult.success(
+                              TransactionDto.builder()
+                                      .accountNumber(invocation.getArgument(0))
+                                      .amount(command.getAmount())
+                                      .transactionResultType(S)
+                                      .build()))
+                      .toList();
+            });
+
+    //when
+    List<TransactionCommandResult> results = List.of(100L, 200L, 300L).stream()
+            .map(amount -> CompletableFuture.supplyAsync(() ->
+                    accountCommandQueue.submit("1000000012",
+                            TransactionCommand.use(1L, amount))))
+            .toList().stream()
+            .map(CompletableFuture::join)
+            .toList();
+
+    //then
+    assertEquals(3, results.size());
+    assertEquals(100L, results.get(0).orElseThrow().getAmount());
+    assertEquals(200L, results.get(1).orElseThrow().getAmount());
+    assertEquals(300L, results.get(2).orElseThrow().getAmount());
+  }
+
+  @Test
+  void failedCommandThrowsErrorCode() {
+    //given
+    accountCommandQueue = new AccountCommandQueue(
+            transactionService, new TransactionModeResolver(TransactionMode.QUEUE, Map.of()), 1, 10, 10);
+    given(transactionService.applyCommands(anyString(), anyList()))
+            .willReturn(List.of(TransactionCommandResult.fail(
+                    TransactionDto.builder().transactionResultType(F).build(),
+                    AMOUNT_EXCEED_BALANCE)));
+
+    //when
+    TransactionCommandResult result = accountCommandQueue.submit(
+            "1000000012", TransactionCommand.use(1L, 100L));
+
+    //then
+    AccountException exception = assertThrows(AccountException.class, result::orElseThrow);
+    assertEquals(AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+  }
+
+  @Test
+  void accountNotFound() {
+    //given
+    accountCommandQueue = new AccountCommandQueue(
+            transactionService, new TransactionModeResolver(TransactionMode.QUEUE, Map.of()), 1, 10, 10);
+    given(transactionService.applyCommands(anyString(), anyList()))
+            .willThrow(new AccountException(ACCOUNT_NOT_FOUND));
+
+    //when
+    AccountException exception = assertThrows(AccountException.class,
+            () -> accountCommandQueue.submit("1000000012",
+                    TransactionCommand.use(1L, 100L)));
+
+    //then
+    assertEquals(ACCOUNT_NOT_FOUND, exception.getErrorCode());
+  }
+
+  @Test
+  void notEnabledInLockMode() {
+    //given
+    accountCommandQueue = new AccountCommandQueue(
+            transactionService, new TransactionModeResolver(TransactionMode.LOCK, Map.of()), 2, 10, 10);
+
+    //when
+    //then
+    assertThrows(IllegalStateException.class,
+            () -> accountCommandQueue.submit("1000000012",
+                    TransactionCommand.use(1L, 100L)));
+  }
+
+  @Test
+  void submitAsyncFailsWhenQueueIsFull() throws InterruptedException {
+    //given
+    accountCommandQueue = new AccountCommandQueue(
+            transactionService, new TransactionModeResolver(TransactionMode.QUEUE, Map.of()), 1, 1, 1);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    given(transactionService.applyCommands(anyString(), anyList()))
+            .willAnswer(invocation -> {
+              started.countDown();
+              release.await();
+              return List.of(TransactionCommandResult.success(TransactionDto.builder().build()));
+            });
+    CompletableFuture<TransactionCommandResult> running = accountCommandQueue.submitAsync(
+            "1000000012", TransactionCommand.use(1L, 100L));
+    started.await();
+    accountCommandQueue.submitAsync("1000000012", TransactionCommand.use(1L, 100L));
+
+    //when
+    CompletableFuture<TransactionCommandResult> rejected = accountCommandQueue.submitAsync(
+            "1000000012", TransactionCommand.use(1L, 100L));
+    release.countDown();
+
+    //then
+    CompletionException exception = assertThrows(CompletionException.class, rejected::join);
+    assertEquals(ACCOUNT_TRANSACTION_LOCK,
+            ((AccountException) exception.getCause()).getErrorCode());
+    assertTrue(running.join().isSuccess());
+  }
+}
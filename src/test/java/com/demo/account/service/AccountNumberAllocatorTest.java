@@ -0,0 +1,121 @@
+package com.demo.account.service;
+
+import com.demo.account.exception.AccountException;
+import com.demo.account.number.AccountNumberBlockSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.demo.account.type.ErrorCode.ACCOUNT_NUMBER_EXHAUSTED;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountNumberAllocatorTest {
+
+  @Test
+  void firstAccountNumber() {
+    //given
+    AtomicLong hi = new AtomicLong();
+    AccountNumberAllocator allocator = new AccountNumberAllocator(hi::incrementAndGet, 10);
+
+    //when
+    //then
+    assertEquals("1000000000", allocator.nextAccountNumber());
+    assertEquals("1000000001", allocator.nextAccountNumber());
+  }
+
+  @Test
+  void fetchNextBlockWhenExhausted() {
+    //given
+    AtomicLong hi = new AtomicLong();
+    AccountNumberAllocator allocator = new AccountNumberAllocator(hi::incrementAndGet, 2);
+
+    //when
+    allocator.nextAccountNumber();
+    allocator.nextAccountNumber();
+    String third = allocator.nextAccountNumber();
+
+    //then
+    assertEquals("1000000002", third);
+    assertEquals(2L, hi.get());
+  }
+
+  @Test
+  void otherNodeGetsOtherBlock() {
+    //given
+    AtomicLong hi = new AtomicLong();
+    AccountNumberAllocator node1 = new AccountNumberAllocator(hi::incrementAndGet, 100);
+    AccountNumberAllocator node2 = new AccountNumberAllocator(hi::incrementAndGet, 100);
+
+    //when
+    //then
+    assertEquals("1000000000", node1.nextAccountNumber());
+    assertEquals("1000000100", node2.nextAccountNumber());
+    assertEquals("1000000001", node1.nextAccountNumber());
+  }
+
+  @Test
+  void skipExistingAccountNumbers() {
+    //given
+    //이전 방식으로 1000000000 ~ 1000000025 가 이미 발급된 DB
+    AtomicLong hi = new AtomicLong();
+    AccountNumberBlockSource blockSource = new AccountNumberBlockSource() {
+      @Override
+      public long nextBlock() {
+        return hi.incrementAndGet();
+      }
+
+      @Override
+      public void advanceTo(long block) {
+        hi.accumulateAndGet(block - 1, Math::max);
+      }
+    };
+    AccountNumberAllocator allocator = new AccountNumberAllocator(
+            blockSource, () -> 1_000_000_025L, 10);
+
+    //when
+    String first = allocator.nextAccountNumber();
+
+    //then
+    assertEquals("1000000030", first);
+    assertEquals(4L, hi.get());
+  }
+
+  @Test
+  void noDuplicateUnderConcurrency() throws InterruptedException {
+    //given
+    AtomicLong hi = new AtomicLong();
+    AccountNumberAllocator allocator = new AccountNumberAllocator(hi::incrementAndGet, 7);
+    Set<String> numbers = ConcurrentHashMap.newKeySet();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    //when
+    for (int i = 0; i < 1000; i++) {
+      executor.execute(() -> numbers.add(allocator.nextAccountNumber()));
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+    //then
+    assertEquals(1000, numbers.size());
+  }
+
+  @Test
+  void accountNumberExhausted() {
+    //given
+    AccountNumberAllocator allocator = new AccountNumberAllocator(
+            () -> (AccountNumberAllocator.LAST_ACCOUNT_NUMBER
+                    - AccountNumberAllocator.FIRST_ACCOUNT_NUMBER) + 2, 1);
+
+    //when
+    AccountException exception = assertThrows(AccountException.class,
+            allocator::nextAccountNumber);
+
+    //then
+    assertEquals(ACCOUNT_NUMBER_EXHAUSTED, exception.getErrorCode());
+  }
+}
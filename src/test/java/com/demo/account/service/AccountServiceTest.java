@@ -1,8 +1,10 @@
 package com.demo.account.service;
 
+import com.demo.account.cache.AccountLookupCache;
 import com.demo.account.domain.Account;
 import com.demo.account.domain.AccountUser;
 import com.demo.account.dto.AccountDto;
+import com.demo.account.dto.AccountInfo;
 import com.demo.account.exception.AccountException;
 import com.demo.account.repository.AccountRepository;
 import com.demo.account.repository.AccountUserRepository;
@@ -40,6 +42,10 @@ class AccountServiceTest {
   private AccountRepository accountRepository;
   @Mock
   private AccountUserRepository accountUserRepository;
+  @Mock
+  private AccountNumberAllocator accountNumberAllocator;
+  @Mock
+  private AccountLookupCache accountLookupCache;
 
   @InjectMocks
   private AccountService accountService;
@@ -52,9 +58,8 @@ class AccountServiceTest {
     user.setId(12L);
     given(accountUserRepository.findById(anyLong()))
             .willReturn(Optional.of(user));
-    given(accountRepository.findFirstByOrderByIdDesc())
-            .willReturn(Optional.of(Account.builder()
-                            .accountNumber("1000000012").build()));
+    given(accountNumberAllocator.nextAccountNumber())
+            .willReturn("1000000013");
     given(accountRepository.save(any()))
             .willReturn(Account.builder()
                     .accountUser(user)
@@ -69,6 +74,8 @@ class AccountServiceTest {
     verify(accountRepository, times(1)).save(captor.capture());
     assertEquals(12L, accountDto.getUserId());
     assertEquals("1000000013", captor.getValue().getAccountNumber());
+    //대사 기준이 되는 개설 잔액
+    assertEquals(100L, captor.getValue().getInitialBalance());
   }
 
   @Test
@@ -79,8 +86,8 @@ class AccountServiceTest {
     user.setId(15L);
     given(accountUserRepository.findById(anyLong()))
             .willReturn(Optional.of(user));
-    given(accountRepository.findFirstByOrderByIdDesc())
-            .willReturn(Optional.empty());
+    given(accountNumberAllocator.nextAccountNumber())
+            .willReturn("1000000000");
     given(accountRepository.save(any()))
             .willReturn(Account.builder()
                     .accountUser(user)
@@ -155,6 +162,7 @@ class AccountServiceTest {
     assertEquals(12L, accountDto.getUserId());
     assertEquals("1000000012", captor.getValue().getAccountNumber());
     assertEquals(AccountStatus.UNREGISTERED, captor.getValue().getAccountStatus());
+    verify(accountLookupCache, times(1)).evict("1234567890");
   }
 
   @Test
@@ -273,38 +281,26 @@ class AccountServiceTest {
     AccountUser pobi = AccountUser.builder()
             .name("Pobi").build();
     pobi.setId(12L);
-    List<Account> accounts = Arrays.asList(
-            Account.builder()
-                    .accountUser(pobi)
-                    .accountNumber("1111111111")
-                    .balance(1000L)
-                    .build(),
-            Account.builder()
-                    .accountUser(pobi)
-                    .accountNumber("2222222222")
-                    .balance(2000L)
-                    .build(),
-            Account.builder()
-                    .accountUser(pobi)
-                    .accountNumber("3333333333")
-                    .balance(3000L)
-                    .build()
+    List<AccountInfo> accounts = Arrays.asList(
+            new AccountInfo("1111111111", 1000L),
+            new AccountInfo("2222222222", 2000L),
+            new AccountInfo("3333333333", 3000L)
     );
     given(accountUserRepository.findById(anyLong()))
             .willReturn(Optional.of(pobi));
-    given(accountRepository.findByAccountUser(any()))
+    given(accountRepository.findAccountInfoByAccountUser(any()))
             .willReturn(accounts);
     //when
-    List<AccountDto> accountDtos = accountService.getAccountsByUserId(1L);
+    List<AccountInfo> accountInfos = accountService.getAccountsByUserId(1L);
 
     //then
-    assertEquals(3, accountDtos.size());
-    assertEquals("1111111111", accountDtos.get(0).getAccountNumber());
-    assertEquals(1000L, accountDtos.get(0).getBalance());
-    assertEquals("2222222222", accountDtos.get(1).getAccountNumber());
-    assertEquals(2000L, accountDtos.get(1).getBalance());
-    assertEquals("3333333333", accountDtos.get(2).getAccountNumber());
-    assertEquals(3000L, accountDtos.get(2).getBalance());
+    assertEquals(3, accountInfos.size());
+    assertEquals("1111111111", accountInfos.get(0).getAccountNumber());
+    assertEquals(1000L, accountInfos.get(0).getBalance());
+    assertEquals("2222222222", accountInfos.get(1).getAccountNumber());
+    assertEquals(2000L, accountInfos.get(1).getBalance());
+    assertEquals("3333333333", accountInfos.get(2).getAccountNumber());
+    assertEquals(3000L, accountInfos.get(2).getBalance());
   }
 
   @Test
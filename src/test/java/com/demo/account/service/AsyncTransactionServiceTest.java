@@ -0,0 +1,163 @@
+package com.demo.account.service;
+
+import com.demo.account.dto.TransactionCommand;
+import com.demo.account.dto.TransactionCommandResult;
+import com.demo.account.dto.TransactionDto;
+import com.demo.account.exception.AccountException;
+import com.demo.account.type.TransactionMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static com.demo.account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static com.demo.account.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
+import static com.demo.account.type.TransactionResultType.S;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncTransactionServiceTest {
+  @Mock
+  private TransactionService transactionService;
+
+  @Mock
+  private AccountCommandQueue accountCommandQueue;
+
+  @Mock
+  private LockService lockService;
+
+  @Mock
+  private FailedTransactionRecorder failedTransactionRecorder;
+
+  private AsyncTransactionService asyncTransactionService;
+
+  @AfterEach
+  void tearDown() {
+    asyncTransactionService.stop();
+  }
+
+  @Test
+  void useBalanceWithAsyncLock() {
+    //given
+    asyncTransactionService = create(TransactionMode.LOCK);
+    given(lockService.supportsAsync()).willReturn(true);
+    given(lockService.lockAsync("1000000012", "useBalanceAsync", 1000L, 15000L))
+            .willReturn(CompletableFuture.completedFuture(-1L));
+    given(lockService.unlockAsync("1000000012", "useBalanceAsync", -1L))
+            .willReturn(CompletableFuture.completedFuture(null));
+    given(transactionService.useBalance(1L, "1000000012", 1000L))
+            .willReturn(TransactionDto.builder()
+                    .accountNumber("1000000012")
+                    .amount(1000L)
+                    .transactionResultType(S)
+                    .build());
+
+    //when
+    TransactionDto transactionDto = asyncTransactionService
+            .useBalance(1L, "1000000012", 1000L).join();
+
+    //then
+    assertEquals(1000L, transactionDto.getAmount());
+    verify(lockService).unlockAsync("1000000012", "useBalanceAsync", -1L);
+  }
+
+  @Test
+  void useBalanceFailedSavesFailedTransactionAndUnlocks() {
+    //given
+    asyncTransactionService = create(TransactionMode.LOCK);
+    given(lockService.supportsAsync()).willReturn(true);
+    given(lockService.lockAsync(anyString(), anyString(), anyLong(), anyLong()))
+            .willReturn(CompletableFuture.completedFuture(-1L));
+    given(lockService.unlockAsync(anyString(), anyString(), anyLong()))
+            .willReturn(CompletableFuture.completedFuture(null));
+    given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+            .willThrow(new AccountException(AMOUNT_EXCEED_BALANCE));
+
+    //when
+    CompletionException exception = assertThrows(CompletionException.class,
+            () -> asyncTransactionService.useBalance(1L, "1000000012", 1000L).join());
+
+    //then
+    assertEquals(AMOUNT_EXCEED_BALANCE,
+            ((AccountException) exception.getCause()).getErrorCode());
+    verify(failedTransactionRecorder).recordUse("1000000012", 1000L);
+    verify(lockService).unlockAsync("1000000012", "useBalanceAsync", -1L);
+  }
+
+  @Test
+  void lockFailedDoesNotSaveFailedTransaction() {
+    //given
+    asyncTransactionService = create(TransactionMode.LOCK);
+    given(lockService.supportsAsync()).willReturn(true);
+    given(lockService.lockAsync(anyString(), anyString(), anyLong(), anyLong()))
+            .willReturn(CompletableFuture.failedFuture(
+                    new AccountException(ACCOUNT_TRANSACTION_LOCK)));
+
+    //when
+    CompletionException exception = assertThrows(CompletionException.class,
+            () -> asyncTransactionService.cancelBalance("txId", "1000000012", 1000L).join());
+
+    //then
+    assertEquals(ACCOUNT_TRANSACTION_LOCK,
+            ((AccountException) exception.getCause()).getErrorCode());
+    verify(transactionService, never()).cancelBalance(anyString(), anyString(), anyLong());
+    verify(failedTransactionRecorder, never()).recordCancel(anyString(), anyLong());
+  }
+
+  @Test
+  void cancelBalanceWithBlockingLock() {
+    //given
+    asyncTransactionService = create(TransactionMode.LOCK);
+    given(lockService.supportsAsync()).willReturn(false);
+    given(transactionService.cancelBalance("txId", "1000000012", 1000L))
+            .willReturn(TransactionDto.builder()
+                    .accountNumber("1000000012")
+                    .amount(1000L)
+                    .transactionResultType(S)
+                    .build());
+
+    //when
+    TransactionDto transactionDto = asyncTransactionService
+            .cancelBalance("txId", "1000000012", 1000L).join();
+
+    //then
+    assertEquals(1000L, transactionDto.getAmount());
+    verify(lockService).lock("1000000012", "cancelBalanceAsync", 1000L, 15000L);
+    verify(lockService).unlock("1000000012", "cancelBalanceAsync");
+  }
+
+  @Test
+  void useBalanceInQueueMode() {
+    //given
+    asyncTransactionService = create(TransactionMode.QUEUE);
+    given(accountCommandQueue.submitAsync(anyString(), any(TransactionCommand.class)))
+            .willReturn(CompletableFuture.completedFuture(TransactionCommandResult.fail(
+                    TransactionDto.builder().build(), AMOUNT_EXCEED_BALANCE)));
+
+    //when
+    CompletionException exception = assertThrows(CompletionException.class,
+            () -> asyncTransactionService.useBalance(1L, "1000000012", 1000L).join());
+
+    //then
+    assertEquals(AMOUNT_EXCEED_BALANCE,
+            ((AccountException) exception.getCause()).getErrorCode());
+    verify(lockService, never()).supportsAsync();
+  }
+
+  private AsyncTransactionService create(TransactionMode transactionMode) {
+    return new AsyncTransactionService(transactionService, accountCommandQueue, lockService,
+            failedTransactionRecorder,
+            new TransactionModeResolver(transactionMode, Map.of()), 2, 10, 1000L, 15000L);
+  }
+}
@@ -0,0 +1,205 @@
+package com.demo.account.service;
+
+import com.demo.account.domain.Account;
+import com.demo.account.domain.DailyTransactionSummary;
+import com.demo.account.domain.Transaction;
+import com.demo.account.exception.AccountException;
+import com.demo.account.ledger.TransactionLedger;
+import com.demo.account.type.TransactionResultType;
+import com.demo.account.type.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static com.demo.account.type.ErrorCode.INVALID_REQUEST;
+import static com.demo.account.type.TransactionResultType.F;
+import static com.demo.account.type.TransactionResultType.S;
+import static com.demo.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class DailySummaryRecorderTest {
+  private static final LocalDateTime TRANSACTED_AT = LocalDateTime.of(2026, 10, 1, 12, 0);
+
+  @Mock
+  private DailySummaryService dailySummaryService;
+
+  @Mock
+  private TransactionLedger transactionLedger;
+
+  @Captor
+  private ArgumentCaptor<Map<DailyTransactionSummary.Key, DailySummaryService.Totals>> captor;
+
+  private DailySummaryRecorder recorder(boolean enabled) {
+    return new DailySummaryRecorder(dailySummaryService, transactionLedger, new SimpleMeterRegistry(),
+            enabled, false, 1000, 500, false, 1);
+  }
+
+  private Transaction transaction(Long accountId, TransactionResultType resultType, Long amount) {
+    Account account = Account.builder().accountNumber("100000000" + accountId).build();
+    account.setId(accountId);
+    return Transaction.builder()
+            .account(account)
+            .transactionType(USE)
+            .transactionResultType(resultType)
+            .amount(amount)
+            .transactedAt(TRANSACTED_AT)
+            .build();
+  }
+
+  private DailyTransactionSummary.Key key(Long accountId, TransactionType type, TransactionResultType resultType) {
+    return new DailyTransactionSummary.Key(accountId, LocalDate.of(2026, 10, 1), type, resultType);
+  }
+
+  @Test
+  void flushMergesSameKey() {
+    //given
+    DailySummaryRecorder recorder = recorder(true);
+    recorder.record(transaction(1L, S, 1000L));
+    recorder.record(transaction(1L, S, 2000L));
+    recorder.record(transaction(1L, F, 500L));
+    recorder.record(transaction(2L, S, 100L));
+
+    //when
+    int applied = recorder.flush();
+
+    //then
+    assertEquals(3, applied);
+    verify(dailySummaryService).apply(captor.capture());
+    Map<DailyTransactionSummary.Key, DailySummaryService.Totals> increments = captor.getValue();
+    assertEquals(new DailySummaryService.Totals(2, 3000L), increments.get(key(1L, USE, S)));
+    assertEquals(new DailySummaryService.Totals(1, 500L), increments.get(key(1L, USE, F)));
+    assertEquals(new DailySummaryService.Totals(1, 100L), increments.get(key(2L, USE, S)));
+    assertEquals(0, recorder.pendingSize());
+  }
+
+  @Test
+  void keepIncrementsWhenApplyFails() {
+    //given
+    DailySummaryRecorder recorder = recorder(true);
+    recorder.record(transaction(1L, S, 1000L));
+    willThrow(new IllegalStateException("db down"))
+            .given(dailySummaryService).apply(anyMap());
+
+    //when
+    assertThrows(IllegalStateException.class, recorder::flush);
+
+    //then
+    //다음 주기에 다시 반영한다
+    assertEquals(1, recorder.pendingSize());
+  }
+
+  @Test
+  void flushWithoutPendingDoesNothing() {
+    //given
+    DailySummaryRecorder recorder = recorder(true);
+
+    //when
+    int applied = recorder.flush();
+
+    //then
+    assertEquals(0, applied);
+    verify(dailySummaryService, never()).apply(anyMap());
+  }
+
+  @Test
+  void ignoreWhenDisabled() {
+    //given
+    DailySummaryRecorder recorder = recorder(false);
+
+    //when
+    recorder.record(transaction(1L, S, 1000L));
+
+    //then
+    assertEquals(0, recorder.pendingSize());
+  }
+
+  @Test
+  void rebuildAppliesPendingBeforeRecompute() {
+    //given
+    DailySummaryRecorder recorder = recorder(true);
+    recorder.record(transaction(1L, S, 1000L));
+    LocalDate from = LocalDate.now().minusDays(2);
+    given(dailySummaryService.rebuild(any())).willReturn(3);
+
+    //when
+    int rows = recorder.rebuild(from, from.plusDays(1));
+
+    //then
+    //저널의 거래를 적재하고 모인 증분을 반영한 뒤 날짜마다 다시 계산한다
+    assertEquals(6, rows);
+    assertEquals(0, recorder.pendingSize());
+    InOrder inOrder = inOrder(transactionLedger, dailySummaryService);
+    inOrder.verify(transactionLedger).flush();
+    inOrder.verify(dailySummaryService).apply(anyMap());
+    inOrder.verify(dailySummaryService).rebuild(from);
+    inOrder.verify(dailySummaryService).rebuild(from.plusDays(1));
+  }
+
+  @Test
+  void rebuild_today() {
+    //given
+    DailySummaryRecorder recorder = recorder(true);
+    LocalDate today = LocalDate.now();
+
+    //when
+    AccountException exception = assertThrows(AccountException.class,
+            () -> recorder.rebuild(today.minusDays(1), today));
+
+    //then
+    assertEquals(INVALID_REQUEST, exception.getErrorCode());
+    verifyNoInteractions(transactionLedger, dailySummaryService);
+  }
+
+  @Test
+  void writerRebuildsClosedDaysWhenEnabled() throws InterruptedException {
+    //given
+    DailySummaryRecorder recorder = new DailySummaryRecorder(dailySummaryService, transactionLedger,
+            new SimpleMeterRegistry(), true, true, 1000, 10, true, 2);
+    LocalDate today = LocalDate.now();
+
+    //when
+    recorder.start();
+
+    //then
+    verify(dailySummaryService, timeout(1000)).rebuild(today.minusDays(2));
+    verify(dailySummaryService, timeout(1000)).rebuild(today.minusDays(1));
+    recorder.stop();
+  }
+
+  @Test
+  void writerDoesNotRebuildByDefault() throws InterruptedException {
+    //given
+    DailySummaryRecorder recorder = new DailySummaryRecorder(dailySummaryService, transactionLedger,
+            new SimpleMeterRegistry(), true, true, 1000, 10, false, 2);
+    recorder.record(transaction(1L, S, 1000L));
+
+    //when
+    recorder.start();
+
+    //then
+    //증분을 반영한 뒤에도 재계산하지 않는다
+    verify(dailySummaryService, timeout(1000)).apply(anyMap());
+    recorder.stop();
+    verify(dailySummaryService, never()).rebuild(any());
+    verifyNoInteractions(transactionLedger);
+  }
+}
@@ -0,0 +1,190 @@
+package com.demo.account.service;
+
+import com.demo.account.cache.AccountLookup;
+import com.demo.account.cache.AccountLookupCache;
+import com.demo.account.domain.Account;
+import com.demo.account.domain.DailyTransactionSummary;
+import com.demo.account.domain.Transaction;
+import com.demo.account.dto.DailySummary;
+import com.demo.account.exception.AccountException;
+import com.demo.account.repository.AccountRepository;
+import com.demo.account.repository.AccountUserRepository;
+import com.demo.account.repository.DailyTransactionSummaryRepository;
+import com.demo.account.repository.TransactionRepository;
+import com.demo.account.type.TransactionResultType;
+import com.demo.account.type.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.demo.account.type.AccountStatus.IN_USE;
+import static com.demo.account.type.ErrorCode.INVALID_REQUEST;
+import static com.demo.account.type.TransactionResultType.F;
+import static com.demo.account.type.TransactionResultType.S;
+import static com.demo.account.type.TransactionType.CANCEL;
+import static com.demo.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+
+/**
+ * 일별 집계 upsert, 재계산과 기간 조회
+ * apply 가 자기 트랜잭션으로 커밋하므로 테스트 트랜잭션을 쓰지 않는다
+ */
+@DataJpaTest
+@Import(DailySummaryService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DailySummaryServiceTest {
+  private static final LocalDate DAY = LocalDate.of(2026, 10, 1);
+
+  @Autowired
+  private DailySummaryService dailySummaryService;
+
+  @Autowired
+  private DailyTransactionSummaryRepository dailyTransactionSummaryRepository;
+
+  @Autowired
+  private TransactionRepository transactionRepository;
+
+  @Autowired
+  private AccountRepository accountRepository;
+
+  @Autowired
+  private AccountUserRepository accountUserRepository;
+
+  @MockitoBean
+  private AccountLookupCache accountLookupCache;
+
+  @AfterEach
+  void tearDown() {
+    dailyTransactionSummaryRepository.deleteAll();
+    transactionRepository.deleteAll();
+    accountRepository.deleteAll(accountRepository.findAll().stream()
+            .filter(account -> account.getAccountNumber().startsWith("9"))
+            .toList());
+  }
+
+  @Test
+  void applyInsertsThenIncrements() {
+    //given
+    DailyTransactionSummary.Key key = new DailyTransactionSummary.Key(1L, DAY, USE, S);
+
+    //when
+    dailySummaryService.apply(Map.of(key, new DailySummaryService.Totals(2, 3000L)));
+    dailySummaryService.apply(Map.of(key, new DailySummaryService.Totals(1, 500L)));
+
+    //then
+    assertEquals(1, dailyTransactionSummaryRepository.count());
+    DailyTransactionSummary summary = dailyTransactionSummaryRepository.findAll().get(0);
+    assertEquals(3L, summary.getTransactionCount());
+    assertEquals(3500L, summary.getTotalAmount());
+  }
+
+  @Test
+  void rebuildReplacesDayFromTransactions() {
+    //given
+    Account account = saveAccount("9000000001");
+    saveTransaction(account, USE, S, 1000L, DAY.atTime(0, 0));
+    saveTransaction(account, USE, S, 2000L, DAY.atTime(23, 59, 59));
+    saveTransaction(account, USE, F, 500L, DAY.atTime(12, 0));
+    saveTransaction(account, USE, S, 7000L, DAY.plusDays(1).atStartOfDay());
+    //반영 전에 죽어서 잃은 증분, 다른 날짜 집계는 그대로 둔다
+    dailySummaryService.apply(Map.of(
+            new DailyTransactionSummary.Key(account.getId(), DAY, USE, S), new DailySummaryService.Totals(1, 1000L),
+            new DailyTransactionSummary.Key(account.getId(), DAY, CANCEL, S), new DailySummaryService.Totals(1, 10L),
+            new DailyTransactionSummary.Key(account.getId(), DAY.plusDays(1), USE, S), new DailySummaryService.Totals(1, 1L)));
+
+    //when
+    int rows = dailySummaryService.rebuild(DAY);
+
+    //then
+    assertEquals(2, rows);
+    List<DailyTransactionSummary> summaries = dailyTransactionSummaryRepository
+            .findByAccountIdAndDateRange(account.getId(), DAY, DAY.plusDays(1));
+    assertEquals(3, summaries.size());
+    assertEquals(F, summaries.get(0).getTransactionResultType());
+    assertEquals(1L, summaries.get(0).getTransactionCount());
+    assertEquals(500L, summaries.get(0).getTotalAmount());
+    assertEquals(S, summaries.get(1).getTransactionResultType());
+    assertEquals(2L, summaries.get(1).getTransactionCount());
+    assertEquals(3000L, summaries.get(1).getTotalAmount());
+    assertEquals(DAY.plusDays(1), summaries.get(2).getSummaryDate());
+    assertEquals(1L, summaries.get(2).getTotalAmount());
+  }
+
+  @Test
+  void getSummaryInRange() {
+    //given
+    given(accountLookupCache.get("1000000000"))
+            .willReturn(Optional.of(new AccountLookup(1L, 1L, IN_USE)));
+    dailySummaryService.apply(Map.of(
+            new DailyTransactionSummary.Key(1L, DAY, USE, S), new DailySummaryService.Totals(2, 3000L),
+            new DailyTransactionSummary.Key(1L, DAY, USE, F), new DailySummaryService.Totals(1, 100L),
+            new DailyTransactionSummary.Key(1L, DAY.plusDays(1), CANCEL, S), new DailySummaryService.Totals(1, 1000L),
+            new DailyTransactionSummary.Key(1L, DAY.plusDays(2), USE, S), new DailySummaryService.Totals(1, 10L),
+            new DailyTransactionSummary.Key(2L, DAY, USE, S), new DailySummaryService.Totals(5, 5000L)));
+
+    //when
+    DailySummary.Response response =
+            dailySummaryService.getSummary("1000000000", DAY, DAY.plusDays(1));
+
+    //then
+    assertEquals(3, response.getItems().size());
+    assertEquals(USE, response.getItems().get(0).getTransactionType());
+    assertEquals(F, response.getItems().get(0).getTransactionResult());
+    assertEquals(S, response.getItems().get(1).getTransactionResult());
+    assertEquals(3000L, response.getItems().get(1).getAmount());
+    assertEquals(CANCEL, response.getItems().get(2).getTransactionType());
+    assertEquals(DAY.plusDays(1), response.getItems().get(2).getDate());
+  }
+
+  @Test
+  void getSummary_invalidRange() {
+    //given
+    given(accountLookupCache.get("1000000000"))
+            .willReturn(Optional.of(new AccountLookup(1L, 1L, IN_USE)));
+
+    //when
+    AccountException reversed = assertThrows(AccountException.class,
+            () -> dailySummaryService.getSummary("1000000000", DAY.plusDays(1), DAY));
+    AccountException tooLong = assertThrows(AccountException.class,
+            () -> dailySummaryService.getSummary("1000000000", DAY.minusYears(2), DAY));
+
+    //then
+    assertEquals(INVALID_REQUEST, reversed.getErrorCode());
+    assertEquals(INVALID_REQUEST, tooLong.getErrorCode());
+  }
+
+  private Account saveAccount(String accountNumber) {
+    return accountRepository.save(Account.builder()
+            .accountUser(accountUserRepository.findById(1L).orElseThrow())
+            .accountNumber(accountNumber)
+            .accountStatus(IN_USE)
+            .initialBalance(10000L)
+            .balance(10000L)
+            .build());
+  }
+
+  private void saveTransaction(Account account, TransactionType type, TransactionResultType resultType,
+                               Long amount, LocalDateTime transactedAt) {
+    transactionRepository.save(Transaction.builder()
+            .account(account)
+            .transactionType(type)
+            .transactionResultType(resultType)
+            .amount(amount)
+            .balanceSnapshot(10000L)
+            .transactionId(account.getAccountNumber() + "-" + transactedAt)
+            .transactedAt(transactedAt)
+            .build());
+  }
+}
@@ -0,0 +1,126 @@
+package com.demo.account.service;
+
+import com.demo.account.dto.FailedTransaction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.demo.account.type.TransactionType.CANCEL;
+import static com.demo.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class FailedTransactionRecorderTest {
+  @Mock
+  private TransactionService transactionService;
+
+  @Captor
+  private ArgumentCaptor<List<FailedTransaction>> captor;
+
+  @TempDir
+  private Path tempDir;
+
+  private SimpleMeterRegistry meterRegistry;
+
+  private FailedTransactionRecorder failedTransactionRecorder;
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    failedTransactionRecorder.stop();
+  }
+
+  @Test
+  void recordInBackground() {
+    //given
+    failedTransactionRecorder = create(10);
+
+    //when
+    failedTransactionRecorder.recordUse("1000000012", 1000L);
+    failedTransactionRecorder.start();
+
+    //then
+    verify(transactionService, timeout(1000)).saveFailedTransactions(captor.capture());
+    FailedTransaction failedTransaction = captor.getValue().get(0);
+    assertEquals(USE, failedTransaction.getTransactionType());
+    assertEquals("1000000012", failedTransaction.getAccountNumber());
+    assertEquals(1000L, failedTransaction.getAmount());
+  }
+
+  @Test
+  void queueFullFallsBackToFile() throws Exception {
+    //given
+    failedTransactionRecorder = create(1);
+
+    //when
+    failedTransactionRecorder.recordUse("1000000012", 1000L);
+    failedTransactionRecorder.recordCancel("1000000012", 200L);
+
+    //then
+    List<String> lines = Files.readAllLines(fallbackFile());
+    assertEquals(1, lines.size());
+    assertEquals(CANCEL, FailedTransaction.fromLine(lines.get(0)).getTransactionType());
+    assertEquals(1.0, meterRegistry.counter("account.failed.fallback").count());
+  }
+
+  @Test
+  void saveFailureFallsBackToFile() throws Exception {
+    //given
+    failedTransactionRecorder = create(10);
+    willThrow(new IllegalStateException("db down"))
+            .given(transactionService).saveFailedTransactions(anyList());
+    failedTransactionRecorder.start();
+
+    //when
+    failedTransactionRecorder.recordUse("1000000012", 1000L);
+
+    //then
+    verify(transactionService, timeout(1000)).saveFailedTransactions(anyList());
+    failedTransactionRecorder.stop();
+    assertEquals("1000000012",
+            FailedTransaction.fromLine(Files.readAllLines(fallbackFile()).get(0)).getAccountNumber());
+  }
+
+  @Test
+  void replayFallbackFileOnStart() throws Exception {
+    //given
+    LocalDateTime failedAt = LocalDateTime.now().withNano(0);
+    Files.write(fallbackFile(), List.of(
+            new FailedTransaction(USE, "1000000012", 1000L, failedAt).toLine()));
+    failedTransactionRecorder = create(10);
+
+    //when
+    failedTransactionRecorder.start();
+
+    //then
+    verify(transactionService, timeout(1000)).saveFailedTransactions(captor.capture());
+    assertEquals(failedAt, captor.getValue().get(0).getTransactedAt());
+    failedTransactionRecorder.stop();
+    assertFalse(Files.exists(fallbackFile()));
+    assertFalse(Files.exists(tempDir.resolve("failed-transactions.log.replay")));
+  }
+
+  private FailedTransactionRecorder create(int capacity) {
+    meterRegistry = new SimpleMeterRegistry();
+    return new FailedTransactionRecorder(transactionService, meterRegistry,
+            capacity, 10, fallbackFile());
+  }
+
+  private Path fallbackFile() {
+    return tempDir.resolve("failed-transactions.log");
+  }
+}
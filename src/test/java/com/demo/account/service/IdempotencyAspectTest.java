@@ -0,0 +1,198 @@
+package com.demo.account.service;
+
+import com.demo.account.aop.Idempotent;
+import com.demo.account.cache.IdempotencyCache;
+import com.demo.account.dto.UseBalance;
+import com.demo.account.exception.AccountException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+import static com.demo.account.type.ErrorCode.*;
+import static com.demo.account.type.TransactionResultType.S;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyAspectTest {
+  @Mock
+  private ProceedingJoinPoint proceedingJoinPoint;
+
+  @Mock
+  private MethodSignature signature;
+
+  private final Idempotent idempotent = mock(Idempotent.class);
+
+  private MockHttpServletRequest request;
+
+  private IdempotencyAspect idempotencyAspect;
+
+  @BeforeEach
+  void setUp() {
+    request = new MockHttpServletRequest();
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    idempotencyAspect = new IdempotencyAspect(
+            new IdempotencyCache(null, "local", 100, Duration.ofHours(1), Duration.ofSeconds(30)),
+            new ObjectMapper().registerModule(new JavaTimeModule()),
+            new SimpleMeterRegistry());
+  }
+
+  @AfterEach
+  void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @Test
+  void proceedWithoutKey() throws Throwable {
+    //given
+    given(proceedingJoinPoint.proceed()).willReturn(response());
+
+    //when
+    idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent);
+    idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent);
+
+    //then
+    verify(proceedingJoinPoint, times(2)).proceed();
+  }
+
+  @Test
+  void replayStoredResponse() throws Throwable {
+    //given
+    givenRequest(1000L);
+    given(proceedingJoinPoint.proceed()).willReturn(response());
+    given(signature.getMethod()).willReturn(
+            getClass().getDeclaredMethod("useBalance", UseBalance.Request.class));
+    request.addHeader(IdempotencyAspect.HEADER, "key-1");
+
+    //when
+    idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent);
+    UseBalance.Response replayed = (UseBalance.Response)
+            idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent);
+
+    //then
+    verify(proceedingJoinPoint, times(1)).proceed();
+    assertEquals("transactionId", replayed.getTransactionId());
+    assertEquals(1000L, replayed.getAmount());
+    assertEquals(S, replayed.getTransactionResult());
+  }
+
+  @Test
+  void replayStoredResponseOfAsyncEndpoint() throws Throwable {
+    //given
+    givenRequest(1000L);
+    given(proceedingJoinPoint.proceed())
+            .willReturn(CompletableFuture.completedFuture(response()));
+    given(signature.getMethod()).willReturn(
+            getClass().getDeclaredMethod("useBalanceAsync", UseBalance.Request.class));
+    request.addHeader(IdempotencyAspect.HEADER, "key-1");
+
+    //when
+    ((CompletableFuture<?>) idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent)).join();
+    Object replayed = ((CompletableFuture<?>)
+            idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent)).join();
+
+    //then
+    verify(proceedingJoinPoint, times(1)).proceed();
+    assertEquals("transactionId", ((UseBalance.Response) replayed).getTransactionId());
+  }
+
+  @Test
+  void rejectDifferentRequestWithSameKey() throws Throwable {
+    //given
+    givenRequest(1000L);
+    given(proceedingJoinPoint.proceed()).willReturn(response());
+    request.addHeader(IdempotencyAspect.HEADER, "key-1");
+    idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent);
+
+    //when
+    givenRequest(2000L);
+    AccountException exception = assertThrows(AccountException.class,
+            () -> idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent));
+
+    //then
+    assertEquals(IDEMPOTENCY_KEY_REUSED, exception.getErrorCode());
+  }
+
+  @Test
+  void rejectWhileInProgress() throws Throwable {
+    //given
+    givenRequest(1000L);
+    request.addHeader(IdempotencyAspect.HEADER, "key-1");
+    //첫 요청이 끝나기 전에 같은 요청이 들어온다
+    given(proceedingJoinPoint.proceed()).willAnswer(invocation -> {
+      AccountException exception = assertThrows(AccountException.class,
+              () -> idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent));
+      assertEquals(REQUEST_IN_PROGRESS, exception.getErrorCode());
+      return response();
+    });
+
+    //when
+    idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent);
+
+    //then
+    verify(proceedingJoinPoint, times(1)).proceed();
+  }
+
+  @Test
+  void retryAfterFailure() throws Throwable {
+    //given
+    givenRequest(1000L);
+    request.addHeader(IdempotencyAspect.HEADER, "key-1");
+    given(proceedingJoinPoint.proceed())
+            .willThrow(new AccountException(AMOUNT_EXCEED_BALANCE))
+            .willReturn(response());
+
+    //when
+    assertThrows(AccountException.class,
+            () -> idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent));
+    Object result = idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent);
+
+    //then
+    verify(proceedingJoinPoint, times(2)).proceed();
+    assertEquals("transactionId", ((UseBalance.Response) result).getTransactionId());
+  }
+
+  private void givenRequest(Long amount) {
+    given(proceedingJoinPoint.getSignature()).willReturn(signature);
+    given(signature.getName()).willReturn("useBalance");
+    given(proceedingJoinPoint.getArgs()).willReturn(
+            new Object[]{new UseBalance.Request(1L, "1000000012", amount)});
+  }
+
+  private UseBalance.Response response() {
+    return UseBalance.Response.builder()
+            .accountNumber("1000000012")
+            .transactionResult(S)
+            .transactionId("transactionId")
+            .amount(1000L)
+            .transactedAt(LocalDateTime.now())
+            .build();
+  }
+
+  //반환 타입 확인용 엔드포인트 모양
+  private UseBalance.Response useBalance(UseBalance.Request request) {
+    return null;
+  }
+
+  private CompletableFuture<UseBalance.Response> useBalanceAsync(UseBalance.Request request) {
+    return null;
+  }
+}
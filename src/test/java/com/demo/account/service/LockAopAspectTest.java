@@ -1,19 +1,35 @@
 package com.demo.account.service;
 
+import com.demo.account.aop.AccountLock;
+import com.demo.account.dto.Transfer;
 import com.demo.account.dto.UseBalance;
 import com.demo.account.exception.AccountException;
+import com.demo.account.type.TransactionMode;
 import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
+import java.util.Map;
+
 import static com.demo.account.type.ErrorCode.ACCOUNT_NOT_FOUND;
+import static com.demo.account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -25,12 +41,34 @@ class LockAopAspectTest {
   @Mock
   private ProceedingJoinPoint proceedingJoinPoint;
 
+  @Mock
+  private Signature signature;
+
+  @Mock
+  private AccountLock accountLock;
+
+  @Spy
+  private TransactionModeResolver transactionModeResolver = new TransactionModeResolver(
+          TransactionMode.LOCK, Map.of("cancelBalance", TransactionMode.OPTIMISTIC));
+
   @InjectMocks
   private LockAopAspect lockAopAspect;
 
+  @BeforeEach
+  void setUp() {
+    given(proceedingJoinPoint.getSignature()).willReturn(signature);
+    given(signature.getName()).willReturn("useBalance");
+  }
+
+  private void givenLockTimes() {
+    given(accountLock.tryLockTime()).willReturn(1000L);
+    given(accountLock.leaseTime()).willReturn(15000L);
+  }
+
   @Test
   void lockAndUnlock() throws Throwable {
     //given
+    givenLockTimes();
     ArgumentCaptor<String> lockArgsCaptor =
             ArgumentCaptor.forClass(String.class);
     ArgumentCaptor<String> unlockArgsCaptor =
@@ -38,12 +76,12 @@ class LockAopAspectTest {
     UseBalance.Request request = new UseBalance.Request(123L, "1234444444",1000L);
 
     //when
-    lockAopAspect.aroundMethod(proceedingJoinPoint, request);
+    lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
     //then
     verify(lockService, times(1))
-            .lock(lockArgsCaptor.capture());
+            .lock(lockArgsCaptor.capture(), eq("useBalance"), eq(1000L), eq(15000L));
     verify(lockService, times(1))
-            .unlock(unlockArgsCaptor.capture());
+            .unlock(unlockArgsCaptor.capture(), eq("useBalance"));
     assertEquals("1234444444", lockArgsCaptor.getValue());
     assertEquals("1234444444", unlockArgsCaptor.getValue());
   }
@@ -51,6 +89,7 @@ class LockAopAspectTest {
   @Test
   void lockAndUnlock_evenIfThrow() throws Throwable {
     //given
+    givenLockTimes();
     ArgumentCaptor<String> lockArgsCaptor =
             ArgumentCaptor.forClass(String.class);
     ArgumentCaptor<String> unlockArgsCaptor =
@@ -61,14 +100,66 @@ class LockAopAspectTest {
             .willThrow(new AccountException(ACCOUNT_NOT_FOUND));
     //when
     assertThrows(AccountException.class, () ->
-            lockAopAspect.aroundMethod(proceedingJoinPoint, request));
+            lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request));
     //then
     verify(lockService, times(1))
-            .lock(lockArgsCaptor.capture());
+            .lock(lockArgsCaptor.capture(), eq("useBalance"), eq(1000L), eq(15000L));
     verify(lockService, times(1))
-            .unlock(unlockArgsCaptor.capture());
+            .unlock(unlockArgsCaptor.capture(), eq("useBalance"));
     assertEquals("54321", lockArgsCaptor.getValue());
     assertEquals("54321", unlockArgsCaptor.getValue());
   }
 
-}
\ No newline at end of file
+  @Test
+  void skipLockForOptimisticEndpoint() throws Throwable {
+    //given
+    given(signature.getName()).willReturn("cancelBalance");
+    UseBalance.Request request = new UseBalance.Request(123L, "1234444444",1000L);
+
+    //when
+    lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
+
+    //then
+    verify(proceedingJoinPoint, times(1)).proceed();
+    verify(lockService, never()).lock(anyString(), anyString(), anyLong(), anyLong());
+    verify(lockService, never()).unlock(anyString(), anyString());
+  }
+
+  @Test
+  void lockAllForTransfer() throws Throwable {
+    //given
+    given(signature.getName()).willReturn("transfer");
+    givenLockTimes();
+    Transfer.Request request = new Transfer.Request(
+            123L, "1234444444", "1230000000", 1000L);
+
+    //when
+    lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
+
+    //then
+    verify(lockService).lockAll(List.of("1234444444", "1230000000"), "transfer", 1000L, 15000L);
+    verify(lockService).unlockAll(List.of("1234444444", "1230000000"), "transfer");
+    verify(lockService, never()).lock(anyString(), anyString(), anyLong(), anyLong());
+  }
+
+  @Test
+  void skipTransferWhenLockAllFails() throws Throwable {
+    //given
+    given(signature.getName()).willReturn("transfer");
+    givenLockTimes();
+    willThrow(new AccountException(ACCOUNT_TRANSACTION_LOCK))
+            .given(lockService).lockAll(any(), anyString(), anyLong(), anyLong());
+    Transfer.Request request = new Transfer.Request(
+            123L, "1234444444", "1230000000", 1000L);
+
+    //when
+    AccountException exception = assertThrows(AccountException.class, () ->
+            lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request));
+
+    //then
+    //잡지 않은 lock 은 풀지 않는다
+    assertEquals(ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+    verify(proceedingJoinPoint, never()).proceed();
+    verify(lockService, never()).unlockAll(any(), anyString());
+  }
+}
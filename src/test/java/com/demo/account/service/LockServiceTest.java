@@ -1,36 +1,46 @@
 package com.demo.account.service;
 
 import com.demo.account.exception.AccountException;
+import com.demo.account.lock.AsyncLockBackend;
+import com.demo.account.lock.LockBackend;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 import static com.demo.account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class LockServiceTest {
   @Mock
-  private RedissonClient redissonClient;
+  private AsyncLockBackend lockBackend;
 
-  @Mock
-  private RLock rLock;
+  private SimpleMeterRegistry meterRegistry;
 
-  @InjectMocks
   private LockService lockService;
 
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    lockService = new LockService(lockBackend, meterRegistry);
+  }
+
   @Test
   void successGetLock() throws InterruptedException {
     //given
-    given(redissonClient.getLock(anyString()))
-            .willReturn(rLock);
-    given(rLock.tryLock(anyLong(), anyLong(), any()))
+    given(lockBackend.tryLock(anyString(), anyLong(), anyLong(), any()))
             .willReturn(true);
 
     //when
@@ -41,13 +51,190 @@ class LockServiceTest {
   @Test
   void failGetLock() throws InterruptedException {
     //given
-    given(redissonClient.getLock(anyString()))
-            .willReturn(rLock);
-    given(rLock.tryLock(anyLong(), anyLong(), any()))
+    given(lockBackend.tryLock(anyString(), anyLong(), anyLong(), any()))
             .willReturn(false);
     //when
     AccountException exception = assertThrows(AccountException.class, () -> lockService.lock("123"));
     //then
     assertEquals(ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
   }
-}
\ No newline at end of file
+
+  @Test
+  void unlockWithSameKey() {
+    //given
+    //when
+    lockService.unlock("123");
+    //then
+    verify(lockBackend).unlock("ACLK123");
+  }
+
+  @Test
+  void lockWithWaitAndLeaseTime() throws InterruptedException {
+    //given
+    given(lockBackend.tryLock("ACLK123", 0, 3000L, TimeUnit.MILLISECONDS))
+            .willReturn(false);
+    given(lockBackend.tryLock("ACLK123", 500L, 3000L, TimeUnit.MILLISECONDS))
+            .willReturn(true);
+
+    //when
+    lockService.lock("123", "useBalance", 500L, 3000L);
+    lockService.unlock("123", "useBalance");
+
+    //then
+    assertEquals(1.0, meterRegistry.counter("account.lock.contention",
+            "endpoint", "useBalance").count());
+    assertEquals(1L, meterRegistry.timer("account.lock.wait",
+            "endpoint", "useBalance", "result", "acquired").count());
+    assertEquals(1L, meterRegistry.timer("account.lock.held",
+            "endpoint", "useBalance").count());
+  }
+
+  @Test
+  void countTimeout() throws InterruptedException {
+    //given
+    given(lockBackend.tryLock(anyString(), anyLong(), anyLong(), any()))
+            .willReturn(false);
+
+    //when
+    assertThrows(AccountException.class,
+            () -> lockService.lock("123", "cancelBalance", 100L, 1000L));
+
+    //then
+    assertEquals(1.0, meterRegistry.counter("account.lock.timeout",
+            "endpoint", "cancelBalance").count());
+    assertEquals(1L, meterRegistry.timer("account.lock.wait",
+            "endpoint", "cancelBalance", "result", "timeout").count());
+  }
+
+  @Test
+  void lockAsyncWithContention() {
+    //given
+    given(lockBackend.tryLockAsync(eq("ACLK123"), eq(0L), eq(3000L), eq(TimeUnit.MILLISECONDS), anyLong()))
+            .willReturn(CompletableFuture.completedFuture(false));
+    given(lockBackend.tryLockAsync(eq("ACLK123"), eq(500L), eq(3000L), eq(TimeUnit.MILLISECONDS), anyLong()))
+            .willReturn(CompletableFuture.completedFuture(true));
+    given(lockBackend.unlockAsync(eq("ACLK123"), anyLong()))
+            .willReturn(CompletableFuture.completedFuture(null));
+
+    //when
+    long ownerId = lockService.lockAsync("123", "useBalanceAsync", 500L, 3000L).join();
+    lockService.unlockAsync("123", "useBalanceAsync", ownerId).join();
+
+    //then
+    assertTrue(ownerId < 0);
+    verify(lockBackend).unlockAsync("ACLK123", ownerId);
+    assertEquals(1.0, meterRegistry.counter("account.lock.contention",
+            "endpoint", "useBalanceAsync").count());
+    assertEquals(1L, meterRegistry.timer("account.lock.held",
+            "endpoint", "useBalanceAsync").count());
+  }
+
+  @Test
+  void lockAsyncTimeout() {
+    //given
+    given(lockBackend.tryLockAsync(anyString(), anyLong(), anyLong(), any(), anyLong()))
+            .willReturn(CompletableFuture.completedFuture(false));
+
+    //when
+    CompletionException exception = assertThrows(CompletionException.class,
+            () -> lockService.lockAsync("123", "cancelBalanceAsync", 100L, 1000L).join());
+
+    //then
+    assertEquals(ACCOUNT_TRANSACTION_LOCK,
+            ((AccountException) exception.getCause()).getErrorCode());
+    assertEquals(1.0, meterRegistry.counter("account.lock.timeout",
+            "endpoint", "cancelBalanceAsync").count());
+  }
+
+  @Test
+  void lockAsyncNotSupported() {
+    //given
+    LockService syncOnly = new LockService(mock(LockBackend.class), meterRegistry);
+
+    //when
+    //then
+    assertTrue(lockService.supportsAsync());
+    assertFalse(syncOnly.supportsAsync());
+    assertThrows(IllegalStateException.class,
+            () -> syncOnly.lockAsync("123", "useBalanceAsync", 100L, 1000L));
+  }
+
+  @Test
+  void unlockAsyncIgnoresBackendError() {
+    //given
+    given(lockBackend.unlockAsync(anyString(), anyLong()))
+            .willReturn(CompletableFuture.failedFuture(new IllegalStateException("not owner")));
+
+    //when
+    //then
+    assertDoesNotThrow(() -> lockService.unlockAsync("123", "useBalanceAsync", -1L).join());
+  }
+
+  @Test
+  void lockAllInAccountNumberOrder() throws InterruptedException {
+    //given
+    given(lockBackend.tryLockAll(List.of("ACLK111", "ACLK222"), 0, 3000L, TimeUnit.MILLISECONDS))
+            .willReturn(true);
+
+    //when
+    lockService.lockAll(List.of("222", "111"), "transfer", 500L, 3000L);
+    lockService.unlockAll(List.of("222", "111"), "transfer");
+
+    //then
+    verify(lockBackend).unlockAll(List.of("ACLK111", "ACLK222"));
+    assertEquals(1L, meterRegistry.timer("account.lock.held",
+            "endpoint", "transfer").count());
+  }
+
+  @Test
+  void lockAllTimeout() throws InterruptedException {
+    //given
+    given(lockBackend.tryLockAll(anyList(), anyLong(), anyLong(), any()))
+            .willReturn(false);
+
+    //when
+    AccountException exception = assertThrows(AccountException.class,
+            () -> lockService.lockAll(List.of("111", "222"), "transfer", 100L, 1000L));
+
+    //then
+    assertEquals(ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+    assertEquals(1.0, meterRegistry.counter("account.lock.contention",
+            "endpoint", "transfer").count());
+    assertEquals(1.0, meterRegistry.counter("account.lock.timeout",
+            "endpoint", "transfer").count());
+  }
+
+  @Test
+  void lockFailsOnBackendError() throws InterruptedException {
+    //given
+    given(lockBackend.tryLock(anyString(), anyLong(), anyLong(), any()))
+            .willThrow(new IllegalStateException("redis down"));
+
+    //when
+    //lock 없이 거래를 진행하지 않는다
+    AccountException exception = assertThrows(AccountException.class,
+            () -> lockService.lock("123", "useBalance", 100L, 1000L));
+
+    //then
+    assertEquals(ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+    assertEquals(1L, meterRegistry.timer("account.lock.wait",
+            "endpoint", "useBalance", "result", "error").count());
+  }
+
+  @Test
+  void lockAllFailsOnBackendError() throws InterruptedException {
+    //given
+    given(lockBackend.tryLockAll(anyList(), anyLong(), anyLong(), any()))
+            .willThrow(new IllegalStateException("redis down"));
+
+    //when
+    //lock 없이 이체를 진행하지 않는다
+    AccountException exception = assertThrows(AccountException.class,
+            () -> lockService.lockAll(List.of("111", "222"), "transfer", 100L, 1000L));
+
+    //then
+    assertEquals(ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+    assertEquals(1L, meterRegistry.timer("account.lock.wait",
+            "endpoint", "transfer", "result", "error").count());
+  }
+}
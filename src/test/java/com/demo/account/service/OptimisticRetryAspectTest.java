@@ -0,0 +1,106 @@
+package com.demo.account.service;
+
+import com.demo.account.exception.AccountException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import static com.demo.account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static com.demo.account.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class OptimisticRetryAspectTest {
+  @Mock
+  private ProceedingJoinPoint proceedingJoinPoint;
+
+  @Mock
+  private Signature signature;
+
+  private SimpleMeterRegistry meterRegistry;
+
+  private OptimisticRetryAspect optimisticRetryAspect;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    optimisticRetryAspect = new OptimisticRetryAspect(meterRegistry, 3, 1L, 4L);
+  }
+
+  private void givenEndpoint() {
+    given(proceedingJoinPoint.getSignature()).willReturn(signature);
+    given(signature.getName()).willReturn("useBalance");
+  }
+
+  @Test
+  void retryUntilSuccess() throws Throwable {
+    //given
+    givenEndpoint();
+    given(proceedingJoinPoint.proceed())
+            .willThrow(new ObjectOptimisticLockingFailureException("Account", 1L))
+            .willThrow(new ObjectOptimisticLockingFailureException("Account", 1L))
+            .willReturn("ok");
+
+    //when
+    Object result = optimisticRetryAspect.aroundMethod(proceedingJoinPoint);
+
+    //then
+    assertEquals("ok", result);
+    verify(proceedingJoinPoint, times(3)).proceed();
+    assertEquals(2.0, meterRegistry.counter("account.optimistic.retry",
+            "endpoint", "useBalance").count());
+  }
+
+  @Test
+  void retryExhausted() throws Throwable {
+    //given
+    givenEndpoint();
+    given(proceedingJoinPoint.proceed())
+            .willThrow(new ObjectOptimisticLockingFailureException("Account", 1L));
+
+    //when
+    AccountException exception = assertThrows(AccountException.class,
+            () -> optimisticRetryAspect.aroundMethod(proceedingJoinPoint));
+
+    //then
+    assertEquals(ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+    verify(proceedingJoinPoint, times(3)).proceed();
+    assertEquals(1.0, meterRegistry.counter("account.optimistic.exhausted",
+            "endpoint", "useBalance").count());
+  }
+
+  @Test
+  void doNotRetryOtherException() throws Throwable {
+    //given
+    givenEndpoint();
+    given(proceedingJoinPoint.proceed())
+            .willThrow(new AccountException(AMOUNT_EXCEED_BALANCE));
+
+    //when
+    assertThrows(AccountException.class,
+            () -> optimisticRetryAspect.aroundMethod(proceedingJoinPoint));
+
+    //then
+    verify(proceedingJoinPoint, times(1)).proceed();
+  }
+
+  @Test
+  void backoffIsBounded() {
+    //given
+    //when
+    //then
+    for (int attempt = 1; attempt < 70; attempt++) {
+      long backoff = optimisticRetryAspect.backoff(attempt);
+      assertTrue(backoff >= 0 && backoff <= 4L);
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package com.demo.account.service;
+
+import com.demo.account.dto.TransactionCommand;
+import com.demo.account.dto.TransactionCommandResult;
+import com.demo.account.dto.TransactionDto;
+import com.demo.account.dto.UseBalance;
+import com.demo.account.exception.AccountException;
+import com.demo.account.type.TransactionMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.demo.account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static com.demo.account.type.TransactionResultType.S;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionBatchServiceTest {
+  @Mock
+  private TransactionService transactionService;
+
+  @Mock
+  private LockService lockService;
+
+  @Mock
+  private AccountCommandQueue accountCommandQueue;
+
+  @Spy
+  private TransactionModeResolver transactionModeResolver =
+          new TransactionModeResolver(TransactionMode.LOCK, Map.of());
+
+  @InjectMocks
+  private TransactionBatchService transactionBatchService;
+
+  @Test
+  void useBalancesGroupedByAccount() {
+    //given
+    given(transactionService.applyCommands(anyString(), anyList()))
+            .willAnswer(invocation -> {
+              String accountNumber = invocation.getArgument(0);
+              List<TransactionCommand> commands = invocation.getArgument(1);
+              return commands.stream()
+                      .map(command -> TransactionCommandResult.success(
+                              TransactionDto.builder()
+                                      .accountNumber(accountNumber)
+                                      .amount(command.getAmount())
+                                      .transactionResultType(S)
+                                      .build()))
+                      .toList();
+            });
+
+    //when
+    List<TransactionCommandResult> results = transactionBatchService.useBalances(List.of(
+            new UseBalance.Request(1L, "1000000000", 100L),
+            new UseBalance.Request(2L, "1000000001", 200L),
+            new UseBalance.Request(1L, "1000000000", 300L)));
+
+    //then
+    verify(lockService, times(1)).lock(eq("1000000000"), anyString(), anyLong(), anyLong());
+    verify(lockService, times(1)).lock(eq("1000000001"), anyString(), anyLong(), anyLong());
+    verify(transactionService, times(2)).applyCommands(anyString(), anyList());
+    assertEquals(3, results.size());
+    assertEquals("1000000000", results.get(0).getTransaction().getAccountNumber());
+    assertEquals(100L, results.get(0).getTransaction().getAmount());
+    assertEquals("1000000001", results.get(1).getTransaction().getAccountNumber());
+    assertEquals(200L, results.get(1).getTransaction().getAmount());
+    assertEquals("1000000000", results.get(2).getTransaction().getAccountNumber());
+    assertEquals(300L, results.get(2).getTransaction().getAmount());
+  }
+
+  @Test
+  void lockFailedForOneAccount() {
+    //given
+    willThrow(new AccountException(ACCOUNT_TRANSACTION_LOCK))
+            .given(lockService).lock(eq("1000000000"), anyString(), anyLong(), anyLong());
+    given(transactionService.applyCommands(eq("1000000001"), anyList()))
+            .willReturn(List.of(TransactionCommandResult.success(
+                    TransactionDto.builder()
+                            .accountNumber("1000000001")
+                            .transactionResultType(S)
+                            .build())));
+
+    //when
+    List<TransactionCommandResult> results = transactionBatchService.useBalances(List.of(
+            new UseBalance.Request(1L, "1000000000", 100L),
+            new UseBalance.Request(2L, "1000000001", 200L)));
+
+    //then
+    assertFalse(results.get(0).isSuccess());
+    assertEquals(ACCOUNT_TRANSACTION_LOCK, results.get(0).getErrorCode());
+    assertTrue(results.get(1).isSuccess());
+    verify(lockService, times(0)).unlock(eq("1000000000"), anyString());
+  }
+}
@@ -0,0 +1,182 @@
+package com.demo.account.service;
+
+import com.demo.account.cache.AccountLookup;
+import com.demo.account.cache.AccountLookupCache;
+import com.demo.account.domain.Account;
+import com.demo.account.domain.Transaction;
+import com.demo.account.dto.TransactionHistory;
+import com.demo.account.exception.AccountException;
+import com.demo.account.repository.TransactionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.demo.account.type.AccountStatus.IN_USE;
+import static com.demo.account.type.ErrorCode.ACCOUNT_NOT_FOUND;
+import static com.demo.account.type.ErrorCode.INVALID_REQUEST;
+import static com.demo.account.type.TransactionResultType.S;
+import static com.demo.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionHistoryServiceTest {
+  private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+  @Mock
+  private TransactionRepository transactionRepository;
+
+  @Mock
+  private AccountLookupCache accountLookupCache;
+
+  @Mock
+  private EntityManager entityManager;
+
+  private TransactionHistoryService transactionHistoryService;
+
+  @BeforeEach
+  void setUp() {
+    ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    transactionHistoryService = new TransactionHistoryService(
+            transactionRepository, accountLookupCache, entityManager, objectMapper);
+  }
+
+  @Test
+  @DisplayName("첫 페이지 - 한 건 더 있으면 다음 커서를 돌려준다")
+  void getTransactions_firstPage() {
+    //given
+    given(accountLookupCache.get(anyString()))
+            .willReturn(Optional.of(new AccountLookup(1L, 12L, IN_USE)));
+    given(transactionRepository.findLatestByAccountId(anyLong(), any()))
+            .willReturn(List.of(transaction(30L, "tx3", NOW),
+                    transaction(20L, "tx2", NOW.minusMinutes(1)),
+                    transaction(10L, "tx1", NOW.minusMinutes(2))));
+    ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+
+    //when
+    TransactionHistory.Response response =
+            transactionHistoryService.getTransactions("1000000012", null, 2);
+
+    //then
+    verify(transactionRepository, times(1)).findLatestByAccountId(eq(1L), captor.capture());
+    assertEquals(3, captor.getValue().getPageSize());
+    assertEquals(2, response.getTransactions().size());
+    assertEquals("tx3", response.getTransactions().get(0).getTransactionId());
+    assertEquals("tx2", response.getTransactions().get(1).getTransactionId());
+    assertNotNull(response.getNextCursor());
+  }
+
+  @Test
+  @DisplayName("다음 페이지 - 커서의 마지막 거래 다음부터 조회")
+  void getTransactions_nextPage() {
+    //given
+    given(accountLookupCache.get(anyString()))
+            .willReturn(Optional.of(new AccountLookup(1L, 12L, IN_USE)));
+    given(transactionRepository.findLatestByAccountId(anyLong(), any()))
+            .willReturn(List.of(transaction(30L, "tx3", NOW),
+                    transaction(20L, "tx2", NOW.minusMinutes(1)),
+                    transaction(10L, "tx1", NOW.minusMinutes(2))));
+    given(transactionRepository.findNextByAccountId(anyLong(), any(), anyLong(), any()))
+            .willReturn(List.of(transaction(10L, "tx1", NOW.minusMinutes(2))));
+    String cursor = transactionHistoryService.getTransactions("1000000012", null, 2)
+            .getNextCursor();
+
+    //when
+    TransactionHistory.Response response =
+            transactionHistoryService.getTransactions("1000000012", cursor, 2);
+
+    //then
+    verify(transactionRepository, times(1)).findNextByAccountId(
+            eq(1L), eq(NOW.minusMinutes(1)), eq(20L), any());
+    assertEquals(1, response.getTransactions().size());
+    assertEquals("tx1", response.getTransactions().get(0).getTransactionId());
+    assertNull(response.getNextCursor());
+  }
+
+  @Test
+  @DisplayName("잘못된 커서 - 조회 실패")
+  void getTransactions_invalidCursor() {
+    //given
+    given(accountLookupCache.get(anyString()))
+            .willReturn(Optional.of(new AccountLookup(1L, 12L, IN_USE)));
+
+    //when
+    AccountException exception = assertThrows(AccountException.class,
+            () -> transactionHistoryService.getTransactions("1000000012", "not-a-cursor", 20));
+
+    //then
+    assertEquals(INVALID_REQUEST, exception.getErrorCode());
+  }
+
+  @Test
+  @DisplayName("계좌 없음 - 조회 실패")
+  void getTransactions_accountNotFound() {
+    //given
+    given(accountLookupCache.get(anyString()))
+            .willReturn(Optional.empty());
+
+    //when
+    AccountException exception = assertThrows(AccountException.class,
+            () -> transactionHistoryService.getTransactions("1000000012", null, 20));
+
+    //then
+    assertEquals(ACCOUNT_NOT_FOUND, exception.getErrorCode());
+  }
+
+  @Test
+  @DisplayName("내보내기 - 거래 한 건당 한 줄, 쓴 거래는 영속성 컨텍스트에서 뗀다")
+  void exportTransactions() throws Exception {
+    //given
+    Transaction tx2 = transaction(20L, "tx2", NOW);
+    Transaction tx1 = transaction(10L, "tx1", NOW.minusMinutes(1));
+    given(transactionRepository.streamByAccountId(anyLong()))
+            .willReturn(Stream.of(tx2, tx1));
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    //when
+    transactionHistoryService.exportTransactions(1L, outputStream);
+
+    //then
+    String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(2, lines.length);
+    assertTrue(lines[0].contains("\"transactionId\":\"tx2\""));
+    assertTrue(lines[1].contains("\"transactionId\":\"tx1\""));
+    verify(entityManager, times(1)).detach(tx2);
+    verify(entityManager, times(1)).detach(tx1);
+  }
+
+  private Transaction transaction(Long id, String transactionId, LocalDateTime transactedAt) {
+    Transaction transaction = Transaction.builder()
+            .account(Account.builder().accountNumber("1000000012").build())
+            .transactionType(USE)
+            .transactionResultType(S)
+            .transactionId(transactionId)
+            .transactedAt(transactedAt)
+            .amount(1000L)
+            .balanceSnapshot(9000L)
+            .build();
+    transaction.setId(id);
+    return transaction;
+  }
+}
@@ -1,10 +1,20 @@
 package com.demo.account.service;
 
+import com.demo.account.cache.AccountLookup;
+import com.demo.account.cache.AccountLookupCache;
+import com.demo.account.cache.TransactionCache;
 import com.demo.account.domain.Account;
 import com.demo.account.domain.AccountUser;
 import com.demo.account.domain.Transaction;
+import com.demo.account.dto.FailedTransaction;
+import com.demo.account.dto.TransactionCommand;
+import com.demo.account.dto.TransactionCommandResult;
 import com.demo.account.dto.TransactionDto;
+import com.demo.account.dto.TransferDto;
 import com.demo.account.exception.AccountException;
+import com.demo.account.id.TransactionIdGenerator;
+import com.demo.account.ledger.TransactionLedger;
+import com.demo.account.outbox.BalanceChangeOutbox;
 import com.demo.account.repository.AccountRepository;
 import com.demo.account.repository.AccountUserRepository;
 import com.demo.account.repository.TransactionRepository;
@@ -13,11 +23,14 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static com.demo.account.type.AccountStatus.IN_USE;
@@ -25,11 +38,15 @@ import static com.demo.account.type.ErrorCode.*;
 import static com.demo.account.type.TransactionResultType.F;
 import static com.demo.account.type.TransactionResultType.S;
 import static com.demo.account.type.TransactionType.CANCEL;
+import static com.demo.account.type.TransactionType.TRANSFER_IN;
+import static com.demo.account.type.TransactionType.TRANSFER_OUT;
 import static com.demo.account.type.TransactionType.USE;
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -44,6 +61,27 @@ class TransactionServiceTest {
   @Mock
   private AccountUserRepository accountUserRepository;
 
+  @Mock
+  private AccountLookupCache accountLookupCache;
+
+  @Mock
+  private TransactionCache transactionCache;
+
+  @Mock
+  private TransactionLedger transactionLedger;
+
+  @Mock
+  private BalanceChangeOutbox balanceChangeOutbox;
+
+  @Mock
+  private DailySummaryRecorder dailySummaryRecorder;
+
+  @Mock
+  private TransactionIdGenerator transactionIdGenerator;
+
+  @Captor
+  private ArgumentCaptor<List<Transaction>> transactionsCaptor;
+
   @InjectMocks
   private TransactionService transactionService;
 
@@ -58,12 +96,15 @@ class TransactionServiceTest {
             .accountStatus(IN_USE)
             .balance(10000L)
             .accountNumber("1000000012").build();
+    account.setId(1L);
 
-    given(accountUserRepository.findById(anyLong()))
-            .willReturn(Optional.of(user));
-    given(accountRepository.findByAccountNumber(anyString()))
+    given(accountLookupCache.get(anyString()))
+            .willReturn(Optional.of(new AccountLookup(1L, 12L, IN_USE)));
+    given(accountRepository.findById(anyLong()))
             .willReturn(Optional.of(account));
-    given(transactionRepository.save(any()))
+    given(transactionIdGenerator.nextId())
+            .willReturn("01JAR9W3Q8ZP6D7C5B4A3E2F1G");
+    given(transactionLedger.append(any()))
             .willReturn(Transaction.builder()
                     .account(account)
                     .transactionType(USE)
@@ -78,23 +119,31 @@ class TransactionServiceTest {
 
     //when
     TransactionDto transactionDto = transactionService.useBalance(
-            1L, "1000000000", 200L);
+            12L, "1000000000", 200L);
     //then
     //저장을 하는지 확인
-    verify(transactionRepository, times(1)).save(captor.capture());
+    verify(transactionLedger, times(1)).append(captor.capture());
+    //잔액 변경 이벤트도 같은 트랜잭션에서 남기는지 확인
+    verify(balanceChangeOutbox, times(1)).record(any());
     //값이 맞는지 확인 -> captor에 있는건 when에 있는 값
     assertEquals(200L, captor.getValue().getAmount());
     assertEquals(9800L, captor.getValue().getBalanceSnapshot());
+    //거래 id 는 발급기에서 받는다
+    assertEquals("01JAR9W3Q8ZP6D7C5B4A3E2F1G", captor.getValue().getTransactionId());
     assertEquals(S, transactionDto.getTransactionResultType());
     assertEquals(USE, transactionDto.getTransactionType());
     assertEquals(9000L, transactionDto.getBalanceSnapshot());
     assertEquals(1000L, transactionDto.getAmount());
+    //저장한 거래는 캐시에도 넣는다
+    verify(transactionCache, times(1)).put(any());
   }
 
   @Test
   @DisplayName("해당 유저 없음 - 잔액 사용 실패")
   void useBalance_UserNotFound() {
     //given
+    given(accountLookupCache.get(anyString()))
+            .willReturn(Optional.empty());
     given(accountUserRepository.findById(anyLong()))
             .willReturn(Optional.empty());
 
@@ -115,7 +164,7 @@ class TransactionServiceTest {
     user.setId(12L);
     given(accountUserRepository.findById(anyLong()))
             .willReturn(Optional.of(user));
-    given(accountRepository.findByAccountNumber(anyString()))
+    given(accountLookupCache.get(anyString()))
             .willReturn(Optional.empty());
 
     //when
@@ -139,15 +188,12 @@ class TransactionServiceTest {
     harry.setId(13L);
     given(accountUserRepository.findById(anyLong()))
             .willReturn(Optional.of(pobi));
-    given(accountRepository.findByAccountNumber(anyString()))
-            .willReturn(Optional.of(Account.builder()
-                    .accountUser(harry)
-                    .balance(0L)
-                    .accountNumber("1000000012").build()));
+    given(accountLookupCache.get(anyString()))
+            .willReturn(Optional.of(new AccountLookup(1L, harry.getId(), IN_USE)));
 
     //when
     AccountException exception = assertThrows(AccountException.class,
-            () -> transactionService.useBalance(1L, "1000000000", 1000L));
+            () -> transactionService.useBalance(12L, "1000000000", 1000L));
 
     //then
     assertEquals(USER_ACCOUNT_UN_MATCH, exception.getErrorCode());
@@ -157,21 +203,12 @@ class TransactionServiceTest {
   @DisplayName("해지 계좌는 거래할 수 없다")
   void useBalance_alreadyUnregistered() {
     //given
-    AccountUser pobi = AccountUser.builder()
-            .name("Pobi").build();
-    pobi.setId(12L);
-    given(accountUserRepository.findById(anyLong()))
-            .willReturn(Optional.of(pobi));
-    given(accountRepository.findByAccountNumber(anyString()))
-            .willReturn(Optional.of(Account.builder()
-                    .accountUser(pobi)
-                    .accountStatus(AccountStatus.UNREGISTERED)
-                    .balance(0L)
-                    .accountNumber("1000000012").build()));
+    given(accountLookupCache.get(anyString()))
+            .willReturn(Optional.of(new AccountLookup(1L, 12L, AccountStatus.UNREGISTERED)));
 
     //when
     AccountException exception = assertThrows(AccountException.class,
-            () -> transactionService.useBalance(1L, "1000000000", 1000L));
+            () -> transactionService.useBalance(12L, "1000000000", 1000L));
 
     //then
     assertEquals(ACCOUNT_ALREADY_UNREGISTERED, exception.getErrorCode());
@@ -189,59 +226,58 @@ class TransactionServiceTest {
             .accountStatus(IN_USE)
             .balance(100L)
             .accountNumber("1000000012").build();
+    account.setId(1L);
 
-    given(accountUserRepository.findById(anyLong()))
-            .willReturn(Optional.of(user));
-    given(accountRepository.findByAccountNumber(anyString()))
+    given(accountLookupCache.get(anyString()))
+            .willReturn(Optional.of(new AccountLookup(1L, 12L, IN_USE)));
+    given(accountRepository.findById(anyLong()))
             .willReturn(Optional.of(account));
 
     //when
     //then
     AccountException exception = assertThrows(AccountException.class,
-            () -> transactionService.useBalance(1L, "1000000000", 1000L));
+            () -> transactionService.useBalance(12L, "1000000000", 1000L));
 
     assertEquals(AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
-    verify(transactionRepository, times(0)).save(any());
+    verify(transactionLedger, times(0)).append(any());
   }
 
   @Test
-  @DisplayName("실패 트랜잭션 저장 성공")
-  void saveFailedUseTransaction() {
+  @DisplayName("실패 트랜잭션 저장 성공 - 같은 계좌의 기록도 한 번에 저장한다")
+  void saveFailedTransactionsInOneBatch() {
     //given
-    AccountUser user = AccountUser.builder()
-            .name("Pobi").build();
-    user.setId(12L);
     Account account = Account.builder()
-            .accountUser(user)
             .accountStatus(IN_USE)
             .balance(10000L)
             .accountNumber("1000000012").build();
-
-    given(accountRepository.findByAccountNumber(anyString()))
-            .willReturn(Optional.of(account));
-    given(transactionRepository.save(any()))
-            .willReturn(Transaction.builder()
-                    .account(account)
-                    .transactionType(USE)
-                    .transactionResultType(S)
-                    .transactionId("transactionId")
-                    .transactedAt(LocalDateTime.now())
-                    .amount(1000L)
-                    .balanceSnapshot(9000L)
-                    .build());
-
-    ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+    LocalDateTime failedAt = LocalDateTime.now().minusSeconds(1);
+    given(accountRepository.findByAccountNumberIn(anyCollection()))
+            .willReturn(List.of(account));
+    given(transactionLedger.appendAll(anyList()))
+            .willAnswer(invocation -> invocation.getArgument(0));
 
     //when
-    transactionService.saveFailedUseTransaction("1000000000", 200L);
+    transactionService.saveFailedTransactions(List.of(
+            new FailedTransaction(USE, "1000000012", 200L, failedAt),
+            new FailedTransaction(CANCEL, "1000000012", 300L, failedAt.plusNanos(1))));
+
     //then
-    verify(transactionRepository, times(1)).save(captor.capture());
-    assertEquals(200L, captor.getValue().getAmount());
-    assertEquals(10000L, captor.getValue().getBalanceSnapshot());
-    assertEquals(F, captor.getValue().getTransactionResultType());
+    //계좌는 한 번만 읽고 거래는 한 번에 남긴다
+    verify(accountRepository, times(1)).findByAccountNumberIn(anyCollection());
+    verify(transactionLedger, never()).append(any());
+    verify(transactionLedger, times(1)).appendAll(transactionsCaptor.capture());
+    List<Transaction> transactions = transactionsCaptor.getValue();
+    assertEquals(2, transactions.size());
+    assertEquals(USE, transactions.get(0).getTransactionType());
+    assertEquals(200L, transactions.get(0).getAmount());
+    assertEquals(CANCEL, transactions.get(1).getTransactionType());
+    assertEquals(300L, transactions.get(1).getAmount());
+    //실패 거래는 잔액을 바꾸지 않는다
+    assertTrue(transactions.stream().allMatch(transaction ->
+            transaction.getTransactionResultType() == F && transaction.getBalanceSnapshot() == 10000L));
+    verify(dailySummaryRecorder, times(2)).record(any());
   }
 
-
   @Test
   void successCancelBalance() {
     //given
@@ -267,7 +303,7 @@ class TransactionServiceTest {
             .willReturn(Optional.of(transaction));
     given(accountRepository.findByAccountNumber(anyString()))
             .willReturn(Optional.of(account));
-    given(transactionRepository.save(any()))
+    given(transactionLedger.append(any()))
             .willReturn(Transaction.builder()
                     .account(account)
                     .transactionType(CANCEL)
@@ -285,7 +321,7 @@ class TransactionServiceTest {
             "transactionId", "1000000000", 200L);
     //then
     //저장을 하는지 확인
-    verify(transactionRepository, times(1)).save(captor.capture());
+    verify(transactionLedger, times(1)).append(captor.capture());
     assertEquals(200L, captor.getValue().getAmount());
     assertEquals(10000L + 200L, captor.getValue().getBalanceSnapshot());
     assertEquals(S, transactionDto.getTransactionResultType());
@@ -294,6 +330,48 @@ class TransactionServiceTest {
     assertEquals(200L, transactionDto.getAmount());
   }
 
+  @Test
+  @DisplayName("원 거래가 아직 적재 전 - 적재 후 다시 조회")
+  void cancelBalance_transactionNotLoadedYet() {
+    //given
+    AccountUser user = AccountUser.builder()
+            .name("Pobi").build();
+    user.setId(12L);
+    Account account = Account.builder()
+            .accountUser(user)
+            .accountStatus(IN_USE)
+            .balance(10000L)
+            .accountNumber("1000000012").build();
+    Transaction transaction = Transaction.builder()
+            .account(account)
+            .transactionType(USE)
+            .transactionResultType(S)
+            .transactionId("transactionId")
+            .transactedAt(LocalDateTime.now())
+            .amount(200L)
+            .balanceSnapshot(9000L)
+            .build();
+
+    given(transactionRepository.findByTransactionId(anyString()))
+            .willReturn(Optional.empty())
+            .willReturn(Optional.of(transaction));
+    given(transactionLedger.flush())
+            .willReturn(true);
+    given(accountRepository.findByAccountNumber(anyString()))
+            .willReturn(Optional.of(account));
+    given(transactionLedger.append(any()))
+            .willAnswer(invocation -> invocation.getArgument(0));
+
+    //when
+    TransactionDto transactionDto = transactionService.cancelBalance(
+            "transactionId", "1000000012", 200L);
+
+    //then
+    verify(transactionRepository, times(2)).findByTransactionId("transactionId");
+    assertEquals(CANCEL, transactionDto.getTransactionType());
+    assertEquals(10200L, transactionDto.getBalanceSnapshot());
+  }
+
   @Test
   @DisplayName("해당 계좌 없음 - 잔액 사용 취소 실패")
   void cancelTransaction_AccountNotFound() {
@@ -478,8 +556,8 @@ class TransactionServiceTest {
             .amount(200L)
             .balanceSnapshot(9000L)
             .build();
-    given(transactionRepository.findByTransactionId(anyString()))
-            .willReturn(Optional.of(transaction));
+    given(transactionRepository.findTransactionDtoByTransactionId(anyString()))
+            .willReturn(Optional.of(TransactionDto.fromEntity(transaction)));
 
     //when
     TransactionDto transactionDto = transactionService.queryTransaction("trxId");
@@ -489,6 +567,28 @@ class TransactionServiceTest {
     assertEquals(S, transactionDto.getTransactionResultType());
     assertEquals(200L, transactionDto.getAmount());
     assertEquals("transactionId", transactionDto.getTransactionId());
+    verify(transactionCache, times(1)).put(transactionDto);
+  }
+
+  @Test
+  @DisplayName("캐시에 있는 거래는 DB 를 조회하지 않음")
+  void queryTransaction_cached() {
+    //given
+    given(transactionCache.get(anyString()))
+            .willReturn(Optional.of(TransactionDto.builder()
+                    .transactionType(USE)
+                    .transactionResultType(S)
+                    .transactionId("transactionId")
+                    .amount(200L)
+                    .build()));
+
+    //when
+    TransactionDto transactionDto = transactionService.queryTransaction("transactionId");
+
+    //then
+    verify(transactionRepository, never()).findTransactionDtoByTransactionId(anyString());
+    assertEquals("transactionId", transactionDto.getTransactionId());
+    assertEquals(200L, transactionDto.getAmount());
   }
 
 
@@ -496,7 +596,7 @@ class TransactionServiceTest {
   @DisplayName("원 거래 없음 - 거래 조회 실패")
   void queryTransaction_transactionNotFound() {
     //given
-    given(transactionRepository.findByTransactionId(anyString()))
+    given(transactionRepository.findTransactionDtoByTransactionId(anyString()))
             .willReturn(Optional.empty());
 
     //when
@@ -506,4 +606,406 @@ class TransactionServiceTest {
     //then
     assertEquals(TRANSACTION_NOT_FOUND, exception.getErrorCode());
   }
-}
\ No newline at end of file
+
+  @Test
+  @DisplayName("같은 계좌 요청 일괄 처리 - 실패 요청은 F 로 남기고 계속 처리")
+  void applyCommands() {
+    //given
+    AccountUser user = AccountUser.builder()
+            .name("Pobi").build();
+    user.setId(12L);
+    Account account = Account.builder()
+            .accountUser(user)
+            .accountStatus(IN_USE)
+            .balance(1000L)
+            .accountNumber("1000000012").build();
+
+    given(accountRepository.findByAccountNumber(anyString()))
+            .willReturn(Optional.of(account));
+    given(transactionLedger.appendAll(anyList()))
+            .willAnswer(invocation -> invocation.getArgument(0));
+
+    //when
+    List<TransactionCommandResult> results = transactionService.applyCommands(
+            "1000000012", List.of(
+                    TransactionCommand.use(12L, 700L),
+                    TransactionCommand.use(12L, 700L),
+                    TransactionCommand.use(12L, 300L)));
+
+    //then
+    verify(transactionLedger, times(1)).appendAll(anyList());
+    assertEquals(0L, account.getBalance());
+    assertTrue(results.get(0).isSuccess());
+    assertEquals(300L, results.get(0).getTransaction().getBalanceSnapshot());
+    assertEquals(AMOUNT_EXCEED_BALANCE, results.get(1).getErrorCode());
+    assertEquals(F, results.get(1).getTransaction().getTransactionResultType());
+    assertEquals(300L, results.get(1).getTransaction().getBalanceSnapshot());
+    assertTrue(results.get(2).isSuccess());
+    assertEquals(0L, results.get(2).getTransaction().getBalanceSnapshot());
+  }
+
+  @Test
+  @DisplayName("해당 계좌 없음 - 일괄 처리 실패")
+  void applyCommands_AccountNotFound() {
+    //given
+    given(accountRepository.findByAccountNumber(anyString()))
+            .willReturn(Optional.empty());
+
+    //when
+    AccountException exception = assertThrows(AccountException.class,
+            () -> transactionService.applyCommands("1000000012",
+                    List.of(TransactionCommand.use(12L, 700L))));
+
+    //then
+    assertEquals(ACCOUNT_NOT_FOUND, exception.getErrorCode());
+    verify(transactionLedger, times(0)).appendAll(anyList());
+  }
+
+  @Test
+  void successUseBalanceAtomic() {
+    //given
+    AccountUser user = AccountUser.builder()
+            .name("Pobi").build();
+    user.setId(12L);
+    //UPDATE 이후에 읽은 잔액
+    Account account = Account.builder()
+            .accountUser(user)
+            .accountStatus(IN_USE)
+            .balance(9800L)
+            .accountNumber("1000000012").build();
+    account.setId(1L);
+
+    given(accountLookupCache.get(anyString()))
+            .willReturn(Optional.of(new AccountLookup(1L, 12L, IN_USE)));
+    given(accountRepository.decreaseBalance(1L, 200L))
+            .willReturn(1);
+    given(accountRepository.findById(1L))
+            .willReturn(Optional.of(account));
+    given(transactionLedger.append(any()))
+            .willAnswer(invocation -> invocation.getArgument(0));
+
+    //when
+    TransactionDto transactionDto = transactionService.useBalanceAtomic(
+            12L, "1000000012", 200L);
+
+    //then
+    assertEquals(S, transactionDto.getTransactionResultType());
+    assertEquals(9800L, transactionDto.getBalanceSnapshot());
+    //잔액은 UPDATE 로만 바꾼다
+    assertEquals(9800L, account.getBalance());
+  }
+
+  @Test
+  void useBalanceAtomic_exceedAmount() {
+    //given
+    AccountUser user = AccountUser.builder()
+            .name("Pobi").build();
+    user.setId(12L);
+    Account account = Account.builder()
+            .accountUser(user)
+            .accountStatus(IN_USE)
+            .balance(100L)
+            .accountNumber("1000000012").build();
+    account.setId(1L);
+
+    given(accountLookupCache.get(anyString()))
+            .willReturn(Optional.of(new AccountLookup(1L, 12L, IN_USE)));
+    given(accountRepository.decreaseBalance(1L, 1000L))
+            .willReturn(0);
+    given(accountRepository.findById(1L))
+            .willReturn(Optional.of(account));
+
+    //when
+    AccountException exception = assertThrows(AccountException.class,
+            () -> transactionService.useBalanceAtomic(12L, "1000000012", 1000L));
+
+    //then
+    assertEquals(AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+    verify(transactionLedger, never()).append(any());
+  }
+
+  @Test
+  void useBalanceAtomic_alreadyUnregistered() {
+    //given
+    //캐시에는 아직 사용 중으로 남아 있는 경우
+    AccountUser user = AccountUser.builder()
+            .name("Pobi").build();
+    user.setId(12L);
+    Account account = Account.builder()
+            .accountUser(user)
+            .accountStatus(AccountStatus.UNREGISTERED)
+            .balance(10000L)
+            .accountNumber("1000000012").build();
+    account.setId(1L);
+
+    given(accountLookupCache.get(anyString()))
+            .willReturn(Optional.of(new AccountLookup(1L, 12L, IN_USE)));
+    given(accountRepository.decreaseBalance(1L, 1000L))
+            .willReturn(0);
+    given(accountRepository.findById(1L))
+            .willReturn(Optional.of(account));
+
+    //when
+    AccountException exception = assertThrows(AccountException.class,
+            () -> transactionService.useBalanceAtomic(12L, "1000000012", 1000L));
+
+    //then
+    assertEquals(ACCOUNT_ALREADY_UNREGISTERED, exception.getErrorCode());
+  }
+
+  @Test
+  void successCancelBalanceAtomic() {
+    //given
+    AccountUser user = AccountUser.builder()
+            .name("Pobi").build();
+    user.setId(12L);
+    Account account = Account.builder()
+            .accountUser(user)
+            .accountStatus(IN_USE)
+            .balance(10200L)
+            .accountNumber("1000000012").build();
+    account.setId(1L);
+    Transaction transaction = Transaction.builder()
+            .account(account)
+            .transactionType(USE)
+            .transactionResultType(S)
+            .transactionId("transactionId")
+            .transactedAt(LocalDateTime.now())
+            .amount(200L)
+            .balanceSnapshot(10000L)
+            .build();
+
+    given(transactionRepository.findByTransactionId("transactionId"))
+            .willReturn(Optional.of(transaction));
+    given(accountLookupCache.get("1000000012"))
+            .willReturn(Optional.of(new AccountLookup(1L, 12L, IN_USE)));
+    given(accountRepository.findById(1L))
+            .willReturn(Optional.of(account));
+    given(transactionLedger.append(any()))
+            .willAnswer(invocation -> invocation.getArgument(0));
+
+    //when
+    TransactionDto transactionDto = transactionService.cancelBalanceAtomic(
+            "transactionId", "1000000012", 200L);
+
+    //then
+    verify(accountRepository).increaseBalance(1L, 200L);
+    assertEquals(CANCEL, transactionDto.getTransactionType());
+    assertEquals(10200L, transactionDto.getBalanceSnapshot());
+  }
+
+  @Test
+  void cancelBalanceAtomic_cancelMustFully() {
+    //given
+    Account account = Account.builder()
+            .accountStatus(IN_USE)
+            .balance(10000L)
+            .accountNumber("1000000012").build();
+    account.setId(1L);
+    Transaction transaction = Transaction.builder()
+            .account(account)
+            .transactionType(USE)
+            .transactionResultType(S)
+            .transactionId("transactionId")
+            .transactedAt(LocalDateTime.now())
+            .amount(1000L)
+            .balanceSnapshot(9000L)
+            .build();
+
+    given(transactionRepository.findByTransactionId("transactionId"))
+            .willReturn(Optional.of(transaction));
+    given(accountLookupCache.get("1000000012"))
+            .willReturn(Optional.of(new AccountLookup(1L, 12L, IN_USE)));
+
+    //when
+    AccountException exception = assertThrows(AccountException.class,
+            () -> transactionService.cancelBalanceAtomic("transactionId", "1000000012", 200L));
+
+    //then
+    assertEquals(CANCEL_MUST_FULLY, exception.getErrorCode());
+    verify(accountRepository, never()).increaseBalance(anyLong(), anyLong());
+  }
+
+  @Test
+  void saveFailedTransactions() {
+    //given
+    Account account = Account.builder()
+            .accountStatus(IN_USE)
+            .balance(100L)
+            .accountNumber("1000000012").build();
+    LocalDateTime failedAt = LocalDateTime.now().minusSeconds(1);
+    given(accountRepository.findByAccountNumberIn(anyCollection()))
+            .willReturn(List.of(account));
+    given(transactionLedger.appendAll(anyList()))
+            .willAnswer(invocation -> invocation.getArgument(0));
+
+    //when
+    transactionService.saveFailedTransactions(List.of(
+            new FailedTransaction(USE, "1000000012", 1000L, failedAt),
+            new FailedTransaction(CANCEL, "1000000099", 200L, failedAt)));
+
+    //then
+    //계좌가 없는 기록은 건너뛴다
+    verify(transactionLedger).appendAll(transactionsCaptor.capture());
+    assertEquals(1, transactionsCaptor.getValue().size());
+    Transaction transaction = transactionsCaptor.getValue().get(0);
+    assertEquals(F, transaction.getTransactionResultType());
+    assertEquals(USE, transaction.getTransactionType());
+    assertEquals(1000L, transaction.getAmount());
+    assertEquals(100L, transaction.getBalanceSnapshot());
+    assertEquals(failedAt, transaction.getTransactedAt());
+  }
+
+  private Account transferAccount(Long id, String accountNumber, Long balance) {
+    AccountUser user = AccountUser.builder()
+            .name("Pobi").build();
+    user.setId(id + 10);
+    Account account = Account.builder()
+            .accountUser(user)
+            .accountStatus(IN_USE)
+            .balance(balance)
+            .accountNumber(accountNumber).build();
+    account.setId(id);
+    return account;
+  }
+
+  @Test
+  void successTransfer() {
+    //given
+    Account from = transferAccount(1L, "1000000001", 10000L);
+    Account to = transferAccount(2L, "1000000002", 5000L);
+    given(accountRepository.findByAccountNumber("1000000001"))
+            .willReturn(Optional.of(from));
+    given(accountRepository.findByAccountNumber("1000000002"))
+            .willReturn(Optional.of(to));
+    given(transactionLedger.append(any()))
+            .willAnswer(returnsFirstArg());
+    ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+
+    //when
+    TransferDto transferDto = transactionService.transfer(
+            11L, "1000000001", "1000000002", 1000L);
+
+    //then
+    //출금/입금 거래를 같은 트랜잭션에서 남긴다
+    verify(transactionLedger, times(2)).append(captor.capture());
+    verify(balanceChangeOutbox, times(2)).record(any());
+    verify(dailySummaryRecorder, times(2)).record(any());
+    assertEquals(TRANSFER_OUT, captor.getAllValues().get(0).getTransactionType());
+    assertEquals(9000L, captor.getAllValues().get(0).getBalanceSnapshot());
+    assertEquals(TRANSFER_IN, captor.getAllValues().get(1).getTransactionType());
+    assertEquals(6000L, captor.getAllValues().get(1).getBalanceSnapshot());
+    assertEquals(9000L, from.getBalance());
+    assertEquals(6000L, to.getBalance());
+    assertEquals("1000000001", transferDto.getWithdrawal().getAccountNumber());
+    assertEquals("1000000002", transferDto.getDeposit().getAccountNumber());
+    assertEquals(S, transferDto.getWithdrawal().getTransactionResultType());
+  }
+
+  @Test
+  @DisplayName("같은 계좌로 이체 - 이체 실패")
+  void transfer_sameAccount() {
+    //given
+    //when
+    AccountException exception = assertThrows(AccountException.class,
+            () -> transactionService.transfer(11L, "1000000001", "1000000001", 1000L));
+
+    //then
+    assertEquals(TRANSFER_TO_SAME_ACCOUNT, exception.getErrorCode());
+    verify(accountRepository, never()).findByAccountNumber(anyString());
+  }
+
+  @Test
+  @DisplayName("출금 계좌 잔액 부족 - 이체 실패")
+  void transfer_exceedAmount() {
+    //given
+    Account from = transferAccount(1L, "1000000001", 100L);
+    Account to = transferAccount(2L, "1000000002", 5000L);
+    given(accountRepository.findByAccountNumber("1000000001"))
+            .willReturn(Optional.of(from));
+    given(accountRepository.findByAccountNumber("1000000002"))
+            .willReturn(Optional.of(to));
+
+    //when
+    AccountException exception = assertThrows(AccountException.class,
+            () -> transactionService.transfer(11L, "1000000001", "1000000002", 1000L));
+
+    //then
+    assertEquals(AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+    assertEquals(5000L, to.getBalance());
+    verify(transactionLedger, never()).append(any());
+  }
+
+  @Test
+  @DisplayName("출금 계좌 소유주 다름 - 이체 실패")
+  void transfer_userUnMatch() {
+    //given
+    Account from = transferAccount(1L, "1000000001", 10000L);
+    Account to = transferAccount(2L, "1000000002", 5000L);
+    given(accountRepository.findByAccountNumber("1000000001"))
+            .willReturn(Optional.of(from));
+    given(accountRepository.findByAccountNumber("1000000002"))
+            .willReturn(Optional.of(to));
+    given(accountUserRepository.findById(12L))
+            .willReturn(Optional.of(to.getAccountUser()));
+
+    //when
+    AccountException exception = assertThrows(AccountException.class,
+            () -> transactionService.transfer(12L, "1000000001", "1000000002", 1000L));
+
+    //then
+    assertEquals(USER_ACCOUNT_UN_MATCH, exception.getErrorCode());
+  }
+
+  @Test
+  @DisplayName("ATOMIC 모드 이체는 계좌번호 순서로 row lock 을 잡는다")
+  void transferForUpdate_locksInAccountNumberOrder() {
+    //given
+    Account from = transferAccount(1L, "1000000009", 10000L);
+    Account to = transferAccount(2L, "1000000001", 5000L);
+    given(accountRepository.findForUpdateByAccountNumber("1000000009"))
+            .willReturn(Optional.of(from));
+    given(accountRepository.findForUpdateByAccountNumber("1000000001"))
+            .willReturn(Optional.of(to));
+    given(transactionLedger.append(any()))
+            .willAnswer(returnsFirstArg());
+
+    //when
+    transactionService.transferForUpdate(11L, "1000000009", "1000000001", 1000L);
+
+    //then
+    InOrder inOrder = inOrder(accountRepository);
+    inOrder.verify(accountRepository).findForUpdateByAccountNumber("1000000001");
+    inOrder.verify(accountRepository).findForUpdateByAccountNumber("1000000009");
+    assertEquals(9000L, from.getBalance());
+    assertEquals(6000L, to.getBalance());
+  }
+
+  @Test
+  @DisplayName("이체 거래는 취소할 수 없음 - 잔액 사용 취소 실패")
+  void cancelTransaction_transferCannotBeCanceled() {
+    //given
+    Account account = transferAccount(1L, "1000000001", 10000L);
+    Transaction transaction = Transaction.builder()
+            .account(account)
+            .transactionType(TRANSFER_OUT)
+            .transactionResultType(S)
+            .transactionId("transactionId")
+            .transactedAt(LocalDateTime.now())
+            .amount(1000L)
+            .balanceSnapshot(9000L)
+            .build();
+    given(transactionRepository.findByTransactionId(anyString()))
+            .willReturn(Optional.of(transaction));
+    given(accountRepository.findByAccountNumber(anyString()))
+            .willReturn(Optional.of(account));
+
+    //when
+    AccountException exception = assertThrows(AccountException.class,
+            () -> transactionService.cancelBalance("transactionId", "1000000001", 1000L));
+
+    //then
+    assertEquals(TRANSFER_CANNOT_BE_CANCELED, exception.getErrorCode());
+    assertEquals(10000L, account.getBalance());
+  }
+}